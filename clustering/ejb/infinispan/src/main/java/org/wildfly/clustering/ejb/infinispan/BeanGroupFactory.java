@@ -43,4 +43,11 @@ public interface BeanGroupFactory<G, I, T> extends Creator<G, BeanGroupEntry<I,
      * @return a bean group
      */
     BeanGroup<G, I, T> createGroup(G id, BeanGroupEntry<I, T> entry);
+
+    /**
+     * Deserializes the beans of the specified group, if present in local memory,
+     * so that a subsequent request need not do so.
+     * @param id a group identifier
+     */
+    void prefetch(G id);
 }
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.notifications.KeyFilter;
+import org.jboss.as.clustering.infinispan.distribution.Locality;
+import org.jboss.as.clustering.infinispan.distribution.Rebalancer;
+
+/**
+ * Reschedules the beans for which the current node became the primary owner following a topology change.
+ * If warm start is enabled, the bean groups referenced by these beans and primarily owned by the current node are also deserialized in the background,
+ * so that the first request for a given bean need not do so.
+ * Bean groups are only ever deserialized as a whole, since the beans of a group may share references.
+ * @param <G> the group identifier type
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class BeanRebalancer<G, I, T> extends Rebalancer<BeanKey<I>> {
+
+    private final Cache<BeanKey<I>, BeanEntry<G>> cache;
+    private final KeyFilter filter;
+    private final BeanGroupFactory<G, I, T> groupFactory;
+    private final Scheduler<I> scheduler;
+    private final boolean warmStart;
+
+    public BeanRebalancer(Cache<BeanKey<I>, BeanEntry<G>> cache, KeyFilter filter, BeanGroupFactory<G, I, T> groupFactory, Scheduler<I> scheduler, boolean warmStart, Executor executor) {
+        super(cache, executor);
+        this.cache = cache;
+        this.filter = filter;
+        this.groupFactory = groupFactory;
+        this.scheduler = scheduler;
+        this.warmStart = warmStart;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected BeanKey<I> getKey(Object key) {
+        // Cache is shared by all beans of a deployment, so ignore keys of other beans and of bean groups
+        return this.filter.accept(key) ? (BeanKey<I>) key : null;
+    }
+
+    @Override
+    protected void rebalance(BeanKey<I> key, Locality locality) {
+        this.scheduler.schedule(key.getId());
+    }
+
+    @Override
+    protected void rebalanced(List<BeanKey<I>> keys, Locality locality) {
+        if (!this.warmStart) return;
+        Cache<BeanKey<I>, BeanEntry<G>> cache = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING);
+        Set<G> groups = new HashSet<>();
+        for (BeanKey<I> key: keys) {
+            if (locality.isLocal(key)) {
+                BeanEntry<G> entry = cache.get(key);
+                if (entry != null) {
+                    G groupId = entry.getGroupId();
+                    if (locality.isLocal(groupId)) {
+                        groups.add(groupId);
+                    }
+                }
+            }
+        }
+        for (G groupId: groups) {
+            if (this.isClosed()) return;
+            this.groupFactory.prefetch(groupId);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.infinispan.affinity.KeyAffinityService;
 import org.infinispan.affinity.KeyGenerator;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.notifications.KeyFilter;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
@@ -42,7 +43,7 @@ import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.distribution.ConsistentHashLocality;
 import org.jboss.as.clustering.infinispan.distribution.Locality;
-import org.jboss.as.clustering.infinispan.distribution.SimpleLocality;
+import org.jboss.as.clustering.infinispan.distribution.Rebalancer;
 import org.jboss.ejb.client.Affinity;
 import org.jboss.ejb.client.ClusterAffinity;
 import org.jboss.ejb.client.NodeAffinity;
@@ -87,6 +88,7 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
     private final PassivationConfiguration<T> passivation;
     private final AtomicInteger passiveCount = new AtomicInteger();
     private volatile Scheduler<I> scheduler;
+    private volatile BeanRebalancer<G, I, T> rebalancer;
     private volatile CommandDispatcher<Scheduler<I>> dispatcher;
 
     public InfinispanBeanManager(InfinispanBeanManagerConfiguration<T> configuration, final Configuration<I, BeanKey<I>, BeanEntry<G>, BeanFactory<G, I, T>> beanConfiguration, final Configuration<G, G, BeanGroupEntry<I, T>, BeanGroupFactory<G, I, T>> groupConfiguration) {
@@ -175,13 +177,18 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
             }
         };
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.beanName + ".schedulers", this.scheduler);
+        // Only a distributed cache can distinguish the bean groups owned by this node
+        boolean warmStart = this.groupCache.getCacheConfiguration().clustering().cacheMode().isDistributed();
+        this.rebalancer = new BeanRebalancer<>(this.beanCache, this, this.groupFactory, this.scheduler, warmStart, this.passivation.getExecutor());
         this.beanCache.addListener(this, this);
-        this.schedule(this.beanCache, new SimpleLocality(false), new ConsistentHashLocality(this.beanCache));
+        DistributionManager dist = this.beanCache.getAdvancedCache().getDistributionManager();
+        this.rebalancer.rebalance(this.beanCache.getCacheManager().getAddress(), null, (dist != null) ? dist.getConsistentHash() : null);
     }
 
     @Override
     public void stop() {
         this.beanCache.removeListener(this);
+        this.rebalancer.close();
         this.dispatcher.close();
         this.scheduler.close();
         for (KeyAffinityService<?> service: this.affinityServices) {
@@ -340,28 +347,18 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T>, Bat
     public void dataRehashed(DataRehashedEvent<BeanKey<I>, BeanEntry<G>> event) {
         Cache<BeanKey<I>, BeanEntry<G>> cache = event.getCache();
         Address localAddress = cache.getCacheManager().getAddress();
-        Locality oldLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtStart());
-        Locality newLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtEnd());
+        ConsistentHash oldHash = event.getConsistentHashAtStart();
+        ConsistentHash newHash = event.getConsistentHashAtEnd();
         if (event.isPre()) {
-            this.scheduler.cancel(newLocality);
-        } else {
-            this.schedule(cache, oldLocality, newLocality);
-        }
-    }
-
-    private void schedule(Cache<BeanKey<I>, BeanEntry<G>> cache, Locality oldLocality, Locality newLocality) {
-        // Iterate over sessions in memory
-        for (Object key: cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING).keySet()) {
-            // Cache may contain non-string keys, so ignore any others
-            if (this.accept(key)) {
-                @SuppressWarnings("unchecked")
-                I id = ((BeanKey<I>) key).getId();
-                // If we are the new primary owner of this session
-                // then schedule expiration of this session locally
-                if (!oldLocality.isLocal(id) && newLocality.isLocal(id)) {
-                    this.scheduler.schedule(id);
-                }
+            // Any rebalance operation still in progress must not schedule keys we are about to lose
+            this.rebalancer.cancel();
+            // Only visit scheduled beans if we are losing primary ownership of any segments
+            if ((oldHash == null) || (newHash == null) || !Rebalancer.getAcquiredSegments(localAddress, newHash, oldHash).isEmpty()) {
+                Locality newLocality = new ConsistentHashLocality(localAddress, newHash);
+                this.scheduler.cancel(newLocality);
             }
+        } else {
+            this.rebalancer.rebalance(localAddress, oldHash, newHash);
         }
     }
 
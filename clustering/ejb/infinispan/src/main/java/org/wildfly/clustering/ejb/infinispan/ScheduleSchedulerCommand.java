@@ -21,13 +21,13 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.AsynchronousCommand;
 
 /**
  * Command that schedules a session.
  * @author Paul Ferraro
  */
-public class ScheduleSchedulerCommand<I> implements Command<Void, Scheduler<I>> {
+public class ScheduleSchedulerCommand<I> implements AsynchronousCommand<Scheduler<I>> {
     private static final long serialVersionUID = -2606847692331278614L;
 
     private final I id;
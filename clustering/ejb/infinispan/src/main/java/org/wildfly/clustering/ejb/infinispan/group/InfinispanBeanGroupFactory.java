@@ -21,6 +21,7 @@
  */
 package org.wildfly.clustering.ejb.infinispan.group;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -85,6 +86,20 @@ public class InfinispanBeanGroupFactory<G, I, T> implements BeanGroupFactory<G,
         this.invoker.invoke(this.cache, new RemoveOperation<G, BeanGroupEntry<I, T>>(id), Flag.IGNORE_RETURN_VALUES);
     }
 
+    @Override
+    public void prefetch(G id) {
+        // Never load from the cache store, nor lock, since this is only an optimization
+        BeanGroupEntry<I, T> entry = this.cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING).get(id);
+        if (entry != null) {
+            try {
+                entry.getBeans().get(this.context);
+            } catch (IOException | ClassNotFoundException e) {
+                // A subsequent request will report this failure
+                InfinispanEjbLogger.ROOT_LOGGER.debugf(e, "Failed to prefetch bean group %s", id);
+            }
+        }
+    }
+
     @Override
     public BeanGroup<G, I, T> createGroup(final G id, final BeanGroupEntry<I, T> entry) {
         Mutator mutator = new BeanGroupMutator<>(this.invoker, this.cache, id, entry);
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ejb.infinispan;
+
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.Executor;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.notifications.KeyFilter;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BeanRebalancerTestCase {
+    private final Cache<BeanKey<String>, BeanEntry<String>> cache = mock(Cache.class);
+    private final AdvancedCache<BeanKey<String>, BeanEntry<String>> advancedCache = mock(AdvancedCache.class);
+    private final KeyFilter filter = mock(KeyFilter.class);
+    private final BeanGroupFactory<String, String, Object> groupFactory = mock(BeanGroupFactory.class);
+    private final Scheduler<String> scheduler = mock(Scheduler.class);
+    private final DataContainer container = mock(DataContainer.class);
+    private final DistributionManager dist = mock(DistributionManager.class);
+    private final Executor executor = mock(Executor.class);
+    private final Address local = mock(Address.class);
+    private final Address remote = mock(Address.class);
+    private final ConsistentHash oldHash = mock(ConsistentHash.class);
+    private final ConsistentHash hash = mock(ConsistentHash.class);
+    private final BeanKey<String> acquiredKey = mock(BeanKey.class);
+    private final BeanKey<String> retainedKey = mock(BeanKey.class);
+    private final BeanEntry<String> acquiredEntry = mock(BeanEntry.class);
+    private final BeanEntry<String> retainedEntry = mock(BeanEntry.class);
+    private final String groupKey = "group";
+    private final String remoteGroupKey = "remote-group";
+
+    @Before
+    public void init() {
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(this.executor).execute(any(Runnable.class));
+
+        when(this.oldHash.getNumSegments()).thenReturn(2);
+        when(this.hash.getNumSegments()).thenReturn(2);
+        when(this.oldHash.locatePrimaryOwnerForSegment(0)).thenReturn(this.local);
+        when(this.oldHash.locatePrimaryOwnerForSegment(1)).thenReturn(this.remote);
+        when(this.hash.locatePrimaryOwnerForSegment(0)).thenReturn(this.local);
+        when(this.hash.locatePrimaryOwnerForSegment(1)).thenReturn(this.local);
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING)).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDataContainer()).thenReturn(this.container);
+        when(this.advancedCache.getDistributionManager()).thenReturn(this.dist);
+        when(this.container.keySet()).thenReturn(new HashSet<Object>(Arrays.asList(this.acquiredKey, this.retainedKey)));
+        when(this.filter.accept(this.acquiredKey)).thenReturn(true);
+        when(this.filter.accept(this.retainedKey)).thenReturn(true);
+        when(this.hash.getSegment(this.acquiredKey)).thenReturn(1);
+        when(this.hash.getSegment(this.retainedKey)).thenReturn(0);
+        when(this.hash.locatePrimaryOwner(this.acquiredKey)).thenReturn(this.local);
+        when(this.oldHash.locatePrimaryOwner(this.acquiredKey)).thenReturn(this.remote);
+        when(this.acquiredKey.getId()).thenReturn("acquired");
+        when(this.retainedKey.getId()).thenReturn("retained");
+        when(this.advancedCache.get(this.acquiredKey)).thenReturn(this.acquiredEntry);
+        when(this.advancedCache.get(this.retainedKey)).thenReturn(this.retainedEntry);
+        when(this.acquiredEntry.getGroupId()).thenReturn(this.groupKey);
+        when(this.retainedEntry.getGroupId()).thenReturn(this.remoteGroupKey);
+        when(this.hash.locatePrimaryOwner(this.groupKey)).thenReturn(this.local);
+        when(this.hash.locatePrimaryOwner(this.remoteGroupKey)).thenReturn(this.remote);
+    }
+
+    @Test
+    public void rebalance() {
+        when(this.dist.getConsistentHash()).thenReturn(this.hash);
+
+        try (BeanRebalancer<String, String, Object> rebalancer = new BeanRebalancer<>(this.cache, this.filter, this.groupFactory, this.scheduler, true, this.executor)) {
+            rebalancer.rebalance(this.local, this.oldHash, this.hash);
+
+            verify(this.scheduler).schedule("acquired");
+            verify(this.scheduler, never()).schedule("retained");
+            verify(this.groupFactory).prefetch(this.groupKey);
+            verify(this.groupFactory, never()).prefetch(this.remoteGroupKey);
+        }
+    }
+
+    @Test
+    public void ownershipLost() {
+        // A subsequent topology change moved the bean back to its previous owner before the rebalance ran
+        when(this.dist.getConsistentHash()).thenReturn(this.oldHash);
+
+        try (BeanRebalancer<String, String, Object> rebalancer = new BeanRebalancer<>(this.cache, this.filter, this.groupFactory, this.scheduler, true, this.executor)) {
+            rebalancer.rebalance(this.local, this.oldHash, this.hash);
+
+            verify(this.scheduler, never()).schedule(anyString());
+            verify(this.groupFactory, never()).prefetch(anyString());
+        }
+    }
+}
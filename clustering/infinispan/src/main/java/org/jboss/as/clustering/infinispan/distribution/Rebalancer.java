@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.distribution;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.infinispan.Cache;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.transport.Address;
+import org.jboss.as.clustering.infinispan.InfinispanLogger;
+
+/**
+ * Processes the keys of a cache for which the current node became the primary owner following a topology change.
+ * Only those segments whose primary ownership moved to the current node are considered.
+ * Matching keys held in local memory are processed in chunks on the supplied executor, so that the topology change itself is not delayed.
+ * The executor is shared with other services, and is therefore never shut down by this object.
+ * <p>
+ * Since chunks run asynchronously, a subsequent topology change may occur before they complete.
+ * Each key is therefore re-checked against the current primary owner immediately before it is processed,
+ * and a rebalance operation is superseded by any subsequent rebalance operation or by {@link #cancel()}.
+ * Keys are processed while holding a shared lock, which {@link #cancel()} acquires exclusively,
+ * so that no key is processed once {@link #cancel()} returns.
+ * @param <K> the type of the keys to process, which must be the keys of the cache
+ */
+public abstract class Rebalancer<K> implements AutoCloseable {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    private final Cache<?, ?> cache;
+    private final Executor executor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger generation = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    protected Rebalancer(Cache<?, ?> cache, Executor executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the key to process for the specified cache key.
+     * @param key a key of the cache
+     * @return the key to process, or null if the specified key should be ignored
+     */
+    protected abstract K getKey(Object key);
+
+    /**
+     * Processes a key for which the current node is the primary owner.
+     * @param key a key
+     * @param locality the current locality of the current node
+     */
+    protected abstract void rebalance(K key, Locality locality);
+
+    /**
+     * Invoked after a chunk of keys was processed, unless the rebalance operation was superseded in the meantime.
+     * @param keys the keys of the chunk, including those no longer owned by the current node
+     * @param locality the current locality of the current node
+     */
+    protected void rebalanced(List<K> keys, Locality locality) {
+        // Do nothing
+    }
+
+    /**
+     * Invoked after all keys of a rebalance operation were processed.
+     * @param nanos the duration of the rebalance operation, in nanoseconds
+     */
+    protected void rebalanced(long nanos) {
+        // Do nothing
+    }
+
+    /**
+     * Indicates whether this rebalancer was closed, in which case any pending processing should be abandoned.
+     * @return true, if this rebalancer was closed, false otherwise
+     */
+    protected boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Supersedes any rebalance operation in progress.
+     * This should be invoked when a topology change begins, before cancelling the processing of keys no longer owned by the current node.
+     */
+    public void cancel() {
+        this.lock.writeLock().lock();
+        try {
+            this.generation.incrementAndGet();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Processes the keys for which the current node became the primary owner.
+     * @param localAddress the address of the current node, or null if the cache is not clustered
+     * @param oldHash the consistent hash prior to the topology change, or null if the current node did not previously own any keys
+     * @param newHash the consistent hash following the topology change, or null if the cache is not distributed
+     */
+    public void rebalance(final Address localAddress, ConsistentHash oldHash, final ConsistentHash newHash) {
+        if ((newHash == null) && (localAddress != null)) {
+            // Cache is clustered, but not distributed, thus there is no primary owner
+            return;
+        }
+        // Supersede any rebalance operation still in progress
+        final int generation = this.generation.incrementAndGet();
+        // If cache is not clustered, all keys are local
+        final BitSet segments = (newHash != null) ? getAcquiredSegments(localAddress, oldHash, newHash) : null;
+        if ((segments != null) && segments.isEmpty()) {
+            InfinispanLogger.ROOT_LOGGER.tracef("No segments of cache %s moved to %s", this.cache.getName(), localAddress);
+            return;
+        }
+        final long start = System.nanoTime();
+        this.executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Rebalancer.this.rebalance(localAddress, segments, newHash, generation, start);
+            }
+        });
+    }
+
+    private void rebalance(Address localAddress, BitSet segments, ConsistentHash hash, int generation, long start) {
+        // Iterate over the keys held in local memory only, and filter them by segment before any lookup
+        // The data container is not partitioned by segment, so the keys of other segments are skipped, but never read
+        List<List<K>> chunks = new ArrayList<>();
+        List<K> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (Object key: this.cache.getAdvancedCache().getDataContainer().keySet()) {
+            if (this.isSuperseded(generation)) return;
+            K result = this.getKey(key);
+            if ((result != null) && ((segments == null) || segments.get(hash.getSegment(key)))) {
+                chunk.add(result);
+                if (chunk.size() == CHUNK_SIZE) {
+                    chunks.add(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        if (chunks.isEmpty()) {
+            this.rebalanced(System.nanoTime() - start);
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger(chunks.size());
+        for (List<K> keys: chunks) {
+            this.executor.execute(new RebalanceTask(keys, localAddress, generation, remaining, start));
+        }
+    }
+
+    private boolean isSuperseded(int generation) {
+        return this.closed || (this.generation.get() != generation);
+    }
+
+    /**
+     * Returns the locality of the current node according to the current topology of the cache.
+     */
+    private Locality getCurrentLocality(Address localAddress) {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        return new ConsistentHashLocality(localAddress, (dist != null) ? dist.getConsistentHash() : null);
+    }
+
+    /**
+     * Returns the set of segments for which the specified node is the primary owner according to the new hash, but not according to the old hash.
+     * @param localAddress the address of a node
+     * @param oldHash the consistent hash prior to a topology change, or null if the specified node did not previously own any keys
+     * @param newHash the consistent hash following a topology change
+     * @return a set of segments
+     */
+    public static BitSet getAcquiredSegments(Address localAddress, ConsistentHash oldHash, ConsistentHash newHash) {
+        int segments = newHash.getNumSegments();
+        BitSet result = new BitSet(segments);
+        for (int segment = 0; segment < segments; ++segment) {
+            if (localAddress.equals(newHash.locatePrimaryOwnerForSegment(segment))) {
+                if ((oldHash == null) || (segment >= oldHash.getNumSegments()) || !localAddress.equals(oldHash.locatePrimaryOwnerForSegment(segment))) {
+                    result.set(segment);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        // Pending tasks observe this flag and complete without processing
+        this.closed = true;
+    }
+
+    private class RebalanceTask implements Runnable {
+        private final List<K> keys;
+        private final Address localAddress;
+        private final int generation;
+        private final AtomicInteger remaining;
+        private final long start;
+
+        RebalanceTask(List<K> keys, Address localAddress, int generation, AtomicInteger remaining, long start) {
+            this.keys = keys;
+            this.localAddress = localAddress;
+            this.generation = generation;
+            this.remaining = remaining;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            boolean completed = false;
+            try {
+                completed = this.rebalance();
+            } finally {
+                if ((this.remaining.decrementAndGet() == 0) && completed) {
+                    Rebalancer.this.rebalanced(System.nanoTime() - this.start);
+                }
+            }
+        }
+
+        private boolean rebalance() {
+            Locality locality = Rebalancer.this.getCurrentLocality(this.localAddress);
+            for (K key: this.keys) {
+                Rebalancer.this.lock.readLock().lock();
+                try {
+                    if (Rebalancer.this.isSuperseded(this.generation)) return false;
+                    // Ownership may have moved again since this rebalance operation started
+                    if (locality.isLocal(key)) {
+                        Rebalancer.this.rebalance(key, locality);
+                    }
+                } finally {
+                    Rebalancer.this.lock.readLock().unlock();
+                }
+            }
+            if (Rebalancer.this.isSuperseded(this.generation)) return false;
+            Rebalancer.this.rebalanced(this.keys, locality);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.persistence;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+
+/**
+ * A cache store that retains entries in off-heap memory, in their serialized form, up to a configurable number of bytes.
+ * When this limit is exceeded, the least recently used entries are discarded.
+ * Consequently, this store is only intended to be used in front of a durable store, e.g. to retain passivated entries,
+ * so that their activation need not access the durable store.
+ * Each entry occupies a direct buffer whose capacity is rounded up to a power of two.
+ * Buffers released by deleted, replaced or discarded entries are pooled by capacity and reused by subsequent writes,
+ * so that a direct buffer is only allocated when no pooled buffer of the required capacity is available.
+ * Pooled buffers count against the maximum size, and are released to the garbage collector before any entry is discarded.
+ * @param <K> the cache key type
+ * @param <V> the cache value type
+ */
+public class OffHeapStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+
+    static final int MIN_CAPACITY = 16;
+
+    // Ordered by access, guarded by itself
+    private final Map<K, java.nio.ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Released buffers, indexed by the base 2 logarithm of their capacity, guarded by this.entries
+    @SuppressWarnings("unchecked")
+    private final Deque<java.nio.ByteBuffer>[] pool = new Deque[Integer.SIZE];
+    private final AtomicLong evictions = new AtomicLong();
+    private long size = 0; // guarded by this.entries
+    private long pooledSize = 0; // guarded by this.entries
+
+    private volatile InitializationContext context;
+    private volatile long maxSize;
+
+    public OffHeapStore() {
+        for (int i = 0; i < this.pool.length; ++i) {
+            this.pool[i] = new ArrayDeque<>();
+        }
+    }
+
+    @Override
+    public void init(InitializationContext context) {
+        this.context = context;
+        OffHeapStoreConfiguration configuration = context.getConfiguration();
+        this.maxSize = configuration.maxSize();
+    }
+
+    @Override
+    public void start() {
+        // Do nothing
+    }
+
+    @Override
+    public void stop() {
+        this.clear();
+    }
+
+    @Override
+    public void write(MarshalledEntry<K, V> entry) {
+        K key = entry.getKey();
+        ByteBuffer value = entry.getValueBytes();
+        ByteBuffer metaData = entry.getMetadataBytes();
+        int valueLength = (value != null) ? value.getLength() : 0;
+        int metaDataLength = (metaData != null) ? metaData.getLength() : 0;
+        int capacity = capacity(8 + valueLength + metaDataLength);
+        if ((capacity <= 0) || (capacity > this.maxSize)) {
+            // Entry will never fit, rely on durable store
+            this.delete(key);
+            return;
+        }
+        java.nio.ByteBuffer buffer = null;
+        synchronized (this.entries) {
+            buffer = this.reserve(capacity);
+        }
+        if (buffer == null) {
+            // No pooled buffer of the required capacity, but the reservation leaves room for a new one
+            buffer = java.nio.ByteBuffer.allocateDirect(capacity);
+        }
+        buffer.clear();
+        buffer.putInt(valueLength);
+        if (valueLength > 0) {
+            buffer.put(value.getBuf(), value.getOffset(), valueLength);
+        }
+        buffer.putInt(metaDataLength);
+        if (metaDataLength > 0) {
+            buffer.put(metaData.getBuf(), metaData.getOffset(), metaDataLength);
+        }
+        buffer.flip();
+        synchronized (this.entries) {
+            java.nio.ByteBuffer old = this.entries.put(key, buffer);
+            if (old != null) {
+                this.release(old);
+            }
+        }
+    }
+
+    /**
+     * Reserves the specified capacity, discarding pooled buffers and least recently used entries as necessary.
+     * Must be called while holding the lock on {@link #entries}.
+     * @param capacity a buffer capacity
+     * @return a pooled buffer of the specified capacity, or null, if a new buffer should be allocated
+     */
+    private java.nio.ByteBuffer reserve(int capacity) {
+        Deque<java.nio.ByteBuffer> buffers = this.pool[index(capacity)];
+        while (true) {
+            java.nio.ByteBuffer buffer = buffers.poll();
+            if (buffer != null) {
+                this.pooledSize -= capacity;
+                this.size += capacity;
+                return buffer;
+            }
+            if (this.size + this.pooledSize + capacity <= this.maxSize) {
+                this.size += capacity;
+                return null;
+            }
+            if (this.pooledSize > 0) {
+                this.discardPooledBuffer();
+            } else {
+                // Since capacity <= maxSize, there must be at least one entry to discard
+                Iterator<java.nio.ByteBuffer> entries = this.entries.values().iterator();
+                java.nio.ByteBuffer eldest = entries.next();
+                entries.remove();
+                this.release(eldest);
+                this.evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the specified buffer to the pool.
+     * Must be called while holding the lock on {@link #entries}.
+     */
+    private void release(java.nio.ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        this.pool[index(capacity)].push(buffer);
+        this.size -= capacity;
+        this.pooledSize += capacity;
+    }
+
+    /**
+     * Releases the largest pooled buffer to the garbage collector.
+     * Must be called while holding the lock on {@link #entries}.
+     */
+    private void discardPooledBuffer() {
+        for (int i = this.pool.length - 1; i >= 0; --i) {
+            java.nio.ByteBuffer buffer = this.pool[i].poll();
+            if (buffer != null) {
+                this.pooledSize -= buffer.capacity();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the buffer capacity used to store the specified number of bytes, i.e. the next power of two.
+     * @return a buffer capacity, or a non-positive number, if the specified length exceeds the maximum capacity of a buffer
+     */
+    static int capacity(int length) {
+        return (length <= MIN_CAPACITY) ? MIN_CAPACITY : Integer.highestOneBit(length - 1) << 1;
+    }
+
+    private static int index(int capacity) {
+        return Integer.numberOfTrailingZeros(capacity);
+    }
+
+    @Override
+    public MarshalledEntry<K, V> load(Object key) {
+        ByteBuffer value = null;
+        ByteBuffer metaData = null;
+        synchronized (this.entries) {
+            java.nio.ByteBuffer buffer = this.entries.get(key);
+            if (buffer == null) return null;
+            // Copy while holding the lock, since the buffer is reused once its entry is removed
+            // Use a duplicate, so that concurrent reads do not share a position
+            buffer = buffer.duplicate();
+            value = this.read(buffer);
+            metaData = this.read(buffer);
+        }
+        MarshalledEntry<K, V> entry = this.context.getMarshalledEntryFactory().newMarshalledEntry(key, value, metaData);
+        InternalMetadata metadata = (metaData != null) ? entry.getMetadata() : null;
+        if ((metadata != null) && metadata.isExpired(this.context.getTimeService().wallClockTime())) {
+            this.delete(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private ByteBuffer read(java.nio.ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return this.context.getByteBufferFactory().newByteBuffer(bytes, 0, length);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        synchronized (this.entries) {
+            return this.entries.containsKey(key);
+        }
+    }
+
+    @Override
+    public boolean delete(Object key) {
+        synchronized (this.entries) {
+            java.nio.ByteBuffer buffer = this.entries.remove(key);
+            if (buffer != null) {
+                this.release(buffer);
+            }
+            return buffer != null;
+        }
+    }
+
+    @Override
+    public void process(KeyFilter<K> filter, CacheLoaderTask<K, V> task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+        SimpleTaskContext context = new SimpleTaskContext();
+        for (K key: this.keys()) {
+            if (context.isStopped()) return;
+            if ((filter == null) || filter.shouldLoadKey(key)) {
+                MarshalledEntry<K, V> entry = this.load(key);
+                if (entry != null) {
+                    try {
+                        task.processEntry(entry, context);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+            for (Deque<java.nio.ByteBuffer> buffers: this.pool) {
+                buffers.clear();
+            }
+            this.size = 0;
+            this.pooledSize = 0;
+        }
+    }
+
+    @Override
+    public void purge(Executor executor, PurgeListener listener) {
+        for (K key: this.keys()) {
+            // Expired entries are removed on load
+            if (this.contains(key) && (this.load(key) == null) && (listener != null)) {
+                listener.entryPurged(key);
+            }
+        }
+    }
+
+    private List<K> keys() {
+        synchronized (this.entries) {
+            return new ArrayList<>(this.entries.keySet());
+        }
+    }
+
+    /**
+     * Returns the number of bytes of off-heap memory currently occupied by the entries of this store.
+     * This excludes pooled buffers, which are not currently in use.
+     * @return a number of bytes
+     */
+    public long getUsedSize() {
+        synchronized (this.entries) {
+            return this.size;
+        }
+    }
+
+    /**
+     * Returns the number of entries discarded in order to honor the configured maximum size.
+     * @return a number of evictions
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    private static class SimpleTaskContext implements TaskContext {
+        private volatile boolean stopped = false;
+
+        @Override
+        public void stop() {
+            this.stopped = true;
+        }
+
+        @Override
+        public boolean isStopped() {
+            return this.stopped;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.persistence;
+
+import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
+
+/**
+ * Builds the configuration of an {@link OffHeapStore}.
+ */
+public class OffHeapStoreConfigurationBuilder extends AbstractStoreConfigurationBuilder<OffHeapStoreConfiguration, OffHeapStoreConfigurationBuilder> {
+
+    private long maxSize = 0;
+
+    public OffHeapStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
+        super(builder);
+    }
+
+    /**
+     * Sets the maximum number of bytes of off-heap memory used by this store.
+     * @param maxSize a number of bytes
+     * @return this builder
+     */
+    public OffHeapStoreConfigurationBuilder maxSize(long maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @Override
+    public OffHeapStoreConfiguration create() {
+        return new OffHeapStoreConfiguration(this.purgeOnStartup, this.fetchPersistentState, this.ignoreModifications, this.async.create(), this.singletonStore.create(), this.preload, this.shared, this.properties, this.maxSize);
+    }
+
+    @Override
+    public OffHeapStoreConfigurationBuilder read(OffHeapStoreConfiguration template) {
+        this.maxSize = template.maxSize();
+        this.purgeOnStartup = template.purgeOnStartup();
+        this.fetchPersistentState = template.fetchPersistentState();
+        this.ignoreModifications = template.ignoreModifications();
+        this.async.read(template.async());
+        this.singletonStore.read(template.singletonStore());
+        this.preload = template.preload();
+        this.shared = template.shared();
+        this.properties = template.properties();
+        return this;
+    }
+
+    @Override
+    public OffHeapStoreConfigurationBuilder self() {
+        return this;
+    }
+}
@@ -42,6 +42,7 @@ public enum Attribute {
     BACKUP_FAILURE_POLICY(ModelKeys.BACKUP_FAILURE_POLICY),
     BATCH_SIZE(ModelKeys.BATCH_SIZE),
     BATCHING(ModelKeys.BATCHING),
+    BATCH_WINDOW(ModelKeys.BATCH_WINDOW),
     CACHE(ModelKeys.CACHE),
     CHUNK_SIZE(ModelKeys.CHUNK_SIZE),
     CLASS(ModelKeys.CLASS),
@@ -70,6 +71,7 @@ public enum Attribute {
     LOCK_TIMEOUT(ModelKeys.LOCK_TIMEOUT),
     LOCKING(ModelKeys.LOCKING),
     MACHINE(ModelKeys.MACHINE),
+    MAX_BATCH_SIZE(ModelKeys.MAX_BATCH_SIZE),
     MAX_ENTRIES(ModelKeys.MAX_ENTRIES),
     MAX_IDLE(ModelKeys.MAX_IDLE),
     MODE(ModelKeys.MODE),
@@ -77,6 +79,7 @@ public enum Attribute {
     MODULE(ModelKeys.MODULE),
     NAME(ModelKeys.NAME),
     NAMESPACE(XMLConstants.XMLNS_ATTRIBUTE),
+    OFF_HEAP_SIZE(ModelKeys.OFF_HEAP_SIZE),
     OUTBOUND_SOCKET_BINDING(ModelKeys.OUTBOUND_SOCKET_BINDING),
     OWNERS(ModelKeys.OWNERS),
     PASSIVATION(ModelKeys.PASSIVATION),
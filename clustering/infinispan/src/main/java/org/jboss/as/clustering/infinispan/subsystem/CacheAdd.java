@@ -65,6 +65,7 @@ import org.infinispan.transaction.tm.BatchModeTransactionManager;
 import org.infinispan.util.concurrent.IsolationLevel;
 import org.jboss.as.clustering.infinispan.CacheContainer;
 import org.jboss.as.clustering.infinispan.InfinispanLogger;
+import org.jboss.as.clustering.infinispan.persistence.OffHeapStoreConfigurationBuilder;
 import org.jboss.as.clustering.msc.AsynchronousService;
 import org.jboss.as.clustering.naming.BinderServiceBuilder;
 import org.jboss.as.clustering.naming.JndiNameFactory;
@@ -493,10 +494,18 @@ public abstract class CacheAdd extends AbstractAddStepHandler {
             final boolean singleton = StoreResourceDefinition.SINGLETON.resolveModelAttribute(context, store).asBoolean();
             // TODO Fix me
             final boolean async = store.hasDefined(ModelKeys.WRITE_BEHIND) && store.get(ModelKeys.WRITE_BEHIND, ModelKeys.WRITE_BEHIND_NAME).isDefined();
+            final boolean offHeap = store.hasDefined(ModelKeys.OFF_HEAP_STORE) && store.get(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME).isDefined();
 
             PersistenceConfigurationBuilder persistenceBuilder = builder.persistence()
                     .passivation(passivation)
             ;
+            if (offHeap && passivation) {
+                // Retain passivated entries in direct memory, in front of the durable store
+                ModelNode offHeapStore = store.get(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME);
+                persistenceBuilder.addStore(OffHeapStoreConfigurationBuilder.class)
+                        .maxSize(StoreOffHeapResourceDefinition.OFF_HEAP_SIZE.resolveModelAttribute(context, offHeapStore).asLong())
+                ;
+            }
             StoreConfigurationBuilder<?, ?> storeBuilder = this.buildCacheStore(context, persistenceBuilder, containerName, store, storeKey, dependencies)
                     .fetchPersistentState(fetchState)
                     .preload(preload)
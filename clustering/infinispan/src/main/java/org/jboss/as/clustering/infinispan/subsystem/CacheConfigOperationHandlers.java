@@ -26,6 +26,7 @@ import static org.jboss.as.clustering.infinispan.subsystem.EvictionResourceDefin
 import static org.jboss.as.clustering.infinispan.subsystem.ExpirationResourceDefinition.EXPIRATION_ATTRIBUTES;
 import static org.jboss.as.clustering.infinispan.subsystem.LockingResourceDefinition.LOCKING_ATTRIBUTES;
 import static org.jboss.as.clustering.infinispan.subsystem.StateTransferResourceDefinition.STATE_TRANSFER_ATTRIBUTES;
+import static org.jboss.as.clustering.infinispan.subsystem.StoreOffHeapResourceDefinition.OFF_HEAP_STORE_ATTRIBUTES;
 import static org.jboss.as.clustering.infinispan.subsystem.StoreWriteBehindResourceDefinition.WRITE_BEHIND_ATTRIBUTES;
 import static org.jboss.as.clustering.infinispan.subsystem.TransactionResourceDefinition.TRANSACTION_ATTRIBUTES;
 import static org.jboss.as.clustering.infinispan.subsystem.TransportResourceDefinition.TRANSPORT_ATTRIBUTES;
@@ -64,6 +65,7 @@ public class CacheConfigOperationHandlers {
 
     static final OperationStepHandler STORE_ADD = new CacheStoreAdd();
     static final OperationStepHandler STORE_WRITE_BEHIND_ADD = new CacheConfigAdd(WRITE_BEHIND_ATTRIBUTES);
+    static final OperationStepHandler STORE_OFF_HEAP_ADD = new CacheConfigAdd(OFF_HEAP_STORE_ATTRIBUTES);
     static final OperationStepHandler STORE_PROPERTY_ADD = new CacheConfigAdd(new AttributeDefinition[]{StorePropertyResourceDefinition.VALUE});
     static final OperationStepHandler FILE_STORE_ADD = new FileCacheStoreAdd();
     static final OperationStepHandler STRING_KEYED_JDBC_STORE_ADD = new StringKeyedJDBCCacheStoreAdd();
@@ -40,6 +40,7 @@ import org.infinispan.manager.EmbeddedCacheManager;
 import org.jboss.as.clustering.infinispan.CacheContainer;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactoryService;
 import org.jboss.as.clustering.jgroups.ChannelFactory;
+import org.jboss.as.clustering.jgroups.DispatcherConfiguration;
 import org.jboss.as.clustering.jgroups.subsystem.ChannelFactoryService;
 import org.jboss.as.clustering.jgroups.subsystem.ChannelInstanceResourceDefinition;
 import org.jboss.as.clustering.jgroups.subsystem.ChannelService;
@@ -72,6 +73,8 @@ import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.ValueService;
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.msc.value.InjectedValue;
 import org.jgroups.Channel;
 import org.wildfly.clustering.spi.ClusterServiceInstaller;
@@ -193,6 +196,8 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
                 clusterName = resolvedValue.asString();
             }
             long lockTimeout = TransportResourceDefinition.LOCK_TIMEOUT.resolveModelAttribute(context, transport).asLong();
+            long batchWindow = TransportResourceDefinition.BATCH_WINDOW.resolveModelAttribute(context, transport).asLong();
+            int maxBatchSize = TransportResourceDefinition.MAX_BATCH_SIZE.resolveModelAttribute(context, transport).asInt();
             if ((resolvedValue = TransportResourceDefinition.EXECUTOR.resolveModelAttribute(context, transport)).isDefined()) {
                 transportExecutor = resolvedValue.asString();
             }
@@ -201,7 +206,7 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
             transportConfig.setClusterName(clusterName);
             transportConfig.setLockTimeout(lockTimeout);
 
-            controllers.addAll(this.installChannelServices(target, name, stack, verificationHandler));
+            controllers.addAll(this.installChannelServices(target, name, stack, batchWindow, maxBatchSize, verificationHandler));
 
             // register the protocol metrics by adding a step
             ChannelInstanceResourceDefinition.addChannelProtocolMetricsRegistrationStep(context, clusterName, stack);
@@ -262,6 +267,7 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
 
             context.removeService(createChannelBinding(containerName).getBinderServiceName());
             context.removeService(ChannelService.getServiceName(containerName));
+            context.removeService(ChannelService.getDispatcherConfigurationServiceName(containerName));
         } else {
             removeServices(context, LocalServiceInstaller.class, containerName);
         }
@@ -294,7 +300,7 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
         ;
     }
 
-    Collection<ServiceController<?>> installChannelServices(ServiceTarget target, String containerName, String stack, ServiceVerificationHandler verificationHandler) {
+    Collection<ServiceController<?>> installChannelServices(ServiceTarget target, String containerName, String stack, final long batchWindow, final int maxBatchSize, ServiceVerificationHandler verificationHandler) {
 
         ContextNames.BindInfo bindInfo = createChannelBinding(containerName);
         ServiceName name = ChannelService.getServiceName(containerName);
@@ -305,7 +311,23 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
                 .install()
         ;
 
-        return Arrays.asList(binderService, channelService);
+        DispatcherConfiguration dispatcherConfiguration = new DispatcherConfiguration() {
+            @Override
+            public long getBatchWindow() {
+                return batchWindow;
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+        };
+        ServiceController<?> dispatcherConfigurationService = target.addService(ChannelService.getDispatcherConfigurationServiceName(containerName), new ValueService<>(new ImmediateValue<>(dispatcherConfiguration)))
+                .setInitialMode(ServiceController.Mode.ON_DEMAND)
+                .install()
+        ;
+
+        return Arrays.asList(binderService, channelService, dispatcherConfigurationService);
     }
 
     PathAddress getCacheContainerAddressFromOperation(ModelNode operation) {
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 
 import org.infinispan.Cache;
 import org.infinispan.eviction.ActivationManager;
@@ -34,9 +35,11 @@ import org.infinispan.interceptors.InvalidationInterceptor;
 import org.infinispan.interceptors.PassivationInterceptor;
 import org.infinispan.interceptors.TxInterceptor;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.remoting.rpc.RpcManagerImpl;
 import org.infinispan.util.concurrent.locks.LockManagerImpl;
 import org.jboss.as.clustering.infinispan.InfinispanLogger;
+import org.jboss.as.clustering.infinispan.persistence.OffHeapStore;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -93,7 +96,10 @@ public class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
         // ActivationInterceptor
         ACTIVATIONS(CacheResourceDefinition.ACTIVATIONS),
         CACHE_LOADER_LOADS(StoreResourceDefinition.CACHE_LOADER_LOADS),
-        CACHE_LOADER_MISSES(StoreResourceDefinition.CACHE_LOADER_MISSES);
+        CACHE_LOADER_MISSES(StoreResourceDefinition.CACHE_LOADER_MISSES),
+        // OffHeapStore
+        OFF_HEAP_EVICTIONS(StoreOffHeapResourceDefinition.OFF_HEAP_EVICTIONS),
+        OFF_HEAP_USED_SIZE(StoreOffHeapResourceDefinition.OFF_HEAP_USED_SIZE);
 
         private static final Map<String, CacheMetrics> MAP = new HashMap<>();
 
@@ -124,6 +130,7 @@ public class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
         // we have to be careful here, as we use the same handler for varying operation paths
         // /subsystem=infinispan/cache-container=*/local-cache=*
         // /subsystem=infinispan/cache-container=*/local-cache=*/file-store=FILE_STORE
+        // /subsystem=infinispan/cache-container=*/local-cache=*/file-store=FILE_STORE/off-heap-store=OFF_HEAP_STORE
         final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
         int containerIndex = getCacheContainerIndex(address);
         final String cacheContainerName = address.getElement(containerIndex).getValue();
@@ -285,12 +292,34 @@ public class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
                     result.set(interceptor != null ? interceptor.getCacheLoaderMisses() : 0);
                     break;
                 }
+                case OFF_HEAP_EVICTIONS: {
+                    long evictions = 0;
+                    for (OffHeapStore<?, ?> store: getOffHeapStores(cache)) {
+                        evictions += store.getEvictions();
+                    }
+                    result.set(evictions);
+                    break;
+                }
+                case OFF_HEAP_USED_SIZE: {
+                    long size = 0;
+                    for (OffHeapStore<?, ?> store: getOffHeapStores(cache)) {
+                        size += store.getUsedSize();
+                    }
+                    result.set(size);
+                    break;
+                }
             }
             context.getResult().set(result);
         }
         context.completeStep(OperationContext.ResultHandler.NOOP_RESULT_HANDLER);
     }
 
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static Set<OffHeapStore<?, ?>> getOffHeapStores(Cache<?, ?> cache) {
+        PersistenceManager manager = cache.getAdvancedCache().getComponentRegistry().getComponent(PersistenceManager.class);
+        return (manager != null) ? (Set) manager.getStores(OffHeapStore.class) : Collections.<OffHeapStore<?, ?>>emptySet();
+    }
+
     /*
      * Return the index of the PathElement corresponding to cache-container
      */
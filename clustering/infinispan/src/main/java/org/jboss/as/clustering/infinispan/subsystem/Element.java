@@ -58,6 +58,7 @@ public enum Element {
     INDEXING(ModelKeys.INDEXING),
     LOCAL_CACHE(ModelKeys.LOCAL_CACHE),
     LOCKING(ModelKeys.LOCKING),
+    OFF_HEAP_STORE(ModelKeys.OFF_HEAP_STORE),
     PROPERTY(ModelKeys.PROPERTY),
     @Deprecated REHASHING("rehashing"),
     REMOTE_SERVER(ModelKeys.REMOTE_SERVER),
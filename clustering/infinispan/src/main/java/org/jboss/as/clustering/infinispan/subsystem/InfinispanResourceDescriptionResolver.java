@@ -168,6 +168,7 @@ public class InfinispanResourceDescriptionResolver extends StandardResourceDescr
         sharedAttributeResolver.put(ModelKeys.BINARY_KEYED_JDBC_STORE, null);
         sharedAttributeResolver.put(ModelKeys.MIXED_KEYED_JDBC_STORE, null);
         sharedAttributeResolver.put(ModelKeys.WRITE_BEHIND, null);
+        sharedAttributeResolver.put(ModelKeys.OFF_HEAP_STORE, null);
         sharedAttributeResolver.put(ModelKeys.PROPERTY, null);
         sharedAttributeResolver.put(ModelKeys.BACKUP_FOR, null);
     }
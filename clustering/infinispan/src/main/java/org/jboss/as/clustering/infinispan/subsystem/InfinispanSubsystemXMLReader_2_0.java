@@ -44,6 +44,7 @@ import org.jboss.staxmapper.XMLExtendedStreamReader;
 
 /**
  * Infinispan subsystem parsing code.
+ * Also parses the 3.0 schema, which only adds the off-heap-store element and the batching attributes of the transport.
  *
  * @author Paul Ferraro
  * @author Richard Achmatowicz
@@ -204,6 +205,20 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     TransportResourceDefinition.LOCK_TIMEOUT.parseAndSetParameter(value, transport, reader);
                     break;
                 }
+                case BATCH_WINDOW: {
+                    if (!Namespace.forUri(reader.getNamespaceURI()).since(Namespace.INFINISPAN_3_0)) {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                    TransportResourceDefinition.BATCH_WINDOW.parseAndSetParameter(value, transport, reader);
+                    break;
+                }
+                case MAX_BATCH_SIZE: {
+                    if (!Namespace.forUri(reader.getNamespaceURI()).since(Namespace.INFINISPAN_3_0)) {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                    TransportResourceDefinition.MAX_BATCH_SIZE.parseAndSetParameter(value, transport, reader);
+                    break;
+                }
                 default: {
                     throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -798,6 +813,10 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     parseStoreWriteBehind(reader, store, additionalConfigurationOperations);
                     break;
                 }
+                case OFF_HEAP_STORE: {
+                    parseStoreOffHeap(reader, store, additionalConfigurationOperations);
+                    break;
+                }
                 default: {
                     this.parseStoreProperty(reader, store, additionalConfigurationOperations);
                 }
@@ -868,6 +887,10 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     parseStoreWriteBehind(reader, store, additionalConfigurationOperations);
                     break;
                 }
+                case OFF_HEAP_STORE: {
+                    parseStoreOffHeap(reader, store, additionalConfigurationOperations);
+                    break;
+                }
                 default: {
                     this.parseStoreProperty(reader, store, additionalConfigurationOperations);
                 }
@@ -917,6 +940,10 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     parseStoreWriteBehind(reader, store, additionalConfigurationOperations);
                     break;
                 }
+                case OFF_HEAP_STORE: {
+                    parseStoreOffHeap(reader, store, additionalConfigurationOperations);
+                    break;
+                }
                 default: {
                     this.parseStoreProperty(reader, store, additionalConfigurationOperations);
                 }
@@ -970,6 +997,10 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     parseStoreWriteBehind(reader, store, additionalConfigurationOperations);
                     break;
                 }
+                case OFF_HEAP_STORE: {
+                    parseStoreOffHeap(reader, store, additionalConfigurationOperations);
+                    break;
+                }
                 case PROPERTY: {
                     parseStoreProperty(reader, store, additionalConfigurationOperations);
                     break;
@@ -1088,6 +1119,10 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
                     parseStoreWriteBehind(reader, store, operations);
                     break;
                 }
+                case OFF_HEAP_STORE: {
+                    parseStoreOffHeap(reader, store, operations);
+                    break;
+                }
                 case PROPERTY: {
                     parseStoreProperty(reader, store, operations);
                     break;
@@ -1131,6 +1166,36 @@ public final class InfinispanSubsystemXMLReader_2_0 implements XMLElementReader<
         operations.add(writeBehind);
     }
 
+    private void parseStoreOffHeap(XMLExtendedStreamReader reader, ModelNode store, List<ModelNode> operations) throws XMLStreamException {
+        // off-heap-store was introduced in 3.0
+        if (!Namespace.forUri(reader.getNamespaceURI()).since(Namespace.INFINISPAN_3_0)) {
+            throw ParseUtils.unexpectedElement(reader);
+        }
+
+        PathAddress offHeapAddress = PathAddress.pathAddress(store.get(OP_ADDR)).append(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME);
+        ModelNode offHeap = Util.createAddOperation(offHeapAddress);
+        final Set<Attribute> required = EnumSet.of(Attribute.OFF_HEAP_SIZE);
+
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String value = reader.getAttributeValue(i);
+            Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case OFF_HEAP_SIZE: {
+                    StoreOffHeapResourceDefinition.OFF_HEAP_SIZE.parseAndSetParameter(value, offHeap, reader);
+                    break;
+                }
+                default:
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw ParseUtils.missingRequired(reader, required);
+        }
+        ParseUtils.requireNoContent(reader);
+        operations.add(offHeap);
+    }
+
     private void parseStoreProperty(XMLExtendedStreamReader reader, ModelNode node, final List<ModelNode> operations) throws XMLStreamException {
 
         int attributes = reader.getAttributeCount();
@@ -74,6 +74,8 @@ public class InfinispanSubsystemXMLWriter implements XMLElementWriter<SubsystemM
                     TransportResourceDefinition.CLUSTER.marshallAsAttribute(transport,false,  writer);
                     TransportResourceDefinition.EXECUTOR.marshallAsAttribute(transport,false,  writer);
                     TransportResourceDefinition.LOCK_TIMEOUT.marshallAsAttribute(transport,false,  writer);
+                    TransportResourceDefinition.BATCH_WINDOW.marshallAsAttribute(transport, false, writer);
+                    TransportResourceDefinition.MAX_BATCH_SIZE.marshallAsAttribute(transport, false, writer);
                     writer.writeEndElement();
                 }
 
@@ -358,6 +360,12 @@ public class InfinispanSubsystemXMLWriter implements XMLElementWriter<SubsystemM
             StoreWriteBehindResourceDefinition.THREAD_POOL_SIZE.marshallAsAttribute(writeBehind, writer);
             writer.writeEndElement();
         }
+        if (store.get(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME).isDefined()) {
+            ModelNode offHeapStore = store.get(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME);
+            writer.writeStartElement(Element.OFF_HEAP_STORE.getLocalName());
+            StoreOffHeapResourceDefinition.OFF_HEAP_SIZE.marshallAsAttribute(offHeapStore, writer);
+            writer.writeEndElement();
+        }
         if (store.hasDefined(ModelKeys.PROPERTY)) {
             // the format of the property elements
             //  "property" => {
@@ -29,6 +29,7 @@ import org.jboss.as.clustering.infinispan.InfinispanLogger;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SubsystemRegistration;
 import org.jboss.as.controller.transform.TransformationContext;
 import org.jboss.as.controller.transform.description.AttributeConverter;
@@ -45,6 +46,10 @@ import org.jboss.dmr.ModelNode;
  */
 public class InfinispanTransformers {
 
+    // transport attributes batch-window and max-batch-size are discarded if undefined or set to their defaults, and rejected otherwise
+    private static final DiscardAttributeChecker BATCH_WINDOW_DISCARD_CHECKER = new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0L));
+    private static final DiscardAttributeChecker MAX_BATCH_SIZE_DISCARD_CHECKER = new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(100));
+
     /**
      * Register the transformers for transforming from current to earlier management api versions.
      *
@@ -63,6 +68,8 @@ public class InfinispanTransformers {
      * - expression support was added to most attributes in 1.4, except for CLUSTER, DEFAULT_CACHE and MODE for which it was already enabled in 1.3
      * - attribute STATISTICS was added in 2.0
      * - shared state cache children backup and backup-for are rejected
+     * - store child off-heap-store was added in 3.0, and is rejected
+     * - transport attributes BATCH_WINDOW and MAX_BATCH_SIZE were added in 3.0
      * <p/>
      * Chaining of transformers is used in cases where two transformers are required for the same operation.
      *
@@ -87,6 +94,9 @@ public class InfinispanTransformers {
         cacheContainerBuilder.addChildResource(TransportResourceDefinition.TRANSPORT_PATH)
                 .getAttributeBuilder()
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, InfinispanRejectedExpressions_1_3.REJECT_TRANSPORT_ATTRIBUTES)
+                .setDiscard(BATCH_WINDOW_DISCARD_CHECKER, TransportResourceDefinition.BATCH_WINDOW)
+                .setDiscard(MAX_BATCH_SIZE_DISCARD_CHECKER, TransportResourceDefinition.MAX_BATCH_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TransportResourceDefinition.BATCH_WINDOW, TransportResourceDefinition.MAX_BATCH_SIZE)
                 .end();
 
         final ResourceTransformationDescriptionBuilder localCacheBuilder = cacheContainerBuilder.addChildResource(LocalCacheResourceDefinition.LOCAL_CACHE_PATH)
@@ -303,6 +313,8 @@ public class InfinispanTransformers {
                         RejectAttributeChecker.SIMPLE_EXPRESSIONS,
                         StoreWriteBehindResourceDefinition.FLUSH_LOCK_TIMEOUT, StoreWriteBehindResourceDefinition.MODIFICATION_QUEUE_SIZE, StoreWriteBehindResourceDefinition.SHUTDOWN_TIMEOUT, StoreWriteBehindResourceDefinition.THREAD_POOL_SIZE)
                 .end();
+
+        parent.rejectChildResource(StoreOffHeapResourceDefinition.STORE_OFF_HEAP_PATH);
     }
 
     static void setMapValues(Map<String, RejectAttributeChecker> map, RejectAttributeChecker checker, AttributeDefinition... defs) {
@@ -316,6 +328,8 @@ public class InfinispanTransformers {
      * - use of the VIRTUAL_NODES attribute was again allowed in 1.4.1, with a value conversion applied
      * - attribute STATISTICS was added in 2.0
      * - shared state cache children backup and backup-for are rejected
+     * - store child off-heap-store was added in 3.0, and is rejected
+     * - transport attributes BATCH_WINDOW and MAX_BATCH_SIZE were added in 3.0
      *
      * @param subsystem the subsystems registration
      */
@@ -352,6 +366,7 @@ public class InfinispanTransformers {
                 .setValueConverter(VirtualNodesCheckerAndConverter.INSTANCE, DistributedCacheResourceDefinition.VIRTUAL_NODES)
                 .addRename(DistributedCacheResourceDefinition.VIRTUAL_NODES, DistributedCacheResourceDefinition.SEGMENTS.getName())
                 .end();
+        registerTransportTransformations(cacheContainerBuilder);
         registerCacheTransformations(distributedCacheBuilder, CacheMode.DIST_SYNC);
         registerCacheTransformations(cacheContainerBuilder.addChildResource(ReplicatedCacheResourceDefinition.REPLICATED_CACHE_PATH), CacheMode.REPL_SYNC);
         registerCacheTransformations(cacheContainerBuilder.addChildResource(InvalidationCacheResourceDefinition.INVALIDATION_CACHE_PATH), CacheMode.INVALIDATION_SYNC);
@@ -364,6 +379,8 @@ public class InfinispanTransformers {
      * Register the transformers for transforming from current to 1.4.0 management api version, including:
      * - attribute STATISTICS was added in 2.0
      * - shared state cache children backup and backup-for are rejected
+     * - store child off-heap-store was added in 3.0, and is rejected
+     * - transport attributes BATCH_WINDOW and MAX_BATCH_SIZE were added in 3.0
      * @param subsystem the subsystems registration
      */
     private static void registerTransformers141(final SubsystemRegistration subsystem) {
@@ -375,6 +392,7 @@ public class InfinispanTransformers {
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, CacheResourceDefinition.STATISTICS_ENABLED)
                 .addRejectCheck(new RejectAttributeChecker.SimpleRejectAttributeChecker(new ModelNode(false)), CacheResourceDefinition.STATISTICS_ENABLED)
                 .end();
+        registerTransportTransformations(containerBuilder);
         registerCacheTransformations(containerBuilder.addChildResource(DistributedCacheResourceDefinition.DISTRIBUTED_CACHE_PATH), CacheMode.DIST_SYNC);
         registerCacheTransformations(containerBuilder.addChildResource(ReplicatedCacheResourceDefinition.REPLICATED_CACHE_PATH), CacheMode.REPL_SYNC);
         registerCacheTransformations(containerBuilder.addChildResource(InvalidationCacheResourceDefinition.INVALIDATION_CACHE_PATH), CacheMode.INVALIDATION_SYNC);
@@ -384,7 +402,18 @@ public class InfinispanTransformers {
     }
 
     /**
-     * Registers cache transformations for model changes introduced in 2.0.0
+     * Registers transport transformations for model changes introduced in 3.0.0
+     */
+    private static void registerTransportTransformations(final ResourceTransformationDescriptionBuilder containerBuilder) {
+        containerBuilder.addChildResource(TransportResourceDefinition.TRANSPORT_PATH).getAttributeBuilder()
+                .setDiscard(BATCH_WINDOW_DISCARD_CHECKER, TransportResourceDefinition.BATCH_WINDOW)
+                .setDiscard(MAX_BATCH_SIZE_DISCARD_CHECKER, TransportResourceDefinition.MAX_BATCH_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TransportResourceDefinition.BATCH_WINDOW, TransportResourceDefinition.MAX_BATCH_SIZE)
+                .end();
+    }
+
+    /**
+     * Registers cache transformations for model changes introduced in 2.0.0 and 3.0.0
      */
     private static void registerCacheTransformations(final ResourceTransformationDescriptionBuilder cacheBuilder, CacheMode mode) {
         cacheBuilder.getAttributeBuilder()
@@ -393,18 +422,17 @@ public class InfinispanTransformers {
             .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, CacheResourceDefinition.STATISTICS_ENABLED)
             .addRejectCheck(new RejectAttributeChecker.SimpleRejectAttributeChecker(new ModelNode(false)), CacheResourceDefinition.STATISTICS_ENABLED)
         ;
-        cacheBuilder.addChildResource(BinaryKeyedJDBCStoreResourceDefinition.BINARY_KEYED_JDBC_STORE_PATH).getAttributeBuilder()
-                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(), JDBCStoreResourceDefinition.DIALECT)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, JDBCStoreResourceDefinition.DIALECT)
-        ;
-        cacheBuilder.addChildResource(StringKeyedJDBCStoreResourceDefinition.STRING_KEYED_JDBC_STORE_PATH).getAttributeBuilder()
-                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(), JDBCStoreResourceDefinition.DIALECT)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, JDBCStoreResourceDefinition.DIALECT)
-        ;
-        cacheBuilder.addChildResource(MixedKeyedJDBCStoreResourceDefinition.MIXED_KEYED_JDBC_STORE_PATH).getAttributeBuilder()
-                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(), JDBCStoreResourceDefinition.DIALECT)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, JDBCStoreResourceDefinition.DIALECT)
-        ;
+        for (PathElement path: new PathElement[] { BinaryKeyedJDBCStoreResourceDefinition.BINARY_KEYED_JDBC_STORE_PATH, StringKeyedJDBCStoreResourceDefinition.STRING_KEYED_JDBC_STORE_PATH, MixedKeyedJDBCStoreResourceDefinition.MIXED_KEYED_JDBC_STORE_PATH }) {
+            ResourceTransformationDescriptionBuilder storeBuilder = cacheBuilder.addChildResource(path);
+            storeBuilder.getAttributeBuilder()
+                    .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(), JDBCStoreResourceDefinition.DIALECT)
+                    .addRejectCheck(RejectAttributeChecker.DEFINED, JDBCStoreResourceDefinition.DIALECT)
+            ;
+            storeBuilder.rejectChildResource(StoreOffHeapResourceDefinition.STORE_OFF_HEAP_PATH);
+        }
+        for (PathElement path: new PathElement[] { FileStoreResourceDefinition.FILE_STORE_PATH, CustomStoreResourceDefinition.STORE_PATH, RemoteStoreResourceDefinition.REMOTE_STORE_PATH }) {
+            cacheBuilder.addChildResource(path).rejectChildResource(StoreOffHeapResourceDefinition.STORE_OFF_HEAP_PATH);
+        }
         if (mode.isReplicated() || mode.isDistributed()) {
             cacheBuilder.rejectChildResource(BackupSiteResourceDefinition.BACKUP_PATH);
             cacheBuilder.rejectChildResource(BackupForResourceDefinition.BACKUP_FOR_PATH);
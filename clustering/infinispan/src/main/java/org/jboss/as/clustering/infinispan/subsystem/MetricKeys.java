@@ -68,6 +68,9 @@ public class MetricKeys {
     public static final String CACHE_LOADER_LOADS = "cache-loader-loads";
     public static final String CACHE_LOADER_MISSES = "cache-loader-misses";
     public static final String CACHE_LOADER_STORES = "cache-loader-stores";
+    // off-heap store
+    public static final String OFF_HEAP_EVICTIONS = "off-heap-evictions";
+    public static final String OFF_HEAP_USED_SIZE = "off-heap-used-size";
 
     public static final String JOIN_COMPLETE = "join-complete";
     public static final String STATE_TRANSFER_IN_PROGRESS = "state-transfer-in-progress";
@@ -39,6 +39,7 @@ public class ModelKeys {
     static final String BACKUPS = "backups";
     static final String BATCH_SIZE = "batch-size";
     static final String BATCHING = "batching";
+    static final String BATCH_WINDOW = "batch-window";
     static final String BINARY_KEYED_TABLE = "binary-keyed-table";
     static final String BINARY_KEYED_TABLE_NAME = "BINARY_KEYED_TABLE";
     static final String BRING_SITE_ONLINE = "bring-site-online";
@@ -94,12 +95,16 @@ public class ModelKeys {
     static final String LOCKING = "locking";
     static final String LOCKING_NAME = "LOCKING";
     static final String MACHINE = "machine";
+    static final String MAX_BATCH_SIZE = "max-batch-size";
     static final String MAX_ENTRIES = "max-entries";
     static final String MAX_IDLE = "max-idle";
     static final String MODE = "mode";
     static final String MODIFICATION_QUEUE_SIZE = "modification-queue-size";
     static final String MODULE = "module";
     static final String NAME = "name";
+    static final String OFF_HEAP_SIZE = "off-heap-size";
+    static final String OFF_HEAP_STORE = "off-heap-store";
+    static final String OFF_HEAP_STORE_NAME = "OFF_HEAP_STORE";
     static final String OUTBOUND_SOCKET_BINDING = "outbound-socket-binding";
     static final String OWNERS = "owners";
     static final String PASSIVATION = "passivation";
@@ -22,7 +22,9 @@
 
 package org.jboss.as.clustering.infinispan.subsystem;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
@@ -42,13 +44,15 @@ public enum Namespace {
     INFINISPAN_1_4(1, 4, new InfinispanSubsystemXMLReader_1_4()),
 
     INFINISPAN_2_0(2, 0, new InfinispanSubsystemXMLReader_2_0()),
+    // 3.0 only adds the off-heap-store element and the transport batching attributes, which the 2.0 reader parses for this namespace only
+    INFINISPAN_3_0(3, 0, new InfinispanSubsystemXMLReader_2_0()),
     ;
     private static final String URN_PATTERN = "urn:jboss:domain:%s:%d.%d";
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = INFINISPAN_2_0;
+    public static final Namespace CURRENT = INFINISPAN_3_0;
 
     private final int major;
     private final int minor;
@@ -72,4 +76,32 @@ public enum Namespace {
     public XMLElementReader<List<ModelNode>> getXMLReader() {
         return this.reader;
     }
+
+    /**
+     * Indicates whether this namespace is the same as, or newer than, the specified namespace.
+     *
+     * @param namespace a namespace
+     * @return true, if this namespace is at least as recent as the specified namespace, false otherwise
+     */
+    public boolean since(Namespace namespace) {
+        return this.ordinal() >= namespace.ordinal();
+    }
+
+    private static final Map<String, Namespace> MAP;
+
+    static {
+        final Map<String, Namespace> map = new HashMap<>();
+        for (Namespace namespace : values()) {
+            final String uri = namespace.getUri();
+            if (uri != null) {
+                map.put(uri, namespace);
+            }
+        }
+        MAP = map;
+    }
+
+    public static Namespace forUri(String uri) {
+        final Namespace namespace = MAP.get(uri);
+        return (namespace != null) ? namespace : UNKNOWN;
+    }
 }
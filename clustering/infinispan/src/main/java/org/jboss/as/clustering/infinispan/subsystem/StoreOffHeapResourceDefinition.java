@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Resource description for the addressable resource
+ *
+ *    /subsystem=infinispan/cache-container=X/cache=Y/store=Z/off-heap-store=OFF_HEAP_STORE
+ *
+ * Retains passivated entries in direct memory, in front of the parent store.
+ *
+ * @author Paul Ferraro
+ */
+public class StoreOffHeapResourceDefinition extends SimpleResourceDefinition {
+
+    public static final PathElement STORE_OFF_HEAP_PATH = PathElement.pathElement(ModelKeys.OFF_HEAP_STORE, ModelKeys.OFF_HEAP_STORE_NAME);
+
+    // attributes
+    static final SimpleAttributeDefinition OFF_HEAP_SIZE = new SimpleAttributeDefinitionBuilder(ModelKeys.OFF_HEAP_SIZE, ModelType.LONG, false)
+            .setXmlName(Attribute.OFF_HEAP_SIZE.getLocalName())
+            .setAllowExpression(true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setValidator(new LongRangeValidator(1, false, true))
+            .build()
+    ;
+
+    static final AttributeDefinition[] OFF_HEAP_STORE_ATTRIBUTES = { OFF_HEAP_SIZE };
+
+    // metrics
+    static final AttributeDefinition OFF_HEAP_EVICTIONS = new SimpleAttributeDefinitionBuilder(MetricKeys.OFF_HEAP_EVICTIONS, ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition OFF_HEAP_USED_SIZE = new SimpleAttributeDefinitionBuilder(MetricKeys.OFF_HEAP_USED_SIZE, ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.BYTES).setStorageRuntime().build();
+
+    static final AttributeDefinition[] OFF_HEAP_STORE_METRICS = { OFF_HEAP_EVICTIONS, OFF_HEAP_USED_SIZE };
+
+    public StoreOffHeapResourceDefinition() {
+        super(STORE_OFF_HEAP_PATH,
+                InfinispanExtension.getResourceDescriptionResolver(ModelKeys.OFF_HEAP_STORE),
+                CacheConfigOperationHandlers.STORE_OFF_HEAP_ADD,
+                ReloadRequiredRemoveStepHandler.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        final OperationStepHandler writeHandler = new ReloadRequiredWriteAttributeHandler(OFF_HEAP_STORE_ATTRIBUTES);
+        for (AttributeDefinition attr : OFF_HEAP_STORE_ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
+        }
+
+        for (AttributeDefinition attr : OFF_HEAP_STORE_METRICS) {
+            resourceRegistration.registerMetric(attr, CacheMetricsHandler.INSTANCE);
+        }
+    }
+}
@@ -136,6 +136,7 @@ public class StoreResourceDefinition extends SimpleResourceDefinition {
         super.registerChildren(resourceRegistration);
         // child resources
         resourceRegistration.registerSubModel(new StoreWriteBehindResourceDefinition());
+        resourceRegistration.registerSubModel(new StoreOffHeapResourceDefinition());
         resourceRegistration.registerSubModel(new StorePropertyResourceDefinition());
     }
 
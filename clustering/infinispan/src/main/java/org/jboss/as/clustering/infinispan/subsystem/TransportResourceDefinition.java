@@ -31,6 +31,7 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
@@ -46,6 +47,15 @@ public class TransportResourceDefinition extends SimpleResourceDefinition {
     public static final PathElement TRANSPORT_PATH = PathElement.pathElement(ModelKeys.TRANSPORT, ModelKeys.TRANSPORT_NAME);
 
     // attributes
+    // batching of asynchronous commands is disabled by default
+    static final SimpleAttributeDefinition BATCH_WINDOW = new SimpleAttributeDefinitionBuilder(ModelKeys.BATCH_WINDOW, ModelType.LONG, true)
+            .setXmlName(Attribute.BATCH_WINDOW.getLocalName())
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setAllowExpression(true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setDefaultValue(new ModelNode().set(0L))
+            .build()
+    ;
     static final SimpleAttributeDefinition CLUSTER = new SimpleAttributeDefinitionBuilder(ModelKeys.CLUSTER, ModelType.STRING, true)
             .setXmlName(Attribute.CLUSTER.getLocalName())
             .setAllowExpression(true)
@@ -66,6 +76,14 @@ public class TransportResourceDefinition extends SimpleResourceDefinition {
             .setDefaultValue(new ModelNode().set(240000))
             .build()
     ;
+    static final SimpleAttributeDefinition MAX_BATCH_SIZE = new SimpleAttributeDefinitionBuilder(ModelKeys.MAX_BATCH_SIZE, ModelType.INT, true)
+            .setXmlName(Attribute.MAX_BATCH_SIZE.getLocalName())
+            .setAllowExpression(true)
+            .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode().set(100))
+            .build()
+    ;
     // if stack is null, use default stack
     static final SimpleAttributeDefinition STACK = new SimpleAttributeDefinitionBuilder(ModelKeys.STACK, ModelType.STRING, true)
             .setXmlName(Attribute.STACK.getLocalName())
@@ -74,7 +92,7 @@ public class TransportResourceDefinition extends SimpleResourceDefinition {
             .build()
     ;
 
-    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = { STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT };
+    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = { STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT, BATCH_WINDOW, MAX_BATCH_SIZE };
 
     public TransportResourceDefinition() {
         super(TRANSPORT_PATH,
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.distribution;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.BitSet;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Test;
+
+public class RebalancerTestCase {
+
+    @Test
+    public void getAcquiredSegments() {
+        Address local = mock(Address.class);
+        Address remote = mock(Address.class);
+        ConsistentHash oldHash = mock(ConsistentHash.class);
+        ConsistentHash newHash = mock(ConsistentHash.class);
+
+        when(oldHash.getNumSegments()).thenReturn(4);
+        when(newHash.getNumSegments()).thenReturn(4);
+
+        when(oldHash.locatePrimaryOwnerForSegment(0)).thenReturn(local);
+        when(oldHash.locatePrimaryOwnerForSegment(1)).thenReturn(remote);
+        when(oldHash.locatePrimaryOwnerForSegment(2)).thenReturn(local);
+        when(oldHash.locatePrimaryOwnerForSegment(3)).thenReturn(remote);
+
+        when(newHash.locatePrimaryOwnerForSegment(0)).thenReturn(local);
+        when(newHash.locatePrimaryOwnerForSegment(1)).thenReturn(local);
+        when(newHash.locatePrimaryOwnerForSegment(2)).thenReturn(remote);
+        when(newHash.locatePrimaryOwnerForSegment(3)).thenReturn(remote);
+
+        BitSet acquired = Rebalancer.getAcquiredSegments(local, oldHash, newHash);
+        assertEquals(1, acquired.cardinality());
+        assertTrue(acquired.get(1));
+
+        BitSet released = Rebalancer.getAcquiredSegments(local, newHash, oldHash);
+        assertEquals(1, released.cardinality());
+        assertTrue(released.get(2));
+
+        BitSet initial = Rebalancer.getAcquiredSegments(local, null, newHash);
+        assertEquals(2, initial.cardinality());
+        assertTrue(initial.get(0));
+        assertTrue(initial.get(1));
+
+        assertTrue(Rebalancer.getAcquiredSegments(remote, newHash, newHash).isEmpty());
+    }
+}
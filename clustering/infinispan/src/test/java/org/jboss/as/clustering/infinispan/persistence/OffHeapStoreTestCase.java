@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.infinispan.persistence;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.junit.Test;
+
+public class OffHeapStoreTestCase {
+
+    @Test
+    public void test() {
+        InitializationContext context = mock(InitializationContext.class);
+        OffHeapStoreConfiguration configuration = mock(OffHeapStoreConfiguration.class);
+
+        when(context.<OffHeapStoreConfiguration>getConfiguration()).thenReturn(configuration);
+        // Room for 2 entries with a 10 byte value, each of which occupies a 32 byte buffer
+        when(configuration.maxSize()).thenReturn(64L);
+
+        OffHeapStore<String, Object> store = new OffHeapStore<>();
+        store.init(context);
+        store.start();
+
+        store.write(createEntry("a", 10));
+        store.write(createEntry("b", 10));
+
+        assertTrue(store.contains("a"));
+        assertTrue(store.contains("b"));
+        assertEquals(2, store.size());
+        assertEquals(64L, store.getUsedSize());
+
+        // Least recently written entry is discarded
+        store.write(createEntry("c", 10));
+
+        assertFalse(store.contains("a"));
+        assertTrue(store.contains("b"));
+        assertTrue(store.contains("c"));
+        assertEquals(1L, store.getEvictions());
+
+        // Entry that can never fit is not retained
+        store.write(createEntry("d", 100));
+
+        assertFalse(store.contains("d"));
+        assertEquals(2, store.size());
+
+        assertTrue(store.delete("b"));
+        assertFalse(store.delete("b"));
+        assertEquals(32L, store.getUsedSize());
+
+        // Buffer released by the deleted entry is reused
+        store.write(createEntry("e", 12));
+
+        assertTrue(store.contains("c"));
+        assertTrue(store.contains("e"));
+        assertEquals(64L, store.getUsedSize());
+        assertEquals(1L, store.getEvictions());
+
+        // Pooled buffers are discarded before entries, if an entry requires a buffer of a different capacity
+        assertTrue(store.delete("e"));
+        store.write(createEntry("f", 1));
+
+        assertTrue(store.contains("c"));
+        assertTrue(store.contains("f"));
+        assertEquals(48L, store.getUsedSize());
+        assertEquals(1L, store.getEvictions());
+
+        store.stop();
+
+        assertEquals(0, store.size());
+        assertEquals(0L, store.getUsedSize());
+    }
+
+    @Test
+    public void capacity() {
+        assertEquals(OffHeapStore.MIN_CAPACITY, OffHeapStore.capacity(1));
+        assertEquals(OffHeapStore.MIN_CAPACITY, OffHeapStore.capacity(OffHeapStore.MIN_CAPACITY));
+        assertEquals(32, OffHeapStore.capacity(17));
+        assertEquals(32, OffHeapStore.capacity(32));
+        assertEquals(64, OffHeapStore.capacity(33));
+    }
+
+    private static MarshalledEntry<String, Object> createEntry(String key, int length) {
+        MarshalledEntry<String, Object> entry = mock(MarshalledEntry.class);
+        ByteBuffer value = mock(ByteBuffer.class);
+        when(entry.getKey()).thenReturn(key);
+        when(entry.getValueBytes()).thenReturn(value);
+        when(value.getBuf()).thenReturn(new byte[length]);
+        when(value.getOffset()).thenReturn(0);
+        when(value.getLength()).thenReturn(length);
+        return entry;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.jgroups;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes statistics of the remote invocations made via a channel.
+ */
+public interface DispatcherStatistics {
+
+    /**
+     * Returns the number of messages sent by this dispatcher, including batches of coalesced asynchronous invocations.
+     * @return a number of messages
+     */
+    long getRpcCount();
+
+    /**
+     * Returns the average duration of synchronous invocations, i.e. those awaiting a response.
+     * @param unit the unit of the result
+     * @return an average round trip time
+     */
+    long getAverageRpcLatency(TimeUnit unit);
+
+    /**
+     * Returns the number of messages containing coalesced asynchronous invocations.
+     * @return a number of batches
+     */
+    long getBatchCount();
+
+    /**
+     * Returns the average number of asynchronous invocations coalesced per batch.
+     * @return an average batch size
+     */
+    double getAverageBatchSize();
+}
@@ -46,6 +46,7 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -127,9 +128,27 @@ public class ChannelInstanceResourceDefinition extends SimpleResourceDefinition
             new SimpleAttributeDefinitionBuilder(MetricKeys.VIEW, ModelType.STRING, true)
                     .setStorageRuntime()
                     .build();
+    static final SimpleAttributeDefinition RPC_COUNT =
+            new SimpleAttributeDefinitionBuilder(MetricKeys.RPC_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    static final SimpleAttributeDefinition AVERAGE_RPC_LATENCY =
+            new SimpleAttributeDefinitionBuilder(MetricKeys.AVERAGE_RPC_LATENCY, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                    .setStorageRuntime()
+                    .build();
+    static final SimpleAttributeDefinition RPC_BATCH_COUNT =
+            new SimpleAttributeDefinitionBuilder(MetricKeys.RPC_BATCH_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    static final SimpleAttributeDefinition AVERAGE_RPC_BATCH_SIZE =
+            new SimpleAttributeDefinitionBuilder(MetricKeys.AVERAGE_RPC_BATCH_SIZE, ModelType.DOUBLE, true)
+                    .setStorageRuntime()
+                    .build();
 
     static final AttributeDefinition[] CHANNEL_METRICS = {ADDRESS, ADDRESS_AS_UUID, DISCARD_OWN_MESSAGES, NUM_TASKS_IN_TIMER,
-            NUM_TIMER_THREADS, RECEIVED_BYTES, RECEIVED_MESSAGES, SENT_BYTES, SENT_MESSAGES, STATE, STATS_ENABLED, VERSION, VIEW};
+            NUM_TIMER_THREADS, RECEIVED_BYTES, RECEIVED_MESSAGES, SENT_BYTES, SENT_MESSAGES, STATE, STATS_ENABLED, VERSION, VIEW,
+            RPC_COUNT, AVERAGE_RPC_LATENCY, RPC_BATCH_COUNT, AVERAGE_RPC_BATCH_SIZE};
 
     public ChannelInstanceResourceDefinition(String channelName, boolean runtimeRegistration) {
 
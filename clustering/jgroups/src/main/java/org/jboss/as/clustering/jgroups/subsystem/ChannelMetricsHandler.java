@@ -26,7 +26,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.jboss.as.clustering.jgroups.DispatcherStatistics;
 import org.jboss.as.clustering.jgroups.logging.JGroupsLogger;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -60,7 +62,11 @@ public class ChannelMetricsHandler extends AbstractRuntimeOnlyHandler {
         STATE(ChannelInstanceResourceDefinition.STATE),
         STATS_ENABLED(ChannelInstanceResourceDefinition.STATS_ENABLED),
         VERSION(ChannelInstanceResourceDefinition.VERSION),
-        VIEW(ChannelInstanceResourceDefinition.VIEW);
+        VIEW(ChannelInstanceResourceDefinition.VIEW),
+        RPC_COUNT(ChannelInstanceResourceDefinition.RPC_COUNT),
+        AVERAGE_RPC_LATENCY(ChannelInstanceResourceDefinition.AVERAGE_RPC_LATENCY),
+        RPC_BATCH_COUNT(ChannelInstanceResourceDefinition.RPC_BATCH_COUNT),
+        AVERAGE_RPC_BATCH_SIZE(ChannelInstanceResourceDefinition.AVERAGE_RPC_BATCH_SIZE);
 
         private static final Map<String, ChannelMetrics> MAP = new HashMap<String, ChannelMetrics>();
 
@@ -109,6 +115,7 @@ public class ChannelMetricsHandler extends AbstractRuntimeOnlyHandler {
             // when the cache service is not available, return a null result
         } else {
             JChannel channel = (JChannel) controller.getValue();
+            DispatcherStatistics statistics = getDispatcherStatistics(context, channelName);
             switch (metric) {
                 case ADDRESS:
                     result.set(channel.getAddressAsString());
@@ -149,9 +156,27 @@ public class ChannelMetricsHandler extends AbstractRuntimeOnlyHandler {
                 case VIEW:
                     result.set(channel.getViewAsString());
                     break;
+                case RPC_COUNT:
+                    result.set((statistics != null) ? statistics.getRpcCount() : 0L);
+                    break;
+                case AVERAGE_RPC_LATENCY:
+                    result.set((statistics != null) ? statistics.getAverageRpcLatency(TimeUnit.MICROSECONDS) : 0L);
+                    break;
+                case RPC_BATCH_COUNT:
+                    result.set((statistics != null) ? statistics.getBatchCount() : 0L);
+                    break;
+                case AVERAGE_RPC_BATCH_SIZE:
+                    result.set((statistics != null) ? statistics.getAverageBatchSize() : 0d);
+                    break;
             }
             context.getResult().set(result);
         }
         context.completeStep(OperationContext.ResultHandler.NOOP_RESULT_HANDLER);
     }
+
+    private static DispatcherStatistics getDispatcherStatistics(OperationContext context, String channelName) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(ChannelService.getDispatcherStatisticsServiceName(channelName));
+        Object value = (controller != null) ? controller.getValue() : null;
+        return (value instanceof DispatcherStatistics) ? (DispatcherStatistics) value : null;
+    }
 }
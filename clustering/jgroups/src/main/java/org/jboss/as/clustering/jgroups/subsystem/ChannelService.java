@@ -55,6 +55,25 @@ public class ChannelService implements Service<Channel>, ChannelListener {
         return SERVICE_NAME.append(id);
     }
 
+    /**
+     * Returns the name of the service providing the {@link org.jboss.as.clustering.jgroups.DispatcherStatistics} of the specified channel, if any.
+     * This is deliberately not a child of the channel service name, which would otherwise be mistaken for a channel.
+     * @param id a channel name
+     * @return a service name
+     */
+    public static ServiceName getDispatcherStatisticsServiceName(String id) {
+        return ServiceName.JBOSS.append(JGroupsExtension.SUBSYSTEM_NAME, "dispatcher", id);
+    }
+
+    /**
+     * Returns the name of the service providing the {@link org.jboss.as.clustering.jgroups.DispatcherConfiguration} of the specified channel.
+     * @param id a channel name
+     * @return a service name
+     */
+    public static ServiceName getDispatcherConfigurationServiceName(String id) {
+        return getDispatcherStatisticsServiceName(id).append("configuration");
+    }
+
     public static ServiceBuilder<Channel> build(ServiceTarget target, String id, String stack) {
         ChannelService service = new ChannelService(id);
         return target.addService(getServiceName(id), service)
@@ -29,12 +29,16 @@ package org.jboss.as.clustering.jgroups.subsystem;
 public class MetricKeys {
     public static final String ADDRESS = "address" ;
     public static final String ADDRESS_AS_UUID = "address-as-uuid" ;
+    public static final String AVERAGE_RPC_BATCH_SIZE = "average-rpc-batch-size" ;
+    public static final String AVERAGE_RPC_LATENCY = "average-rpc-latency" ;
     public static final String CHANNEL = "channel" ;
     public static final String DISCARD_OWN_MESSAGES  = "discard-own-messages" ;
     public static final String NUM_TASKS_IN_TIMER = "num-tasks-in-timer" ;
     public static final String NUM_TIMER_THREADS = "num-timer-threads" ;
     public static final String RECEIVED_BYTES = "received-bytes" ;
     public static final String RECEIVED_MESSAGES = "received-messages" ;
+    public static final String RPC_BATCH_COUNT = "rpc-batch-count" ;
+    public static final String RPC_COUNT = "rpc-count" ;
     public static final String SENT_BYTES = "sent-bytes" ;
     public static final String SENT_MESSAGES = "sent-messages" ;
     public static final String STATE = "state" ;
@@ -22,14 +22,18 @@
 package org.wildfly.clustering.server.dispatcher;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -41,14 +45,21 @@ import org.jgroups.blocks.RequestOptions;
 import org.jgroups.blocks.ResponseMode;
 import org.jgroups.blocks.RspFilter;
 import org.jgroups.util.Rsp;
+import org.wildfly.clustering.dispatcher.AsynchronousCommand;
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandResponse;
 import org.wildfly.clustering.group.Node;
 import org.wildfly.clustering.group.NodeFactory;
+import org.wildfly.clustering.server.logging.ClusteringServerLogger;
 
 /**
  * MessageDispatcher-based command dispatcher.
+ * {@link AsynchronousCommand}s destined for the same remote node within the configured batch window are coalesced into a single message,
+ * which is sent without waiting for a response.
+ * Asynchronous commands are sent as regular messages, so that each node receives them in the order they were dispatched.
+ * Any pending asynchronous commands for a node are sent before a subsequent synchronous command to that node,
+ * in which case the synchronous command is also sent as a regular message, so that it cannot overtake them.
  * @author Paul Ferraro
  *
  * @param <C> command execution context
@@ -72,20 +83,43 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
     private final NodeFactory<Address> factory;
     private final long timeout;
     private final CommandDispatcher<C> localDispatcher;
+    private final ScheduledExecutorService batchExecutor;
+    private final long batchWindow;
+    private final int maxBatchSize;
+    private final CommandDispatcherStatistics statistics;
+    // Pending asynchronous commands per destination
+    private final Map<Address, List<AsynchronousCommand<C>>> batches = new HashMap<>();
+    // Serializes the removal and sending of pending batches, so that batches are sent in the order they were formed
+    private final Object sendLock = new Object();
 
     public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, NodeFactory<Address> factory, long timeout, CommandDispatcher<C> localDispatcher) {
+        this(dispatcher, marshaller, factory, timeout, localDispatcher, null, 0, 0, new CommandDispatcherStatistics());
+    }
+
+    public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, NodeFactory<Address> factory, long timeout, CommandDispatcher<C> localDispatcher, ScheduledExecutorService batchExecutor, long batchWindow, int maxBatchSize, CommandDispatcherStatistics statistics) {
         this.dispatcher = dispatcher;
         this.marshaller = marshaller;
         this.factory = factory;
         this.timeout = timeout;
         this.localDispatcher = localDispatcher;
+        this.batchExecutor = batchExecutor;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        this.statistics = statistics;
     }
 
     @Override
     public <R> Map<Node, CommandResponse<R>> executeOnCluster(Command<R, C> command, Node... excludedNodes) {
+        if (command instanceof AsynchronousCommand) {
+            this.castAsynchronously(command, excludedNodes);
+            return Collections.emptyMap();
+        }
+        boolean flushed = this.flush();
         try {
-            RequestOptions options = this.createRequestOptions(excludedNodes);
+            RequestOptions options = this.createRequestOptions(flushed, excludedNodes);
+            long start = System.nanoTime();
             Map<Address, Rsp<R>> responses = this.dispatcher.castMessage(null, this.createMessage(command), options);
+            this.statistics.recordSynchronousRpc(System.nanoTime() - start);
             if (responses == null) return Collections.emptyMap();
 
             Map<Node, CommandResponse<R>> results = new HashMap<>();
@@ -105,8 +139,14 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
 
     @Override
     public <R> Map<Node, Future<R>> submitOnCluster(Command<R, C> command, Node... excludedNodes) {
+        if (command instanceof AsynchronousCommand) {
+            this.castAsynchronously(command, excludedNodes);
+            return Collections.emptyMap();
+        }
+        boolean flushed = this.flush();
         try {
-            final Future<? extends Map<Address, Rsp<R>>> responses = this.dispatcher.castMessageWithFuture(null, this.createMessage(command), this.createRequestOptions(excludedNodes));
+            this.statistics.recordAsynchronousRpc();
+            final Future<? extends Map<Address, Rsp<R>>> responses = this.dispatcher.castMessageWithFuture(null, this.createMessage(command), this.createRequestOptions(flushed, excludedNodes));
             if (responses == null) return Collections.emptyMap();
 
             Map<Node, Future<R>> results = new HashMap<>();
@@ -155,8 +195,16 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
         if (this.isLocal(node)) {
             return this.localDispatcher.executeOnNode(command, node);
         }
+        if (command instanceof AsynchronousCommand) {
+            this.enqueue((AsynchronousCommand<C>) command, getAddress(node));
+            return new SimpleCommandResponse<>((R) null);
+        }
+        // Ensure pending asynchronous commands precede this command
+        boolean flushed = this.flush(getAddress(node));
         try {
-            R result = this.dispatcher.sendMessage(this.createMessage(command, node), this.createRequestOptions());
+            long start = System.nanoTime();
+            R result = this.dispatcher.sendMessage(this.createMessage(command, node), this.createRequestOptions(flushed));
+            this.statistics.recordSynchronousRpc(System.nanoTime() - start);
             return new SimpleCommandResponse<>(result);
         } catch (Throwable e) {
             return new SimpleCommandResponse<>(e);
@@ -169,20 +217,130 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
         if (this.isLocal(node)) {
             return this.localDispatcher.submitOnNode(command, node);
         }
+        if (command instanceof AsynchronousCommand) {
+            this.enqueue((AsynchronousCommand<C>) command, getAddress(node));
+            return new SimpleFuture<>((R) null);
+        }
+        boolean flushed = this.flush(getAddress(node));
         try {
-            return this.dispatcher.sendMessageWithFuture(this.createMessage(command, node), this.createRequestOptions());
+            this.statistics.recordAsynchronousRpc();
+            return this.dispatcher.sendMessageWithFuture(this.createMessage(command, node), this.createRequestOptions(flushed));
         } catch (Throwable e) {
             return new SimpleFuture<>(e);
         }
     }
 
+    private <R> void castAsynchronously(Command<R, C> command, Node... excludedNodes) {
+        synchronized (this.sendLock) {
+            // Ensure pending asynchronous commands precede this command
+            this.flush();
+            try {
+                RequestOptions options = this.createRequestOptions(true, excludedNodes).setMode(ResponseMode.GET_NONE);
+                this.dispatcher.castMessage(null, this.createMessage(command), options);
+                this.statistics.recordAsynchronousRpc();
+            } catch (Exception e) {
+                ClusteringServerLogger.ROOT_LOGGER.asynchronousCommandFailed(e, 1, null);
+            }
+        }
+    }
+
+    private void enqueue(AsynchronousCommand<C> command, final Address address) {
+        if ((this.batchExecutor == null) || (this.batchWindow <= 0)) {
+            synchronized (this.sendLock) {
+                this.send(address, Collections.<AsynchronousCommand<C>>singletonList(command));
+            }
+            return;
+        }
+        boolean full = false;
+        synchronized (this.batches) {
+            List<AsynchronousCommand<C>> batch = this.batches.get(address);
+            if (batch == null) {
+                batch = new ArrayList<>();
+                this.batches.put(address, batch);
+                Runnable task = new Runnable() {
+                    @Override
+                    public void run() {
+                        ChannelCommandDispatcher.this.flush(address);
+                    }
+                };
+                try {
+                    this.batchExecutor.schedule(task, this.batchWindow, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Executor was shutdown, send immediately
+                    full = true;
+                }
+            }
+            batch.add(command);
+            full = full || (batch.size() >= this.maxBatchSize);
+        }
+        if (full) {
+            this.flush(address);
+        }
+    }
+
+    /**
+     * Sends any pending asynchronous commands for the specified node immediately.
+     * @return true, if any commands were sent, false otherwise
+     */
+    boolean flush(Address address) {
+        synchronized (this.sendLock) {
+            List<AsynchronousCommand<C>> batch = null;
+            synchronized (this.batches) {
+                batch = this.batches.remove(address);
+            }
+            if (batch == null) return false;
+            this.send(address, batch);
+            return true;
+        }
+    }
+
+    /**
+     * Sends any pending asynchronous commands immediately.
+     * @return true, if any commands were sent, false otherwise
+     */
+    protected boolean flush() {
+        synchronized (this.sendLock) {
+            Map<Address, List<AsynchronousCommand<C>>> batches = null;
+            synchronized (this.batches) {
+                batches = new HashMap<>(this.batches);
+                this.batches.clear();
+            }
+            for (Map.Entry<Address, List<AsynchronousCommand<C>>> entry: batches.entrySet()) {
+                this.send(entry.getKey(), entry.getValue());
+            }
+            return !batches.isEmpty();
+        }
+    }
+
+    private void send(Address address, List<AsynchronousCommand<C>> commands) {
+        int size = commands.size();
+        AsynchronousCommand<C> command = (size == 1) ? commands.get(0) : new CommandBatch<>(commands);
+        try {
+            // Omit DONT_BUNDLE, so that the transport may bundle this message with others
+            // Omit OOB, so that batches sent to the same node are delivered in order
+            RequestOptions options = new RequestOptions(ResponseMode.GET_NONE, this.timeout, false, FILTER);
+            this.dispatcher.sendMessage(this.createMessage(command, address), options);
+            if (size == 1) {
+                this.statistics.recordAsynchronousRpc();
+            } else {
+                this.statistics.recordBatch(size);
+            }
+        } catch (Throwable e) {
+            ClusteringServerLogger.ROOT_LOGGER.asynchronousCommandFailed(e, size, address);
+        }
+    }
+
     private <R> Message createMessage(Command<R, C> command) {
-        return this.createMessage(command, null);
+        return this.createMessage(command, (Address) null);
     }
 
     private <R> Message createMessage(Command<R, C> command, Node node) {
+        return this.createMessage(command, getAddress(node));
+    }
+
+    private <R> Message createMessage(Command<R, C> command, Address address) {
         try {
-            return new Message(getAddress(node), this.getLocalAddress(), this.marshaller.marshal(command));
+            return new Message(address, this.getLocalAddress(), this.marshaller.marshal(command));
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         }
@@ -196,8 +354,8 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
         return (node instanceof Addressable) ? ((Addressable) node).getAddress() : null;
     }
 
-    private RequestOptions createRequestOptions(Node... excludedNodes) {
-        RequestOptions options = this.createRequestOptions();
+    private RequestOptions createRequestOptions(boolean ordered, Node... excludedNodes) {
+        RequestOptions options = this.createRequestOptions(ordered);
         if ((excludedNodes != null) && (excludedNodes.length > 0)) {
             Address[] addresses = new Address[excludedNodes.length];
             for (int i = 0; i < excludedNodes.length; ++i) {
@@ -208,8 +366,12 @@ public abstract class ChannelCommandDispatcher<C> implements CommandDispatcher<C
         return options;
     }
 
-    private RequestOptions createRequestOptions() {
-        return new RequestOptions(ResponseMode.GET_ALL, this.timeout, false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+    /**
+     * Creates request options for a command.
+     * @param ordered indicates whether the command must be delivered after previously sent asynchronous commands
+     */
+    private RequestOptions createRequestOptions(boolean ordered) {
+        return ordered ? new RequestOptions(ResponseMode.GET_ALL, this.timeout, false, FILTER, Message.Flag.DONT_BUNDLE) : new RequestOptions(ResponseMode.GET_ALL, this.timeout, false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
     }
 
     static <R> CommandResponse<R> createCommandResponse(Rsp<R> response) {
@@ -25,10 +25,16 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.AccessController;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.jboss.as.clustering.jgroups.DispatcherStatistics;
 import org.jboss.as.clustering.marshalling.MarshallingContext;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
@@ -40,20 +46,23 @@ import org.jgroups.blocks.RequestCorrelator;
 import org.jgroups.blocks.RequestHandler;
 import org.jgroups.blocks.RpcDispatcher;
 import org.jgroups.blocks.mux.MuxMessageDispatcher;
+import org.jboss.threads.JBossThreadFactory;
 import org.jgroups.stack.Protocol;
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.group.NodeFactory;
+import org.wildfly.security.manager.action.GetAccessControlContextAction;
 
 /**
  * {@link MessageDispatcher} based {@link CommandDispatcherFactory}.
  * This factory can produce multiple {@link CommandDispatcher} instances,
  * all of which will share the same {@link MessageDispatcher} instance.
+ * If batching is enabled, asynchronous commands of all dispatchers are batched using a shared scheduler.
  * @author Paul Ferraro
  */
-public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory, RequestHandler, AutoCloseable {
+public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory, RequestHandler, DispatcherStatistics, AutoCloseable {
 
     private static final short SCOPE_ID = 222;
 
@@ -64,12 +73,24 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
     private final MessageDispatcher dispatcher;
     private final NodeFactory<Address> nodeFactory;
     private final long timeout;
+    private final long batchWindow;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService batchExecutor;
+    private final CommandDispatcherStatistics statistics = new CommandDispatcherStatistics();
+
+    private static ThreadFactory createThreadFactory() {
+        return new JBossThreadFactory(new ThreadGroup(ChannelCommandDispatcherFactory.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null, AccessController.doPrivileged(GetAccessControlContextAction.getInstance()));
+    }
 
     public ChannelCommandDispatcherFactory(ChannelCommandDispatcherFactoryConfiguration config) {
         this.group = config.getGroup();
         this.nodeFactory = config.getNodeFactory();
         this.marshallingContext = config.getMarshallingContext();
         this.timeout = config.getTimeout();
+        this.batchWindow = config.getBatchWindow();
+        this.maxBatchSize = config.getMaxBatchSize();
+        // Only schedule batches if batching is enabled
+        this.batchExecutor = (this.batchWindow > 0) ? Executors.newSingleThreadScheduledExecutor(createThreadFactory()) : null;
         final RpcDispatcher.Marshaller marshaller = new CommandResponseMarshaller(this.marshallingContext);
         this.dispatcher = new MuxMessageDispatcher(SCOPE_ID) {
             @Override
@@ -86,9 +107,32 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
 
     @Override
     public void close() {
+        if (this.batchExecutor != null) {
+            this.batchExecutor.shutdownNow();
+        }
         this.dispatcher.stop();
     }
 
+    @Override
+    public long getRpcCount() {
+        return this.statistics.getRpcCount();
+    }
+
+    @Override
+    public long getAverageRpcLatency(TimeUnit unit) {
+        return this.statistics.getAverageRpcLatency(unit);
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.statistics.getBatchCount();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        return this.statistics.getAverageBatchSize();
+    }
+
     @Override
     public Object handle(Message message) throws Exception {
         try (InputStream input = new ByteArrayInputStream(message.getRawBuffer(), message.getOffset(), message.getLength())) {
@@ -129,9 +173,10 @@ public class ChannelCommandDispatcherFactory implements CommandDispatcherFactory
         };
         this.contexts.put(id, new AtomicReference<Object>(context));
         final CommandDispatcher<C> localDispatcher = new LocalCommandDispatcher<>(this.group.getLocalNode(), context);
-        return new ChannelCommandDispatcher<C>(this.dispatcher, marshaller, this.nodeFactory, this.timeout, localDispatcher) {
+        return new ChannelCommandDispatcher<C>(this.dispatcher, marshaller, this.nodeFactory, this.timeout, localDispatcher, this.batchExecutor, this.batchWindow, this.maxBatchSize, this.statistics) {
             @Override
             public void close() {
+                this.flush();
                 localDispatcher.close();
                 ChannelCommandDispatcherFactory.this.contexts.remove(id);
             }
@@ -37,4 +37,10 @@ public interface ChannelCommandDispatcherFactoryConfiguration {
     NodeFactory<Address> getNodeFactory();
     MarshallingContext getMarshallingContext();
     long getTimeout();
+    /**
+     * Returns the time, in milliseconds, during which asynchronous commands destined for the same node are coalesced.
+     * A non-positive value disables batching.
+     */
+    long getBatchWindow();
+    int getMaxBatchSize();
 }
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.clustering.infinispan.subsystem.GlobalComponentRegistryService;
+import org.jboss.as.clustering.jgroups.DispatcherConfiguration;
 import org.jboss.as.clustering.jgroups.subsystem.ChannelService;
 import org.jboss.as.clustering.marshalling.DynamicClassTable;
 import org.jboss.as.clustering.marshalling.MarshallingConfigurationFactory;
@@ -72,7 +73,9 @@ public class ChannelCommandDispatcherFactoryService implements Service<CommandDi
                 .addDependency(ChannelServiceNames.GROUP.getServiceName(cluster), Group.class, service.group)
                 .addDependency(ChannelServiceNames.NODE_FACTORY.getServiceName(cluster), ChannelNodeFactory.class, service.nodeFactory)
                 .addDependency(ChannelService.getServiceName(cluster), Channel.class, service.channel)
+                .addDependency(ChannelService.getDispatcherConfigurationServiceName(cluster), DispatcherConfiguration.class, service.dispatcherConfiguration)
                 .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.loader)
+                .addAliases(ChannelService.getDispatcherStatisticsServiceName(cluster))
         ;
     }
 
@@ -82,6 +85,7 @@ public class ChannelCommandDispatcherFactoryService implements Service<CommandDi
     private final InjectedValue<Group> group = new InjectedValue<>();
     private final InjectedValue<ChannelNodeFactory> nodeFactory = new InjectedValue<>();
     private final InjectedValue<ModuleLoader> loader = new InjectedValue<>();
+    private final InjectedValue<DispatcherConfiguration> dispatcherConfiguration = new InjectedValue<>();
     private final ModuleIdentifier identifier;
     private final long timeout = TimeUnit.MINUTES.toMillis(1);
 
@@ -149,6 +153,16 @@ public class ChannelCommandDispatcherFactoryService implements Service<CommandDi
         return this.timeout;
     }
 
+    @Override
+    public long getBatchWindow() {
+        return this.dispatcherConfiguration.getValue().getBatchWindow();
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return this.dispatcherConfiguration.getValue().getMaxBatchSize();
+    }
+
     @Override
     public int getCurrentMarshallingVersion() {
         return CURRENT_VERSION;
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.List;
+
+import org.wildfly.clustering.dispatcher.AsynchronousCommand;
+
+/**
+ * A batch of asynchronous commands, coalesced into a single message.
+ * @param <C> command execution context
+ */
+public class CommandBatch<C> implements AsynchronousCommand<C> {
+    private static final long serialVersionUID = 4546215689862413823L;
+
+    private final List<AsynchronousCommand<C>> commands;
+
+    public CommandBatch(List<AsynchronousCommand<C>> commands) {
+        this.commands = commands;
+    }
+
+    @Override
+    public Void execute(C context) throws Exception {
+        Exception exception = null;
+        // Execute every command, even if a preceding command fails
+        for (AsynchronousCommand<C> command: this.commands) {
+            try {
+                command.execute(context);
+            } catch (Exception e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+        return null;
+    }
+
+    int size() {
+        return this.commands.size();
+    }
+}
@@ -25,6 +25,7 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import org.jboss.as.clustering.marshalling.ClassTableContributor;
+import org.wildfly.clustering.dispatcher.AsynchronousCommand;
 import org.wildfly.clustering.dispatcher.Command;
 
 /**
@@ -35,6 +36,6 @@ public class CommandDispatcherClassTableContributor implements ClassTableContrib
 
     @Override
     public Collection<Class<?>> getKnownClasses() {
-        return Arrays.<Class<?>>asList(Command.class, NoSuchService.class);
+        return Arrays.<Class<?>>asList(Command.class, NoSuchService.class, AsynchronousCommand.class, CommandBatch.class);
     }
 }
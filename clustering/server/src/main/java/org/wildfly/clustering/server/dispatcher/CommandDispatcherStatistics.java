@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.clustering.jgroups.DispatcherStatistics;
+
+/**
+ * Thread-safe collector of {@link DispatcherStatistics}, shared by all command dispatchers of a factory.
+ */
+public class CommandDispatcherStatistics implements DispatcherStatistics {
+
+    private final AtomicLong rpcCount = new AtomicLong();
+    private final AtomicLong synchronousRpcCount = new AtomicLong();
+    private final AtomicLong synchronousRpcNanos = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedCommandCount = new AtomicLong();
+
+    void recordSynchronousRpc(long nanos) {
+        this.rpcCount.incrementAndGet();
+        this.synchronousRpcCount.incrementAndGet();
+        this.synchronousRpcNanos.addAndGet(nanos);
+    }
+
+    void recordAsynchronousRpc() {
+        this.rpcCount.incrementAndGet();
+    }
+
+    void recordBatch(int size) {
+        this.rpcCount.incrementAndGet();
+        this.batchCount.incrementAndGet();
+        this.batchedCommandCount.addAndGet(size);
+    }
+
+    @Override
+    public long getRpcCount() {
+        return this.rpcCount.get();
+    }
+
+    @Override
+    public long getAverageRpcLatency(TimeUnit unit) {
+        long count = this.synchronousRpcCount.get();
+        return (count > 0) ? unit.convert(this.synchronousRpcNanos.get() / count, TimeUnit.NANOSECONDS) : 0L;
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batchCount.get();
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long count = this.batchCount.get();
+        return (count > 0) ? ((double) this.batchedCommandCount.get()) / count : 0d;
+    }
+}
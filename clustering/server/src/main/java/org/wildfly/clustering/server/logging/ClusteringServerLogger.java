@@ -79,4 +79,8 @@ public interface ClusteringServerLogger {
 
     @Message(id = 9, value = "Singleton service %s is not started.")
     IllegalStateException notStarted(String serviceName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 10, value = "Failed to send %d asynchronous command(s) to %s")
+    void asynchronousCommandFailed(@Cause Throwable cause, int commands, Object destination);
 }
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.infinispan.Cache;
@@ -51,10 +53,12 @@ public class InfinispanRouteLocator implements RouteLocator {
     @Override
     public String locate(String sessionId) {
         Map.Entry<String, Void> entry = null;
-        Address location = this.locatePrimaryOwner(sessionId);
-        if (location != null) {
+        for (Address location: this.locateOwners(sessionId)) {
+            // Prefer the primary owner, but fall back to a backup owner whose route is known,
+            // so that traffic migrates toward a node that holds the session, instead of to a node that must fetch it remotely.
             Node node = this.factory.createNode(location);
             entry = this.registry.getEntry(node);
+            if (entry != null) break;
         }
         if (entry == null) {
             // Accommodate mod_cluster's lazy route auto-generation
@@ -63,8 +67,8 @@ public class InfinispanRouteLocator implements RouteLocator {
         return (entry != null) ? entry.getKey() : null;
     }
 
-    private Address locatePrimaryOwner(String sessionId) {
+    private List<Address> locateOwners(String sessionId) {
         DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
-        return (dist != null) ? dist.getPrimaryLocation(sessionId) : this.cache.getCacheManager().getAddress();
+        return (dist != null) ? dist.locate(sessionId) : Collections.singletonList(this.cache.getCacheManager().getAddress());
     }
 }
@@ -25,6 +25,8 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpSession;
@@ -38,20 +40,25 @@ import org.infinispan.Cache;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.notifications.KeyFilter;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryPassivated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryPassivatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
 import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
+import org.infinispan.notifications.cachelistener.event.TransactionalEvent;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.transaction.xa.GlobalTransaction;
 import org.jboss.as.clustering.infinispan.distribution.ConsistentHashLocality;
 import org.jboss.as.clustering.infinispan.distribution.Locality;
-import org.jboss.as.clustering.infinispan.distribution.SimpleLocality;
+import org.jboss.as.clustering.infinispan.distribution.Rebalancer;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.group.Node;
@@ -66,6 +73,7 @@ import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionContext;
 import org.wildfly.clustering.web.session.SessionManager;
+import org.wildfly.clustering.web.session.SessionManagerStatistics;
 import org.wildfly.clustering.web.session.SessionMetaData;
 
 /**
@@ -73,7 +81,7 @@ import org.wildfly.clustering.web.session.SessionMetaData;
  * @author Paul Ferraro
  */
 @Listener(primaryOnly = true)
-public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFilter {
+public class InfinispanSessionManager<V, L> implements SessionManager<L>, SessionManagerStatistics, KeyFilter {
     private final SessionContext context;
     private final Batcher batcher;
     private final Cache<String, ?> cache;
@@ -82,10 +90,16 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
     private final CommandDispatcherFactory dispatcherFactory;
     private final NodeFactory<Address> nodeFactory;
     private final int maxActiveSessions;
+    private final Executor executor;
     private volatile Time defaultMaxInactiveInterval = new Time(30, TimeUnit.MINUTES);
     private final boolean persistent;
     private volatile Scheduler scheduler;
+    private volatile SchedulerRebalancer<V> rebalancer;
     private volatile CommandDispatcher<Scheduler> dispatcher;
+    private final SessionNearCache<?> nearCache;
+    // This listener is only notified on the primary owner of a session, which tracks the non-owner nodes caching it
+    private final NearCacheNodeRegistry nearCacheNodes = new NearCacheNodeRegistry();
+    private volatile CommandDispatcher<SessionNearCache<?>> nearCacheDispatcher;
 
     public InfinispanSessionManager(SessionFactory<V, L> factory, InfinispanSessionManagerConfiguration configuration) {
         this.factory = factory;
@@ -96,6 +110,8 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
         this.dispatcherFactory = configuration.getCommandDispatcherFactory();
         this.nodeFactory = configuration.getNodeFactory();
         this.maxActiveSessions = configuration.getMaxActiveSessions();
+        this.nearCache = configuration.getNearCache();
+        this.executor = configuration.getExecutor();
         Configuration config = this.cache.getCacheConfiguration();
         // If cache is clustered or configured with a write-through cache store
         // then we need to trigger any HttpSessionActivationListeners per request
@@ -141,13 +157,24 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
             }
         };
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.cache.getName() + ".schedulers", this.scheduler);
+        if (this.nearCache != null) {
+            this.nearCacheDispatcher = this.dispatcherFactory.<SessionNearCache<?>>createCommandDispatcher(this.cache.getName() + ".near-cache", this.nearCache);
+        }
+        this.rebalancer = new SchedulerRebalancer<>(this.cache, this.factory, this.scheduler, this.executor);
         this.cache.addListener(this, this);
-        this.schedule(this.cache, new SimpleLocality(false), new ConsistentHashLocality(this.cache));
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        this.rebalancer.rebalance(this.cache.getCacheManager().getAddress(), null, (dist != null) ? dist.getConsistentHash() : null);
     }
 
     @Override
     public void stop() {
         this.cache.removeListener(this);
+        if (this.nearCacheDispatcher != null) {
+            this.nearCacheDispatcher.close();
+            this.nearCache.clear();
+            this.nearCacheNodes.clear();
+        }
+        this.rebalancer.close();
         this.dispatcher.close();
         this.scheduler.close();
         this.identifierFactory.stop();
@@ -173,6 +200,16 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
         return (address != null) ? this.nodeFactory.createNode(address) : this.dispatcherFactory.getGroup().getLocalNode();
     }
 
+    @Override
+    public long getSchedulerRebalanceCount() {
+        return this.rebalancer.getRebalanceCount();
+    }
+
+    @Override
+    public long getSchedulerRebalanceTime(TimeUnit unit) {
+        return this.rebalancer.getRebalanceTime(unit);
+    }
+
     @Override
     public boolean accept(Object key) {
         return key instanceof String;
@@ -279,11 +316,46 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
         }
     }
 
+    @CacheEntryModified
+    public void modified(CacheEntryModifiedEvent<String, ?> event) {
+        if (!event.isPre() && (this.nearCacheDispatcher != null)) {
+            String id = event.getKey();
+            Address origin = getOrigin(event);
+            // Ownership is decided for the originating node, not for the local node, which is always the primary owner here
+            Address stale = this.nearCacheNodes.modified(id, origin, this.cache.getAdvancedCache().getDistributionManager().locate(id));
+            if (stale != null) {
+                this.invalidateNearCache(id, stale);
+            }
+        }
+    }
+
+    private Address getOrigin(TransactionalEvent<String, ?> event) {
+        if (event.isOriginLocal()) return null;
+        GlobalTransaction transaction = event.getGlobalTransaction();
+        return (transaction != null) ? transaction.getAddress() : null;
+    }
+
+    private void invalidateNearCache(String id, Address address) {
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Invalidating near cache entry for session %s on %s", id, address);
+        // Wait for the invalidation, so that it completes before the modifying transaction commits, and before its lock on the session is released
+        try {
+            this.nearCacheDispatcher.executeOnNode(new InvalidateNearCacheCommand(id), this.nodeFactory.createNode(address)).get();
+        } catch (ExecutionException e) {
+            InfinispanWebLogger.ROOT_LOGGER.debugf(e.getCause(), "Failed to invalidate near cache entry for session %s on %s", id, address);
+        }
+    }
+
     @CacheEntryRemoved
     public void removed(CacheEntryRemovedEvent<String, ?> event) {
         if (event.isPre()) {
             String id = event.getKey();
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will be removed", id);
+            if (this.nearCacheDispatcher != null) {
+                Address stale = this.nearCacheNodes.removed(id, getOrigin(event));
+                if (stale != null) {
+                    this.invalidateNearCache(id, stale);
+                }
+            }
             ImmutableSession session = this.factory.createImmutableSession(id, this.factory.findValue(id));
             ImmutableSessionAttributes attributes = session.getAttributes();
 
@@ -307,39 +379,23 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L>, KeyFil
     public void dataRehashed(DataRehashedEvent<String, ?> event) {
         Cache<String, ?> cache = event.getCache();
         Address localAddress = cache.getCacheManager().getAddress();
-        Locality oldLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtStart());
-        Locality newLocality = new ConsistentHashLocality(localAddress, event.getConsistentHashAtEnd());
+        ConsistentHash oldHash = event.getConsistentHashAtStart();
+        ConsistentHash newHash = event.getConsistentHashAtEnd();
         if (event.isPre()) {
-            this.scheduler.cancel(newLocality);
-        } else {
-            this.schedule(cache, oldLocality, newLocality);
-        }
-    }
-
-    private void schedule(Cache<String, ?> cache, Locality oldLocality, Locality newLocality) {
-        // Iterate over sessions in memory
-        for (Object key: cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD, Flag.SKIP_LOCKING).keySet()) {
-            // Cache may contain non-string keys, so ignore any others
-            if (this.accept(key)) {
-                String sessionId = (String) key;
-                // If we are the new primary owner of this session
-                // then schedule expiration of this session locally
-                if (!oldLocality.isLocal(sessionId) && newLocality.isLocal(sessionId)) {
-                    // We need to lookup the session to obtain its meta data
-                    boolean started = cache.startBatch();
-                    try {
-                        V value = this.factory.findValue(sessionId);
-                        if (value != null) {
-                            ImmutableSession session = this.factory.createImmutableSession(sessionId, value);
-                            this.scheduler.schedule(session);
-                        }
-                    } finally {
-                        if (started) {
-                            cache.endBatch(false);
-                        }
-                    }
-                }
+            // Any rebalance operation still in progress must not schedule keys we are about to lose
+            this.rebalancer.cancel();
+            // Only visit scheduled sessions if we are losing primary ownership of any segments
+            if ((oldHash == null) || (newHash == null) || !Rebalancer.getAcquiredSegments(localAddress, newHash, oldHash).isEmpty()) {
+                Locality newLocality = new ConsistentHashLocality(localAddress, newHash);
+                this.scheduler.cancel(newLocality);
+            }
+            if (this.nearCache != null) {
+                // Ownership is about to change, so tracked near cache entries are no longer reliable
+                this.nearCache.clear();
+                this.nearCacheNodes.clear();
             }
+        } else {
+            this.rebalancer.rebalance(localAddress, oldHash, newHash);
         }
     }
 
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.concurrent.Executor;
+
 import org.infinispan.Cache;
 import org.infinispan.remoting.transport.Address;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
@@ -41,4 +43,14 @@ public interface InfinispanSessionManagerConfiguration {
     CommandDispatcherFactory getCommandDispatcherFactory();
     NodeFactory<Address> getNodeFactory();
     int getMaxActiveSessions();
+    /**
+     * Returns the near cache of sessions served by, but not owned by, this node.
+     * @return a near cache, or null, if near caching is disabled
+     */
+    SessionNearCache<?> getNearCache();
+    /**
+     * Returns the executor used to reschedule sessions following a topology change.
+     * @return a shared executor
+     */
+    Executor getExecutor();
 }
@@ -22,8 +22,12 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactoryService;
@@ -35,6 +39,7 @@ import org.jboss.as.clustering.marshalling.MarshalledValueFactory;
 import org.jboss.as.clustering.marshalling.MarshallingContext;
 import org.jboss.as.clustering.marshalling.SimpleMarshalledValueFactory;
 import org.jboss.as.clustering.marshalling.SimpleMarshallingContextFactory;
+import org.jboss.as.server.Services;
 import org.jboss.modules.Module;
 import org.jboss.msc.service.AbstractService;
 import org.jboss.msc.service.ServiceBuilder;
@@ -50,6 +55,7 @@ import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.infinispan.InfinispanBatcher;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionCacheEntry;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesCacheKey;
@@ -70,12 +76,13 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
 
     public static ServiceBuilder<SessionManagerFactory> build(ServiceTarget target, ServiceName name, String containerName, String cacheName, SessionManagerConfiguration config) {
         InfinispanSessionManagerFactory factory = new InfinispanSessionManagerFactory(config);
-        return target.addService(name, factory)
+        ServiceBuilder<SessionManagerFactory> builder = target.addService(name, factory)
                 .addDependency(CacheService.getServiceName(containerName, cacheName), Cache.class, factory.cache)
                 .addDependency(KeyAffinityServiceFactoryService.getServiceName(containerName), KeyAffinityServiceFactory.class, factory.affinityFactory)
                 .addDependency(ChannelServiceNames.COMMAND_DISPATCHER.getServiceName(containerName), CommandDispatcherFactory.class, factory.dispatcherFactory)
                 .addDependency(CacheServiceNames.NODE_FACTORY.getServiceName(containerName), NodeFactory.class, factory.nodeFactory)
         ;
+        return Services.addServerExecutorDependency(builder, factory.executor, false);
     }
 
     private final SessionManagerConfiguration config;
@@ -84,6 +91,7 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
     private final InjectedValue<KeyAffinityServiceFactory> affinityFactory = new InjectedValue<>();
     private final InjectedValue<CommandDispatcherFactory> dispatcherFactory = new InjectedValue<>();
     private final InjectedValue<NodeFactory> nodeFactory = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> executor = new InjectedValue<>();
 
     private InfinispanSessionManagerFactory(SessionManagerConfiguration config) {
         this.config = config;
@@ -102,6 +110,8 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
         final CommandDispatcherFactory dispatcherFactory = this.dispatcherFactory.getValue();
         final NodeFactory<Address> nodeFactory = this.nodeFactory.getValue();
         final int maxActiveSessions = this.config.getMaxActiveSessions();
+        final SessionNearCache<?> nearCache = this.config.isNearCacheEnabled() ? createNearCache(cache, maxActiveSessions) : null;
+        final Executor executor = this.executor.getValue();
         InfinispanSessionManagerConfiguration config = new InfinispanSessionManagerConfiguration() {
             @Override
             public SessionContext getSessionContext() {
@@ -137,8 +147,40 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
             public int getMaxActiveSessions() {
                 return maxActiveSessions;
             }
+
+            @Override
+            public SessionNearCache<?> getNearCache() {
+                return nearCache;
+            }
+
+            @Override
+            public Executor getExecutor() {
+                return executor;
+            }
         };
-        return new InfinispanSessionManager<>(this.getSessionFactory(context, localContextFactory), config);
+        return new InfinispanSessionManager<>(this.decorate(this.getSessionFactory(context, localContextFactory), nearCache), config);
+    }
+
+    private <V, L> SessionFactory<V, L> decorate(SessionFactory<V, L> factory, SessionNearCache<?> nearCache) {
+        if (nearCache == null) return factory;
+        @SuppressWarnings("unchecked")
+        SessionNearCache<V> sessionNearCache = (SessionNearCache<V>) nearCache;
+        return new NearCacheSessionFactory<>(factory, sessionNearCache, this.cache.getValue(), this.invoker);
+    }
+
+    /**
+     * Creates a near cache for distributed session caches, if enabled for this deployment.
+     * Entries live for the L1 lifespan of the cache, whether or not L1 is enabled.
+     * The near cache relies on the session lock, so it is not created for caches without pessimistic locking.
+     */
+    private static SessionNearCache<?> createNearCache(Cache<String, ?> cache, int maxActiveSessions) {
+        ClusteringConfiguration clustering = cache.getCacheConfiguration().clustering();
+        if (!clustering.cacheMode().isDistributed()) return null;
+        if (!NearCacheSessionFactory.isLockable(cache)) {
+            InfinispanWebLogger.ROOT_LOGGER.debugf("Near cache disabled for %s, since it does not use pessimistic locking", cache.getName());
+            return null;
+        }
+        return new SessionNearCache<>(clustering.l1().lifespan(), TimeUnit.MILLISECONDS, maxActiveSessions);
     }
 
     private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory) {
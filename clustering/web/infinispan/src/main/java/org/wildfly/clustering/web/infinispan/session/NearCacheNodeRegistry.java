@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * Tracks, on the primary owner of a session, the non-owner node that last modified that session, and whose near cache
+ * must therefore be invalidated when another node modifies or removes the session.
+ */
+public class NearCacheNodeRegistry {
+
+    private final ConcurrentMap<String, Address> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Records a modification of a session.
+     * @param id a session identifier
+     * @param origin the node that modified the session, or null if the modification originated locally
+     * @param owners the current owners of the session
+     * @return the node whose near cache entry for this session is now stale, or null if there is none
+     */
+    public Address modified(String id, Address origin, Collection<Address> owners) {
+        // Only track non-owners, since owners never cache sessions in their near cache
+        Address previous = ((origin != null) && !owners.contains(origin)) ? this.nodes.put(id, origin) : this.nodes.remove(id);
+        return ((previous != null) && !previous.equals(origin)) ? previous : null;
+    }
+
+    /**
+     * Records the removal of a session.
+     * @param id a session identifier
+     * @param origin the node that removed the session, or null if the removal originated locally
+     * @return the node whose near cache entry for this session is now stale, or null if there is none
+     */
+    public Address removed(String id, Address origin) {
+        Address previous = this.nodes.remove(id);
+        return ((previous != null) && !previous.equals(origin)) ? previous : null;
+    }
+
+    /**
+     * Forgets all tracked nodes, e.g. when ownership changes.
+     */
+    public void clear() {
+        this.nodes.clear();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.TransactionConfiguration;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.transaction.LockingMode;
+import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.Session;
+
+/**
+ * {@link SessionFactory} decorator that serves the sessions of a distributed cache from a {@link SessionNearCache}
+ * when the current node is not an owner of the session.
+ * A near cache lookup first acquires the session lock on its primary owner, but avoids transferring the session itself.
+ * Since the primary owner synchronously invalidates near cache entries while committing a modification, i.e. before releasing its lock,
+ * an entry still present once the lock is held is current, and remains so until the lock is released.
+ * This requires a pessimistic transactional cache.
+ */
+public class NearCacheSessionFactory<V, L> implements SessionFactory<V, L> {
+
+    private final SessionFactory<V, L> factory;
+    private final SessionNearCache<V> nearCache;
+    private final Cache<String, ?> cache;
+    private final CacheInvoker invoker;
+
+    public NearCacheSessionFactory(SessionFactory<V, L> factory, SessionNearCache<V> nearCache, Cache<String, ?> cache, CacheInvoker invoker) {
+        this.factory = factory;
+        this.nearCache = nearCache;
+        this.cache = cache;
+        this.invoker = invoker;
+    }
+
+    @Override
+    public Session<L> createSession(String id, V value) {
+        return this.factory.createSession(id, value);
+    }
+
+    @Override
+    public ImmutableSession createImmutableSession(String id, V value) {
+        return this.factory.createImmutableSession(id, value);
+    }
+
+    @Override
+    public V createValue(String id) {
+        V value = this.factory.createValue(id);
+        if (!this.isOwner(id)) {
+            this.nearCache.put(id, value);
+        }
+        return value;
+    }
+
+    @Override
+    public V findValue(String id) {
+        if (this.isOwner(id)) {
+            // Our copy may have been superseded while we were not an owner
+            this.nearCache.invalidate(id);
+            return this.factory.findValue(id);
+        }
+        lock(this.invoker, this.cache, id);
+        // Only consult the near cache once we hold the lock, since any concurrent modification invalidates our entry before releasing it
+        V value = this.nearCache.get(id);
+        if (value != null) {
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s found in near cache", id);
+            return value;
+        }
+        value = this.factory.findValue(id);
+        if (value != null) {
+            this.nearCache.put(id, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void remove(String id) {
+        this.nearCache.invalidate(id);
+        this.factory.remove(id);
+    }
+
+    @Override
+    public void evict(String id) {
+        this.nearCache.invalidate(id);
+        this.factory.evict(id);
+    }
+
+    private boolean isOwner(String id) {
+        DistributionManager dist = this.cache.getAdvancedCache().getDistributionManager();
+        return (dist == null) || dist.getLocality(id).isLocal();
+    }
+
+    private static <K, V> void lock(CacheInvoker invoker, Cache<K, V> cache, K key) {
+        invoker.invoke(cache, new LockOperation<K, V>(key));
+    }
+
+    /**
+     * Indicates whether the specified cache supports the locking on which a near cache relies.
+     * @param cache a cache
+     * @return true, if the cache is transactional with pessimistic locking, false otherwise
+     */
+    static boolean isLockable(Cache<?, ?> cache) {
+        TransactionConfiguration transaction = cache.getCacheConfiguration().transaction();
+        return transaction.transactionMode().isTransactional() && (transaction.lockingMode() == LockingMode.PESSIMISTIC);
+    }
+
+    /**
+     * Acquires the lock for a given key, without fetching its value.
+     * This is the counterpart of {@link org.jboss.as.clustering.infinispan.invoker.Locator.LockingFindOperation} for entries that are already available locally.
+     */
+    static class LockOperation<K, V> implements CacheInvoker.Operation<K, V, Boolean> {
+        private final K key;
+
+        LockOperation(K key) {
+            this.key = key;
+        }
+
+        @Override
+        public Boolean invoke(Cache<K, V> cache) {
+            return isLockable(cache) ? cache.getAdvancedCache().lock(this.key) : Boolean.TRUE;
+        }
+    }
+}
@@ -24,14 +24,14 @@ package org.wildfly.clustering.web.infinispan.session;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
-import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.AsynchronousCommand;
 import org.wildfly.clustering.web.session.ImmutableSession;
 
 /**
  * Command that schedules a session.
  * @author Paul Ferraro
  */
-public class ScheduleSchedulerCommand implements Command<Void, Scheduler> {
+public class ScheduleSchedulerCommand implements AsynchronousCommand<Scheduler> {
     private static final long serialVersionUID = -2606847692331278614L;
 
     private final transient ImmutableSession session;
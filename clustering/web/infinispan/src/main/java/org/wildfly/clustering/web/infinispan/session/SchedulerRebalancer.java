@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.Cache;
+import org.jboss.as.clustering.infinispan.distribution.Locality;
+import org.jboss.as.clustering.infinispan.distribution.Rebalancer;
+import org.wildfly.clustering.web.session.ImmutableSession;
+
+/**
+ * Reschedules the sessions for which the current node became the primary owner following a topology change.
+ */
+public class SchedulerRebalancer<V> extends Rebalancer<String> {
+
+    private final Cache<String, ?> cache;
+    private final SessionFactory<V, ?> factory;
+    private final Scheduler scheduler;
+    private final AtomicLong rebalanceCount = new AtomicLong();
+    private final AtomicLong rebalanceNanos = new AtomicLong();
+
+    public SchedulerRebalancer(Cache<String, ?> cache, SessionFactory<V, ?> factory, Scheduler scheduler, Executor executor) {
+        super(cache, executor);
+        this.cache = cache;
+        this.factory = factory;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected String getKey(Object key) {
+        // Cache may contain non-string keys, so ignore any others
+        return (key instanceof String) ? (String) key : null;
+    }
+
+    @Override
+    protected void rebalance(String sessionId, Locality locality) {
+        // We need to lookup the session to obtain its meta data
+        boolean started = this.cache.startBatch();
+        try {
+            V value = this.factory.findValue(sessionId);
+            if (value != null) {
+                ImmutableSession session = this.factory.createImmutableSession(sessionId, value);
+                this.scheduler.schedule(session);
+            }
+        } finally {
+            if (started) {
+                this.cache.endBatch(false);
+            }
+        }
+    }
+
+    @Override
+    protected void rebalanced(long nanos) {
+        this.rebalanceNanos.addAndGet(nanos);
+        this.rebalanceCount.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of completed rebalance operations.
+     * @return a number of rebalance operations
+     */
+    public long getRebalanceCount() {
+        return this.rebalanceCount.get();
+    }
+
+    /**
+     * Returns the cumulative time spent rescheduling sessions following topology changes.
+     * @param unit the unit of the result
+     * @return the total rebalance time
+     */
+    public long getRebalanceTime(TimeUnit unit) {
+        return unit.convert(this.rebalanceNanos.get(), TimeUnit.NANOSECONDS);
+    }
+}
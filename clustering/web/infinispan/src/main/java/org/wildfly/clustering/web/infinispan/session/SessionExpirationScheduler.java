@@ -22,10 +22,9 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.security.AccessController;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -48,7 +47,7 @@ import org.wildfly.security.manager.action.GetAccessControlContextAction;
  */
 public class SessionExpirationScheduler implements Scheduler {
 
-    final Map<String, Future<?>> expirationFutures = Collections.synchronizedMap(new HashMap<String, Future<?>>());
+    final Map<String, Future<?>> expirationFutures = new ConcurrentHashMap<>();
     final Batcher batcher;
     final Remover<String> remover;
     private final ScheduledExecutorService executor;
@@ -96,14 +95,16 @@ public class SessionExpirationScheduler implements Scheduler {
 
     @Override
     public void cancel(Locality locality) {
-        synchronized (this.expirationFutures) {
-            Iterator<Map.Entry<String, Future<?>>> entries = this.expirationFutures.entrySet().iterator();
-            while (entries.hasNext()) {
-                Map.Entry<String, Future<?>> entry = entries.next();
-                String sessionId = entry.getKey();
-                if (!locality.isLocal(sessionId)) {
-                    entry.getValue().cancel(false);
-                    entries.remove();
+        // Weakly consistent iteration - does not block concurrent scheduling
+        Iterator<Map.Entry<String, Future<?>>> entries = this.expirationFutures.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Future<?>> entry = entries.next();
+            String sessionId = entry.getKey();
+            if (!locality.isLocal(sessionId)) {
+                Future<?> future = entry.getValue();
+                // Only cancel if not concurrently rescheduled
+                if (this.expirationFutures.remove(sessionId, future)) {
+                    future.cancel(false);
                 }
             }
         }
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the cache entries of sessions served by, but not owned by, the current node.
+ * Entries expire after a fixed lifespan and are otherwise invalidated explicitly, either locally when the current node becomes an owner of the session,
+ * or remotely via {@link InvalidateNearCacheCommand} when another node modifies the session.
+ */
+public class SessionNearCache<V> {
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long lifespan;
+    private final int maxSize;
+
+    /**
+     * Creates a near cache.
+     * @param lifespan the duration for which an entry is considered usable
+     * @param unit the unit of the lifespan
+     * @param maxSize the maximum number of entries retained by this near cache, or a negative value if unbounded
+     */
+    public SessionNearCache(long lifespan, TimeUnit unit, int maxSize) {
+        this.lifespan = unit.toMillis(lifespan);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the locally cached value of the specified session.
+     * @param sessionId a session identifier
+     * @return the cached value, or null if no such entry exists, or if the entry has expired
+     */
+    public V get(String sessionId) {
+        Entry<V> entry = this.entries.get(sessionId);
+        if (entry == null) return null;
+        if (entry.isExpired(System.currentTimeMillis())) {
+            this.entries.remove(sessionId);
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Caches the specified value of a session locally.
+     * @param sessionId a session identifier
+     * @param value a session cache value
+     */
+    public void put(String sessionId, V value) {
+        long now = System.currentTimeMillis();
+        if ((this.maxSize >= 0) && (this.entries.size() >= this.maxSize)) {
+            this.purge(now);
+            if (this.entries.size() >= this.maxSize) return;
+        }
+        this.entries.put(sessionId, new Entry<>(value, now + this.lifespan));
+    }
+
+    /**
+     * Invalidates any locally cached value of the specified session.
+     * @param sessionId a session identifier
+     */
+    public void invalidate(String sessionId) {
+        this.entries.remove(sessionId);
+    }
+
+    /**
+     * Invalidates all locally cached values.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private void purge(long now) {
+        Iterator<Entry<V>> values = this.entries.values().iterator();
+        while (values.hasNext()) {
+            if (values.next().isExpired(now)) {
+                values.remove();
+            }
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiration;
+
+        Entry(V value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        V getValue() {
+            return this.value;
+        }
+
+        boolean isExpired(long now) {
+            return now >= this.expiration;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.remoting.transport.Address;
+import org.junit.Test;
+
+public class NearCacheNodeRegistryTestCase {
+    private final Address owner = mock(Address.class);
+    private final Address backup = mock(Address.class);
+    private final Address node1 = mock(Address.class);
+    private final Address node2 = mock(Address.class);
+    private final List<Address> owners = Arrays.asList(this.owner, this.backup);
+    private final NearCacheNodeRegistry subject = new NearCacheNodeRegistry();
+
+    @Test
+    public void modifiedByNonOwners() {
+        String id = "session";
+
+        assertNull(this.subject.modified(id, this.node1, this.owners));
+        // Same node again - its near cache is up to date
+        assertNull(this.subject.modified(id, this.node1, this.owners));
+        // Another non-owner modified the session - the near cache of the first is stale
+        assertSame(this.node1, this.subject.modified(id, this.node2, this.owners));
+        // Local modification by the primary owner
+        assertSame(this.node2, this.subject.modified(id, null, this.owners));
+        assertNull(this.subject.modified(id, null, this.owners));
+    }
+
+    @Test
+    public void modifiedByOwner() {
+        String id = "session";
+
+        assertNull(this.subject.modified(id, this.backup, this.owners));
+        assertNull(this.subject.modified(id, this.node1, this.owners));
+        assertSame(this.node1, this.subject.modified(id, this.backup, this.owners));
+        assertNull(this.subject.modified(id, this.node1, this.owners));
+    }
+
+    @Test
+    public void removed() {
+        String id = "session";
+
+        assertNull(this.subject.removed(id, null));
+
+        this.subject.modified(id, this.node1, this.owners);
+        // Removed by the node that cached it - nothing to invalidate
+        assertNull(this.subject.removed(id, this.node1));
+
+        this.subject.modified(id, this.node1, this.owners);
+        assertSame(this.node1, this.subject.removed(id, this.node2));
+        assertNull(this.subject.removed(id, this.node2));
+    }
+
+    @Test
+    public void clear() {
+        String id = "session";
+
+        this.subject.modified(id, this.node1, this.owners);
+        this.subject.clear();
+        assertNull(this.subject.modified(id, this.node2, this.owners));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.distribution.DataLocality;
+import org.infinispan.distribution.DistributionManager;
+import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class NearCacheSessionFactoryTestCase {
+    private final SessionFactory<Object, Object> factory = mock(SessionFactory.class);
+    private final Cache<String, Object> cache = mock(Cache.class);
+    private final AdvancedCache<String, Object> advancedCache = mock(AdvancedCache.class);
+    private final DistributionManager dist = mock(DistributionManager.class);
+    private final CacheInvoker invoker = mock(CacheInvoker.class);
+    private final SessionNearCache<Object> nearCache = new SessionNearCache<>(1, TimeUnit.MINUTES, -1);
+    private final SessionFactory<Object, Object> subject = new NearCacheSessionFactory<>(this.factory, this.nearCache, this.cache, this.invoker);
+
+    @Test
+    public void findValueNotOwner() {
+        String id = "session";
+        Object value = new Object();
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDistributionManager()).thenReturn(this.dist);
+        when(this.dist.getLocality(id)).thenReturn(DataLocality.NOT_LOCAL);
+        when(this.factory.findValue(id)).thenReturn(value);
+
+        assertSame(value, this.subject.findValue(id));
+        verify(this.invoker).invoke(same(this.cache), any(CacheInvoker.Operation.class));
+
+        // Subsequent lookup should be served by the near cache, once the session is locked
+        assertSame(value, this.subject.findValue(id));
+        verify(this.factory, times(1)).findValue(id);
+        verify(this.invoker, times(2)).invoke(same(this.cache), any(CacheInvoker.Operation.class));
+
+        this.nearCache.invalidate(id);
+
+        assertSame(value, this.subject.findValue(id));
+        verify(this.factory, times(2)).findValue(id);
+    }
+
+    @Test
+    public void findValueInvalidatedWhileLocking() {
+        final String id = "session";
+        Object value = new Object();
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDistributionManager()).thenReturn(this.dist);
+        when(this.dist.getLocality(id)).thenReturn(DataLocality.NOT_LOCAL);
+        when(this.factory.findValue(id)).thenReturn(value);
+        // Another node commits a modification, invalidating our entry, before we obtain the lock
+        when(this.invoker.invoke(same(this.cache), any(CacheInvoker.Operation.class))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                NearCacheSessionFactoryTestCase.this.nearCache.invalidate(id);
+                return Boolean.TRUE;
+            }
+        });
+
+        this.nearCache.put(id, new Object());
+
+        assertSame(value, this.subject.findValue(id));
+        verify(this.factory).findValue(id);
+    }
+
+    @Test
+    public void findValueOwner() {
+        String id = "session";
+        Object value = new Object();
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDistributionManager()).thenReturn(this.dist);
+        when(this.dist.getLocality(id)).thenReturn(DataLocality.LOCAL);
+        when(this.factory.findValue(id)).thenReturn(value);
+
+        this.nearCache.put(id, new Object());
+
+        assertSame(value, this.subject.findValue(id));
+        assertNull(this.nearCache.get(id));
+        verify(this.invoker, never()).invoke(same(this.cache), any(CacheInvoker.Operation.class));
+    }
+
+    @Test
+    public void remove() {
+        String id = "session";
+
+        this.nearCache.put(id, new Object());
+
+        this.subject.remove(id);
+
+        assertNull(this.nearCache.get(id));
+        verify(this.factory).remove(id);
+    }
+}
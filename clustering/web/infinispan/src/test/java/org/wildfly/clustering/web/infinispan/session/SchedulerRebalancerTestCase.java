@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.container.DataContainer;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.transport.Address;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.web.session.ImmutableSession;
+
+public class SchedulerRebalancerTestCase {
+    private final Cache<String, Object> cache = mock(Cache.class);
+    private final AdvancedCache<String, Object> advancedCache = mock(AdvancedCache.class);
+    private final DataContainer container = mock(DataContainer.class);
+    private final DistributionManager dist = mock(DistributionManager.class);
+    private final SessionFactory<Object, Object> factory = mock(SessionFactory.class);
+    private final Scheduler scheduler = mock(Scheduler.class);
+    private final Address local = mock(Address.class);
+    private final Address remote = mock(Address.class);
+    private final ConsistentHash oldHash = mock(ConsistentHash.class);
+    private final ConsistentHash newHash = mock(ConsistentHash.class);
+    private final Object acquiredValue = new Object();
+    private final ImmutableSession acquiredSession = mock(ImmutableSession.class);
+    private final List<Runnable> tasks = new LinkedList<>();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            SchedulerRebalancerTestCase.this.tasks.add(task);
+        }
+    };
+
+    @Before
+    public void init() {
+        Set<Object> keys = new HashSet<Object>(Arrays.asList("acquired", "retained", new Object()));
+
+        when(this.oldHash.getNumSegments()).thenReturn(2);
+        when(this.newHash.getNumSegments()).thenReturn(2);
+        when(this.oldHash.locatePrimaryOwnerForSegment(0)).thenReturn(this.local);
+        when(this.oldHash.locatePrimaryOwnerForSegment(1)).thenReturn(this.remote);
+        when(this.newHash.locatePrimaryOwnerForSegment(0)).thenReturn(this.local);
+        when(this.newHash.locatePrimaryOwnerForSegment(1)).thenReturn(this.local);
+        when(this.newHash.getSegment("acquired")).thenReturn(1);
+        when(this.newHash.getSegment("retained")).thenReturn(0);
+        when(this.newHash.locatePrimaryOwner("acquired")).thenReturn(this.local);
+        when(this.oldHash.locatePrimaryOwner("acquired")).thenReturn(this.remote);
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getDataContainer()).thenReturn(this.container);
+        when(this.advancedCache.getDistributionManager()).thenReturn(this.dist);
+        when(this.container.keySet()).thenReturn(keys);
+        when(this.factory.findValue("acquired")).thenReturn(this.acquiredValue);
+        when(this.factory.createImmutableSession("acquired", this.acquiredValue)).thenReturn(this.acquiredSession);
+    }
+
+    private void runTasks() {
+        while (!this.tasks.isEmpty()) {
+            this.tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void rebalance() {
+        when(this.dist.getConsistentHash()).thenReturn(this.newHash);
+
+        try (SchedulerRebalancer<Object> rebalancer = new SchedulerRebalancer<>(this.cache, this.factory, this.scheduler, this.executor)) {
+            rebalancer.rebalance(this.local, this.oldHash, this.newHash);
+            this.runTasks();
+
+            verify(this.scheduler).schedule(this.acquiredSession);
+            verify(this.factory, never()).findValue("retained");
+            verify(this.scheduler, times(1)).schedule(any(ImmutableSession.class));
+            assertEquals(1L, rebalancer.getRebalanceCount());
+        }
+    }
+
+    @Test
+    public void ownershipLost() {
+        // A subsequent topology change moved the session back to its previous owner before the rebalance ran
+        when(this.dist.getConsistentHash()).thenReturn(this.oldHash);
+
+        try (SchedulerRebalancer<Object> rebalancer = new SchedulerRebalancer<>(this.cache, this.factory, this.scheduler, this.executor)) {
+            rebalancer.rebalance(this.local, this.oldHash, this.newHash);
+            this.runTasks();
+
+            verify(this.factory, never()).findValue(anyString());
+            verify(this.scheduler, never()).schedule(any(ImmutableSession.class));
+        }
+    }
+
+    @Test
+    public void cancel() {
+        when(this.dist.getConsistentHash()).thenReturn(this.newHash);
+
+        try (SchedulerRebalancer<Object> rebalancer = new SchedulerRebalancer<>(this.cache, this.factory, this.scheduler, this.executor)) {
+            rebalancer.rebalance(this.local, this.oldHash, this.newHash);
+            // Scan the data container, but do not process the resulting chunks yet
+            this.tasks.remove(0).run();
+            assertEquals(1, this.tasks.size());
+
+            rebalancer.cancel();
+            this.runTasks();
+
+            verify(this.scheduler, never()).schedule(any(ImmutableSession.class));
+            assertEquals(0L, rebalancer.getRebalanceCount());
+        }
+    }
+}
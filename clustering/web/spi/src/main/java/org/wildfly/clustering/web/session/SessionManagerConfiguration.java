@@ -39,4 +39,10 @@ public interface SessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Indicates whether non-owner nodes of a distributed session cache should keep a local copy of the sessions they serve.
+     * @return true, if a near cache should be used, false otherwise
+     */
+    boolean isNearCacheEnabled();
 }
@@ -35,12 +35,14 @@ import org.wildfly.clustering.web.Batch;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionManager;
+import org.wildfly.clustering.web.session.SessionManagerStatistics;
+import org.wildfly.extension.undertow.session.DistributableSessionManagerStatistics;
 
 /**
  * Adapts a distributable {@link SessionManager} to an Undertow {@link io.undertow.server.session.SessionManager}.
  * @author Paul Ferraro
  */
-public class DistributableSessionManager implements UndertowSessionManager {
+public class DistributableSessionManager implements UndertowSessionManager, DistributableSessionManagerStatistics {
 
     private static final int MAX_SESSION_ID_GENERATION_ATTEMPTS = 10;
 
@@ -63,6 +65,16 @@ public class DistributableSessionManager implements UndertowSessionManager {
         return this.manager;
     }
 
+    @Override
+    public long getSchedulerRebalanceCount() {
+        return (this.manager instanceof SessionManagerStatistics) ? ((SessionManagerStatistics) this.manager).getSchedulerRebalanceCount() : 0L;
+    }
+
+    @Override
+    public long getSchedulerRebalanceTime() {
+        return (this.manager instanceof SessionManagerStatistics) ? ((SessionManagerStatistics) this.manager).getSchedulerRebalanceTime(TimeUnit.MILLISECONDS) : 0L;
+    }
+
     @Override
     public void start() {
         this.manager.start();
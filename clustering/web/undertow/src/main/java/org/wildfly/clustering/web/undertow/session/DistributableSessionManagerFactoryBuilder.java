@@ -87,6 +87,11 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
             public String getCacheName() {
                 return config.getCacheName();
             }
+
+            @Override
+            public boolean isNearCacheEnabled() {
+                return config.isNearCacheEnabled();
+            }
         };
         this.builder.buildDeploymentDependency(target, clusteringServiceName, configuration)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
@@ -26,6 +26,7 @@ package org.jboss.as.connector.dynamicresource;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 import org.jboss.as.connector.subsystems.common.pool.PoolMetrics;
@@ -99,6 +100,9 @@ public class StatisticsResourceDefinition extends SimpleResourceDefinition {
             if (plugin.getType(name) == long.class) {
                 modelType = ModelType.LONG;
             }
+            if (Map.class.isAssignableFrom(plugin.getType(name))) {
+                modelType = ModelType.OBJECT;
+            }
             SimpleAttributeDefinition attribute = new SimpleAttributeDefinitionBuilder(name, modelType)
                     .setAllowNull(true)
                     .setStorageRuntime()
@@ -26,6 +26,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAM
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.as.connector.logging.ConnectorLogger;
 import org.jboss.as.connector.util.ConnectorServices;
@@ -98,7 +99,15 @@ public abstract class PoolMetrics implements OperationStepHandler {
                         if (managementRepoService != null) {
                             try {
                                 final ModelNode result = context.getResult();
-                                result.set("" + stats.getValue(attributeName));
+                                final Object value = stats.getValue(attributeName);
+                                if (value instanceof Map) {
+                                    result.setEmptyObject();
+                                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                                        result.get(String.valueOf(entry.getKey())).set("" + entry.getValue());
+                                    }
+                                } else {
+                                    result.set("" + value);
+                                }
 
                             } catch (Exception e) {
                                throw new OperationFailedException(ConnectorLogger.ROOT_LOGGER.failedToGetMetrics(e.getLocalizedMessage()));
@@ -26,6 +26,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.DATASOURCE
 import static org.jboss.as.connector.subsystems.datasources.Constants.ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JTA;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REFILL_ON_FAILURE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
@@ -124,6 +125,7 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
         final String jndiName = model.get(JNDI_NAME.getName()).asString();
         boolean jta = JTA.resolveModelAttribute(context, operation).asBoolean();
         final boolean statsEnabled = STATISTICS_ENABLED.resolveModelAttribute(context, operation).asBoolean();
+        final boolean refillOnFailure = REFILL_ON_FAILURE.resolveModelAttribute(context, operation).asBoolean();
 
         final ServiceTarget serviceTarget = context.getServiceTarget();
 
@@ -145,6 +147,8 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
         driverDemanderBuilder.setInitialMode(ServiceController.Mode.ACTIVE);
 
         AbstractDataSourceService dataSourceService = createDataSourceService(dsName);
+        dataSourceService.setStatisticsEnabled(statsEnabled);
+        dataSourceService.setRefillOnFailure(refillOnFailure);
 
         final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
 
@@ -29,15 +29,21 @@ import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.Driver;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
 import javax.naming.Reference;
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
 import javax.resource.spi.ManagedConnectionFactory;
+import javax.security.auth.Subject;
 import javax.sql.DataSource;
 
 import org.jboss.as.connector.logging.ConnectorLogger;
@@ -93,6 +99,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
 public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     public static final ServiceName SERVICE_NAME_BASE = ServiceName.JBOSS.append("data-source");
+    // name of the IronJacamar thread which prefills and refills the pools
+    private static final String POOL_FILLER_THREAD_NAME = "JCA PoolFiller";
     private static final DeployersLogger DEPLOYERS_LOGGER = Logger.getMessageLogger(DeployersLogger.class, AS7DataSourceDeployer.class.getName());
     protected final InjectedValue<TransactionIntegration> transactionIntegrationValue = new InjectedValue<TransactionIntegration>();
     private final InjectedValue<Driver> driverValue = new InjectedValue<Driver>();
@@ -106,6 +114,11 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     protected CommonDeployment deploymentMD;
     private javax.sql.DataSource sqlDataSource;
+    private final PoolProfile poolProfile = new PoolProfile();
+    private final StatementCache statementCache = new StatementCache();
+    private final ValidationEngine validationEngine = new ValidationEngine();
+    private volatile boolean statisticsEnabled;
+    private volatile boolean refillOnFailure;
 
     /**
      * The class loader to use. If null the Driver class loader will be used instead.
@@ -125,7 +138,13 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             if (deploymentMD.getCfs().length != 1) {
                 throw ConnectorLogger.ROOT_LOGGER.cannotStartDs();
             }
-            sqlDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
+            final javax.sql.DataSource poolDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
+            // the pool profile and the statement cache are only reported by the data source bound with statistics enabled
+            sqlDataSource = statisticsEnabled ? new ProfilingDataSource(poolDataSource, poolProfile, statementCache) : poolDataSource;
+            if (deploymentMD.getDataSources() != null && deploymentMD.getDataSources().length > 0) {
+                final org.jboss.jca.core.api.management.DataSource mgtDs = deploymentMD.getDataSources()[0];
+                validationEngine.start(mgtDs.getPool(), mgtDs.getPoolConfiguration(), poolDataSource, executor.getValue(), refillOnFailure);
+            }
             DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
         } catch (Throwable t) {
             throw ConnectorLogger.ROOT_LOGGER.deploymentError(t, jndiName);
@@ -160,6 +179,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
      * asynchronously from the MSC thread that invoked stop.
      */
     protected synchronized void stopService() {
+        validationEngine.stop();
         if (deploymentMD != null) {
 
             if (deploymentMD.getDataSources() != null && managementRepositoryValue.getValue() != null) {
@@ -179,10 +199,61 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     }
 
+    /**
+     * Whether the statistics of the data source are enabled. The value is read when the service starts.
+     */
+    public void setStatisticsEnabled(final boolean statisticsEnabled) {
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    /**
+     * Whether the pool is flushed and refilled in the background after a database failure. The value is read when the
+     * service starts.
+     */
+    public void setRefillOnFailure(final boolean refillOnFailure) {
+        this.refillOnFailure = refillOnFailure;
+    }
+
     public CommonDeployment getDeploymentMD() {
         return deploymentMD;
     }
 
+    public PoolProfile getPoolProfile() {
+        return poolProfile;
+    }
+
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public ValidationEngine getValidationEngine() {
+        return validationEngine;
+    }
+
+    /**
+     * Prepare the most executed statements of the data source on a new physical connection, so that its prepared
+     * statement cache starts warm. The connection is not yet known to the pool, so it can only be warmed on the thread
+     * creating it. Only the connections created by the pool filler thread, when prefilling or refilling the pool, are
+     * warmed: a connection created for a request is handed to the request as is. The warm-up is bounded by
+     * {@link StatementCache#warm(java.sql.Connection, int)}.
+     */
+    private void warmStatements(final ManagedConnection mc, final Subject subject, final ConnectionRequestInfo cri, final Integer cacheSize) {
+        if (!statementCache.isEnabled() || cacheSize == null || cacheSize <= 0
+                || !Thread.currentThread().getName().startsWith(POOL_FILLER_THREAD_NAME)) {
+            return;
+        }
+        try {
+            final java.sql.Connection connection = (java.sql.Connection) mc.getConnection(subject, cri);
+            try {
+                statementCache.warm(connection, cacheSize);
+            } finally {
+                connection.close();
+            }
+        } catch (ResourceException | SQLException e) {
+            DS_DEPLOYER_LOGGER.debugf(e, "Unable to prepare statements on a new connection of %s", jndiName);
+        }
+    }
+
     public synchronized DataSource getValue() throws IllegalStateException, IllegalArgumentException {
         return sqlDataSource;
     }
@@ -609,6 +680,37 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
         private static final long serialVersionUID = 4876371551002746953L;
 
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final ManagedConnection mc;
+            try {
+                mc = super.createManagedConnection(subject, cri);
+            } catch (ResourceException e) {
+                validationEngine.connectionFailed();
+                throw e;
+            }
+            if (statisticsEnabled) {
+                mc.addConnectionEventListener(poolProfile);
+            }
+            warmStatements(mc, subject, cri, getPreparedStatementCacheSize());
+            return mc;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Set getInvalidConnections(Set connectionSet) throws ResourceException {
+            final long start = System.nanoTime();
+            final Set invalid;
+            try {
+                invalid = super.getInvalidConnections(connectionSet);
+            } catch (ResourceException e) {
+                validationEngine.validated(System.nanoTime() - start, connectionSet.size());
+                throw e;
+            }
+            validationEngine.validated(System.nanoTime() - start, invalid == null ? 0 : invalid.size());
+            return invalid;
+        }
+
         public void setXaProps(Map<String, String> inputProperties) {
             xaProps.putAll(inputProperties);
         }
@@ -624,6 +726,37 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
         private static final long serialVersionUID = 4876371551002746953L;
 
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final ManagedConnection mc;
+            try {
+                mc = super.createManagedConnection(subject, cri);
+            } catch (ResourceException e) {
+                validationEngine.connectionFailed();
+                throw e;
+            }
+            if (statisticsEnabled) {
+                mc.addConnectionEventListener(poolProfile);
+            }
+            warmStatements(mc, subject, cri, getPreparedStatementCacheSize());
+            return mc;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Set getInvalidConnections(Set connectionSet) throws ResourceException {
+            final long start = System.nanoTime();
+            final Set invalid;
+            try {
+                invalid = super.getInvalidConnections(connectionSet);
+            } catch (ResourceException e) {
+                validationEngine.validated(System.nanoTime() - start, connectionSet.size());
+                throw e;
+            }
+            validationEngine.validated(System.nanoTime() - start, invalid == null ? 0 : invalid.size());
+            return invalid;
+        }
+
 
         public void setTransactionSynchronizationRegistry(javax.transaction.TransactionSynchronizationRegistry tsr) {
             super.setTransactionSynchronizationRegistry(tsr);
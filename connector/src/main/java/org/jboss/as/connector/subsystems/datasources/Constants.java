@@ -34,6 +34,7 @@ import org.jboss.as.connector.logging.ConnectorLogger;
 import java.util.Arrays;
 import java.util.List;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ObjectListAttributeDefinition;
 import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.OperationFailedException;
@@ -43,12 +44,14 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.StringListAttributeDefinition;
 import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
@@ -80,6 +83,14 @@ public class Constants {
 
     static final String XA_DATASOURCE = "xa-data-source";
 
+    static final String ROUTING_DATA_SOURCE = "routing-data-source";
+
+    private static final String PRIMARY_NAME = "primary";
+
+    private static final String REPLICAS_NAME = "replicas";
+
+    private static final String ROUTE_NON_TRANSACTIONAL_NAME = "route-non-transactional";
+
     private static final String CONNECTION_URL_NAME = "connection-url";
 
     static final String JDBC_DRIVER_NAME = "jdbc-driver";
@@ -124,6 +135,8 @@ public class Constants {
 
     private static final String TRACKING_NAME = "tracking";
 
+    private static final String REFILL_ON_FAILURE_NAME = "refill-on-failure";
+
     static final String POOLNAME_NAME = "pool-name";
 
     private static final String ENABLED_NAME = "enabled";
@@ -564,7 +577,14 @@ public class Constants {
             .build();
 
 
-    static final List<SimpleAttributeDefinition> DATASOURCE_ATTRIBUTE_RELOAD_REQUIRED = Arrays.asList(JTA, STATISTICS_ENABLED);
+    static SimpleAttributeDefinition REFILL_ON_FAILURE = new SimpleAttributeDefinitionBuilder(REFILL_ON_FAILURE_NAME, ModelType.BOOLEAN)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .build();
+
+
+    static final List<SimpleAttributeDefinition> DATASOURCE_ATTRIBUTE_RELOAD_REQUIRED = Arrays.asList(JTA, STATISTICS_ENABLED, REFILL_ON_FAILURE);
     static final SimpleAttributeDefinition[] DATASOURCE_ATTRIBUTE = new SimpleAttributeDefinition[]{CONNECTION_URL,
             DRIVER_CLASS, Constants.DATASOURCE_CLASS, JNDI_NAME,
             DATASOURCE_DRIVER,
@@ -596,7 +616,7 @@ public class Constants {
             org.jboss.as.connector.subsystems.common.pool.Constants.BACKGROUNDVALIDATION,
             org.jboss.as.connector.subsystems.common.pool.Constants.USE_FAST_FAIL,
             VALIDATE_ON_MATCH, SPY,
-            USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING};
+            USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, REFILL_ON_FAILURE};
 
     static final PropertiesAttributeDefinition[] DATASOURCE_PROPERTIES_ATTRIBUTES = new PropertiesAttributeDefinition[]{
             REAUTHPLUGIN_PROPERTIES,
@@ -671,7 +691,7 @@ public class Constants {
             org.jboss.as.connector.subsystems.common.pool.Constants.BACKGROUNDVALIDATION,
             org.jboss.as.connector.subsystems.common.pool.Constants.USE_FAST_FAIL,
             VALIDATE_ON_MATCH, XA_RESOURCE_TIMEOUT,
-            SPY, USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING,
+            SPY, USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, REFILL_ON_FAILURE,
             RECOVERY_USERNAME, RECOVERY_PASSWORD,
             RECOVERY_SECURITY_DOMAIN, RECOVER_PLUGIN_CLASSNAME,
             NO_RECOVERY, URL_PROPERTY};
@@ -752,6 +772,27 @@ public class Constants {
     };
 
 
+    static final SimpleAttributeDefinition PRIMARY = new SimpleAttributeDefinitionBuilder(PRIMARY_NAME, ModelType.STRING, false)
+            .setXmlName(PRIMARY_NAME)
+            .setAllowExpression(true)
+            .setValidator(new StringLengthValidator(1, false, true))
+            .build();
+
+    static final StringListAttributeDefinition REPLICAS = new StringListAttributeDefinition.Builder(REPLICAS_NAME)
+            .setXmlName(Element.REPLICA.getLocalName())
+            .setAllowNull(false)
+            .setAllowExpression(true)
+            .setElementValidator(new StringLengthValidator(1, false, true))
+            .build();
+
+    static final SimpleAttributeDefinition ROUTE_NON_TRANSACTIONAL = new SimpleAttributeDefinitionBuilder(ROUTE_NON_TRANSACTIONAL_NAME, ModelType.BOOLEAN)
+            .setDefaultValue(new ModelNode(true))
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .build();
+
+    static final AttributeDefinition[] ROUTING_DATASOURCE_ATTRIBUTES = {JNDI_NAME, PRIMARY, REPLICAS, ROUTE_NON_TRANSACTIONAL};
+
     static final ObjectTypeAttributeDefinition INSTALLED_DRIVER = ObjectTypeAttributeDefinition.Builder.of("installed-driver", JDBC_DRIVER_ATTRIBUTES).build();
     static final ObjectListAttributeDefinition INSTALLED_DRIVERS = ObjectListAttributeDefinition.Builder.of("installed-drivers", INSTALLED_DRIVER)
             .setResourceOnly().setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -39,6 +39,8 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
 
     private static final PathElement JDBC_STATISTICS = PathElement.pathElement("statistics", "jdbc");
     private static final PathElement POOL_STATISTICS = PathElement.pathElement("statistics", "pool");
+    private static final PathElement STATEMENT_STATISTICS = PathElement.pathElement("statistics", "statement-cache");
+    private static final PathElement VALIDATION_STATISTICS = PathElement.pathElement("statistics", "validation");
 
     private final ManagementResourceRegistration overrideRegistration;
     private final Resource resource;
@@ -58,7 +60,8 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         switch (transition) {
             case STARTING_to_UP: {
 
-                CommonDeployment deploymentMD = ((AbstractDataSourceService) controller.getService()).getDeploymentMD();
+                AbstractDataSourceService dataSourceService = (AbstractDataSourceService) controller.getService();
+                CommonDeployment deploymentMD = dataSourceService.getDeploymentMD();
 
                 StatisticsPlugin jdbcStats = deploymentMD.getDataSources()[0].getStatistics();
                 StatisticsPlugin poolStats = deploymentMD.getDataSources()[0].getPool().getStatistics();
@@ -82,6 +85,26 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                         }
                     }
                 }
+
+                // the pool profile and the statement cache are reported by the data source bound with statistics enabled
+                if (overrideRegistration != null && statsEnabled) {
+                    ManagementResourceRegistration profileRegistration = overrideRegistration.registerSubModel(new PoolProfileResourceDefinition(dataSourceService.getPoolProfile()));
+                    profileRegistration.setRuntimeOnly(true);
+                    resource.registerChild(PoolProfileResourceDefinition.PATH, new PlaceholderResource.PlaceholderResourceEntry(PoolProfileResourceDefinition.PATH));
+
+                    ManagementResourceRegistration statementRegistration = overrideRegistration.registerSubModel(new StatisticsResourceDefinition(STATEMENT_STATISTICS, DataSourcesSubsystemProviders.RESOURCE_NAME, dataSourceService.getStatementCache()));
+                    statementRegistration.setRuntimeOnly(true);
+                    resource.registerChild(STATEMENT_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(STATEMENT_STATISTICS));
+                }
+
+                // validation and refill timings follow the statistics of the pool
+                ValidationEngine validationEngine = dataSourceService.getValidationEngine();
+                validationEngine.setEnabled(statsEnabled);
+                if (overrideRegistration != null) {
+                    ManagementResourceRegistration validationRegistration = overrideRegistration.registerSubModel(new StatisticsResourceDefinition(VALIDATION_STATISTICS, DataSourcesSubsystemProviders.RESOURCE_NAME, validationEngine));
+                    validationRegistration.setRuntimeOnly(true);
+                    resource.registerChild(VALIDATION_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(VALIDATION_STATISTICS));
+                }
                 break;
 
 
@@ -91,6 +114,9 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                 if (overrideRegistration != null) {
                     overrideRegistration.unregisterSubModel(JDBC_STATISTICS);
                     overrideRegistration.unregisterSubModel(POOL_STATISTICS);
+                    overrideRegistration.unregisterSubModel(PoolProfileResourceDefinition.PATH);
+                    overrideRegistration.unregisterSubModel(STATEMENT_STATISTICS);
+                    overrideRegistration.unregisterSubModel(VALIDATION_STATISTICS);
                 }
 
                 if (resource.hasChild(JDBC_STATISTICS)) {
@@ -100,6 +126,18 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                 if (resource.hasChild(POOL_STATISTICS)) {
                     resource.removeChild(POOL_STATISTICS);
                 }
+
+                if (resource.hasChild(PoolProfileResourceDefinition.PATH)) {
+                    resource.removeChild(PoolProfileResourceDefinition.PATH);
+                }
+
+                if (resource.hasChild(STATEMENT_STATISTICS)) {
+                    resource.removeChild(STATEMENT_STATISTICS);
+                }
+
+                if (resource.hasChild(VALIDATION_STATISTICS)) {
+                    resource.removeChild(VALIDATION_STATISTICS);
+                }
                 break;
 
             }
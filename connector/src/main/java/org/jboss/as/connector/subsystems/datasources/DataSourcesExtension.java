@@ -100,6 +100,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.NO_TX_SEPA
 import static org.jboss.as.connector.subsystems.datasources.Constants.PAD_XID;
 import static org.jboss.as.connector.subsystems.datasources.Constants.PASSWORD;
 import static org.jboss.as.connector.subsystems.datasources.Constants.PREPARED_STATEMENTS_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.PRIMARY;
 import static org.jboss.as.connector.subsystems.datasources.Constants.QUERY_TIMEOUT;
 import static org.jboss.as.connector.subsystems.datasources.Constants.REAUTHPLUGIN_PROPERTIES;
 import static org.jboss.as.connector.subsystems.datasources.Constants.REAUTH_PLUGIN_CLASSNAME;
@@ -108,6 +109,10 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVERY_S
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVERY_USERNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVER_PLUGIN_CLASSNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVER_PLUGIN_PROPERTIES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REFILL_ON_FAILURE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REPLICAS;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTE_NON_TRANSACTIONAL;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTING_DATA_SOURCE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SAME_RM_OVERRIDE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SECURITY_DOMAIN;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SET_TX_QUERY_TIMEOUT;
@@ -221,6 +226,25 @@ public class DataSourcesExtension implements Extension {
 
             }
 
+            if (node.hasDefined(ROUTING_DATA_SOURCE)) {
+                for (Property routingProperty : node.get(ROUTING_DATA_SOURCE).asPropertyList()) {
+                    ModelNode routingNode = routingProperty.getValue();
+                    writer.writeStartElement(Element.ROUTING_DATASOURCE.getLocalName());
+                    writer.writeAttribute("name", routingProperty.getName());
+                    JNDI_NAME.marshallAsAttribute(routingNode, writer);
+                    PRIMARY.marshallAsAttribute(routingNode, writer);
+                    ROUTE_NON_TRANSACTIONAL.marshallAsAttribute(routingNode, writer);
+                    if (routingNode.hasDefined(REPLICAS.getName())) {
+                        for (ModelNode replica : routingNode.get(REPLICAS.getName()).asList()) {
+                            writer.writeStartElement(REPLICAS.getXmlName());
+                            writer.writeCharacters(replica.asString());
+                            writer.writeEndElement();
+                        }
+                    }
+                    writer.writeEndElement();
+                }
+            }
+
             if (node.hasDefined(JDBC_DRIVER_NAME)) {
                 writer.writeStartElement(DataSources.Tag.DRIVERS.getLocalName());
                 for (Property driverProperty : node.get(JDBC_DRIVER_NAME).asPropertyList()) {
@@ -258,6 +282,7 @@ public class DataSourcesExtension implements Extension {
                 CONNECTABLE.marshallAsAttribute(dataSourceNode, writer);
                 TRACKING.marshallAsAttribute(dataSourceNode, writer);
                 STATISTICS_ENABLED.marshallAsAttribute(dataSourceNode, writer);
+                REFILL_ON_FAILURE.marshallAsAttribute(dataSourceNode, writer);
 
                 if (!isXADataSource) {
                     CONNECTION_URL.marshallAsElement(dataSourceNode, writer);
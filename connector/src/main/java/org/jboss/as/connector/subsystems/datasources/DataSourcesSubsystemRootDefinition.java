@@ -93,6 +93,9 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
 
         resourceRegistration.registerSubModel(XaDataSourceDefinition.createInstance(registerRuntimeOnly, deployed));
 
+        if (! deployed)
+            resourceRegistration.registerSubModel(RoutingDataSourceDefinition.INSTANCE);
+
     }
 
     static void registerTransformers(SubsystemRegistration subsystem) {
@@ -108,6 +111,7 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
             //JdbcDriverDefinition.registerTransformers110(builder);
             DataSourceDefinition.registerTransformers200(builder);
             XaDataSourceDefinition.registerTransformers200(builder);
+            RoutingDataSourceDefinition.registerTransformers(builder);
             return builder.build();
     }
 
@@ -117,6 +121,7 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
         JdbcDriverDefinition.registerTransformers110(builder);
         DataSourceDefinition.registerTransformers110(builder);
         XaDataSourceDefinition.registerTransformers110(builder);
+        RoutingDataSourceDefinition.registerTransformers(builder);
         return builder.build();
     }
 
@@ -126,6 +131,7 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
         JdbcDriverDefinition.registerTransformers111(builder);
         DataSourceDefinition.registerTransformers111(builder);
         XaDataSourceDefinition.registerTransformers111(builder);
+        RoutingDataSourceDefinition.registerTransformers(builder);
         return builder.build();
     }
 
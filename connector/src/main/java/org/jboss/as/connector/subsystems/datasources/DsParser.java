@@ -73,6 +73,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.PAD_XID;
 import static org.jboss.as.connector.subsystems.datasources.Constants.PASSWORD;
 import static org.jboss.as.connector.subsystems.datasources.Constants.POOLNAME_NAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.PREPARED_STATEMENTS_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.PRIMARY;
 import static org.jboss.as.connector.subsystems.datasources.Constants.QUERY_TIMEOUT;
 import static org.jboss.as.connector.subsystems.datasources.Constants.REAUTHPLUGIN_PROPERTIES;
 import static org.jboss.as.connector.subsystems.datasources.Constants.REAUTH_PLUGIN_CLASSNAME;
@@ -81,6 +82,9 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVERY_S
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVERY_USERNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVER_PLUGIN_CLASSNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.RECOVER_PLUGIN_PROPERTIES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REPLICAS;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTE_NON_TRANSACTIONAL;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTING_DATA_SOURCE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SAME_RM_OVERRIDE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SECURITY_DOMAIN;
 import static org.jboss.as.connector.subsystems.datasources.Constants.SET_TX_QUERY_TIMEOUT;
@@ -202,6 +206,11 @@ public class DsParser extends AbstractParser {
                         return;
                 }
                 case START_ELEMENT: {
+                    if (Element.forName(reader.getLocalName()) == Element.ROUTING_DATASOURCE
+                            && Namespace.forUri(reader.getNamespaceURI()) == Namespace.DATASOURCES_3_0) {
+                        parseRoutingDataSource(reader, list, parentAddress);
+                        break;
+                    }
                     switch (DataSources.Tag.forName(reader.getLocalName())) {
                         case DATASOURCE: {
                             switch (Namespace.forUri(reader.getNamespaceURI())) {
@@ -248,6 +257,53 @@ public class DsParser extends AbstractParser {
         throw new ParserException(bundle.unexpectedEndOfDocument());
     }
 
+    private void parseRoutingDataSource(final XMLExtendedStreamReader reader, final List<ModelNode> list, final ModelNode parentAddress) throws XMLStreamException, ParserException,
+            ValidateException {
+        final ModelNode routingAddress = parentAddress.clone();
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(ADD);
+
+        final String name = rawAttributeText(reader, "name");
+        if (name == null) {
+            throw ParseUtils.missingRequired(reader, "name");
+        }
+        JNDI_NAME.parseAndSetParameter(rawAttributeText(reader, JNDI_NAME.getXmlName()), operation, reader);
+        PRIMARY.parseAndSetParameter(rawAttributeText(reader, PRIMARY.getXmlName()), operation, reader);
+        final String routeNonTransactional = rawAttributeText(reader, ROUTE_NON_TRANSACTIONAL.getXmlName());
+        if (routeNonTransactional != null) {
+            ROUTE_NON_TRANSACTIONAL.parseAndSetParameter(routeNonTransactional, operation, reader);
+        }
+
+        routingAddress.add(ROUTING_DATA_SOURCE, name);
+        routingAddress.protect();
+
+        operation.get(OP_ADDR).set(routingAddress);
+
+        //elements reading
+        while (reader.hasNext()) {
+            switch (reader.nextTag()) {
+                case END_ELEMENT: {
+                    if (Element.forName(reader.getLocalName()) == Element.ROUTING_DATASOURCE) {
+                        list.add(operation);
+                        return;
+                    } else if (Element.forName(reader.getLocalName()) != Element.REPLICA) {
+                        throw new ParserException(bundle.unexpectedEndTag(reader.getLocalName()));
+                    }
+                    break;
+                }
+                case START_ELEMENT: {
+                    if (Element.forName(reader.getLocalName()) == Element.REPLICA) {
+                        REPLICAS.parseAndAddParameterElement(rawElementText(reader), operation, reader);
+                    } else {
+                        throw new ParserException(bundle.unexpectedElement(reader.getLocalName()));
+                    }
+                    break;
+                }
+            }
+        }
+        throw new ParserException(bundle.unexpectedEndOfDocument());
+    }
+
     private void parseDriver(final XMLExtendedStreamReader reader, final List<ModelNode> list, final ModelNode parentAddress) throws XMLStreamException, ParserException,
             ValidateException {
         final ModelNode driverAddress = parentAddress.clone();
@@ -583,6 +639,13 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.REFILL_ON_FAILURE.getName().equals(reader.getAttributeLocalName(i))) {
+                        final String value = rawAttributeText(reader, Constants.REFILL_ON_FAILURE.getXmlName());
+                        if (value != null) {
+                            Constants.REFILL_ON_FAILURE.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
@@ -1010,6 +1073,13 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.REFILL_ON_FAILURE.getName().equals(reader.getAttributeLocalName(i))) {
+                        final String value = rawAttributeText(reader, Constants.REFILL_ON_FAILURE.getXmlName());
+                        if (value != null) {
+                            Constants.REFILL_ON_FAILURE.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
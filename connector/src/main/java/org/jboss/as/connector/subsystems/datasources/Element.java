@@ -32,7 +32,8 @@ import java.util.Map;
 
 public enum Element {
     /** always the first **/
-    UNKNOWN(null), SUBSYSTEM("subsystem"), DATASOURCES("datasources"),  DRIVERS("drivers"), DRIVER("driver");
+    UNKNOWN(null), SUBSYSTEM("subsystem"), DATASOURCES("datasources"),  DRIVERS("drivers"), DRIVER("driver"),
+    ROUTING_DATASOURCE("routing-datasource"), REPLICA("replica");
 
     private final String name;
 
@@ -0,0 +1,332 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ConnectionEventListener;
+
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.modules.ModuleClassLoader;
+
+/**
+ * Profile of the connections borrowed from a data source pool: acquisition and usage time histograms, borrow counts
+ * per deployment and connections held longer than a threshold.
+ *
+ * The profile is disabled by default. The acquisitions are reported by the data source bound when the statistics of
+ * the data source are enabled, and the usages by the managed connections, which notify the profile when the
+ * application closes a connection handle.
+ */
+public class PoolProfile implements StatisticsPlugin, ConnectionEventListener {
+
+    static final String ACQUISITION_COUNT = "AcquisitionCount";
+    static final String ACQUISITION_TIME_HISTOGRAM = "AcquisitionTimeHistogram";
+    static final String MAX_ACQUISITION_TIME = "MaxAcquisitionTime";
+    static final String USAGE_COUNT = "UsageCount";
+    static final String USAGE_TIME_HISTOGRAM = "UsageTimeHistogram";
+    static final String MAX_USAGE_TIME = "MaxUsageTime";
+    static final String BORROW_COUNT_PER_DEPLOYMENT = "BorrowCountPerDeployment";
+    static final String LEAKED_CONNECTION_COUNT = "LeakedConnectionCount";
+    static final String LEAKED_CONNECTIONS = "LeakedConnections";
+
+    static final long DEFAULT_LEAK_THRESHOLD = 60000;
+
+    /**
+     * Upper bounds (in milliseconds) of the histogram buckets, the last bucket is unbounded.
+     */
+    private static final long[] BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+
+    private static final String NO_DEPLOYMENT = "";
+
+    private final Map<String, Class<?>> types = new LinkedHashMap<String, Class<?>>();
+    private final Map<String, String> descriptions = new LinkedHashMap<String, String>();
+
+    private volatile boolean enabled;
+    private volatile long leakThreshold = DEFAULT_LEAK_THRESHOLD;
+
+    private final AtomicLongArray acquisitionTimes = new AtomicLongArray(BUCKETS.length + 1);
+    private final AtomicLong maxAcquisitionTime = new AtomicLong();
+    private final AtomicLongArray usageTimes = new AtomicLongArray(BUCKETS.length + 1);
+    private final AtomicLong maxUsageTime = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> borrowCounts = new ConcurrentHashMap<String, AtomicLong>();
+    private final ConcurrentMap<Object, Borrow> borrowed = new ConcurrentHashMap<Object, Borrow>();
+    private final AtomicLong borrowIds = new AtomicLong();
+
+    public PoolProfile() {
+        register(ACQUISITION_COUNT, long.class, "The number of connections acquired from the pool");
+        register(ACQUISITION_TIME_HISTOGRAM, Map.class, "The number of connection acquisitions per acquisition time bucket (upper bound in ms)");
+        register(MAX_ACQUISITION_TIME, long.class, "The maximum time (in ms) spent acquiring a connection");
+        register(USAGE_COUNT, long.class, "The number of connections returned to the pool");
+        register(USAGE_TIME_HISTOGRAM, Map.class, "The number of connection usages per usage time bucket (upper bound in ms)");
+        register(MAX_USAGE_TIME, long.class, "The maximum time (in ms) a connection was held before being returned");
+        register(BORROW_COUNT_PER_DEPLOYMENT, Map.class, "The number of connections acquired per deployment");
+        register(LEAKED_CONNECTION_COUNT, int.class, "The number of connections held longer than the leak threshold");
+        register(LEAKED_CONNECTIONS, Map.class, "The connections held longer than the leak threshold, with the deployment and current stack of the borrowing thread");
+    }
+
+    private void register(String name, Class<?> type, String description) {
+        types.put(name, type);
+        descriptions.put(name, description);
+    }
+
+    /**
+     * Record the acquisition of a connection. Its usage is recorded when the managed connection reports that the
+     * handle was closed.
+     *
+     * @param connection the connection handle acquired from the pool
+     * @param acquisitionStart the value of {@link System#nanoTime()} when the acquisition started
+     */
+    void borrowed(final Connection connection, final long acquisitionStart) {
+        final long now = System.nanoTime();
+        record(acquisitionTimes, maxAcquisitionTime, now - acquisitionStart);
+
+        final String deployment = currentDeployment();
+        AtomicLong count = borrowCounts.get(deployment);
+        if (count == null) {
+            AtomicLong existing = borrowCounts.putIfAbsent(deployment, count = new AtomicLong());
+            if (existing != null) {
+                count = existing;
+            }
+        }
+        count.incrementAndGet();
+
+        borrowed.put(connection, new Borrow(borrowIds.incrementAndGet(), connection, deployment, Thread.currentThread(), now));
+    }
+
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        final Object handle = event.getConnectionHandle();
+        if (handle != null) {
+            final Borrow borrow = borrowed.remove(handle);
+            if (borrow != null) {
+                record(usageTimes, maxUsageTime, System.nanoTime() - borrow.start);
+            }
+        }
+    }
+
+    @Override
+    public void localTransactionStarted(ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionCommitted(ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionRolledback(ConnectionEvent event) {
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+    }
+
+    long getLeakThreshold() {
+        return leakThreshold;
+    }
+
+    void setLeakThreshold(long leakThreshold) {
+        this.leakThreshold = leakThreshold;
+    }
+
+    private static void record(AtomicLongArray histogram, AtomicLong max, long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+        long current = max.get();
+        while (millis > current && !max.compareAndSet(current, millis)) {
+            current = max.get();
+        }
+    }
+
+    private static Map<String, Long> histogram(AtomicLongArray histogram) {
+        final Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            result.put(Long.toString(BUCKETS[i]), histogram.get(i));
+        }
+        result.put("+Inf", histogram.get(BUCKETS.length));
+        return result;
+    }
+
+    private static long count(AtomicLongArray histogram) {
+        long count = 0;
+        for (int i = 0; i < histogram.length(); i++) {
+            count += histogram.get(i);
+        }
+        return count;
+    }
+
+    private static String currentDeployment() {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader instanceof ModuleClassLoader) {
+            return ((ModuleClassLoader) classLoader).getModule().getIdentifier().getName();
+        }
+        return NO_DEPLOYMENT;
+    }
+
+    /**
+     * The connections held longer than the leak threshold. The stack of the borrowing thread is sampled when the
+     * statistic is read so that no stack trace is captured when connections are acquired.
+     */
+    private Map<String, String> leakedConnections() {
+        final long threshold = TimeUnit.MILLISECONDS.toNanos(leakThreshold);
+        final long now = System.nanoTime();
+        final Map<String, String> result = new LinkedHashMap<String, String>();
+        for (Borrow borrow : borrowed.values()) {
+            final long held = now - borrow.start;
+            if (held > threshold) {
+                if (isClosed(borrow.connection)) {
+                    // closed by the connection manager, or after an error, without a close event
+                    borrowed.remove(borrow.connection, borrow);
+                    continue;
+                }
+                final StringBuilder description = new StringBuilder();
+                description.append("held for ").append(TimeUnit.NANOSECONDS.toMillis(held)).append(" ms");
+                if (!NO_DEPLOYMENT.equals(borrow.deployment)) {
+                    description.append(" by ").append(borrow.deployment);
+                }
+                final Thread thread = borrow.thread;
+                description.append(" in thread ").append(thread.getName());
+                if (thread.isAlive()) {
+                    for (StackTraceElement element : thread.getStackTrace()) {
+                        description.append("\n\tat ").append(element);
+                    }
+                } else {
+                    description.append(" (terminated)");
+                }
+                result.put("connection-" + borrow.id, description.toString());
+            }
+        }
+        return result;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    @Override
+    public Class getType(String name) {
+        return types.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        switch (name) {
+            case ACQUISITION_COUNT:
+                return count(acquisitionTimes);
+            case ACQUISITION_TIME_HISTOGRAM:
+                return histogram(acquisitionTimes);
+            case MAX_ACQUISITION_TIME:
+                return maxAcquisitionTime.get();
+            case USAGE_COUNT:
+                return count(usageTimes);
+            case USAGE_TIME_HISTOGRAM:
+                return histogram(usageTimes);
+            case MAX_USAGE_TIME:
+                return maxUsageTime.get();
+            case BORROW_COUNT_PER_DEPLOYMENT: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (Map.Entry<String, AtomicLong> entry : borrowCounts.entrySet()) {
+                    result.put(entry.getKey(), entry.getValue().get());
+                }
+                return result;
+            }
+            case LEAKED_CONNECTION_COUNT:
+                return leakedConnections().size();
+            case LEAKED_CONNECTIONS:
+                return leakedConnections();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < acquisitionTimes.length(); i++) {
+            acquisitionTimes.set(i, 0);
+            usageTimes.set(i, 0);
+        }
+        maxAcquisitionTime.set(0);
+        maxUsageTime.set(0);
+        borrowCounts.clear();
+    }
+
+    private static final class Borrow {
+        private final long id;
+        private final Connection connection;
+        private final String deployment;
+        private final Thread thread;
+        private final long start;
+
+        private Borrow(long id, Connection connection, String deployment, Thread thread, long start) {
+            this.id = id;
+            this.connection = connection;
+            this.deployment = deployment;
+            this.thread = thread;
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import org.jboss.as.connector.dynamicresource.StatisticsResourceDefinition;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Runtime resource exposing the {@link PoolProfile} of a data source.
+ */
+public class PoolProfileResourceDefinition extends StatisticsResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement("statistics", "pool-profile");
+
+    static final AttributeDefinition LEAK_THRESHOLD = new SimpleAttributeDefinitionBuilder("leak-threshold", ModelType.LONG)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(PoolProfile.DEFAULT_LEAK_THRESHOLD))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, false))
+            .setStorageRuntime()
+            .build();
+
+    private final PoolProfile profile;
+
+    PoolProfileResourceDefinition(final PoolProfile profile) {
+        super(PATH, DataSourcesSubsystemProviders.RESOURCE_NAME, profile);
+        this.profile = profile;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerReadWriteAttribute(LEAK_THRESHOLD, new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.getResult().set(profile.getLeakThreshold());
+                context.stepCompleted();
+            }
+        }, new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode value = operation.hasDefined(VALUE) ? operation.get(VALUE) : new ModelNode();
+                LEAK_THRESHOLD.getValidator().validateParameter(VALUE, value);
+                profile.setLeakThreshold(value.isDefined() ? value.asLong() : PoolProfile.DEFAULT_LEAK_THRESHOLD);
+                context.stepCompleted();
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Data source reporting the connections it hands out to a {@link PoolProfile} and a {@link StatementCache} while
+ * they are enabled. It is only bound in place of the pool data source when the statistics of the data source are
+ * enabled.
+ */
+class ProfilingDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final PoolProfile profile;
+    private final StatementCache statementCache;
+
+    ProfilingDataSource(final DataSource delegate, final PoolProfile profile, final StatementCache statementCache) {
+        this.delegate = delegate;
+        this.profile = profile;
+        this.statementCache = statementCache;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!profile.isEnabled()) {
+            return wrap(delegate.getConnection());
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection();
+        profile.borrowed(connection, start);
+        return wrap(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!profile.isEnabled()) {
+            return wrap(delegate.getConnection(username, password));
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection(username, password);
+        profile.borrowed(connection, start);
+        return wrap(connection);
+    }
+
+    private Connection wrap(final Connection connection) {
+        return statementCache.isEnabled() ? statementCache.wrap(connection) : connection;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) {
+            return iface.cast(delegate);
+        }
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Data source routing connections between a primary data source and its read replicas.
+ *
+ * Connections obtained inside a transaction marked read-only by putting {@link #READ_ONLY} to {@link Boolean#TRUE}
+ * in the {@link TransactionSynchronizationRegistry}, and, when {@code route-non-transactional} is enabled,
+ * connections obtained outside of a transaction, are obtained from the replica with the least open connections. If
+ * no replica can provide a connection, the primary is used. All other connections, including all connections when no transaction
+ * synchronization registry is available, are obtained from the primary.
+ */
+public class RoutingDataSource implements DataSource {
+
+    /**
+     * Key of the {@link TransactionSynchronizationRegistry} resource marking the current transaction read-only.
+     */
+    public static final String READ_ONLY = RoutingDataSource.class.getName() + ".READ_ONLY";
+
+    private final Route primary;
+    private final Route[] replicas;
+    private final TransactionSynchronizationRegistry registry;
+    private final boolean routeNonTransactional;
+    private final AtomicInteger next = new AtomicInteger();
+    private final RoutingStatistics statistics;
+
+    RoutingDataSource(final Route primary, final List<Route> replicas, final TransactionSynchronizationRegistry registry,
+                      final boolean routeNonTransactional) {
+        this.primary = primary;
+        this.replicas = replicas.toArray(new Route[replicas.size()]);
+        this.registry = registry;
+        this.routeNonTransactional = routeNonTransactional;
+        this.statistics = new RoutingStatistics(primary, replicas);
+    }
+
+    public RoutingStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return isReadOnly() ? replicaConnection(null, null) : primary.getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return isReadOnly() ? replicaConnection(username, password) : primary.getConnection(username, password);
+    }
+
+    private boolean isReadOnly() {
+        if (replicas.length == 0 || registry == null) {
+            return false;
+        }
+        if (registry.getTransactionStatus() == Status.STATUS_NO_TRANSACTION) {
+            return routeNonTransactional;
+        }
+        return Boolean.TRUE.equals(registry.getResource(READ_ONLY));
+    }
+
+    private Connection replicaConnection(final String username, final String password) throws SQLException {
+        // least open connections first, ties are spread over the replicas
+        final int start = (next.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+        final boolean[] tried = new boolean[replicas.length];
+        for (int attempt = 0; attempt < replicas.length; attempt++) {
+            int selected = -1;
+            for (int i = 0; i < replicas.length; i++) {
+                final int index = (start + i) % replicas.length;
+                if (!tried[index] && (selected < 0 || replicas[index].active.get() < replicas[selected].active.get())) {
+                    selected = index;
+                }
+            }
+            tried[selected] = true;
+            try {
+                return replicas[selected].getConnection(username, password);
+            } catch (SQLException e) {
+                DS_DEPLOYER_LOGGER.debugf(e, "Unable to obtain a connection from replica %s", replicas[selected].name);
+            }
+        }
+        primary.fallbacks.incrementAndGet();
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException(iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingDataSource[" + primary.name + "]";
+    }
+
+    /**
+     * A data source connections are routed to.
+     */
+    static final class Route {
+        final String name;
+        final DataSource dataSource;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicLong connections = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong fallbacks = new AtomicLong();
+
+        Route(final String name, final DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        Connection getConnection(final String username, final String password) throws SQLException {
+            active.incrementAndGet();
+            final Connection connection;
+            try {
+                connection = username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            } catch (SQLException | RuntimeException e) {
+                active.decrementAndGet();
+                failures.incrementAndGet();
+                throw e;
+            }
+            connections.incrementAndGet();
+            return new RoutedConnection(this, connection);
+        }
+    }
+}
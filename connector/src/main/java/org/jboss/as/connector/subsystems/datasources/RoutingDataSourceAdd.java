@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.SUBSYSTEM_DATASOURCES_LOGGER;
+import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
+import static org.jboss.as.connector.subsystems.datasources.Constants.PRIMARY;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REPLICAS;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTE_NON_TRANSACTIONAL;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTING_DATASOURCE_ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.connector.dynamicresource.StatisticsResourceDefinition;
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.PlaceholderResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.as.naming.service.BinderService;
+import org.jboss.as.txn.service.TxnServices;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * Operation handler responsible for adding a routing data source.
+ */
+public class RoutingDataSourceAdd extends AbstractAddStepHandler {
+
+    static final RoutingDataSourceAdd INSTANCE = new RoutingDataSourceAdd();
+
+    static final PathElement ROUTING_STATISTICS = PathElement.pathElement("statistics", "routing");
+
+    @Override
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+        for (AttributeDefinition attribute : ROUTING_DATASOURCE_ATTRIBUTES) {
+            attribute.validateAndSet(operation, model);
+        }
+    }
+
+    @Override
+    protected void performRuntime(final OperationContext context, final ModelNode operation, final ModelNode model,
+                                  final ServiceVerificationHandler verificationHandler, final List<ServiceController<?>> newControllers) throws OperationFailedException {
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String jndiName = JNDI_NAME.resolveModelAttribute(context, model).asString();
+        final String primary = PRIMARY.resolveModelAttribute(context, model).asString();
+        final List<String> replicas = new ArrayList<String>();
+        for (ModelNode replica : REPLICAS.resolveModelAttribute(context, model).asList()) {
+            replicas.add(replica.asString());
+        }
+        final boolean routeNonTransactional = ROUTE_NON_TRANSACTIONAL.resolveModelAttribute(context, model).asBoolean();
+
+        final ServiceTarget serviceTarget = context.getServiceTarget();
+        final RoutingDataSourceService routingService = new RoutingDataSourceService(primary, replicas, routeNonTransactional);
+        final ServiceName routingServiceName = RoutingDataSourceService.SERVICE_NAME_BASE.append(name);
+        final ServiceBuilder<?> routingBuilder = serviceTarget.addService(routingServiceName, routingService)
+                .addDependency(AbstractDataSourceService.SERVICE_NAME_BASE.append(primary), javax.sql.DataSource.class, routingService.getPrimaryInjector())
+                .addDependency(ServiceBuilder.DependencyType.OPTIONAL, TxnServices.JBOSS_TXN_SYNCHRONIZATION_REGISTRY, TransactionSynchronizationRegistry.class, routingService.getTransactionSynchronizationRegistryInjector());
+        for (String replica : replicas) {
+            routingBuilder.addDependency(AbstractDataSourceService.SERVICE_NAME_BASE.append(replica), javax.sql.DataSource.class, routingService.getReplicaInjector(replica));
+        }
+
+        final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
+        final ManagementResourceRegistration overrideRegistration = registration.isAllowsOverride() ? registration.registerOverrideModel(name, DataSourcesSubsystemProviders.OVERRIDE_DS_DESC) : registration;
+        final Resource resource = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
+        routingBuilder.addListener(new AbstractServiceListener<Object>() {
+            public void transition(final ServiceController<? extends Object> controller, final ServiceController.Transition transition) {
+                switch (transition) {
+                    case STARTING_to_UP: {
+                        final RoutingStatistics statistics = routingService.getValue().getStatistics();
+                        overrideRegistration.registerSubModel(new StatisticsResourceDefinition(ROUTING_STATISTICS, DataSourcesSubsystemProviders.RESOURCE_NAME, statistics)).setRuntimeOnly(true);
+                        resource.registerChild(ROUTING_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(ROUTING_STATISTICS));
+                        break;
+                    }
+                    case UP_to_STOP_REQUESTED: {
+                        overrideRegistration.unregisterSubModel(ROUTING_STATISTICS);
+                        if (resource.hasChild(ROUTING_STATISTICS)) {
+                            resource.removeChild(ROUTING_STATISTICS);
+                        }
+                        break;
+                    }
+                }
+            }
+        });
+        routingBuilder.addListener(verificationHandler);
+        newControllers.add(routingBuilder.install());
+
+        final DataSourceReferenceFactoryService referenceFactoryService = new DataSourceReferenceFactoryService();
+        final ServiceName referenceFactoryServiceName = DataSourceReferenceFactoryService.SERVICE_NAME_BASE.append("routing", name);
+        final ServiceBuilder<?> referenceBuilder = serviceTarget.addService(referenceFactoryServiceName, referenceFactoryService)
+                .addDependency(routingServiceName, javax.sql.DataSource.class, referenceFactoryService.getDataSourceInjector());
+        referenceBuilder.addListener(verificationHandler);
+        newControllers.add(referenceBuilder.install());
+
+        final ContextNames.BindInfo bindInfo = ContextNames.bindInfoFor(jndiName);
+        final BinderService binderService = new BinderService(bindInfo.getBindName());
+        final ServiceBuilder<?> binderBuilder = serviceTarget.addService(bindInfo.getBinderServiceName(), binderService)
+                .addDependency(referenceFactoryServiceName, ManagedReferenceFactory.class, binderService.getManagedObjectInjector())
+                .addDependency(bindInfo.getParentContextServiceName(), ServiceBasedNamingStore.class, binderService.getNamingStoreInjector())
+                .addListener(new AbstractServiceListener<Object>() {
+                    public void transition(final ServiceController<? extends Object> controller, final ServiceController.Transition transition) {
+                        switch (transition) {
+                            case STARTING_to_UP: {
+                                SUBSYSTEM_DATASOURCES_LOGGER.boundDataSource(jndiName);
+                                break;
+                            }
+                            case STOPPING_to_DOWN: {
+                                SUBSYSTEM_DATASOURCES_LOGGER.unboundDataSource(jndiName);
+                                break;
+                            }
+                        }
+                    }
+                });
+        binderBuilder.addListener(verificationHandler);
+        newControllers.add(binderBuilder.install());
+    }
+
+    @Override
+    protected void rollbackRuntime(OperationContext context, ModelNode operation, ModelNode model, List<ServiceController<?>> controllers) {
+        super.rollbackRuntime(context, operation, model, controllers);
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
+        if (registration.isAllowsOverride()) {
+            registration.unregisterOverrideModel(name);
+        }
+    }
+}
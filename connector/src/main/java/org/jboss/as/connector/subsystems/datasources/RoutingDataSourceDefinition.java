@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTING_DATASOURCE_ATTRIBUTES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.ROUTING_DATA_SOURCE;
+
+import java.util.List;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.constraint.ApplicationTypeConfig;
+import org.jboss.as.controller.access.management.AccessConstraintDefinition;
+import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+
+/**
+ * Definition of a routing data source: a primary data source plus read replicas, each referenced by the
+ * jndi-name of a data source of this subsystem.
+ */
+public class RoutingDataSourceDefinition extends SimpleResourceDefinition {
+    protected static final PathElement PATH_ROUTING_DATASOURCE = PathElement.pathElement(ROUTING_DATA_SOURCE);
+    static final RoutingDataSourceDefinition INSTANCE = new RoutingDataSourceDefinition();
+
+    private final List<AccessConstraintDefinition> accessConstraints;
+
+    private RoutingDataSourceDefinition() {
+        super(PATH_ROUTING_DATASOURCE,
+                DataSourcesExtension.getResourceDescriptionResolver(ROUTING_DATA_SOURCE),
+                RoutingDataSourceAdd.INSTANCE,
+                RoutingDataSourceRemove.INSTANCE);
+        ApplicationTypeConfig atc = new ApplicationTypeConfig(DataSourcesExtension.SUBSYSTEM_NAME, ROUTING_DATA_SOURCE);
+        accessConstraints = new ApplicationTypeAccessConstraintDefinition(atc).wrapAsList();
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        ReloadRequiredWriteAttributeHandler writeHandler = new ReloadRequiredWriteAttributeHandler(ROUTING_DATASOURCE_ATTRIBUTES);
+        for (AttributeDefinition attribute : ROUTING_DATASOURCE_ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, writeHandler);
+        }
+    }
+
+    @Override
+    public List<AccessConstraintDefinition> getAccessConstraints() {
+        return accessConstraints;
+    }
+
+    static void registerTransformers(ResourceTransformationDescriptionBuilder parentBuilder) {
+        parentBuilder.rejectChildResource(PATH_ROUTING_DATASOURCE);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.ArrayList;
+
+import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+
+/**
+ * Operation handler responsible for removing a routing data source.
+ */
+public class RoutingDataSourceRemove extends AbstractRemoveStepHandler {
+
+    static final RoutingDataSourceRemove INSTANCE = new RoutingDataSourceRemove();
+
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) {
+        final ServiceRegistry registry = context.getServiceRegistry(true);
+        final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String jndiName = model.get(JNDI_NAME.getName()).asString();
+
+        final ServiceName binderServiceName = ContextNames.bindInfoFor(jndiName).getBinderServiceName();
+        if (registry.getService(binderServiceName) != null) {
+            context.removeService(binderServiceName);
+        }
+
+        final ServiceName referenceFactoryServiceName = DataSourceReferenceFactoryService.SERVICE_NAME_BASE.append("routing", name);
+        if (registry.getService(referenceFactoryServiceName) != null) {
+            context.removeService(referenceFactoryServiceName);
+        }
+
+        final ServiceName routingServiceName = RoutingDataSourceService.SERVICE_NAME_BASE.append(name);
+        if (registry.getService(routingServiceName) != null) {
+            context.removeService(routingServiceName);
+        }
+
+        //Unregister the override
+        if (context.getResourceRegistrationForUpdate().isAllowsOverride()) {
+            context.getResourceRegistrationForUpdate().unregisterOverrideModel(name);
+        }
+    }
+
+    protected void recoverServices(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+        RoutingDataSourceAdd.INSTANCE.performRuntime(context, operation, model, new ServiceVerificationHandler(), new ArrayList<ServiceController<?>>());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service providing a {@link RoutingDataSource} over a primary data source and its read replicas.
+ */
+public class RoutingDataSourceService implements Service<DataSource> {
+
+    public static final ServiceName SERVICE_NAME_BASE = AbstractDataSourceService.SERVICE_NAME_BASE.append("routing");
+
+    private final String primary;
+    private final boolean routeNonTransactional;
+    private final InjectedValue<DataSource> primaryValue = new InjectedValue<DataSource>();
+    private final Map<String, InjectedValue<DataSource>> replicaValues = new LinkedHashMap<String, InjectedValue<DataSource>>();
+    private final InjectedValue<TransactionSynchronizationRegistry> registryValue = new InjectedValue<TransactionSynchronizationRegistry>();
+
+    private volatile RoutingDataSource dataSource;
+
+    public RoutingDataSourceService(final String primary, final List<String> replicas, final boolean routeNonTransactional) {
+        this.primary = primary;
+        this.routeNonTransactional = routeNonTransactional;
+        for (String replica : replicas) {
+            replicaValues.put(replica, new InjectedValue<DataSource>());
+        }
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        final List<RoutingDataSource.Route> replicas = new ArrayList<RoutingDataSource.Route>(replicaValues.size());
+        for (Map.Entry<String, InjectedValue<DataSource>> entry : replicaValues.entrySet()) {
+            replicas.add(new RoutingDataSource.Route(entry.getKey(), entry.getValue().getValue()));
+        }
+        dataSource = new RoutingDataSource(new RoutingDataSource.Route(primary, primaryValue.getValue()), replicas,
+                registryValue.getOptionalValue(), routeNonTransactional);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        dataSource = null;
+    }
+
+    @Override
+    public RoutingDataSource getValue() throws IllegalStateException, IllegalArgumentException {
+        return dataSource;
+    }
+
+    public Injector<DataSource> getPrimaryInjector() {
+        return primaryValue;
+    }
+
+    public Injector<DataSource> getReplicaInjector(final String replica) {
+        return replicaValues.get(replica);
+    }
+
+    public Injector<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistryInjector() {
+        return registryValue;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Per route statistics of a {@link RoutingDataSource}.
+ */
+public class RoutingStatistics implements StatisticsPlugin {
+
+    static final String CONNECTION_COUNT = "ConnectionCount";
+    static final String ACTIVE_COUNT = "ActiveCount";
+    static final String FAILURE_COUNT = "FailureCount";
+    static final String PRIMARY_FALLBACK_COUNT = "PrimaryFallbackCount";
+
+    private final Map<String, Class<?>> types = new LinkedHashMap<String, Class<?>>();
+    private final Map<String, String> descriptions = new LinkedHashMap<String, String>();
+
+    private final RoutingDataSource.Route primary;
+    private final List<RoutingDataSource.Route> routes;
+
+    private volatile boolean enabled = true;
+
+    RoutingStatistics(final RoutingDataSource.Route primary, final List<RoutingDataSource.Route> replicas) {
+        this.primary = primary;
+        this.routes = new ArrayList<RoutingDataSource.Route>(replicas.size() + 1);
+        this.routes.add(primary);
+        this.routes.addAll(replicas);
+        register(CONNECTION_COUNT, Map.class, "The number of connections obtained per data source");
+        register(ACTIVE_COUNT, Map.class, "The number of connections currently open per data source");
+        register(FAILURE_COUNT, Map.class, "The number of connections that could not be obtained per data source");
+        register(PRIMARY_FALLBACK_COUNT, long.class, "The number of read-only connections obtained from the primary because no replica was available");
+    }
+
+    private void register(String name, Class<?> type, String description) {
+        types.put(name, type);
+        descriptions.put(name, description);
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    @Override
+    public Class getType(String name) {
+        return types.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        switch (name) {
+            case CONNECTION_COUNT: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (RoutingDataSource.Route route : routes) {
+                    result.put(route.name, route.connections.get());
+                }
+                return result;
+            }
+            case ACTIVE_COUNT: {
+                final Map<String, Integer> result = new LinkedHashMap<String, Integer>();
+                for (RoutingDataSource.Route route : routes) {
+                    result.put(route.name, route.active.get());
+                }
+                return result;
+            }
+            case FAILURE_COUNT: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (RoutingDataSource.Route route : routes) {
+                    result.put(route.name, route.failures.get());
+                }
+                return result;
+            }
+            case PRIMARY_FALLBACK_COUNT:
+                return primary.fallbacks.get();
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        for (RoutingDataSource.Route route : routes) {
+            route.connections.set(0);
+            route.failures.set(0);
+            route.fallbacks.set(0);
+        }
+    }
+}
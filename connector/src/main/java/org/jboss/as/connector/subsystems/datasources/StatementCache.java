@@ -0,0 +1,353 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Pool wide registry of the statements prepared through a data source.
+ *
+ * The SQL text of every statement is interned once for the whole pool, so that the prepared statement caches of the
+ * physical connections share a single instance of each SQL string. Execution count and latency are recorded per
+ * statement, and the most executed statements are prepared on new physical connections to warm their prepared
+ * statement cache. The warm-up runs on the thread creating the physical connection, before the connection is
+ * handed to the pool, so it is bounded both in number of statements and in time.
+ *
+ * The registry is disabled by default. When it is enabled, the connections handed out by the data source are
+ * wrapped in a proxy implementing the interfaces of the pooled connection.
+ */
+public class StatementCache implements StatisticsPlugin {
+
+    static final String STATEMENT_COUNT = "StatementCount";
+    static final String EXECUTION_COUNT = "ExecutionCount";
+    static final String EXECUTION_TIME = "ExecutionTime";
+    static final String MAX_EXECUTION_TIME = "MaxExecutionTime";
+    static final String WARMED_STATEMENT_COUNT = "WarmedStatementCount";
+
+    /**
+     * The maximum number of distinct statements tracked, statements prepared once the limit is reached are still
+     * executed but not recorded.
+     */
+    static final int MAX_STATEMENTS = 5000;
+
+    /**
+     * The maximum number of statements prepared on a new physical connection, whatever the size of its prepared
+     * statement cache.
+     */
+    static final int MAX_WARMED_STATEMENTS = 50;
+
+    /**
+     * The maximum time (in ms) spent preparing statements on a new physical connection.
+     */
+    static final long MAX_WARM_UP_TIME = 100;
+
+    private static final Set<String> PREPARE_METHODS = new LinkedHashSet<String>(Arrays.asList("prepareStatement", "prepareCall"));
+    private static final Set<String> EXECUTE_METHODS = new LinkedHashSet<String>(Arrays.asList("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch"));
+
+    /**
+     * Orders snapshots rather than live shapes, since the counts of the shapes change while they are sorted.
+     */
+    private static final Comparator<Snapshot> MOST_EXECUTED = new Comparator<Snapshot>() {
+        @Override
+        public int compare(Snapshot o1, Snapshot o2) {
+            final long c1 = o1.executions;
+            final long c2 = o2.executions;
+            return c1 < c2 ? 1 : (c1 == c2 ? 0 : -1);
+        }
+    };
+
+    private final Map<String, Class<?>> types = new LinkedHashMap<String, Class<?>>();
+    private final Map<String, String> descriptions = new LinkedHashMap<String, String>();
+
+    private volatile boolean enabled;
+
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<String, Shape>();
+    private final AtomicLong warmedStatements = new AtomicLong();
+    private final ConcurrentMap<Class<?>, Class<?>[]> proxyInterfaces = new ConcurrentHashMap<Class<?>, Class<?>[]>();
+
+    public StatementCache() {
+        register(STATEMENT_COUNT, int.class, "The number of distinct statements prepared through the data source");
+        register(EXECUTION_COUNT, Map.class, "The number of executions per statement");
+        register(EXECUTION_TIME, Map.class, "The total execution time (in ms) per statement");
+        register(MAX_EXECUTION_TIME, Map.class, "The maximum execution time (in ms) per statement");
+        register(WARMED_STATEMENT_COUNT, long.class, "The number of statements prepared in advance on new connections");
+    }
+
+    private void register(String name, Class<?> type, String description) {
+        types.put(name, type);
+        descriptions.put(name, description);
+    }
+
+    /**
+     * Wrap a connection to intern the SQL of the statements it prepares and record their executions.
+     *
+     * @param connection the connection acquired from the pool
+     * @return the connection to hand out
+     */
+    Connection wrap(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(connection.getClass().getClassLoader(), interfaces(connection.getClass(), Connection.class), new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                final String name = method.getName();
+                if ("equals".equals(name) && args != null && args.length == 1) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name) && args == null) {
+                    return System.identityHashCode(proxy);
+                }
+                Shape shape = null;
+                if (PREPARE_METHODS.contains(name) && args != null && args[0] instanceof String) {
+                    shape = shape((String) args[0]);
+                    if (shape != null) {
+                        args[0] = shape.sql;
+                    }
+                }
+                final Object result = invokeDelegate(connection, method, args);
+                if (shape != null && result instanceof Statement) {
+                    return statement((Statement) result, (Connection) proxy, shape);
+                }
+                return result;
+            }
+        });
+    }
+
+    private Statement statement(final Statement statement, final Connection connection, final Shape shape) {
+        return (Statement) Proxy.newProxyInstance(statement.getClass().getClassLoader(), interfaces(statement.getClass(), Statement.class), new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                final String name = method.getName();
+                if ("equals".equals(name) && args != null && args.length == 1) {
+                    return proxy == args[0];
+                } else if ("hashCode".equals(name) && args == null) {
+                    return System.identityHashCode(proxy);
+                } else if ("getConnection".equals(name) && args == null) {
+                    return connection;
+                } else if (args == null && EXECUTE_METHODS.contains(name)) {
+                    final long start = System.nanoTime();
+                    try {
+                        return invokeDelegate(statement, method, null);
+                    } finally {
+                        shape.executed(System.nanoTime() - start);
+                    }
+                }
+                return invokeDelegate(statement, method, args);
+            }
+        });
+    }
+
+    private static Object invokeDelegate(Object delegate, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Shape shape(final String sql) {
+        Shape shape = shapes.get(sql);
+        if (shape == null) {
+            if (shapes.size() >= MAX_STATEMENTS) {
+                return null;
+            }
+            final Shape existing = shapes.putIfAbsent(sql, shape = new Shape(sql));
+            if (existing != null) {
+                shape = existing;
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Prepare the most executed statements on a new physical connection. The statements are closed immediately, so
+     * that they end up in the prepared statement cache of the connection. At most {@link #MAX_WARMED_STATEMENTS}
+     * statements are prepared, and no further statement is prepared once {@link #MAX_WARM_UP_TIME} has elapsed.
+     *
+     * @param connection a handle to the new physical connection
+     * @param count the maximum number of statements to prepare
+     * @throws SQLException if a statement cannot be prepared
+     */
+    void warm(final Connection connection, final int count) throws SQLException {
+        if (count <= 0 || shapes.isEmpty()) {
+            return;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_WARM_UP_TIME);
+        final int limit = Math.min(count, MAX_WARMED_STATEMENTS);
+        final List<Snapshot> candidates = sorted();
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            final Snapshot candidate = candidates.get(i);
+            if (candidate.executions == 0 || System.nanoTime() - deadline > 0) {
+                break;
+            }
+            connection.prepareStatement(candidate.sql).close();
+            warmedStatements.incrementAndGet();
+        }
+    }
+
+    private Class<?>[] interfaces(Class<?> clazz, Class<?> required) {
+        Class<?>[] result = proxyInterfaces.get(clazz);
+        if (result != null) {
+            return result;
+        }
+        final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            Collections.addAll(interfaces, c.getInterfaces());
+        }
+        interfaces.add(required);
+        result = interfaces.toArray(new Class<?>[interfaces.size()]);
+        proxyInterfaces.put(clazz, result);
+        return result;
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    @Override
+    public Class getType(String name) {
+        return types.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        switch (name) {
+            case STATEMENT_COUNT:
+                return shapes.size();
+            case EXECUTION_COUNT: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (Snapshot snapshot : sorted()) {
+                    result.put(snapshot.sql, snapshot.executions);
+                }
+                return result;
+            }
+            case EXECUTION_TIME: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (Snapshot snapshot : sorted()) {
+                    result.put(snapshot.sql, TimeUnit.NANOSECONDS.toMillis(snapshot.totalTime));
+                }
+                return result;
+            }
+            case MAX_EXECUTION_TIME: {
+                final Map<String, Long> result = new LinkedHashMap<String, Long>();
+                for (Snapshot snapshot : sorted()) {
+                    result.put(snapshot.sql, TimeUnit.NANOSECONDS.toMillis(snapshot.maxTime));
+                }
+                return result;
+            }
+            case WARMED_STATEMENT_COUNT:
+                return warmedStatements.get();
+            default:
+                return null;
+        }
+    }
+
+    private List<Snapshot> sorted() {
+        final List<Snapshot> result = new ArrayList<Snapshot>(shapes.size());
+        for (Shape shape : shapes.values()) {
+            result.add(new Snapshot(shape));
+        }
+        Collections.sort(result, MOST_EXECUTED);
+        return result;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        shapes.clear();
+        warmedStatements.set(0);
+    }
+
+    private static final class Shape {
+        private final String sql;
+        private final AtomicLong executions = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+
+        private void executed(long nanos) {
+            executions.incrementAndGet();
+            totalTime.addAndGet(nanos);
+            long current = maxTime.get();
+            while (nanos > current && !maxTime.compareAndSet(current, nanos)) {
+                current = maxTime.get();
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        private final String sql;
+        private final long executions;
+        private final long totalTime;
+        private final long maxTime;
+
+        private Snapshot(Shape shape) {
+            this.sql = shape.sql;
+            this.executions = shape.executions.get();
+            this.totalTime = shape.totalTime.get();
+            this.maxTime = shape.maxTime.get();
+        }
+    }
+}
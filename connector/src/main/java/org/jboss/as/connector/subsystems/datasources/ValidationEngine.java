@@ -0,0 +1,364 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.jboss.jca.core.api.connectionmanager.pool.FlushMode;
+import org.jboss.jca.core.api.connectionmanager.pool.Pool;
+import org.jboss.jca.core.api.connectionmanager.pool.PoolConfiguration;
+import org.jboss.jca.core.connectionmanager.pool.api.PrefillPool;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Asynchronous recovery of a data source pool after a database failure.
+ *
+ * The managed connection factory of the data source reports the outcome of connection validations and connection
+ * creations. When {@code refill-on-failure} is enabled for the data source, the first failure (an invalid connection
+ * or a connection that cannot be created) marks the database as restarted: the idle connections of the pool are
+ * flushed at once instead of being validated one by one on checkout, and the pool is refilled off the request threads.
+ * A single connection is borrowed to find out whether the database is available again; this is retried with an
+ * exponential backoff, starting at the background validation interval, until it succeeds or
+ * {@link #MAX_REFILL_ATTEMPTS} attempts failed.
+ *
+ * Once the database is available, the pool is prefilled: when prefill or strict-min is enabled, the pool filler thread
+ * creates the connections missing to reach the minimum size, counting both the idle connections and the connections
+ * in use. Otherwise the pool grows again on demand.
+ *
+ * Validation and refill timings are exposed as statistics.
+ */
+public class ValidationEngine implements StatisticsPlugin {
+
+    static final String VALIDATION_COUNT = "ValidationCount";
+    static final String AVERAGE_VALIDATION_TIME = "AverageValidationTime";
+    static final String MAX_VALIDATION_TIME = "MaxValidationTime";
+    static final String INVALID_CONNECTION_COUNT = "InvalidConnectionCount";
+    static final String CONNECTION_FAILURE_COUNT = "ConnectionFailureCount";
+    static final String FLUSH_COUNT = "FlushCount";
+    static final String REFILL_COUNT = "RefillCount";
+    static final String AVERAGE_REFILL_TIME = "AverageRefillTime";
+    static final String MAX_REFILL_TIME = "MaxRefillTime";
+
+    /**
+     * The interval (in milliseconds) between two refill attempts when the pool has no background validation interval.
+     */
+    static final long DEFAULT_RETRY_INTERVAL = 1000;
+
+    /**
+     * The maximum interval (in milliseconds) between two refill attempts.
+     */
+    static final long MAX_RETRY_INTERVAL = 60000;
+
+    /**
+     * The maximum number of refill attempts after a failure.
+     */
+    static final int MAX_REFILL_ATTEMPTS = 10;
+
+    private final Map<String, Class<?>> types = new LinkedHashMap<String, Class<?>>();
+    private final Map<String, String> descriptions = new LinkedHashMap<String, String>();
+
+    private volatile boolean enabled;
+
+    private final Timing validations = new Timing();
+    private final AtomicLong invalidConnections = new AtomicLong();
+    private final AtomicLong connectionFailures = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final Timing refills = new Timing();
+
+    private final AtomicBoolean recovering = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile Pool pool;
+    private volatile PoolConfiguration configuration;
+    private volatile DataSource dataSource;
+    private volatile Executor executor;
+    private volatile boolean refillOnFailure;
+
+    public ValidationEngine() {
+        register(VALIDATION_COUNT, long.class, "The number of connection validations");
+        register(AVERAGE_VALIDATION_TIME, long.class, "The average time (in ms) spent validating a connection");
+        register(MAX_VALIDATION_TIME, long.class, "The maximum time (in ms) spent validating a connection");
+        register(INVALID_CONNECTION_COUNT, long.class, "The number of connections found invalid");
+        register(CONNECTION_FAILURE_COUNT, long.class, "The number of connections that could not be created");
+        register(FLUSH_COUNT, long.class, "The number of times the idle connections were flushed after a database failure");
+        register(REFILL_COUNT, long.class, "The number of times the pool was refilled after a database failure");
+        register(AVERAGE_REFILL_TIME, long.class, "The average time (in ms) spent borrowing a connection to refill the pool");
+        register(MAX_REFILL_TIME, long.class, "The maximum time (in ms) spent borrowing a connection to refill the pool");
+    }
+
+    private void register(String name, Class<?> type, String description) {
+        types.put(name, type);
+        descriptions.put(name, description);
+    }
+
+    /**
+     * Start recovering the given pool on failures.
+     *
+     * @param pool the pool of the data source
+     * @param configuration the configuration of the pool
+     * @param dataSource the data source used to find out whether the database is available again
+     * @param executor the executor running the recovery
+     * @param refillOnFailure whether the pool is flushed and refilled after a failure
+     */
+    void start(final Pool pool, final PoolConfiguration configuration, final DataSource dataSource, final Executor executor,
+               final boolean refillOnFailure) {
+        this.pool = pool;
+        this.configuration = configuration;
+        this.dataSource = dataSource;
+        this.executor = executor;
+        this.refillOnFailure = refillOnFailure;
+        running = true;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    /**
+     * Record the validation of connections by the managed connection factory.
+     *
+     * @param nanos the time spent validating the connections
+     * @param invalid the number of connections found invalid
+     */
+    void validated(final long nanos, final int invalid) {
+        if (enabled) {
+            validations.record(nanos);
+            invalidConnections.addAndGet(invalid);
+        }
+        if (invalid > 0) {
+            failed();
+        }
+    }
+
+    /**
+     * Record a connection that could not be created by the managed connection factory.
+     */
+    void connectionFailed() {
+        if (enabled) {
+            connectionFailures.incrementAndGet();
+        }
+        failed();
+    }
+
+    private void failed() {
+        if (!running || !isActive() || !recovering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    recover();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recovering.set(false);
+        }
+    }
+
+    boolean isRecovering() {
+        return recovering.get();
+    }
+
+    void recover() {
+        try {
+            flushIdleConnections();
+            if (enabled) {
+                flushes.incrementAndGet();
+            }
+            long interval = retryInterval();
+            int attempts = 1;
+            while (running && !refill()) {
+                if (attempts++ >= MAX_REFILL_ATTEMPTS) {
+                    DS_DEPLOYER_LOGGER.debugf("Giving up refilling the pool %s after %d attempts", pool, MAX_REFILL_ATTEMPTS);
+                    break;
+                }
+                Thread.sleep(interval);
+                interval = Math.min(interval * 2, MAX_RETRY_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            DS_DEPLOYER_LOGGER.debugf(e, "Unable to recover the pool %s", pool);
+        } finally {
+            recovering.set(false);
+        }
+    }
+
+    /**
+     * Borrow a connection and, if the database is available again, prefill the pool. The borrowed connection is
+     * returned to the pool before it is prefilled, so that it counts towards the minimum size.
+     *
+     * @return {@code true} if the pool was refilled
+     */
+    boolean refill() {
+        if (minSize() <= 0) {
+            return true;
+        }
+        final long start = System.nanoTime();
+        try {
+            final Connection connection = dataSource.getConnection();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                DS_DEPLOYER_LOGGER.tracef(e, "Unable to return a connection to the pool %s", pool);
+            }
+        } catch (SQLException e) {
+            DS_DEPLOYER_LOGGER.tracef(e, "Unable to refill the pool %s", pool);
+            return false;
+        }
+        if (enabled) {
+            refills.record(System.nanoTime() - start);
+        }
+        prefill();
+        return true;
+    }
+
+    boolean isActive() {
+        return refillOnFailure;
+    }
+
+    void flushIdleConnections() {
+        pool.flush(FlushMode.IDLE);
+    }
+
+    void prefill() {
+        if (pool instanceof PrefillPool) {
+            ((PrefillPool) pool).prefill(null, null, false);
+        }
+    }
+
+    int minSize() {
+        return configuration.getMinSize();
+    }
+
+    long retryInterval() {
+        final long interval = configuration.getBackgroundValidationMillis();
+        return interval > 0 ? interval : DEFAULT_RETRY_INTERVAL;
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    @Override
+    public Class getType(String name) {
+        return types.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return descriptions.get(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        switch (name) {
+            case VALIDATION_COUNT:
+                return validations.count.get();
+            case AVERAGE_VALIDATION_TIME:
+                return validations.average();
+            case MAX_VALIDATION_TIME:
+                return TimeUnit.NANOSECONDS.toMillis(validations.max.get());
+            case INVALID_CONNECTION_COUNT:
+                return invalidConnections.get();
+            case CONNECTION_FAILURE_COUNT:
+                return connectionFailures.get();
+            case FLUSH_COUNT:
+                return flushes.get();
+            case REFILL_COUNT:
+                return refills.count.get();
+            case AVERAGE_REFILL_TIME:
+                return refills.average();
+            case MAX_REFILL_TIME:
+                return TimeUnit.NANOSECONDS.toMillis(refills.max.get());
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        validations.clear();
+        invalidConnections.set(0);
+        connectionFailures.set(0);
+        flushes.set(0);
+        refills.clear();
+    }
+
+    private static final class Timing {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long nanos) {
+            count.incrementAndGet();
+            total.addAndGet(nanos);
+            long current = max.get();
+            while (nanos > current && !max.compareAndSet(current, nanos)) {
+                current = max.get();
+            }
+        }
+
+        private long average() {
+            final long n = count.get();
+            return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(total.get() / n);
+        }
+
+        private void clear() {
+            count.set(0);
+            total.set(0);
+            max.set(0);
+        }
+    }
+}
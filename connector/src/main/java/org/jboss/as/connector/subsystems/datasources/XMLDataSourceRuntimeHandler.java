@@ -379,6 +379,10 @@ public class XMLDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeHan
             //Just set to false
             context.getResult().set(false);
 
+        } else if (attributeName.equals(Constants.REFILL_ON_FAILURE.getName())) {
+            //Just set to false
+            context.getResult().set(false);
+
         } else if (attributeName.equals(Constants.TRACKING.getName())) {
             //Just return w/o setting a result
             return;
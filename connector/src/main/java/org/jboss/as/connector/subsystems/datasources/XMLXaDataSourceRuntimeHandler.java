@@ -491,6 +491,10 @@ public class XMLXaDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeH
             //Just set to false
             context.getResult().set(false);
 
+        } else if (attributeName.equals(Constants.REFILL_ON_FAILURE.getName())) {
+            //Just set to false
+            context.getResult().set(false);
+
         } else if (attributeName.equals(Constants.TRACKING.getName())) {
             //Just return w/o setting a result
             return;
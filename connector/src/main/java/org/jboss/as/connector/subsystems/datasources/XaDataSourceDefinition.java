@@ -37,6 +37,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_ALL_
 import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_GRACEFULLY_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_IDLE_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_INVALID_CONNECTION;
+import static org.jboss.as.connector.subsystems.datasources.Constants.REFILL_ON_FAILURE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TEST_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKING;
@@ -130,7 +131,7 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 if (PoolConfigurationRWHandler.ATTRIBUTES.contains(attribute.getName())) {
                     resourceRegistration.registerReadWriteAttribute(attribute, PoolConfigurationRWHandler.PoolConfigurationReadHandler.INSTANCE, PoolConfigurationRWHandler.LocalAndXaDataSourcePoolConfigurationWriteHandler.INSTANCE);
                 } else {
-                    if (attribute.equals(STATISTICS_ENABLED)) {
+                    if (attribute.equals(STATISTICS_ENABLED) || attribute.equals(REFILL_ON_FAILURE)) {
                         resourceRegistration.registerReadWriteAttribute(attribute, null, new ReloadRequiredWriteAttributeHandler());
                     } else {
                         resourceRegistration.registerReadWriteAttribute(attribute, null, disableRequiredWriteHandler);
@@ -178,6 +179,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 )
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), REFILL_ON_FAILURE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, REFILL_ON_FAILURE)
                 .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
                 .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
 
@@ -244,6 +247,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 )
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), REFILL_ON_FAILURE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, REFILL_ON_FAILURE)
                 .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
                 .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
 
@@ -298,6 +303,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
         builder.getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), REFILL_ON_FAILURE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, REFILL_ON_FAILURE)
                 .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
 
                     @Override
@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ManagedConnection;
+
+import org.junit.Test;
+
+public class PoolProfileTestCase {
+
+    private static final ManagedConnection MANAGED_CONNECTION = (ManagedConnection) Proxy.newProxyInstance(PoolProfileTestCase.class.getClassLoader(), new Class<?>[] {ManagedConnection.class}, new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return null;
+        }
+    });
+
+    private static Connection connection() {
+        return (Connection) Proxy.newProxyInstance(PoolProfileTestCase.class.getClassLoader(), new Class<?>[] {Connection.class}, new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("close".equals(method.getName())) {
+                    closed = true;
+                } else if ("isClosed".equals(method.getName())) {
+                    return closed;
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Close the handle and report it as the managed connection does.
+     */
+    private static void close(PoolProfile profile, Connection connection) throws Exception {
+        connection.close();
+        ConnectionEvent event = new ConnectionEvent(MANAGED_CONNECTION, ConnectionEvent.CONNECTION_CLOSED);
+        event.setConnectionHandle(connection);
+        profile.connectionClosed(event);
+    }
+
+    @Test
+    public void testAcquisitionAndUsage() throws Exception {
+        PoolProfile profile = new PoolProfile();
+        Connection connection = connection();
+        profile.borrowed(connection, System.nanoTime());
+        assertEquals(1L, profile.getValue(PoolProfile.ACQUISITION_COUNT));
+        assertEquals(0L, profile.getValue(PoolProfile.USAGE_COUNT));
+
+        close(profile, connection);
+        assertTrue(connection.isClosed());
+        assertEquals(1L, profile.getValue(PoolProfile.USAGE_COUNT));
+
+        // closing twice is only recorded once
+        close(profile, connection);
+        assertEquals(1L, profile.getValue(PoolProfile.USAGE_COUNT));
+
+        Map<?, ?> histogram = (Map<?, ?>) profile.getValue(PoolProfile.ACQUISITION_TIME_HISTOGRAM);
+        assertEquals(1L, histogram.get("1"));
+        assertEquals(0L, histogram.get("+Inf"));
+        Map<?, ?> borrowCounts = (Map<?, ?>) profile.getValue(PoolProfile.BORROW_COUNT_PER_DEPLOYMENT);
+        assertEquals(1L, borrowCounts.get(""));
+    }
+
+    @Test
+    public void testSlowAcquisition() throws Exception {
+        PoolProfile profile = new PoolProfile();
+        profile.borrowed(connection(), System.nanoTime() - 20000000000L);
+        Map<?, ?> histogram = (Map<?, ?>) profile.getValue(PoolProfile.ACQUISITION_TIME_HISTOGRAM);
+        assertEquals(1L, histogram.get("+Inf"));
+        assertTrue((Long) profile.getValue(PoolProfile.MAX_ACQUISITION_TIME) >= 20000L);
+    }
+
+    @Test
+    public void testLeakedConnections() throws Exception {
+        PoolProfile profile = new PoolProfile();
+        profile.setLeakThreshold(500);
+        Connection connection = connection();
+        profile.borrowed(connection, System.nanoTime());
+        assertEquals(0, profile.getValue(PoolProfile.LEAKED_CONNECTION_COUNT));
+
+        Thread.sleep(600);
+        assertEquals(1, profile.getValue(PoolProfile.LEAKED_CONNECTION_COUNT));
+        Map<?, ?> leaks = (Map<?, ?>) profile.getValue(PoolProfile.LEAKED_CONNECTIONS);
+        String leak = (String) leaks.values().iterator().next();
+        assertTrue(leak, leak.contains(Thread.currentThread().getName()));
+        assertTrue(leak, leak.contains("testLeakedConnections"));
+
+        close(profile, connection);
+        assertEquals(0, profile.getValue(PoolProfile.LEAKED_CONNECTION_COUNT));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        PoolProfile profile = new PoolProfile();
+        assertFalse(profile.isEnabled());
+        Connection connection = connection();
+        profile.borrowed(connection, System.nanoTime());
+        close(profile, connection);
+        profile.clear();
+        assertEquals(0L, profile.getValue(PoolProfile.ACQUISITION_COUNT));
+        assertEquals(0L, profile.getValue(PoolProfile.USAGE_COUNT));
+        assertTrue(((Map<?, ?>) profile.getValue(PoolProfile.BORROW_COUNT_PER_DEPLOYMENT)).isEmpty());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.junit.Test;
+
+public class RoutingDataSourceTestCase {
+
+    private static DataSource dataSource(final String name, final boolean failing) {
+        return (DataSource) Proxy.newProxyInstance(RoutingDataSourceTestCase.class.getClassLoader(), new Class<?>[] {DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getConnection".equals(method.getName())) {
+                    if (failing) {
+                        throw new SQLException(name);
+                    }
+                    return connection(name);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static Connection connection(final String name) {
+        return (Connection) Proxy.newProxyInstance(RoutingDataSourceTestCase.class.getClassLoader(), new Class<?>[] {Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getCatalog".equals(method.getName())) {
+                    return name;
+                }
+                return null;
+            }
+        });
+    }
+
+    private static TransactionSynchronizationRegistry registry(final int status, final Map<Object, Object> resources) {
+        return (TransactionSynchronizationRegistry) Proxy.newProxyInstance(RoutingDataSourceTestCase.class.getClassLoader(), new Class<?>[] {TransactionSynchronizationRegistry.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getTransactionStatus".equals(method.getName())) {
+                    return status;
+                } else if ("getResource".equals(method.getName())) {
+                    return resources.get(args[0]);
+                }
+                return null;
+            }
+        });
+    }
+
+    private static TransactionSynchronizationRegistry noTransaction() {
+        return registry(Status.STATUS_NO_TRANSACTION, Collections.emptyMap());
+    }
+
+    private static RoutingDataSource routing(TransactionSynchronizationRegistry registry, boolean failingReplicas, boolean routeNonTransactional) {
+        return new RoutingDataSource(new RoutingDataSource.Route("primary", dataSource("primary", false)),
+                Arrays.asList(new RoutingDataSource.Route("replica1", dataSource("replica1", failingReplicas)),
+                        new RoutingDataSource.Route("replica2", dataSource("replica2", false))),
+                registry, routeNonTransactional);
+    }
+
+    @Test
+    public void testLeastConnections() throws Exception {
+        RoutingDataSource dataSource = routing(noTransaction(), false, true);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        assertTrue(!first.getCatalog().equals(second.getCatalog()));
+
+        // the replica of the closed connection has less open connections, whatever the turn
+        second.close();
+        Connection third = dataSource.getConnection();
+        assertEquals(second.getCatalog(), third.getCatalog());
+
+        // a connection closed twice is only counted once
+        second.close();
+        third.close();
+        assertEquals(second.getCatalog(), dataSource.getConnection().getCatalog());
+
+        Map<?, ?> active = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.ACTIVE_COUNT);
+        assertEquals(0, active.get("primary"));
+        assertEquals(1, active.get("replica1"));
+        assertEquals(1, active.get("replica2"));
+    }
+
+    @Test
+    public void testConnectionWrapper() throws Exception {
+        RoutingDataSource dataSource = routing(noTransaction(), false, false);
+        Connection connection = dataSource.getConnection();
+        Connection other = dataSource.getConnection();
+        assertTrue(connection.equals(connection));
+        assertFalse(connection.equals(other));
+        assertSame(connection, connection.unwrap(Connection.class));
+        assertTrue(connection.isWrapperFor(Connection.class));
+        assertTrue(connection.unwrap(Object.class) == connection);
+
+        connection.close();
+        assertTrue(connection.isClosed());
+        Map<?, ?> active = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.ACTIVE_COUNT);
+        assertEquals(1, active.get("primary"));
+        other.close();
+        active = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.ACTIVE_COUNT);
+        assertEquals(0, active.get("primary"));
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        RoutingDataSource dataSource = routing(noTransaction(), false, true);
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        Connection third = dataSource.getConnection();
+        assertTrue(first.getCatalog().startsWith("replica"));
+        assertTrue(second.getCatalog().startsWith("replica"));
+        assertTrue(!first.getCatalog().equals(second.getCatalog()));
+        assertEquals(first.getCatalog(), third.getCatalog());
+
+        Map<?, ?> connections = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.CONNECTION_COUNT);
+        assertEquals(0L, connections.get("primary"));
+        assertEquals(3L, (Long) connections.get("replica1") + (Long) connections.get("replica2"));
+    }
+
+    @Test
+    public void testTransactions() throws Exception {
+        Map<Object, Object> resources = new HashMap<Object, Object>();
+        RoutingDataSource dataSource = routing(registry(Status.STATUS_ACTIVE, resources), false, false);
+        assertEquals("primary", dataSource.getConnection().getCatalog());
+
+        resources.put(RoutingDataSource.READ_ONLY, Boolean.TRUE);
+        assertTrue(dataSource.getConnection().getCatalog().startsWith("replica"));
+    }
+
+    @Test
+    public void testNonTransactional() throws Exception {
+        RoutingDataSource dataSource = routing(noTransaction(), false, false);
+        assertEquals("primary", dataSource.getConnection().getCatalog());
+
+        dataSource = routing(noTransaction(), false, true);
+        assertTrue(dataSource.getConnection().getCatalog().startsWith("replica"));
+
+        // without a transaction synchronization registry every connection goes to the primary
+        dataSource = routing(null, false, true);
+        assertEquals("primary", dataSource.getConnection().getCatalog());
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        RoutingDataSource dataSource = routing(noTransaction(), true, true);
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica2", dataSource.getConnection().getCatalog());
+        }
+        Map<?, ?> failures = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.FAILURE_COUNT);
+        assertTrue((Long) failures.get("replica1") > 0L);
+        assertEquals(0L, dataSource.getStatistics().getValue(RoutingStatistics.PRIMARY_FALLBACK_COUNT));
+    }
+
+    @Test
+    public void testPrimaryFallback() throws Exception {
+        RoutingDataSource dataSource = new RoutingDataSource(new RoutingDataSource.Route("primary", dataSource("primary", false)),
+                Collections.singletonList(new RoutingDataSource.Route("replica", dataSource("replica", true))), noTransaction(), true);
+        assertEquals("primary", dataSource.getConnection().getCatalog());
+        assertEquals(1L, dataSource.getStatistics().getValue(RoutingStatistics.PRIMARY_FALLBACK_COUNT));
+
+        dataSource.getStatistics().clear();
+        assertEquals(0L, dataSource.getStatistics().getValue(RoutingStatistics.PRIMARY_FALLBACK_COUNT));
+        Map<?, ?> failures = (Map<?, ?>) dataSource.getStatistics().getValue(RoutingStatistics.FAILURE_COUNT);
+        assertEquals(0L, failures.get("replica"));
+    }
+}
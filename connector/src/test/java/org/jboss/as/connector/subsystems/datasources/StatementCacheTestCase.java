@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class StatementCacheTestCase {
+
+    private final List<String> prepared = new ArrayList<String>();
+
+    private Connection connection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("prepareStatement".equals(method.getName())) {
+                    prepared.add((String) args[0]);
+                    return statement();
+                }
+                return null;
+            }
+        });
+    }
+
+    private static PreparedStatement statement() {
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCacheTestCase.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("executeUpdate".equals(method.getName())) {
+                    return 1;
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testInternAndRecordExecutions() throws Exception {
+        StatementCache cache = new StatementCache();
+        Connection first = cache.wrap(connection());
+        Connection second = cache.wrap(connection());
+
+        PreparedStatement statement = first.prepareStatement(new String("UPDATE t SET a = ?"));
+        assertEquals(1, statement.executeUpdate());
+        assertEquals(1, statement.executeUpdate());
+        assertSame(first, statement.getConnection());
+        second.prepareStatement(new String("UPDATE t SET a = ?")).executeUpdate();
+
+        assertEquals(2, prepared.size());
+        assertSame(prepared.get(0), prepared.get(1));
+        assertEquals(1, cache.getValue(StatementCache.STATEMENT_COUNT));
+        Map<?, ?> executions = (Map<?, ?>) cache.getValue(StatementCache.EXECUTION_COUNT);
+        assertEquals(3L, executions.get("UPDATE t SET a = ?"));
+        assertTrue(((Map<?, ?>) cache.getValue(StatementCache.MAX_EXECUTION_TIME)).containsKey("UPDATE t SET a = ?"));
+    }
+
+    @Test
+    public void testWarm() throws Exception {
+        StatementCache cache = new StatementCache();
+        Connection connection = cache.wrap(connection());
+        connection.prepareStatement("SELECT 1").executeUpdate();
+        for (int i = 0; i < 3; i++) {
+            connection.prepareStatement("SELECT 2").executeUpdate();
+        }
+        for (int i = 0; i < 2; i++) {
+            connection.prepareStatement("SELECT 3").executeUpdate();
+        }
+        // prepared but never executed
+        connection.prepareStatement("SELECT 4");
+        prepared.clear();
+
+        cache.warm(connection(), 2);
+        assertEquals(Arrays.asList("SELECT 2", "SELECT 3"), prepared);
+
+        prepared.clear();
+        cache.warm(connection(), 10);
+        assertEquals(Arrays.asList("SELECT 2", "SELECT 3", "SELECT 1"), prepared);
+        assertEquals(5L, cache.getValue(StatementCache.WARMED_STATEMENT_COUNT));
+    }
+
+    @Test
+    public void testWarmIsBounded() throws Exception {
+        StatementCache cache = new StatementCache();
+        Connection connection = cache.wrap(connection());
+        for (int i = 0; i < StatementCache.MAX_WARMED_STATEMENTS + 10; i++) {
+            connection.prepareStatement("SELECT " + i).executeUpdate();
+        }
+        prepared.clear();
+
+        cache.warm(connection(), StatementCache.MAX_WARMED_STATEMENTS * 2);
+        assertEquals(StatementCache.MAX_WARMED_STATEMENTS, prepared.size());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        StatementCache cache = new StatementCache();
+        cache.wrap(connection()).prepareStatement("SELECT 1").executeUpdate();
+        cache.clear();
+        assertEquals(0, cache.getValue(StatementCache.STATEMENT_COUNT));
+        assertEquals(0L, cache.getValue(StatementCache.WARMED_STATEMENT_COUNT));
+
+        prepared.clear();
+        cache.warm(connection(), 10);
+        assertTrue(prepared.isEmpty());
+    }
+}
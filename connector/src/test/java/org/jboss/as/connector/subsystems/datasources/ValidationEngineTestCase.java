@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ValidationEngineTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicBoolean available = new AtomicBoolean(true);
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+    private final AtomicInteger flushes = new AtomicInteger();
+    private final AtomicInteger prefills = new AtomicInteger();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DataSource dataSource() {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (!"getConnection".equals(method.getName())) {
+                    return null;
+                }
+                if (!available.get()) {
+                    throw new SQLException("database down");
+                }
+                final int current = open.incrementAndGet();
+                int max = maxOpen.get();
+                while (current > max && !maxOpen.compareAndSet(max, current)) {
+                    max = maxOpen.get();
+                }
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("close".equals(method.getName())) {
+                            open.decrementAndGet();
+                        }
+                        return null;
+                    }
+                });
+            }
+        });
+    }
+
+    private ValidationEngine engine(final boolean active, final int minSize) {
+        return engine(active, minSize, 10);
+    }
+
+    private ValidationEngine engine(final boolean active, final int minSize, final long retryInterval) {
+        ValidationEngine engine = new ValidationEngine() {
+            @Override
+            boolean isActive() {
+                return active;
+            }
+
+            @Override
+            void flushIdleConnections() {
+                flushes.incrementAndGet();
+            }
+
+            @Override
+            void prefill() {
+                prefills.incrementAndGet();
+            }
+
+            @Override
+            int minSize() {
+                return minSize;
+            }
+
+            @Override
+            long retryInterval() {
+                return retryInterval;
+            }
+        };
+        engine.setEnabled(true);
+        engine.start(null, null, dataSource(), executor, active);
+        return engine;
+    }
+
+    private static void awaitRecovery(ValidationEngine engine) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (engine.isRecovering() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(engine.isRecovering());
+    }
+
+    @Test
+    public void testFlushAndRefillOnInvalidConnection() throws Exception {
+        ValidationEngine engine = engine(true, 4);
+        engine.validated(TimeUnit.MILLISECONDS.toNanos(3), 0);
+        assertFalse(engine.isRecovering());
+        assertEquals(0, flushes.get());
+
+        engine.validated(TimeUnit.MILLISECONDS.toNanos(5), 1);
+        awaitRecovery(engine);
+        assertEquals(1, flushes.get());
+        // a single connection is borrowed, the pool creates the others
+        assertEquals(1, maxOpen.get());
+        assertEquals(0, open.get());
+        assertEquals(1, prefills.get());
+
+        assertEquals(2L, engine.getValue(ValidationEngine.VALIDATION_COUNT));
+        assertEquals(4L, engine.getValue(ValidationEngine.AVERAGE_VALIDATION_TIME));
+        assertEquals(5L, engine.getValue(ValidationEngine.MAX_VALIDATION_TIME));
+        assertEquals(1L, engine.getValue(ValidationEngine.INVALID_CONNECTION_COUNT));
+        assertEquals(1L, engine.getValue(ValidationEngine.FLUSH_COUNT));
+        assertEquals(1L, engine.getValue(ValidationEngine.REFILL_COUNT));
+    }
+
+    @Test
+    public void testNoRefillWithoutMinSize() throws Exception {
+        ValidationEngine engine = engine(true, 0);
+        engine.validated(0, 1);
+        awaitRecovery(engine);
+        assertEquals(1, flushes.get());
+        assertEquals(0, maxOpen.get());
+        assertEquals(0, prefills.get());
+    }
+
+    @Test
+    public void testRefillRetriedUntilDatabaseIsBack() throws Exception {
+        available.set(false);
+        ValidationEngine engine = engine(true, 2);
+        engine.connectionFailed();
+        assertTrue(engine.isRecovering());
+
+        // further failures while recovering do not flush again
+        engine.connectionFailed();
+        Thread.sleep(50);
+        assertTrue(engine.isRecovering());
+        assertEquals(1, flushes.get());
+
+        available.set(true);
+        awaitRecovery(engine);
+        assertEquals(1, flushes.get());
+        assertEquals(2L, engine.getValue(ValidationEngine.CONNECTION_FAILURE_COUNT));
+        assertEquals(1L, engine.getValue(ValidationEngine.REFILL_COUNT));
+    }
+
+    @Test
+    public void testRefillGivesUpAfterMaxAttempts() throws Exception {
+        available.set(false);
+        ValidationEngine engine = engine(true, 1, 1);
+        engine.connectionFailed();
+        awaitRecovery(engine);
+        assertEquals(1, flushes.get());
+        assertEquals(0L, engine.getValue(ValidationEngine.REFILL_COUNT));
+        assertEquals(0, prefills.get());
+
+        // a later failure starts a new recovery
+        available.set(true);
+        engine.connectionFailed();
+        awaitRecovery(engine);
+        assertEquals(2, flushes.get());
+        assertEquals(1L, engine.getValue(ValidationEngine.REFILL_COUNT));
+    }
+
+    @Test
+    public void testStopEndsRecovery() throws Exception {
+        available.set(false);
+        ValidationEngine engine = engine(true, 1);
+        engine.connectionFailed();
+        assertTrue(engine.isRecovering());
+        engine.stop();
+        awaitRecovery(engine);
+        assertEquals(0L, engine.getValue(ValidationEngine.REFILL_COUNT));
+
+        // no recovery once stopped
+        engine.connectionFailed();
+        assertFalse(engine.isRecovering());
+    }
+
+    @Test
+    public void testInactiveWithoutRefillOnFailure() throws Exception {
+        ValidationEngine engine = engine(false, 1);
+        engine.validated(0, 1);
+        engine.connectionFailed();
+        assertFalse(engine.isRecovering());
+        assertEquals(0, flushes.get());
+        assertEquals(1L, engine.getValue(ValidationEngine.INVALID_CONNECTION_COUNT));
+
+        engine.clear();
+        assertEquals(0L, engine.getValue(ValidationEngine.INVALID_CONNECTION_COUNT));
+        assertEquals(0L, engine.getValue(ValidationEngine.CONNECTION_FAILURE_COUNT));
+    }
+}
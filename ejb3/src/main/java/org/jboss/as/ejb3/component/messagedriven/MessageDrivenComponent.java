@@ -22,7 +22,11 @@
 package org.jboss.as.ejb3.component.messagedriven;
 
 import java.lang.reflect.Method;
+import java.security.AccessController;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import javax.resource.ResourceException;
@@ -41,9 +45,11 @@ import org.jboss.as.ejb3.inflow.JBossMessageEndpointFactory;
 import org.jboss.as.ejb3.inflow.MessageEndpointService;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.wildfly.security.manager.action.GetAccessControlContextAction;
 import org.wildfly.security.manager.action.GetClassLoaderAction;
 import org.jboss.invocation.Interceptor;
 import org.jboss.jca.core.spi.rar.Endpoint;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 import static java.security.AccessController.doPrivileged;
@@ -58,6 +64,8 @@ import static org.jboss.as.ejb3.component.MethodIntf.MESSAGE_ENDPOINT;
  */
 public class MessageDrivenComponent extends EJBComponent implements PooledComponent<MessageDrivenComponentInstance> {
 
+    private static final ThreadFactory DELIVERY_BATCH_THREAD_FACTORY = new JBossThreadFactory(new ThreadGroup("MDBDeliveryBatch"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.doPrivileged(GetAccessControlContextAction.getInstance()));
+
     private final Pool<MessageDrivenComponentInstance> pool;
     private final String poolName;
 
@@ -66,6 +74,9 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
     private final Class<?> messageListenerInterface;
     private final ClassLoader classLoader;
     private volatile boolean deliveryActive;
+    private final int deliveryBatchSize;
+    private final long deliveryBatchTimeout;
+    private volatile ScheduledExecutorService deliveryBatchScheduler;
     private ResourceAdapter resourceAdapter;
     private Endpoint endpoint;
     private String activationName;
@@ -104,6 +115,8 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
 
         this.activationSpec = activationSpec;
         this.messageListenerInterface = messageListenerInterface;
+        this.deliveryBatchSize = ejbComponentCreateService.getDeliveryBatchSize();
+        this.deliveryBatchTimeout = ejbComponentCreateService.getDeliveryBatchTimeout();
         final ClassLoader componentClassLoader = doPrivileged(new GetClassLoaderAction(ejbComponentCreateService.getComponentClass()));
         final MessageEndpointService<?> service = new MessageEndpointService<Object>() {
             @Override
@@ -145,6 +158,21 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
             public ClassLoader getClassLoader() {
                 return componentClassLoader;
             }
+
+            @Override
+            public int getDeliveryBatchSize() {
+                return deliveryBatchSize;
+            }
+
+            @Override
+            public long getDeliveryBatchTimeout() {
+                return deliveryBatchTimeout;
+            }
+
+            @Override
+            public ScheduledExecutorService getDeliveryBatchScheduler() {
+                return deliveryBatchScheduler;
+            }
         };
         this.endpointFactory = new JBossMessageEndpointFactory(componentClassLoader, service, (Class<Object>) getComponentClass(), messageListenerInterface);
         this.deliveryActive = deliveryActive;
@@ -182,6 +210,12 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
         getShutDownInterceptorFactory().start();
         super.start();
 
+        if (deliveryBatchSize > 1) {
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, DELIVERY_BATCH_THREAD_FACTORY);
+            scheduler.setRemoveOnCancelPolicy(true);
+            deliveryBatchScheduler = scheduler;
+        }
+
         if (deliveryActive) {
             activate();
         }
@@ -197,6 +231,12 @@ public class MessageDrivenComponent extends EJBComponent implements PooledCompon
         deactivate();
         deliveryActive = false;
 
+        // the endpoints have committed their pending batches when they were released
+        if (deliveryBatchScheduler != null) {
+            deliveryBatchScheduler.shutdown();
+            deliveryBatchScheduler = null;
+        }
+
         getShutDownInterceptorFactory().shutdown();
         if (this.pool != null) {
             this.pool.stop();
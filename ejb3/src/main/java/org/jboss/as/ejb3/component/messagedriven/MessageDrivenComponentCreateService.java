@@ -47,10 +47,24 @@ import org.jboss.msc.value.InjectedValue;
  */
 public class MessageDrivenComponentCreateService extends EJBComponentCreateService {
 
+    /**
+     * ActivationConfigProperty setting the maximum number of transacted deliveries committed in a single transaction.
+     */
+    public static final String DELIVERY_BATCH_SIZE = "deliveryBatchSize";
+
+    /**
+     * ActivationConfigProperty setting the maximum time (in milliseconds) the transaction of a delivery batch is kept open.
+     */
+    public static final String DELIVERY_BATCH_TIMEOUT = "deliveryBatchTimeout";
+
+    private static final long DEFAULT_DELIVERY_BATCH_TIMEOUT = 100;
+
     private final Class<?> messageListenerInterface;
     private final Properties activationProps;
     private final String resourceAdapterName;
     private final boolean deliveryActive;
+    private final int deliveryBatchSize;
+    private final long deliveryBatchTimeout;
     private final InjectedValue<ResourceAdapter> resourceAdapterInjectedValue = new InjectedValue<ResourceAdapter>();
     private final InjectedValue<PoolConfig> poolConfig = new InjectedValue<PoolConfig>();
     private final InjectedValue<DefaultResourceAdapterService> defaultResourceAdapterServiceInjectedValue = new InjectedValue<DefaultResourceAdapterService>();
@@ -71,10 +85,29 @@ public class MessageDrivenComponentCreateService extends EJBComponentCreateServi
         // see MessageDrivenComponentDescription.<init>
         this.messageListenerInterface = messageListenerInterface;
 
-        this.activationProps = componentDescription.getActivationProps();
+        // the delivery batch properties are handled by the container, they are not passed to the resource adapter
+        final Properties activationProps = new Properties();
+        activationProps.putAll(componentDescription.getActivationProps());
+        final String batchSize = (String) activationProps.remove(DELIVERY_BATCH_SIZE);
+        final String batchTimeout = (String) activationProps.remove(DELIVERY_BATCH_TIMEOUT);
+        this.activationProps = activationProps;
+        this.deliveryBatchSize = batchSize == null ? 1 : (int) parsePositive(batchSize, DELIVERY_BATCH_SIZE, componentConfiguration.getComponentName());
+        this.deliveryBatchTimeout = batchTimeout == null ? DEFAULT_DELIVERY_BATCH_TIMEOUT : parsePositive(batchTimeout, DELIVERY_BATCH_TIMEOUT, componentConfiguration.getComponentName());
         this.moduleClassLoader = componentConfiguration.getModuleClassLoader();
     }
 
+    private static long parsePositive(String value, String propertyName, String componentName) {
+        try {
+            long l = Long.parseLong(value.trim());
+            if (l > 0 && l <= Integer.MAX_VALUE) {
+                return l;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw EjbLogger.ROOT_LOGGER.invalidActivationConfigPropertyValue(value, propertyName, componentName);
+    }
+
     @Override
     public void start(StartContext context) throws StartException {
         super.start(context);
@@ -132,6 +165,14 @@ public class MessageDrivenComponentCreateService extends EJBComponentCreateServi
         return defaultResourceAdapterServiceInjectedValue;
     }
 
+    int getDeliveryBatchSize() {
+        return deliveryBatchSize;
+    }
+
+    long getDeliveryBatchTimeout() {
+        return deliveryBatchTimeout;
+    }
+
     PoolConfig getPoolConfig() {
         return this.poolConfig.getOptionalValue();
     }
@@ -36,6 +36,8 @@ import javax.transaction.TransactionManager;
 import javax.transaction.xa.XAResource;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
@@ -54,6 +56,13 @@ public class MessageEndpointInvocationHandler extends AbstractInvocationHandler
     private ClassLoader previousClassLoader;
     private Transaction previousTx;
 
+    // transacted deliveries share a transaction until the batch is full or its timeout expires
+    private final Object batchLock = new Object();
+    private int batchCount;
+    private long batchDeadline;
+    private Transaction batchTx;
+    private ScheduledFuture<?> batchCommit;
+
     MessageEndpointInvocationHandler(final MessageEndpointService service, final Object delegate, final XAResource xaResource) {
         this.service = service;
         this.delegate = delegate;
@@ -65,10 +74,25 @@ public class MessageEndpointInvocationHandler extends AbstractInvocationHandler
         final TransactionManager tm = getTransactionManager();
         try {
             if (currentTx != null) {
-                if (currentTx.getStatus() == Status.STATUS_MARKED_ROLLBACK)
-                    tm.rollback();
-                else
-                    tm.commit();
+                batchCount++;
+                if (canExtendBatch()) {
+                    // keep the transaction open for the next deliveries, its commit is amortized over the whole batch
+                    final Transaction tx = tm.suspend();
+                    synchronized (batchLock) {
+                        batchTx = tx;
+                        batchCommit = service.getDeliveryBatchScheduler().schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                commitBatch(tx);
+                            }
+                        }, batchDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    }
+                } else {
+                    if (currentTx.getStatus() == Status.STATUS_MARKED_ROLLBACK)
+                        tm.rollback();
+                    else
+                        tm.commit();
+                }
                 currentTx = null;
             }
             if (previousTx != null) {
@@ -102,11 +126,18 @@ public class MessageEndpointInvocationHandler extends AbstractInvocationHandler
             // TODO: in violation of JCA 1.6 FR 13.5.9?
             previousTx = tm.suspend();
             boolean isTransacted = service.isDeliveryTransacted(method);
-            if (isTransacted) {
+            // the batch transaction is either resumed by this delivery or committed before it starts
+            final Transaction tx = takeBatchTransaction(isTransacted);
+            if (tx != null) {
+                tm.resume(tx);
+                currentTx = tx;
+            } else if (isTransacted) {
                 tm.begin();
                 currentTx = tm.getTransaction();
                 if (xaRes != null)
                     currentTx.enlistResource(xaRes);
+                batchCount = 0;
+                batchDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(service.getDeliveryBatchTimeout());
             }
         } catch (Throwable t) {
             throw new ApplicationServerInternalException(t);
@@ -115,6 +146,74 @@ public class MessageEndpointInvocationHandler extends AbstractInvocationHandler
         }
     }
 
+    /**
+     * A delivery is added to the current batch if the batch is neither full nor expired and its transaction can
+     * still commit.
+     */
+    private boolean canExtendBatch() throws SystemException {
+        return batchCount < service.getDeliveryBatchSize()
+                && currentTx.getStatus() == Status.STATUS_ACTIVE
+                && batchDeadline - System.nanoTime() > 0;
+    }
+
+    /**
+     * Return the transaction of the pending batch if the next delivery is transacted, otherwise commit it.
+     */
+    private Transaction takeBatchTransaction(boolean isTransacted) {
+        synchronized (batchLock) {
+            final Transaction tx = batchTx;
+            if (tx == null) {
+                return null;
+            }
+            batchTx = null;
+            batchCommit.cancel(false);
+            batchCommit = null;
+            if (isTransacted) {
+                return tx;
+            }
+            completeBatch(tx);
+            return null;
+        }
+    }
+
+    /**
+     * Commit the transaction of the pending batch once its timeout has expired without further delivery.
+     */
+    private void commitBatch(Transaction tx) {
+        synchronized (batchLock) {
+            if (batchTx != tx) {
+                // the batch has been resumed by a delivery in the meantime
+                return;
+            }
+            batchTx = null;
+            batchCommit = null;
+            completeBatch(tx);
+        }
+    }
+
+    /**
+     * Complete the transaction of a batch on the current thread. Called with the batch lock held so that the XA
+     * resource is not used by a new delivery before the completion of the batch.
+     */
+    private void completeBatch(Transaction tx) {
+        final TransactionManager tm = getTransactionManager();
+        try {
+            final Transaction previous = tm.suspend();
+            tm.resume(tx);
+            try {
+                if (tx.getStatus() == Status.STATUS_MARKED_ROLLBACK)
+                    tm.rollback();
+                else
+                    tm.commit();
+            } finally {
+                if (previous != null)
+                    tm.resume(previous);
+            }
+        } catch (Exception e) {
+            EjbLogger.ROOT_LOGGER.failedToCompleteDeliveryBatch(service.getActivationName(), e);
+        }
+    }
+
     @Override
     protected boolean doEquals(Object obj) {
         if (!(obj instanceof MessageEndpointInvocationHandler))
@@ -163,6 +262,9 @@ public class MessageEndpointInvocationHandler extends AbstractInvocationHandler
 
         // TODO: tidy up outstanding delivery
 
+        // commit the pending batch, no further delivery will resume it
+        takeBatchTransaction(false);
+
         service.release(delegate);
     }
 }
@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.inflow;
 
 import javax.transaction.TransactionManager;
 import java.lang.reflect.Method;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -49,4 +50,27 @@ public interface MessageEndpointService<T> {
     ClassLoader getClassLoader();
 
     String getActivationName();
+
+    /**
+     * Returns the maximum number of transacted deliveries which are committed in a single transaction.
+     * A value of 1 disables batching.
+     *
+     * @return the maximum number of deliveries in a batch
+     */
+    int getDeliveryBatchSize();
+
+    /**
+     * Returns the maximum time (in milliseconds) the transaction of a batch is kept open, waiting for further deliveries.
+     *
+     * @return the timeout of a batch
+     */
+    long getDeliveryBatchTimeout();
+
+    /**
+     * Returns the executor committing the batches whose timeout expires without further delivery.
+     * It is only used if the batch size is greater than 1.
+     *
+     * @return the executor
+     */
+    ScheduledExecutorService getDeliveryBatchScheduler();
 }
@@ -2978,4 +2978,11 @@ public interface EjbLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 453, value = "Failed to persist timer %s for object %s")
     void failedToPersistTimer(String id, String timedObjectId, @Cause Exception e);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 454, value = "Failed to complete the transaction of a delivery batch for message endpoint %s")
+    void failedToCompleteDeliveryBatch(String activationName, @Cause Throwable cause);
+
+    @Message(id = 455, value = "Invalid value %s for ActivationConfigProperty %s of message driven bean %s")
+    IllegalArgumentException invalidActivationConfigPropertyValue(String value, String propertyName, String componentName);
 }
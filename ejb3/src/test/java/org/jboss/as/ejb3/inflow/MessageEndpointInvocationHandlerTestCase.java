@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.inflow;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.Status;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.xa.XAResource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
+ */
+public class MessageEndpointInvocationHandlerTestCase {
+
+    private MessageEndpointService<Object> service;
+    private TransactionManager tm;
+    private Transaction tx;
+    private XAResource xaResource;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> batchCommit;
+    private Method onMessage;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        service = mock(MessageEndpointService.class);
+        tm = mock(TransactionManager.class);
+        tx = mock(Transaction.class);
+        xaResource = mock(XAResource.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        batchCommit = mock(ScheduledFuture.class);
+        onMessage = Runnable.class.getMethod("run");
+
+        when(service.getTransactionManager()).thenReturn(tm);
+        when(service.getClassLoader()).thenReturn(getClass().getClassLoader());
+        when(service.isDeliveryTransacted(onMessage)).thenReturn(true);
+        when(service.getDeliveryBatchSize()).thenReturn(3);
+        when(service.getDeliveryBatchTimeout()).thenReturn(60000L);
+        when(service.getDeliveryBatchScheduler()).thenReturn(scheduler);
+        doReturn(batchCommit).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        when(tm.getTransaction()).thenReturn(tx);
+        when(tx.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+    }
+
+    private void deliver(MessageEndpointInvocationHandler handler) throws Exception {
+        handler.beforeDelivery(onMessage);
+        handler.afterDelivery();
+    }
+
+    @Test
+    public void testBatchIsCommittedWhenFull() throws Exception {
+        // suspended at each beforeDelivery (no caller transaction) and at each afterDelivery extending the batch
+        when(tm.suspend()).thenReturn(null, tx, null, tx, null);
+        MessageEndpointInvocationHandler handler = new MessageEndpointInvocationHandler(service, new Object(), xaResource);
+
+        deliver(handler);
+        deliver(handler);
+        verify(tm, never()).commit();
+
+        deliver(handler);
+        verify(tm, times(1)).begin();
+        verify(tx, times(1)).enlistResource(xaResource);
+        verify(tm, times(2)).resume(tx);
+        verify(batchCommit, times(2)).cancel(false);
+        verify(tm, times(1)).commit();
+    }
+
+    @Test
+    public void testBatchIsCommittedWhenTimeoutExpires() throws Exception {
+        when(tm.suspend()).thenReturn(null, tx, null);
+        MessageEndpointInvocationHandler handler = new MessageEndpointInvocationHandler(service, new Object(), xaResource);
+
+        deliver(handler);
+        verify(tm, never()).commit();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(task.capture(), anyLong(), any(TimeUnit.class));
+        task.getValue().run();
+        verify(tm).resume(tx);
+        verify(tm, times(1)).commit();
+
+        // the batch is complete, the next delivery starts a new transaction
+        when(tm.suspend()).thenReturn(null, tx);
+        deliver(handler);
+        verify(tm, times(2)).begin();
+    }
+
+    @Test
+    public void testBatchIsCommittedOnRelease() throws Exception {
+        when(tm.suspend()).thenReturn(null, tx, null);
+        MessageEndpointInvocationHandler handler = new MessageEndpointInvocationHandler(service, new Object(), xaResource);
+
+        deliver(handler);
+        handler.release();
+        verify(batchCommit).cancel(false);
+        verify(tm, times(1)).commit();
+    }
+
+    @Test
+    public void testRollbackOnlyTransactionEndsBatch() throws Exception {
+        when(tm.suspend()).thenReturn(null);
+        when(tx.getStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+        MessageEndpointInvocationHandler handler = new MessageEndpointInvocationHandler(service, new Object(), xaResource);
+
+        deliver(handler);
+        verify(tm, times(1)).rollback();
+        verify(tm, never()).commit();
+    }
+
+    @Test
+    public void testBatchingDisabled() throws Exception {
+        when(service.getDeliveryBatchSize()).thenReturn(1);
+        when(tm.suspend()).thenReturn(null);
+        MessageEndpointInvocationHandler handler = new MessageEndpointInvocationHandler(service, new Object(), xaResource);
+
+        deliver(handler);
+        deliver(handler);
+        verify(tm, times(2)).begin();
+        verify(tm, times(2)).commit();
+        verify(service, never()).getDeliveryBatchScheduler();
+    }
+}
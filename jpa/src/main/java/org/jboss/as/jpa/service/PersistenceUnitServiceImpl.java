@@ -110,7 +110,8 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
                 AccessController.doPrivileged(GetAccessControlContextAction.getInstance());
 
         final Runnable task = new Runnable() {
-            // run async in a background thread
+            // run async in a background thread, the persistence units of a deployment do not depend on each other,
+            // so their entity manager factories are built in parallel on the server executor
             @Override
             public void run() {
                 PrivilegedAction<Void> privilegedAction =
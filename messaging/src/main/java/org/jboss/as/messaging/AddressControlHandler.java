@@ -25,9 +25,11 @@ package org.jboss.as.messaging;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.messaging.CommonAttributes.ADDRESS_SIZE;
 import static org.jboss.as.messaging.CommonAttributes.BINDING_NAMES;
 import static org.jboss.as.messaging.CommonAttributes.NUMBER_OF_BYTES_PER_PAGE;
 import static org.jboss.as.messaging.CommonAttributes.NUMBER_OF_PAGES;
+import static org.jboss.as.messaging.CommonAttributes.PAGING;
 import static org.jboss.as.messaging.CommonAttributes.QUEUE_NAMES;
 import static org.jboss.as.messaging.CommonAttributes.ROLES_ATTR_NAME;
 import static org.jboss.as.messaging.HornetQActivationService.ignoreOperationIfServerNotActive;
@@ -109,6 +111,12 @@ class AddressControlHandler extends AbstractRuntimeOnlyHandler {
             } else if (NUMBER_OF_PAGES.equals(name)) {
                 int i = addressControl.getNumberOfPages();
                 context.getResult().set(i);
+            } else if (PAGING.equals(name)) {
+                boolean b = addressControl.isPaging();
+                context.getResult().set(b);
+            } else if (ADDRESS_SIZE.equals(name)) {
+                long l = addressControl.getAddressSize();
+                context.getResult().set(l);
             } else if (BINDING_NAMES.equals(name)) {
                 String[] bindings = addressControl.getBindingNames();
                 reportListOfStrings(context, bindings);
@@ -692,6 +692,14 @@ public interface CommonAttributes {
             .addAccessConstraint(MESSAGING_SECURITY_DEF)
             .build();
 
+    SimpleAttributeDefinition SECURITY_DECISION_CACHE_ENABLED = create("security-decision-cache-enabled", BOOLEAN)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setRestartAllServices()
+            .addAccessConstraint(MESSAGING_SECURITY_DEF)
+            .build();
+
     SimpleAttributeDefinition SELECTOR = create("selector", ModelType.STRING)
             .setAllowNull(true)
             .setAllowExpression(true)
@@ -773,6 +781,7 @@ public interface CommonAttributes {
     String ACCEPTORS = "acceptors";
     String ADDRESS = "address";
     String ADDRESS_SETTING = "address-setting";
+    String ADDRESS_SIZE = "address-size";
     String ADDRESS_SETTINGS = "address-settings";
     String BINDING_NAMES = "binding-names";
     String BINDINGS_DIRECTORY = "bindings-directory";
@@ -842,6 +851,7 @@ public interface CommonAttributes {
     String NUMBER_OF_BYTES_PER_PAGE = "number-of-bytes-per-page";
     String NUMBER_OF_PAGES = "number-of-pages";
 
+    String PAGING = "paging";
     String PAGING_DIRECTORY = "paging-directory";
     String PARAM = "param";
     String PERMISSION_ELEMENT_NAME = "permission";
@@ -878,7 +888,7 @@ public interface CommonAttributes {
     String XA_TX = "XATransaction";
 
     AttributeDefinition[] SIMPLE_ROOT_RESOURCE_ATTRIBUTES = { CLUSTERED, PERSISTENCE_ENABLED, SCHEDULED_THREAD_POOL_MAX_SIZE,
-            THREAD_POOL_MAX_SIZE, SECURITY_DOMAIN, SECURITY_ENABLED, SECURITY_INVALIDATION_INTERVAL, OVERRIDE_IN_VM_SECURITY, WILD_CARD_ROUTING_ENABLED,
+            THREAD_POOL_MAX_SIZE, SECURITY_DOMAIN, SECURITY_ENABLED, SECURITY_INVALIDATION_INTERVAL, SECURITY_DECISION_CACHE_ENABLED, OVERRIDE_IN_VM_SECURITY, WILD_CARD_ROUTING_ENABLED,
             MANAGEMENT_ADDRESS, MANAGEMENT_NOTIFICATION_ADDRESS, CLUSTER_USER, CLUSTER_PASSWORD, JMX_MANAGEMENT_ENABLED,
             JMX_DOMAIN, STATISTICS_ENABLED, MESSAGE_COUNTER_ENABLED, MESSAGE_COUNTER_SAMPLE_PERIOD, MESSAGE_COUNTER_MAX_DAY_HISTORY,
             CONNECTION_TTL_OVERRIDE, ASYNC_CONNECTION_EXECUTION_ENABLED, TRANSACTION_TIMEOUT, TRANSACTION_TIMEOUT_SCAN_PERIOD,
@@ -24,6 +24,7 @@ package org.jboss.as.messaging;
 
 import static org.jboss.as.controller.SimpleAttributeDefinitionBuilder.create;
 import static org.jboss.as.controller.client.helpers.MeasurementUnit.BYTES;
+import static org.jboss.dmr.ModelType.BOOLEAN;
 import static org.jboss.dmr.ModelType.INT;
 import static org.jboss.dmr.ModelType.LONG;
 import static org.jboss.dmr.ModelType.STRING;
@@ -79,7 +80,16 @@ public class CoreAddressDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
-    public static final AttributeDefinition[] ATTRS = { ROLES, QUEUE_NAMES, BINDING_NAMES, NUMBER_OF_PAGES, NUMBER_OF_BYTES_PER_PAGE };
+    private static final AttributeDefinition PAGING = create(CommonAttributes.PAGING, BOOLEAN)
+            .setStorageRuntime()
+            .build();
+
+    private static final AttributeDefinition ADDRESS_SIZE = create(CommonAttributes.ADDRESS_SIZE, LONG)
+            .setMeasurementUnit(BYTES)
+            .setStorageRuntime()
+            .build();
+
+    public static final AttributeDefinition[] ATTRS = { ROLES, QUEUE_NAMES, BINDING_NAMES, NUMBER_OF_PAGES, NUMBER_OF_BYTES_PER_PAGE, PAGING, ADDRESS_SIZE };
 
     // we keep the operation for backwards compatibility but it duplicates the "roles" attributes
     @Deprecated
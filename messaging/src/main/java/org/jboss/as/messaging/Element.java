@@ -150,6 +150,7 @@ public enum Element {
    RUN_SYNC_SPEED_TEST(CommonAttributes.RUN_SYNC_SPEED_TEST),
    SECURITY_DOMAIN(CommonAttributes.SECURITY_DOMAIN),
    SECURITY_ENABLED(CommonAttributes.SECURITY_ENABLED),
+   SECURITY_DECISION_CACHE_ENABLED(CommonAttributes.SECURITY_DECISION_CACHE_ENABLED),
    SECURITY_INVALIDATION_INTERVAL(CommonAttributes.SECURITY_INVALIDATION_INTERVAL),
    SECURITY_SETTINGS(CommonAttributes.SECURITY_SETTINGS),
    SERVER_DUMP_INTERVAL(CommonAttributes.SERVER_DUMP_INTERVAL),
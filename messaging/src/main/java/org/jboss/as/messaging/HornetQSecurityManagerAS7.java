@@ -42,11 +42,21 @@ public class HornetQSecurityManagerAS7 implements org.hornetq.spi.core.security.
     private SecurityDomainContext securityDomainContext;
     private String defaultUser = null;
     private String defaultPassword = null;
+    private final SecurityDecisionCache decisionCache;
 
     public HornetQSecurityManagerAS7(SecurityDomainContext sdc) {
+        this(sdc, 0);
+    }
+
+    /**
+     * @param sdc the context of the security domain used to authenticate and authorize users
+     * @param decisionCacheTimeout time in milliseconds during which successful decisions are cached (0 disables the cache)
+     */
+    public HornetQSecurityManagerAS7(SecurityDomainContext sdc, long decisionCacheTimeout) {
         securityDomainContext = sdc;
         defaultUser = HornetQDefaultCredentials.getUsername();
         defaultPassword = HornetQDefaultCredentials.getPassword();
+        decisionCache = decisionCacheTimeout > 0 ? new SecurityDecisionCache(decisionCacheTimeout, SecurityDecisionCache.DEFAULT_MAX_SIZE) : null;
     }
 
     @Override
@@ -57,7 +67,19 @@ public class HornetQSecurityManagerAS7 implements org.hornetq.spi.core.security.
         if (securityDomainContext == null)
             throw MessagingLogger.ROOT_LOGGER.securityDomainContextNotSet();
 
-        return securityDomainContext.getAuthenticationManager().isValid(new SimplePrincipal(username), password, new Subject());
+        SecurityDecisionCache.Key key = null;
+        if (decisionCache != null) {
+            key = decisionCache.key(username, password, null, null);
+            if (decisionCache.isGranted(key)) {
+                return true;
+            }
+        }
+
+        boolean authenticated = securityDomainContext.getAuthenticationManager().isValid(new SimplePrincipal(username), password, new Subject());
+        if (authenticated && key != null) {
+            decisionCache.grant(key);
+        }
+        return authenticated;
     }
 
     @Override
@@ -68,6 +90,14 @@ public class HornetQSecurityManagerAS7 implements org.hornetq.spi.core.security.
         if (securityDomainContext == null)
             throw MessagingLogger.ROOT_LOGGER.securityDomainContextNotSet();
 
+        SecurityDecisionCache.Key key = null;
+        if (decisionCache != null) {
+            key = decisionCache.key(username, password, roles, checkType);
+            if (decisionCache.isGranted(key)) {
+                return true;
+            }
+        }
+
         final Subject subject = new Subject();
 
         // The authentication call here changes the subject and that subject must be used later.  That is why we don't call validateUser(String, String) here.
@@ -111,9 +141,40 @@ public class HornetQSecurityManagerAS7 implements org.hornetq.spi.core.security.
             });
         }
 
+        if (authenticated && key != null) {
+            decisionCache.grant(key);
+        }
         return authenticated;
     }
 
+    /**
+     * Discard the cached decisions when the authentication cache of the security domain is flushed.
+     *
+     * @param principal the principal whose entry was flushed or {@code null} if the whole cache was flushed
+     */
+    void invalidateDecisionCache(Principal principal) {
+        if (decisionCache != null) {
+            if (principal == null) {
+                decisionCache.invalidate();
+            } else {
+                decisionCache.invalidate(principal.getName());
+            }
+        }
+    }
+
+    /**
+     * @return the number of security checks answered by the decision cache
+     */
+    public long getDecisionCacheHitCount() {
+        return decisionCache != null ? decisionCache.getHitCount() : 0;
+    }
+
+    /**
+     * @return the number of security checks that had to be delegated to the security domain
+     */
+    public long getDecisionCacheMissCount() {
+        return decisionCache != null ? decisionCache.getMissCount() : 0;
+    }
 
     @Override
     public void addUser(String s, String s1) {
@@ -33,10 +33,26 @@ import static org.jboss.as.messaging.OperationDefinitionHelper.createNonEmptyStr
 import static org.jboss.as.messaging.OperationDefinitionHelper.runtimeOnlyOperation;
 import static org.jboss.as.messaging.OperationDefinitionHelper.runtimeReadOnlyOperation;
 import static org.jboss.dmr.ModelType.BOOLEAN;
+import static org.jboss.dmr.ModelType.INT;
 import static org.jboss.dmr.ModelType.LIST;
+import static org.jboss.dmr.ModelType.LONG;
+import static org.jboss.dmr.ModelType.OBJECT;
 import static org.jboss.dmr.ModelType.STRING;
 
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.hornetq.api.core.management.HornetQServerControl;
+import org.hornetq.core.config.Configuration;
 import org.hornetq.core.server.HornetQServer;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -47,6 +63,8 @@ import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -75,7 +93,22 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
     public static final AttributeDefinition VERSION = new SimpleAttributeDefinition(CommonAttributes.VERSION, ModelType.STRING,
             false, AttributeAccess.Flag.STORAGE_RUNTIME);
 
+    public static final AttributeDefinition SECURITY_CACHE_HIT_COUNT = create("security-cache-hit-count", LONG)
+            .setStorageRuntime()
+            .build();
+
+    public static final AttributeDefinition SECURITY_CACHE_MISS_COUNT = create("security-cache-miss-count", LONG)
+            .setStorageRuntime()
+            .build();
+
+    public static final AttributeDefinition JOURNAL_FILE_COUNT = create("journal-file-count", INT)
+            .setStorageRuntime()
+            .build();
+
+    private static final String JOURNAL_FILE_EXTENSION = ".hq";
+
     private static final AttributeDefinition[] ATTRIBUTES = { STARTED, VERSION, ACTIVE };
+    private static final AttributeDefinition[] METRICS = { SECURITY_CACHE_HIT_COUNT, SECURITY_CACHE_MISS_COUNT, JOURNAL_FILE_COUNT };
     public static final String GET_CONNECTORS_AS_JSON = "get-connectors-as-json";
 //    public static final String ENABLE_MESSAGE_COUNTERS = "enable-message-counters";
 //    public static final String DISABLE_MESSAGE_COUNTERS = "disable-message-counters";
@@ -100,6 +133,7 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
     public static final String GET_ROLES_AS_JSON = "get-roles-as-json";
     public static final String GET_ADDRESS_SETTINGS_AS_JSON = "get-address-settings-as-json";
     public static final String FORCE_FAILOVER = "force-failover";
+    public static final String MEASURE_JOURNAL_SYNC_SPEED = "measure-journal-sync-speed";
         // enableMessageCounters(maybe), disableMessageCounters(maybe), resetAllMessageCounters,
         // resetAllMessageCounterHistories, listPreparedTransactions,
         // listPreparedTransactionDetailsAsJSON, listPreparedTransactionDetailsAsHTML, listHeuristicCommittedTransactions
@@ -117,6 +151,35 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
             .setAllowNull(true)
             .setValidator(new StringLengthValidator(1, Integer.MAX_VALUE, true, false))
             .build();
+    public static final AttributeDefinition BLOCK_SIZE = SimpleAttributeDefinitionBuilder.create("block-size", INT)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(JournalSyncBenchmark.DEFAULT_BLOCK_SIZE))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setValidator(new IntRangeValidator(512, 1024 * 1024, true, false))
+            .build();
+    public static final AttributeDefinition BLOCK_COUNT = SimpleAttributeDefinitionBuilder.create("block-count", INT)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(JournalSyncBenchmark.DEFAULT_BLOCK_COUNT))
+            .setValidator(new IntRangeValidator(1, 100000, true, false))
+            .build();
+    public static final AttributeDefinition TIME_LIMIT = SimpleAttributeDefinitionBuilder.create("time-limit", INT)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(JournalSyncBenchmark.DEFAULT_TIME_LIMIT))
+            .setMeasurementUnit(MeasurementUnit.SECONDS)
+            .setValidator(new IntRangeValidator(1, 300, true, false))
+            .build();
+
+    // reply of the measure-journal-sync-speed operation
+    private static final AttributeDefinition MIN_SYNC_TIME = create("min-sync-time", LONG).setMeasurementUnit(MeasurementUnit.NANOSECONDS).build();
+    private static final AttributeDefinition AVERAGE_SYNC_TIME = create("average-sync-time", LONG).setMeasurementUnit(MeasurementUnit.NANOSECONDS).build();
+    private static final AttributeDefinition MAX_SYNC_TIME = create("max-sync-time", LONG).setMeasurementUnit(MeasurementUnit.NANOSECONDS).build();
+    private static final AttributeDefinition SYNC_TIME_99TH_PERCENTILE = create("sync-time-99th-percentile", LONG).setMeasurementUnit(MeasurementUnit.NANOSECONDS).build();
+    private static final AttributeDefinition SYNCS_PER_SECOND = create("syncs-per-second", LONG).build();
+    private static final AttributeDefinition BYTES_PER_SECOND = create("bytes-per-second", LONG).setMeasurementUnit(MeasurementUnit.BYTES).build();
+    private static final AttributeDefinition RECOMMENDED_JOURNAL_BUFFER_TIMEOUT = create("recommended-journal-buffer-timeout", LONG).build();
+
+    // journal directories whose sync speed is being measured
+    private static final Set<String> MEASURED_DIRECTORIES = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     private HornetQServerControlHandler() {
     }
@@ -142,6 +205,12 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
             return;
         }
 
+        if (MEASURE_JOURNAL_SYNC_SPEED.equals(operationName)) {
+            handleMeasureJournalSyncSpeed(context, operation, hqServer);
+            context.stepCompleted();
+            return;
+        }
+
         final HornetQServerControl serverControl = getServerControl(context, operation);
 
         try {
@@ -228,6 +297,9 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
         for (AttributeDefinition attr : ATTRIBUTES) {
             registry.registerReadOnlyAttribute(attr, this);
         }
+        for (AttributeDefinition metric : METRICS) {
+            registry.registerMetric(metric, this);
+        }
     }
 
     public void registerOperations(final ManagementResourceRegistration registry, ResourceDescriptionResolver resolver) {
@@ -315,6 +387,14 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
                 .build(),
                 this);
 
+        registry.registerOperationHandler(runtimeOnlyOperation(MEASURE_JOURNAL_SYNC_SPEED, resolver)
+                .setParameters(BLOCK_SIZE, BLOCK_COUNT, TIME_LIMIT)
+                .setReplyType(OBJECT)
+                .setReplyParameters(BLOCK_SIZE, BLOCK_COUNT, MIN_SYNC_TIME, AVERAGE_SYNC_TIME, MAX_SYNC_TIME, SYNC_TIME_99TH_PERCENTILE,
+                        SYNCS_PER_SECOND, BYTES_PER_SECOND, RECOMMENDED_JOURNAL_BUFFER_TIMEOUT)
+                .build(),
+                this);
+
         registry.registerOperationHandler(runtimeReadOnlyOperation(GET_ROLES, resolver)
                 .setParameters(ADDRESS_MATCH)
                 .setReplyType(LIST)
@@ -342,12 +422,80 @@ public class HornetQServerControlHandler extends AbstractRuntimeOnlyHandler {
         } else if (ACTIVE.getName().equals(name)) {
             boolean active = server.isActive();
             context.getResult().set(active);
+        } else if (SECURITY_CACHE_HIT_COUNT.getName().equals(name) || SECURITY_CACHE_MISS_COUNT.getName().equals(name)) {
+            long count = 0;
+            if (server.getSecurityManager() instanceof HornetQSecurityManagerAS7) {
+                HornetQSecurityManagerAS7 securityManager = (HornetQSecurityManagerAS7) server.getSecurityManager();
+                count = SECURITY_CACHE_HIT_COUNT.getName().equals(name) ? securityManager.getDecisionCacheHitCount() : securityManager.getDecisionCacheMissCount();
+            }
+            context.getResult().set(count);
+        } else if (JOURNAL_FILE_COUNT.getName().equals(name)) {
+            File[] files = new File(server.getConfiguration().getJournalDirectory()).listFiles(new FilenameFilter() {
+                @Override
+                public boolean accept(File dir, String name) {
+                    return name.endsWith(JOURNAL_FILE_EXTENSION);
+                }
+            });
+            context.getResult().set(files != null ? files.length : 0);
         } else {
             // Bug
             throw MessagingLogger.ROOT_LOGGER.unsupportedAttribute(name);
         }
     }
 
+    private void handleMeasureJournalSyncSpeed(OperationContext context, ModelNode operation, final HornetQServer server) throws OperationFailedException {
+        final int blockSize = BLOCK_SIZE.resolveModelAttribute(context, operation).asInt();
+        final int blockCount = BLOCK_COUNT.resolveModelAttribute(context, operation).asInt();
+        final int timeLimit = TIME_LIMIT.resolveModelAttribute(context, operation).asInt();
+        final Configuration configuration = server.getConfiguration();
+        final File directory = new File(configuration.getJournalDirectory());
+        final String key = directory.getAbsolutePath();
+
+        if (!MEASURED_DIRECTORIES.add(key)) {
+            throw MessagingLogger.ROOT_LOGGER.journalSyncSpeedAlreadyMeasured(key);
+        }
+        // the syncs run on their own thread so that a stalled disk cannot hold the management thread past the time limit
+        final FutureTask<JournalSyncBenchmark.Result> task = new FutureTask<JournalSyncBenchmark.Result>(new Callable<JournalSyncBenchmark.Result>() {
+            @Override
+            public JournalSyncBenchmark.Result call() throws IOException {
+                try {
+                    return JournalSyncBenchmark.run(directory, configuration.getJournalFileSize(), blockSize, blockCount, TimeUnit.SECONDS.toNanos(timeLimit));
+                } finally {
+                    MEASURED_DIRECTORIES.remove(key);
+                }
+            }
+        });
+        final Thread thread = new Thread(task, "measure-journal-sync-speed");
+        thread.setDaemon(true);
+        thread.start();
+
+        final JournalSyncBenchmark.Result result;
+        try {
+            // the benchmark checks the time limit between syncs, leave as long again for the sync in progress
+            result = task.get(2L * timeLimit, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw MessagingLogger.ROOT_LOGGER.journalSyncSpeedMeasureTimedOut(timeLimit);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException(new ModelNode().set(e.toString()));
+        } catch (ExecutionException e) {
+            throw new OperationFailedException(new ModelNode().set(e.getCause().getLocalizedMessage()));
+        }
+
+        final ModelNode reply = context.getResult();
+        reply.get(BLOCK_SIZE.getName()).set(blockSize);
+        reply.get(BLOCK_COUNT.getName()).set(result.getBlockCount());
+        reply.get(MIN_SYNC_TIME.getName()).set(result.getMinSyncTime());
+        reply.get(AVERAGE_SYNC_TIME.getName()).set(result.getAverageSyncTime());
+        reply.get(MAX_SYNC_TIME.getName()).set(result.getMaxSyncTime());
+        reply.get(SYNC_TIME_99TH_PERCENTILE.getName()).set(result.getSyncTimePercentile(99));
+        reply.get(SYNCS_PER_SECOND.getName()).set(result.getSyncsPerSecond());
+        reply.get(BYTES_PER_SECOND.getName()).set(result.getBytesPerSecond());
+        reply.get(RECOMMENDED_JOURNAL_BUFFER_TIMEOUT.getName()).set(result.getRecommendedJournalBufferTimeout());
+    }
+
     private HornetQServerControl getServerControl(final OperationContext context, ModelNode operation) throws OperationFailedException {
         final ServiceName hqServiceName = MessagingServices.getHornetQServiceName(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
         ServiceController<?> hqService = context.getServiceRegistry(false).getService(hqServiceName);
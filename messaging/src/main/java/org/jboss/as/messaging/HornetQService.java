@@ -25,6 +25,7 @@ package org.jboss.as.messaging;
 import static org.jboss.as.messaging.logging.MessagingLogger.ROOT_LOGGER;
 
 import java.net.InetSocketAddress;
+import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -40,9 +41,11 @@ import org.hornetq.api.core.TransportConfiguration;
 import org.hornetq.core.config.Configuration;
 import org.hornetq.core.journal.impl.AIOSequentialFileFactory;
 import org.hornetq.core.remoting.impl.netty.TransportConstants;
+import org.hornetq.core.security.SecurityStore;
 import org.hornetq.core.server.HornetQServer;
 import org.hornetq.core.server.JournalType;
 import org.hornetq.core.server.impl.HornetQServerImpl;
+import org.hornetq.core.settings.HierarchicalRepositoryChangeListener;
 import org.jboss.as.clustering.jgroups.ChannelFactory;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
@@ -89,6 +92,8 @@ class HornetQService implements Service<HornetQServer> {
     private Configuration configuration;
 
     private HornetQServer server;
+    private final boolean securityDecisionCacheEnabled;
+    private SecurityDomainContext.CacheFlushListener cacheFlushListener;
     private Map<String, SocketBinding> socketBindings = new HashMap<String, SocketBinding>();
     private Map<String, OutboundSocketBinding> outboundSocketBindings = new HashMap<String, OutboundSocketBinding>();
     private Map<String, SocketBinding> groupBindings = new HashMap<String, SocketBinding>();
@@ -105,8 +110,13 @@ class HornetQService implements Service<HornetQServer> {
     private final Map<String, JChannel> channels = new HashMap<String, JChannel>();
 
     public HornetQService(Configuration configuration, PathConfig pathConfig) {
+        this(configuration, pathConfig, false);
+    }
+
+    public HornetQService(Configuration configuration, PathConfig pathConfig, boolean securityDecisionCacheEnabled) {
         this.configuration = configuration;
         this.pathConfig = pathConfig;
+        this.securityDecisionCacheEnabled = securityDecisionCacheEnabled;
     }
 
     Injector<PathManager> getPathManagerInjector(){
@@ -271,10 +281,27 @@ class HornetQService implements Service<HornetQServer> {
             }
 
             // security
-            HornetQSecurityManagerAS7 hornetQSecurityManagerAS7 = new HornetQSecurityManagerAS7(securityDomainContextValue.getValue());
+            // successful security decisions are cached, if enabled, as long as HornetQ caches its own security checks
+            final SecurityDomainContext securityDomainContext = securityDomainContextValue.getValue();
+            final HornetQSecurityManagerAS7 securityManager = new HornetQSecurityManagerAS7(securityDomainContext, securityDecisionCacheEnabled ? configuration.getSecurityInvalidationInterval() : 0);
 
             // Now start the server
-            server = new HornetQServerImpl(configuration, mbeanServer.getOptionalValue(), hornetQSecurityManagerAS7);
+            server = new HornetQServerImpl(configuration, mbeanServer.getOptionalValue(), securityManager);
+            if (securityDomainContext != null) {
+                final HornetQServer hornetQServer = server;
+                cacheFlushListener = new SecurityDomainContext.CacheFlushListener() {
+                    @Override
+                    public void cacheFlushed(Principal principal) {
+                        securityManager.invalidateDecisionCache(principal);
+                        // HornetQ keeps its own cache of the successful checks of each user, which can only be cleared as a whole
+                        SecurityStore securityStore = hornetQServer.getSecurityStore();
+                        if (securityStore instanceof HierarchicalRepositoryChangeListener) {
+                            ((HierarchicalRepositoryChangeListener) securityStore).onChange();
+                        }
+                    }
+                };
+                securityDomainContext.addCacheFlushListener(cacheFlushListener);
+            }
             if (HornetQDefaultConfiguration.getDefaultClusterPassword().equals(server.getConfiguration().getClusterPassword())) {
                 server.getConfiguration().setClusterPassword(java.util.UUID.randomUUID().toString());
             }
@@ -299,6 +326,11 @@ class HornetQService implements Service<HornetQServer> {
                 // server.stop();
             }
             pathConfig.closeCallbacks(pathManager.getValue());
+            final SecurityDomainContext securityDomainContext = securityDomainContextValue.getOptionalValue();
+            if (cacheFlushListener != null && securityDomainContext != null) {
+                securityDomainContext.removeCacheFlushListener(cacheFlushListener);
+            }
+            cacheFlushListener = null;
         } catch (Exception e) {
             throw MessagingLogger.ROOT_LOGGER.failedToShutdownServer(e, "HornetQ");
         }
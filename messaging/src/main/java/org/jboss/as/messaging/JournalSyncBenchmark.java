@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast the disk hosting the journal can sync writes.
+ *
+ * The benchmark writes blocks sequentially to a preallocated temporary file in the journal directory and syncs the
+ * file after each write, the same pattern the journal uses when its buffer times out. Like a journal file, the temporary
+ * file is never larger than the journal file size: once it is full, the blocks are written again from its start.
+ * The benchmark stops at its time limit, even if fewer blocks than requested were synced.
+ *
+ * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2014 Red Hat inc.
+ */
+class JournalSyncBenchmark {
+
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+    static final int DEFAULT_BLOCK_COUNT = 500;
+    static final int DEFAULT_TIME_LIMIT = 10;
+
+    private static final String FILE_PREFIX = "sync-speed-test";
+
+    private JournalSyncBenchmark() {
+    }
+
+    /**
+     * @param timeLimit the time limit (in nanoseconds) of the syncs, at least one block is synced
+     */
+    static Result run(File directory, long fileSize, int blockSize, int blockCount, long timeLimit) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory.getAbsolutePath());
+        }
+        final File file = File.createTempFile(FILE_PREFIX, ".tmp", directory);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer block = ByteBuffer.allocateDirect(blockSize);
+            final int fileBlocks = (int) Math.max(1, Math.min(blockCount, fileSize / blockSize));
+
+            // preallocate the file so that the measured syncs do not include the growth of the file metadata
+            for (int i = 0; i < fileBlocks; i++) {
+                block.clear();
+                channel.write(block, (long) i * blockSize);
+            }
+            channel.force(true);
+
+            for (int i = 0; i < blockSize; i++) {
+                block.put(i, (byte) i);
+            }
+            final long[] syncTimes = new long[blockCount];
+            final long deadline = System.nanoTime() + timeLimit;
+            int count = 0;
+            do {
+                block.clear();
+                final long start = System.nanoTime();
+                channel.write(block, (long) (count % fileBlocks) * blockSize);
+                channel.force(false);
+                syncTimes[count++] = System.nanoTime() - start;
+            } while (count < blockCount && System.nanoTime() - deadline < 0);
+            return new Result(blockSize, Arrays.copyOf(syncTimes, count));
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    static final class Result {
+        private final int blockSize;
+        private final long[] sortedSyncTimes;
+        private final long totalTime;
+
+        Result(int blockSize, long[] syncTimes) {
+            this.blockSize = blockSize;
+            this.sortedSyncTimes = syncTimes.clone();
+            Arrays.sort(sortedSyncTimes);
+            long total = 0;
+            for (long time : syncTimes) {
+                total += time;
+            }
+            this.totalTime = total;
+        }
+
+        int getBlockCount() {
+            return sortedSyncTimes.length;
+        }
+
+        long getMinSyncTime() {
+            return sortedSyncTimes.length > 0 ? sortedSyncTimes[0] : 0;
+        }
+
+        long getMaxSyncTime() {
+            return sortedSyncTimes.length > 0 ? sortedSyncTimes[sortedSyncTimes.length - 1] : 0;
+        }
+
+        long getAverageSyncTime() {
+            return sortedSyncTimes.length > 0 ? totalTime / sortedSyncTimes.length : 0;
+        }
+
+        /**
+         * @param percentile the percentile, between 0 and 100
+         */
+        long getSyncTimePercentile(int percentile) {
+            if (sortedSyncTimes.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedSyncTimes.length) - 1;
+            return sortedSyncTimes[Math.max(0, Math.min(index, sortedSyncTimes.length - 1))];
+        }
+
+        long getSyncsPerSecond() {
+            return totalTime > 0 ? sortedSyncTimes.length * TimeUnit.SECONDS.toNanos(1) / totalTime : 0;
+        }
+
+        long getBytesPerSecond() {
+            return totalTime > 0 ? (long) ((double) blockSize * sortedSyncTimes.length * TimeUnit.SECONDS.toNanos(1) / totalTime) : 0;
+        }
+
+        /**
+         * The journal buffer should be flushed at the rate the disk is able to sync: the recommended timeout
+         * (in nanoseconds) is the average time of a sync.
+         */
+        long getRecommendedJournalBufferTimeout() {
+            return Math.max(1, getAverageSyncTime());
+        }
+    }
+}
@@ -48,6 +48,7 @@ public class Messaging30SubsystemParser extends Messaging20SubsystemParser {
     protected void handleUnknownConfigurationAttribute(XMLExtendedStreamReader reader, Element element, ModelNode operation) throws XMLStreamException {
         switch (element) {
             case OVERRIDE_IN_VM_SECURITY:
+            case SECURITY_DECISION_CACHE_ENABLED:
                 handleElementText(reader, element, operation);
                 break;
             default: {
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hornetq.core.security.CheckType;
+import org.hornetq.core.security.Role;
+
+/**
+ * Bounded cache of the successful security decisions taken by {@link HornetQSecurityManagerAS7}.
+ *
+ * Decisions are keyed on the user name, a digest of the credential, the role set and the check type and expire after
+ * a fixed timeout. Only successful decisions are cached so that failed attempts can not fill the cache.
+ */
+class SecurityDecisionCache {
+
+    static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final ConcurrentMap<Key, Long> decisions = new ConcurrentHashMap<Key, Long>();
+    private final long timeout;
+    private final int maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param timeout time in milliseconds during which a decision is valid
+     * @param maxSize maximum number of decisions kept in the cache
+     */
+    SecurityDecisionCache(long timeout, int maxSize) {
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create the key identifying a security check.
+     *
+     * @param checkType the type of the check or {@code null} for an authentication check
+     */
+    Key key(String username, String password, Set<Role> roles, CheckType checkType) {
+        return new Key(username, digest(password), roles, checkType);
+    }
+
+    /**
+     * @return {@code true} if a successful decision that has not expired is cached for the key
+     */
+    boolean isGranted(Key key) {
+        Long expiration = decisions.get(key);
+        if (expiration != null) {
+            if (expiration - System.nanoTime() > 0) {
+                hitCount.incrementAndGet();
+                return true;
+            }
+            decisions.remove(key, expiration);
+        }
+        missCount.incrementAndGet();
+        return false;
+    }
+
+    void grant(Key key) {
+        if (decisions.size() >= maxSize) {
+            evict();
+        }
+        // the role set is owned by HornetQ, keep a copy so that the stored key can not change
+        Set<Role> roles = key.roles != null ? new HashSet<Role>(key.roles) : null;
+        decisions.put(new Key(key.username, key.credentialHash, roles, key.checkType), System.nanoTime() + timeout);
+    }
+
+    /**
+     * Invalidate all the cached decisions.
+     */
+    void invalidate() {
+        decisions.clear();
+    }
+
+    /**
+     * Invalidate the cached decisions of a single user.
+     */
+    void invalidate(String username) {
+        Iterator<Key> iterator = decisions.keySet().iterator();
+        while (iterator.hasNext()) {
+            Key key = iterator.next();
+            if (key.username == null ? username == null : key.username.equals(username)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    int size() {
+        return decisions.size();
+    }
+
+    /**
+     * Remove the expired decisions. If the cache is still full, arbitrary decisions are removed to make room.
+     */
+    private void evict() {
+        final long now = System.nanoTime();
+        Iterator<Long> iterator = decisions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() - now <= 0) {
+                iterator.remove();
+            }
+        }
+        iterator = decisions.values().iterator();
+        while (decisions.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static byte[] digest(String password) {
+        if (password == null) {
+            return null;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Key {
+        private final String username;
+        private final byte[] credentialHash;
+        private final Set<Role> roles;
+        private final CheckType checkType;
+        private final int hashCode;
+
+        private Key(String username, byte[] credentialHash, Set<Role> roles, CheckType checkType) {
+            this.username = username;
+            this.credentialHash = credentialHash;
+            this.roles = roles;
+            this.checkType = checkType;
+            int result = username != null ? username.hashCode() : 0;
+            result = 31 * result + Arrays.hashCode(credentialHash);
+            result = 31 * result + (roles != null ? roles.hashCode() : 0);
+            result = 31 * result + (checkType != null ? checkType.hashCode() : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+
+            if (hashCode != key.hashCode) return false;
+            if (checkType != key.checkType) return false;
+            if (username != null ? !username.equals(key.username) : key.username != null) return false;
+            if (!Arrays.equals(credentialHash, key.credentialHash)) return false;
+            if (roles != null ? !roles.equals(key.roles) : key.roles != null) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
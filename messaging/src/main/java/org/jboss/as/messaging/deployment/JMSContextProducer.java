@@ -25,9 +25,14 @@ package org.jboss.as.messaging.deployment;
 import static javax.jms.JMSContext.AUTO_ACKNOWLEDGE;
 
 import java.io.Serializable;
+import java.lang.reflect.Member;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.Bean;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.jms.BytesMessage;
 import javax.jms.ConnectionFactory;
@@ -60,23 +65,62 @@ import javax.transaction.Synchronization;
 import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.messaging.logging.MessagingLogger;
+import org.jboss.as.naming.context.NamespaceContextSelector;
 
 /**
  * Producer factory for JMSContext resources.
  *
  * => Within the same scope, different injected JMSContext objects which are injected using identical annotations will all refer to the same JMSContext object.
  *
+ * The producer is application scoped so that the transaction synchronization registry and the connection factory of each
+ * injection point are looked up once per deployment.
+ *
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2013 Red Hat inc.
  */
+@ApplicationScoped
 public class JMSContextProducer {
 
     private static final String TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP = "java:comp/TransactionSynchronizationRegistry";
 
+    private final ConcurrentMap<InjectionPointKey, JMSInfo> infos = new ConcurrentHashMap<InjectionPointKey, JMSInfo>();
+    private volatile TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
     /**
      * CDI Producer method for injected {@link JMSContext}.
      */
     @Produces
     public JMSContext getJMSContext(InjectionPoint injectionPoint) throws NamingException {
+        InjectionPointKey key = (injectionPoint != null && injectionPoint.getMember() != null) ? new InjectionPointKey(injectionPoint) : null;
+        JMSInfo info = (key != null) ? infos.get(key) : null;
+        TransactionSynchronizationRegistry registry = transactionSynchronizationRegistry;
+        if (info == null || registry == null) {
+            // resolve while the naming context of the component which owns the injection point is active
+            Context ctx = new InitialContext();
+            try {
+                if (registry == null) {
+                    registry = (TransactionSynchronizationRegistry) ctx.lookup(TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP);
+                    transactionSynchronizationRegistry = registry;
+                }
+                if (info == null) {
+                    info = resolve(ctx, injectionPoint);
+                    if (key != null) {
+                        JMSInfo existing = infos.putIfAbsent(key, info);
+                        if (existing != null) {
+                            info = existing;
+                        }
+                    }
+                }
+            } finally {
+                try {
+                    ctx.close();
+                } catch (NamingException e) {
+                }
+            }
+        }
+        return new JMSContextWrapper(info, registry);
+    }
+
+    private JMSInfo resolve(Context ctx, InjectionPoint injectionPoint) throws NamingException {
         String connectionFactoryLookup = DefaultJMSConnectionFactoryBindingProcessor.COMP_DEFAULT_JMS_CONNECTION_FACTORY;
         String userName = null;
         String password = null;
@@ -103,9 +147,8 @@ public class JMSContextProducer {
             }
         }
 
-        JMSInfo info = new JMSInfo(connectionFactoryLookup, userName, password, ackMode);
-
-        return new JMSContextWrapper(info);
+        ConnectionFactory cf = (ConnectionFactory) ctx.lookup(connectionFactoryLookup);
+        return new JMSInfo(cf, userName, password, ackMode);
     }
 
     /**
@@ -118,14 +161,51 @@ public class JMSContextProducer {
         }
     }
 
-    private final class JMSInfo {
-        private final String connectionFactoryLookup;
+    /**
+     * Identifies an injection point together with the bean and the component naming context it is resolved for, since
+     * java:comp names of the same member can resolve to different objects in different components.
+     */
+    private static final class InjectionPointKey {
+        private final Member member;
+        private final Bean<?> bean;
+        private final NamespaceContextSelector selector;
+
+        InjectionPointKey(InjectionPoint injectionPoint) {
+            this.member = injectionPoint.getMember();
+            this.bean = injectionPoint.getBean();
+            this.selector = NamespaceContextSelector.getCurrentSelector();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof InjectionPointKey)) return false;
+
+            InjectionPointKey key = (InjectionPointKey) o;
+            return member.equals(key.member) && bean == key.bean && selector == key.selector;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = member.hashCode();
+            result = 31 * result + System.identityHashCode(bean);
+            result = 31 * result + System.identityHashCode(selector);
+            return result;
+        }
+    }
+
+    /**
+     * Settings of an injected JMSContext. Contexts with equal settings share the JMSContext of a transaction, so the
+     * resolved connection factory is compared rather than its JNDI name, which can resolve differently per component.
+     */
+    private static final class JMSInfo {
+        private final ConnectionFactory connectionFactory;
         private final String userName;
         private final String password;
         private final int ackMode;
 
-        JMSInfo(String connectionFactoryLookup, String userName, String password, int ackMode) {
-            this.connectionFactoryLookup = connectionFactoryLookup;
+        JMSInfo(ConnectionFactory connectionFactory, String userName, String password, int ackMode) {
+            this.connectionFactory = connectionFactory;
             this.userName = userName;
             this.password = password;
             this.ackMode = ackMode;
@@ -139,8 +219,7 @@ public class JMSContextProducer {
             JMSInfo jmsInfo = (JMSInfo) o;
 
             if (ackMode != jmsInfo.ackMode) return false;
-            if (connectionFactoryLookup != null ? !connectionFactoryLookup.equals(jmsInfo.connectionFactoryLookup) : jmsInfo.connectionFactoryLookup != null)
-                return false;
+            if (connectionFactory != jmsInfo.connectionFactory) return false;
             if (password != null ? !password.equals(jmsInfo.password) : jmsInfo.password != null) return false;
             if (userName != null ? !userName.equals(jmsInfo.userName) : jmsInfo.userName != null) return false;
 
@@ -149,7 +228,7 @@ public class JMSContextProducer {
 
         @Override
         public int hashCode() {
-            int result = connectionFactoryLookup != null ? connectionFactoryLookup.hashCode() : 0;
+            int result = System.identityHashCode(connectionFactory);
             result = 31 * result + (userName != null ? userName.hashCode() : 0);
             result = 31 * result + (password != null ? password.hashCode() : 0);
             result = 31 * result + ackMode;
@@ -160,72 +239,75 @@ public class JMSContextProducer {
     /**
      * Wrapper to restrict use of methods for injected JMSContext (JMS 2.0 spec, §12.4.5)
      * and lazily create the real JMSContext depending on the transaction status.
+     *
+     * Within a JTA transaction, the real JMSContext is stored as a resource of the transaction so that all the injected
+     * JMSContext with identical annotations share it until the transaction completes.
+     * Outside a transaction, the wrapper creates its own JMSContext and closes it when it is disposed; the session
+     * it holds is returned to the pooled connection factory at that time.
      */
-    private class JMSContextWrapper implements JMSContext {
+    private final class JMSContextWrapper implements JMSContext {
 
         private final JMSInfo info;
-        private JMSContext delegate;
-        private boolean inTransaction = false;
+        private final TransactionSynchronizationRegistry registry;
+        private volatile JMSContext delegate;
 
-        JMSContextWrapper(JMSInfo info) {
+        JMSContextWrapper(JMSInfo info, TransactionSynchronizationRegistry registry) {
             this.info = info;
-        }
-
-        private JMSContext create(JMSInfo info, boolean inTx, Context ctx) throws Exception {
-            inTransaction = inTx;
-            ConnectionFactory cf = (ConnectionFactory) ctx.lookup(info.connectionFactoryLookup);
-            if (inTransaction) {
-                XAJMSContext xaContext = ((XAConnectionFactory) cf).createXAContext(info.userName, info.password);
-                return xaContext.getContext();
-            } else {
-                return cf.createContext(info.userName, info.password, info.ackMode);
-            }
+            this.registry = registry;
         }
 
         private void internalClose() {
-            if (delegate != null && !inTransaction) {
-                delegate.close();
+            JMSContext context;
+            synchronized (this) {
+                context = delegate;
                 delegate = null;
             }
+            if (context != null) {
+                context.close();
+            }
         }
 
         /**
-         * create the underlying JMSContext or return it if there is already one create.
+         * return the JMSContext shared by the current transaction or the JMSContext owned by this wrapper
+         * if there is no transaction, creating it if necessary.
          */
-        private synchronized JMSContext getDelegate() {
-            if (delegate == null) {
-                Context ctx = null;
-                try {
-                    ctx = new InitialContext();
-                    TransactionSynchronizationRegistry registry = (TransactionSynchronizationRegistry) ctx.lookup(TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP);
-                    boolean inTx = registry.getTransactionStatus() == Status.STATUS_ACTIVE;
-                    delegate = create(info, inTx, ctx);
-                    if (inTx) {
-                        registry.registerInterposedSynchronization(new Synchronization() {
-                            @Override
-                            public void beforeCompletion() {
-                            }
-
-                            @Override
-                            public synchronized void afterCompletion(int status) {
-                                delegate.close();
-                                delegate = null;
-                                inTransaction = false;
-                            }
-                        });
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                } finally {
-                    if (ctx != null) {
-                        try {
-                            ctx.close();
-                        } catch (NamingException e) {
-                        }
+        private JMSContext getDelegate() {
+            if (registry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+                return getTransactionDelegate();
+            }
+            JMSContext context = delegate;
+            if (context == null) {
+                synchronized (this) {
+                    context = delegate;
+                    if (context == null) {
+                        context = info.connectionFactory.createContext(info.userName, info.password, info.ackMode);
+                        delegate = context;
                     }
                 }
             }
-            return delegate;
+            return context;
+        }
+
+        private JMSContext getTransactionDelegate() {
+            // the registry resources are bound to the transaction associated with the current thread, no lock is required
+            JMSContext context = (JMSContext) registry.getResource(info);
+            if (context == null) {
+                XAJMSContext xaContext = ((XAConnectionFactory) info.connectionFactory).createXAContext(info.userName, info.password);
+                final JMSContext transactionContext = xaContext.getContext();
+                registry.putResource(info, transactionContext);
+                registry.registerInterposedSynchronization(new Synchronization() {
+                    @Override
+                    public void beforeCompletion() {
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        transactionContext.close();
+                    }
+                });
+                context = transactionContext;
+            }
+            return context;
         }
 
         // JMSContext interface implementation
@@ -785,4 +785,10 @@ public interface MessagingLogger extends BasicLogger {
 
     @Message(id = 74, value = "Invalid parameter key: %s, the allowed keys are %s.")
     OperationFailedException invalidParameterName(String parameterName, Set<String> allowedKeys);
+
+    @Message(id = 75, value = "The sync speed of the journal directory %s is already being measured")
+    OperationFailedException journalSyncSpeedAlreadyMeasured(String journalDirectory);
+
+    @Message(id = 76, value = "The journal sync speed measure did not complete within %d seconds")
+    OperationFailedException journalSyncSpeedMeasureTimedOut(int timeLimit);
 }
@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2014 Red Hat inc.
+ */
+public class JournalSyncBenchmarkTestCase {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("journal", "");
+        directory.delete();
+        directory.mkdirs();
+    }
+
+    @After
+    public void deleteDirectory() {
+        directory.delete();
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        JournalSyncBenchmark.Result result = JournalSyncBenchmark.run(directory, 512 * 20, 512, 20, TimeUnit.MINUTES.toNanos(1));
+        assertEquals(20, result.getBlockCount());
+        assertTrue(result.getMinSyncTime() > 0);
+        assertTrue(result.getMinSyncTime() <= result.getAverageSyncTime());
+        assertTrue(result.getAverageSyncTime() <= result.getMaxSyncTime());
+        assertTrue(result.getSyncTimePercentile(99) <= result.getMaxSyncTime());
+        assertTrue(result.getBytesPerSecond() > 0);
+        assertTrue(result.getRecommendedJournalBufferTimeout() > 0);
+        // the temporary file is removed
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testFileSize() throws Exception {
+        // the blocks are written again from the start of a file holding only 2 of them
+        JournalSyncBenchmark.Result result = JournalSyncBenchmark.run(directory, 1024, 512, 20, TimeUnit.MINUTES.toNanos(1));
+        assertEquals(20, result.getBlockCount());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testTimeLimit() throws Exception {
+        JournalSyncBenchmark.Result result = JournalSyncBenchmark.run(directory, 512 * 100000, 512, 100000, 1);
+        assertTrue(result.getBlockCount() >= 1);
+        assertTrue(result.getBlockCount() < 100000);
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testPercentiles() {
+        long[] times = new long[100];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = times.length - i;
+        }
+        JournalSyncBenchmark.Result result = new JournalSyncBenchmark.Result(4096, times);
+        assertEquals(1, result.getMinSyncTime());
+        assertEquals(100, result.getMaxSyncTime());
+        assertEquals(50, result.getAverageSyncTime());
+        assertEquals(50, result.getSyncTimePercentile(50));
+        assertEquals(99, result.getSyncTimePercentile(99));
+        assertEquals(100 * 1000000000L / 5050, result.getSyncsPerSecond());
+        assertEquals(4096L * 100 * 1000000000L / 5050, result.getBytesPerSecond());
+    }
+}
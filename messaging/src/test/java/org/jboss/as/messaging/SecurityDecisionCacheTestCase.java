@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hornetq.core.security.CheckType;
+import org.hornetq.core.security.Role;
+import org.junit.Test;
+
+public class SecurityDecisionCacheTestCase {
+
+    private static final Set<Role> ROLES = Collections.singleton(new Role("guest", true, true, false, false, false, false, false));
+
+    @Test
+    public void testGrantedDecision() {
+        SecurityDecisionCache cache = new SecurityDecisionCache(60000, 10);
+        assertFalse(cache.isGranted(cache.key("user", "password", ROLES, CheckType.SEND)));
+        cache.grant(cache.key("user", "password", ROLES, CheckType.SEND));
+        assertTrue(cache.isGranted(cache.key("user", "password", ROLES, CheckType.SEND)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testKeyDiscriminators() {
+        SecurityDecisionCache cache = new SecurityDecisionCache(60000, 10);
+        cache.grant(cache.key("user", "password", ROLES, CheckType.SEND));
+        assertFalse(cache.isGranted(cache.key("user", "wrong", ROLES, CheckType.SEND)));
+        assertFalse(cache.isGranted(cache.key("other", "password", ROLES, CheckType.SEND)));
+        assertFalse(cache.isGranted(cache.key("user", "password", ROLES, CheckType.CONSUME)));
+        assertFalse(cache.isGranted(cache.key("user", "password", Collections.<Role>emptySet(), CheckType.SEND)));
+        assertFalse(cache.isGranted(cache.key("user", "password", null, null)));
+    }
+
+    @Test
+    public void testRoleSetIsCopied() {
+        SecurityDecisionCache cache = new SecurityDecisionCache(60000, 10);
+        Set<Role> roles = new HashSet<Role>(ROLES);
+        cache.grant(cache.key("user", "password", roles, CheckType.SEND));
+        roles.clear();
+        assertTrue(cache.isGranted(cache.key("user", "password", ROLES, CheckType.SEND)));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        SecurityDecisionCache cache = new SecurityDecisionCache(10, 10);
+        cache.grant(cache.key("user", "password", ROLES, CheckType.SEND));
+        Thread.sleep(50);
+        assertFalse(cache.isGranted(cache.key("user", "password", ROLES, CheckType.SEND)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testBounded() {
+        SecurityDecisionCache cache = new SecurityDecisionCache(60000, 10);
+        for (int i = 0; i < 100; i++) {
+            cache.grant(cache.key("user" + i, "password", ROLES, CheckType.SEND));
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.isGranted(cache.key("user99", "password", ROLES, CheckType.SEND)));
+    }
+
+    @Test
+    public void testInvalidation() {
+        SecurityDecisionCache cache = new SecurityDecisionCache(60000, 10);
+        cache.grant(cache.key("user", "password", ROLES, CheckType.SEND));
+        cache.grant(cache.key("other", "password", ROLES, CheckType.SEND));
+        cache.invalidate("user");
+        assertFalse(cache.isGranted(cache.key("user", "password", ROLES, CheckType.SEND)));
+        assertTrue(cache.isGranted(cache.key("other", "password", ROLES, CheckType.SEND)));
+        cache.invalidate();
+        assertEquals(0, cache.size());
+    }
+}
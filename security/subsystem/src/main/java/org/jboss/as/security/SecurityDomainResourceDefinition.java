@@ -176,10 +176,14 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
                 SecurityDomainContext sdc = controller.getValue();
                 @SuppressWarnings("unchecked")
                 CacheableManager<?, Principal> manager = (CacheableManager<?, Principal>) sdc.getAuthenticationManager();
-                if (principal != null)
-                    manager.flushCache(new SimplePrincipal(principal));
-                else
+                if (principal != null) {
+                    SimplePrincipal simplePrincipal = new SimplePrincipal(principal);
+                    manager.flushCache(simplePrincipal);
+                    sdc.cacheFlushed(simplePrincipal);
+                } else {
                     manager.flushCache();
+                    sdc.cacheFlushed(null);
+                }
             } else {
                 throw SecurityLogger.ROOT_LOGGER.noAuthenticationCacheAvailable(securityDomain);
             }
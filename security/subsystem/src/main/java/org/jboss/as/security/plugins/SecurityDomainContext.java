@@ -22,6 +22,10 @@
 
 package org.jboss.as.security.plugins;
 
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import javax.naming.NamingException;
 import javax.security.auth.Subject;
 import javax.security.jacc.PolicyContext;
@@ -62,6 +66,8 @@ public class SecurityDomainContext {
 
     private static final String SUBJECT_CONTEXT_KEY = "javax.security.auth.Subject.container";
 
+    private final List<CacheFlushListener> cacheFlushListeners = new CopyOnWriteArrayList<CacheFlushListener>();
+
     public SecurityDomainContext(AuthenticationManager authenticationMgr) {
         this.authenticationMgr = authenticationMgr;
     }
@@ -147,4 +153,38 @@ public class SecurityDomainContext {
     public void setJSSE(JSSESecurityDomain jsseSecurityDomain) {
         this.jsseSecurityDomain = jsseSecurityDomain;
     }
+
+    /**
+     * Register a listener notified when the authentication cache of the security domain is flushed.
+     * Components keeping their own security decisions must use it to discard them.
+     */
+    public void addCacheFlushListener(CacheFlushListener listener) {
+        cacheFlushListeners.add(listener);
+    }
+
+    public void removeCacheFlushListener(CacheFlushListener listener) {
+        cacheFlushListeners.remove(listener);
+    }
+
+    /**
+     * Notify the registered listeners that the authentication cache has been flushed.
+     *
+     * @param principal the principal whose entry was flushed or {@code null} if the whole cache was flushed
+     */
+    public void cacheFlushed(Principal principal) {
+        for (CacheFlushListener listener : cacheFlushListeners) {
+            listener.cacheFlushed(principal);
+        }
+    }
+
+    /**
+     * Listener of the flushes of the authentication cache.
+     */
+    public interface CacheFlushListener {
+
+        /**
+         * @param principal the principal whose entry was flushed or {@code null} if the whole cache was flushed
+         */
+        void cacheFlushed(Principal principal);
+    }
 }
@@ -37,6 +37,9 @@ import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.wildfly.extension.io.IOServices;
+import org.wildfly.extension.undertow.accesslog.AccessLogFormat;
+import org.wildfly.extension.undertow.accesslog.RecordFormat;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.XnioWorker;
 
 /**
@@ -59,9 +62,18 @@ class AccessLogAdd extends AbstractAddStepHandler {
         final String directory = AccessLogDefinition.DIRECTORY.resolveModelAttribute(context, model).asString();
         final String filePrefix = AccessLogDefinition.PREFIX.resolveModelAttribute(context, model).asString();
         final String fileSuffix = AccessLogDefinition.SUFFIX.resolveModelAttribute(context, model).asString();
+        final boolean rotate = AccessLogDefinition.ROTATE.resolveModelAttribute(context, model).asBoolean();
+        final AccessLogFormat format = AccessLogFormat.forName(AccessLogDefinition.FORMAT.resolveModelAttribute(context, model).asString());
+        final long rotateSize = AccessLogDefinition.ROTATE_SIZE.resolveModelAttribute(context, model).asLong();
+        final boolean compressRotated = AccessLogDefinition.COMPRESS_ROTATED.resolveModelAttribute(context, model).asBoolean();
+        final int bufferSize = AccessLogDefinition.BUFFER_SIZE.resolveModelAttribute(context, model).asInt();
+        if ((format == AccessLogFormat.TEXT) && ((rotateSize > 0) || compressRotated)) {
+            // The text format is written by Undertow's receiver, which only rotates daily and never compresses
+            throw new OperationFailedException(UndertowLogger.ROOT_LOGGER.accessLogRotationNotSupported(AccessLogDefinition.ROTATE_SIZE.getName(), AccessLogDefinition.COMPRESS_ROTATED.getName()));
+        }
 
-
-        final AccessLogService service = new AccessLogService(pattern, new File(directory), filePrefix, fileSuffix);
+        final AccessLogService service = (format == AccessLogFormat.TEXT) ? new AccessLogService(pattern, new File(directory), filePrefix, fileSuffix)
+                : new AccessLogService(pattern, new File(directory), filePrefix, fileSuffix, RecordFormat.valueOf(format.name()), rotate, rotateSize, compressRotated, bufferSize);
         final String serverName = serverAddress.getLastElement().getValue();
         final String hostName = hostAddress.getLastElement().getValue();
 
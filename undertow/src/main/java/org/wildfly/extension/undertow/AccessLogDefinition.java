@@ -25,7 +25,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
@@ -33,11 +37,19 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.accesslog.AccessLogFormat;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 /**
  * @author Tomaz Cerar (c) 2013 Red Hat Inc.
@@ -74,6 +86,25 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             .setDefaultValue(new ModelNode(new ValueExpression("${jboss.server.log.dir}")))
             .setAllowExpression(true)
             .build();
+    protected static final SimpleAttributeDefinition FORMAT = new SimpleAttributeDefinitionBuilder(Constants.FORMAT, ModelType.STRING, true)
+            .setDefaultValue(new ModelNode(AccessLogFormat.TEXT.toString()))
+            .setValidator(new EnumValidator<>(AccessLogFormat.class, true, true))
+            .setAllowExpression(true)
+            .build();
+    protected static final SimpleAttributeDefinition ROTATE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.ROTATE_SIZE, ModelType.LONG, true)
+            .setDefaultValue(new ModelNode(0L))
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setAllowExpression(true)
+            .build();
+    protected static final SimpleAttributeDefinition COMPRESS_ROTATED = new SimpleAttributeDefinitionBuilder(Constants.COMPRESS_ROTATED, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .build();
+    protected static final SimpleAttributeDefinition BUFFER_SIZE = new SimpleAttributeDefinitionBuilder(Constants.BUFFER_SIZE, ModelType.INT, true)
+            .setDefaultValue(new ModelNode(262144))
+            .setValidator(new IntRangeValidator(1024, true, true))
+            .setAllowExpression(true)
+            .build();
     static final Collection<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             WORKER,
@@ -81,8 +112,14 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             PREFIX,
             SUFFIX,
             ROTATE,
-            DIRECTORY
+            DIRECTORY,
+            FORMAT,
+            ROTATE_SIZE,
+            COMPRESS_ROTATED,
+            BUFFER_SIZE
     );
+    static final SimpleAttributeDefinition WRITTEN_COUNT = new SimpleAttributeDefinitionBuilder("written-count", ModelType.LONG, true).setStorageRuntime().build();
+    static final SimpleAttributeDefinition DROPPED_COUNT = new SimpleAttributeDefinitionBuilder("dropped-count", ModelType.LONG, true).setStorageRuntime().build();
     static final AccessLogDefinition INSTANCE = new AccessLogDefinition();
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -103,4 +140,44 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
         //noinspection unchecked
         return (Collection) ATTRIBUTES;
     }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(WRITTEN_COUNT, AccessLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(DROPPED_COUNT, AccessLogMetricsHandler.INSTANCE);
+    }
+
+    static class AccessLogMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final AccessLogMetricsHandler INSTANCE = new AccessLogMetricsHandler();
+
+        private AccessLogMetricsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR));
+            final PathAddress hostAddress = address.subAddress(0, address.size() - 1);
+            final PathAddress serverAddress = hostAddress.subAddress(0, hostAddress.size() - 1);
+            final String metric = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            long value = 0;
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.accessLogServiceName(serverAddress.getLastElement().getValue(), hostAddress.getLastElement().getValue()));
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                final AccessLogService service = (AccessLogService) controller.getValue();
+                if (metric.equals(WRITTEN_COUNT.getName())) {
+                    value = service.getWrittenCount();
+                } else if (metric.equals(DROPPED_COUNT.getName())) {
+                    value = service.getDroppedCount();
+                } else {
+                    context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metric));
+                    context.stepCompleted();
+                    return;
+                }
+            }
+            context.getResult().set(value);
+            context.stepCompleted();
+        }
+    }
 }
@@ -26,6 +26,8 @@ package org.wildfly.extension.undertow;
 
 import java.io.File;
 
+import java.io.IOException;
+
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.accesslog.AccessLogHandler;
 import io.undertow.server.handlers.accesslog.AccessLogReceiver;
@@ -35,6 +37,9 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.undertow.accesslog.AsyncAccessLogHandler;
+import org.wildfly.extension.undertow.accesslog.AsyncAccessLogWriter;
+import org.wildfly.extension.undertow.accesslog.RecordFormat;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.XnioWorker;
 
@@ -47,13 +52,29 @@ class AccessLogService implements Service<AccessLogService> {
     private final File directory;
     private final String filePrefix;
     private final String fileSuffix;
+    // Null if records are written synchronously as text
+    private final RecordFormat format;
+    private final boolean rotate;
+    private final long rotateSize;
+    private final boolean compressRotated;
+    private final int bufferSize;
     private volatile AccessLogReceiver logReceiver;
+    private volatile AsyncAccessLogWriter logWriter;
 
     AccessLogService(String pattern, File directory, String filePrefix, String fileSuffix) {
+        this(pattern, directory, filePrefix, fileSuffix, null, true, 0, false, 0);
+    }
+
+    AccessLogService(String pattern, File directory, String filePrefix, String fileSuffix, RecordFormat format, boolean rotate, long rotateSize, boolean compressRotated, int bufferSize) {
         this.pattern = pattern;
         this.directory = directory;
         this.filePrefix = filePrefix;
         this.fileSuffix = fileSuffix;
+        this.format = format;
+        this.rotate = rotate;
+        this.rotateSize = rotateSize;
+        this.compressRotated = compressRotated;
+        this.bufferSize = bufferSize;
     }
 
     @Override
@@ -63,16 +84,37 @@ class AccessLogService implements Service<AccessLogService> {
                 throw UndertowLogger.ROOT_LOGGER.couldNotCreateLogDirectory(directory);
             }
         }
-        try {
-            logReceiver = new DefaultAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix);
-        } catch (IllegalStateException e) {
-            throw new StartException(e);
+        if (format == null) {
+            try {
+                logReceiver = new DefaultAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix);
+            } catch (IllegalStateException e) {
+                throw new StartException(e);
+            }
+        } else {
+            AsyncAccessLogWriter writer = new AsyncAccessLogWriter(pattern, AccessLogHandler.class.getClassLoader(), format, directory, filePrefix, fileSuffix, rotate, rotateSize, compressRotated, bufferSize, worker.getValue());
+            try {
+                writer.start();
+            } catch (IOException e) {
+                throw new StartException(e);
+            }
+            logWriter = writer;
         }
     }
 
     @Override
-    public void stop(StopContext context) {
-
+    public void stop(final StopContext context) {
+        AsyncAccessLogWriter writer = logWriter;
+        if (writer != null) {
+            logWriter = null;
+            // Completes once the writer has drained its remaining records and closed the log file
+            context.asynchronous();
+            writer.stop(new Runnable() {
+                @Override
+                public void run() {
+                    context.complete();
+                }
+            });
+        }
     }
 
     @Override
@@ -84,8 +126,22 @@ class AccessLogService implements Service<AccessLogService> {
         return worker;
     }
 
-    protected AccessLogHandler configureAccessLogHandler(HttpHandler handler) {
+    protected HttpHandler configureAccessLogHandler(HttpHandler handler) {
+        AsyncAccessLogWriter writer = logWriter;
+        if (writer != null) {
+            return new AsyncAccessLogHandler(handler, writer);
+        }
         return new AccessLogHandler(handler, logReceiver, pattern, AccessLogHandler.class.getClassLoader());
     }
 
+    long getWrittenCount() {
+        AsyncAccessLogWriter writer = logWriter;
+        return (writer != null) ? writer.getWrittenCount() : 0;
+    }
+
+    long getDroppedCount() {
+        AsyncAccessLogWriter writer = logWriter;
+        return (writer != null) ? writer.getDroppedCount() : 0;
+    }
+
 }
@@ -58,10 +58,14 @@ public interface Constants {
     String PREFIX = "prefix";
     String SUFFIX = "suffix";
     String ROTATE = "rotate";
+    String ROTATE_SIZE = "rotate-size";
+    String COMPRESS_ROTATED = "compress-rotated";
+    String FORMAT = "format";
     //String CLASS = "class";
     String DEFAULT_HOST = "default-host";
     String DEFAULT_VIRTUAL_HOST = "default-virtual-host";
     String DEFAULT_SERVLET_CONTAINER = "default-servlet-container";
+    String DISTRIBUTABLE_SESSION_NEAR_CACHE = "distributable-session-near-cache";
     String DEFAULT_SERVER = "default-server";
     String DEFAULT_WEB_MODULE = "default-web-module";
     String ALIAS = "alias";
@@ -72,6 +76,8 @@ public interface Constants {
     String MAX_POST_SIZE = "max-post-size";
     /*JSP config */
     String CHECK_INTERVAL = "check-interval";
+    String COMPILATION_CACHE = "compilation-cache";
+    String PRECOMPILE = "precompile";
     String CONTAINER = "container";
     String DEVELOPMENT = "development";
     String DISABLED = "disabled";
@@ -100,6 +106,7 @@ public interface Constants {
     String SSL = "ssl";
     String STATIC_RESOURCES = "static-resources";
     String TAG_POOLING = "tag-pooling";
+    String TAG_POOL_MAX_SIZE = "tag-pool-max-size";
     String TARGET_VM = "target-vm";
     String TRIM_SPACES = "trim-spaces";
     String WEBDAV = "webdav";
@@ -107,6 +114,7 @@ public interface Constants {
     String X_POWERED_BY = "x-powered-by";
     String ENABLED = "enabled";
     String DIRECTORY_LISTING = "directory-listing";
+    String PRECOMPRESSED = "precompressed";
     String FILTER = "filter";
     String FILTERS = "filters";
     String FILTER_REF = "filter-ref";
@@ -136,6 +144,10 @@ public interface Constants {
     String CONNECTIONS_PER_THREAD = "connections-per-thread";
     String REVERSE_PROXY = "reverse-proxy";
     String MAX_REQUEST_TIME = "max-request-time";
+    String BALANCING_STRATEGY = "balancing-strategy";
+    String UNHEALTHY_THRESHOLD = "unhealthy-threshold";
+    String HEALTH_CHECK_PATH = "health-check-path";
+    String HEALTH_CHECK_INTERVAL = "health-check-interval";
     String CERTIFICATE_FORWARDING = "certificate-forwarding";
     String OPTIONS = "options";
     String IGNORE_FLUSH = "ignore-flush";
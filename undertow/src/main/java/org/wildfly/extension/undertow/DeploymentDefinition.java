@@ -38,14 +38,18 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.deployment.DeploymentTimings;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
+import org.wildfly.extension.undertow.deployment.UndertowMetricsCollector;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.DistributableSessionManagerStatistics;
 
 /**
  * @author Tomaz Cerar
@@ -70,6 +74,65 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         for (SessionStat stat : SessionStat.values()) {
             resourceRegistration.registerMetric(stat.definition, SessionManagerStatsHandler.getInstance());
         }
+        for (RequestMetric metric : RequestMetric.values()) {
+            resourceRegistration.registerMetric(metric.definition, DeploymentRequestMetricHandler.INSTANCE);
+        }
+        for (DeploymentTimings.Phase phase : DeploymentTimings.Phase.values()) {
+            resourceRegistration.registerMetric(new SimpleAttributeDefinitionBuilder(phase.toString(), ModelType.LONG, false)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build(), DeploymentTimingHandler.INSTANCE);
+        }
+    }
+
+    static class DeploymentTimingHandler extends AbstractRuntimeOnlyHandler {
+
+        static final DeploymentTimingHandler INSTANCE = new DeploymentTimingHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final String metricName = operation.require(ModelDescriptionConstants.NAME).asString();
+            DeploymentTimings.Phase phase = null;
+            for (DeploymentTimings.Phase candidate : DeploymentTimings.Phase.values()) {
+                if (candidate.toString().equals(metricName)) {
+                    phase = candidate;
+                    break;
+                }
+            }
+            if (phase == null) {
+                context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metricName));
+            } else {
+                final ModelNode deploymentModel = context.readResourceFromRoot(address, false).getModel();
+                final String host = VIRTUAL_HOST.resolveModelAttribute(context, deploymentModel).asString();
+                final String path = CONTEXT_ROOT.resolveModelAttribute(context, deploymentModel).asString();
+                final String server = SERVER.resolveModelAttribute(context, deploymentModel).asString();
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+                final UndertowDeploymentService deploymentService = (controller != null) ? (UndertowDeploymentService) controller.getService() : null;
+                context.getResult().set((deploymentService != null) ? deploymentService.getDeploymentTimings().getTime(phase) : 0L);
+            }
+            context.stepCompleted();
+        }
+    }
+
+    static class DeploymentRequestMetricHandler extends AbstractRuntimeOnlyHandler {
+
+        static final DeploymentRequestMetricHandler INSTANCE = new DeploymentRequestMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final String metricName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final RequestMetric metric = RequestMetric.getMetric(metricName);
+            if (metric == null) {
+                context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metricName));
+            } else {
+                final ModelNode deploymentModel = context.readResourceFromRoot(address, false).getModel();
+                final UndertowMetricsCollector collector = DeploymentServletDefinition.getMetricsCollector(context, deploymentModel);
+                context.getResult().set((collector != null) ? metric.getValue(collector.getDeploymentRequestMetrics()) : 0L);
+            }
+            context.stepCompleted();
+        }
     }
 
     static class SessionManagerStatsHandler extends AbstractRuntimeOnlyHandler {
@@ -131,7 +194,13 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                     case REJECTED_SESSIONS:
                         result.set(sm.getRejectedSessions());
                         break;
-                    */default:
+                    */case SCHEDULER_REBALANCE_COUNT:
+                        result.set((sessionManager instanceof DistributableSessionManagerStatistics) ? ((DistributableSessionManagerStatistics) sessionManager).getSchedulerRebalanceCount() : 0L);
+                        break;
+                    case SCHEDULER_REBALANCE_TIME:
+                        result.set((sessionManager instanceof DistributableSessionManagerStatistics) ? ((DistributableSessionManagerStatistics) sessionManager).getSchedulerRebalanceTime() : 0L);
+                        break;
+                    default:
                         throw new IllegalStateException(UndertowLogger.ROOT_LOGGER.unknownMetric(stat));
                 }
                 context.getResult().set(result);
@@ -145,7 +214,9 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
     public enum SessionStat {
         ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("active-sessions", ModelType.INT, false).setStorageRuntime().build()),
         //EXPIRED_SESSIONS(new SimpleAttributeDefinition("expired-sessions", ModelType.INT, false)),
-        SESSIONS_CREATED(new SimpleAttributeDefinitionBuilder("sessions-created", ModelType.INT, false).setStorageRuntime().build());
+        SESSIONS_CREATED(new SimpleAttributeDefinitionBuilder("sessions-created", ModelType.INT, false).setStorageRuntime().build()),
+        SCHEDULER_REBALANCE_COUNT(new SimpleAttributeDefinitionBuilder("session-scheduler-rebalance-count", ModelType.LONG, false).setStorageRuntime().build()),
+        SCHEDULER_REBALANCE_TIME(new SimpleAttributeDefinitionBuilder("session-scheduler-rebalance-time", ModelType.LONG, false).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build());
         /*DUPLICATED_SESSION_IDS(new SimpleAttributeDefinition("duplicated-session-ids", ModelType.INT, false)),
         SESSION_AVG_ALIVE_TIME(new SimpleAttributeDefinition("session-avg-alive-time", ModelType.INT, false)),
         SESSION_MAX_ALIVE_TIME(new SimpleAttributeDefinition("session-max-alive-time", ModelType.INT, false)),
@@ -24,6 +24,7 @@ package org.wildfly.extension.undertow;
 
 import io.undertow.server.handlers.MetricsHandler;
 import io.undertow.servlet.api.DeploymentInfo;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
@@ -40,6 +41,8 @@ import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.deployment.UndertowMetricsCollector;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.metrics.RequestMetrics;
 
 /**
  * @author Tomaz Cerar
@@ -85,6 +88,47 @@ public class DeploymentServletDefinition extends SimpleResourceDefinition {
                 response.set(metricResult.getTotalRequests());
             }
         });
+        for (RequestMetric metric : RequestMetric.values()) {
+            registration.registerMetric(metric.definition, ServletRequestMetricHandler.INSTANCE);
+        }
+    }
+
+    /**
+     * Returns the metrics collector of the deployment with the specified model, or null if statistics are disabled or the deployment is not running.
+     */
+    static UndertowMetricsCollector getMetricsCollector(OperationContext context, ModelNode deploymentModel) throws OperationFailedException {
+        final String host = DeploymentDefinition.VIRTUAL_HOST.resolveModelAttribute(context, deploymentModel).asString();
+        final String path = DeploymentDefinition.CONTEXT_ROOT.resolveModelAttribute(context, deploymentModel).asString();
+        final String server = DeploymentDefinition.SERVER.resolveModelAttribute(context, deploymentModel).asString();
+
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.deploymentServiceName(server, host, path));
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        final UndertowDeploymentService deploymentService = (UndertowDeploymentService) controller.getService();
+        final DeploymentInfo deploymentInfo = deploymentService.getDeploymentInfoInjectedValue().getValue();
+        return (UndertowMetricsCollector) deploymentInfo.getMetricsCollector();
+    }
+
+    static class ServletRequestMetricHandler extends AbstractRuntimeOnlyHandler {
+
+        static final ServletRequestMetricHandler INSTANCE = new ServletRequestMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final String metricName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final RequestMetric metric = RequestMetric.getMetric(metricName);
+            if (metric == null) {
+                context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metricName));
+            } else {
+                final ModelNode deploymentModel = context.readResourceFromRoot(address.subAddress(0, address.size() - 1), false).getModel();
+                final UndertowMetricsCollector collector = getMetricsCollector(context, deploymentModel);
+                final RequestMetrics metrics = (collector != null) ? collector.getRequestMetrics(address.getLastElement().getValue()) : null;
+                context.getResult().set((metrics != null) ? metric.getValue(metrics) : 0L);
+            }
+            context.stepCompleted();
+        }
     }
 
     abstract static class AbstractMetricsHandler implements OperationStepHandler {
@@ -21,10 +21,13 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.UndertowServletLogger;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -35,22 +38,60 @@ import org.xnio.IoUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Persistent session manager that stores persistent session information to disk
+ * Persistent session manager that stores persistent session information to disk.
+ * <p>
+ * The sessions of each deployment are stored in a {@link SessionSegmentStore}. Sessions are written in the background as they change,
+ * as reported by the listener returned by {@link #createSessionListener(String)}, so that when a deployment stops only the sessions
+ * accessed since they were last written need to be persisted. Background writes are performed by a task submitted to the server
+ * executor whenever sessions change and no such task is pending, so changes made while a task runs are written by the next one.
+ * Background writes, the persisting of a stopping deployment and the closing of the stores are serialized. Sessions are only unmarshalled when first accessed after a restart.
+ * Sessions persisted by previous versions, as a single map per deployment, are still loaded.
  *
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+    private static final String SEGMENT_SUFFIX = ".sessions";
+
     private final String path;
     private final String pathRelativeTo;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
+    private volatile boolean running = false;
+    private final ConcurrentMap<String, DeploymentSessions> deployments = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    // Serializes the writing of sessions with the closing of stores
+    private final Object flushLock = new Object();
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushPending.set(false);
+            synchronized (flushLock) {
+                // Stores are flushed and closed by stop()
+                if (!running) return;
+                for (DeploymentSessions sessions : deployments.values()) {
+                    flush(sessions);
+                }
+            }
+        }
+    };
 
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final InjectedValue<ExecutorService> executor = new InjectedValue<ExecutorService>();
 
     public DiskBasedModularPersistentSessionManager(String path, String pathRelativeTo) {
         this.path = path;
@@ -58,11 +99,35 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
     }
 
     @Override
-    public synchronized void stop(StopContext stopContext) {
+    public synchronized void stop(final StopContext stopContext) {
         super.stop(stopContext);
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
+        running = false;
+        // Waiting for a background write to complete may block, so close the stores asynchronously
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    synchronized (flushLock) {
+                        for (DeploymentSessions sessions : deployments.values()) {
+                            flush(sessions);
+                            IoUtils.safeClose(sessions.store);
+                        }
+                        deployments.clear();
+                    }
+                } finally {
+                    stopContext.complete();
+                }
+            }
+        };
+        stopContext.asynchronous();
+        try {
+            executor.getValue().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
     }
 
     @Override
@@ -80,27 +145,210 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (!baseDir.isDirectory()) {
             throw UndertowLogger.ROOT_LOGGER.invalidPersistentSessionDir(baseDir);
         }
+        running = true;
+    }
+
+    // Submits a background write, unless one is already pending
+    private void scheduleFlush() {
+        if (running && flushPending.compareAndSet(false, true)) {
+            try {
+                executor.getValue().execute(flushTask);
+            } catch (RejectedExecutionException e) {
+                // Changed sessions are written when the deployment or this service stops
+                flushPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Creates a listener that writes the sessions of the specified deployment in the background as they change.
+     */
+    public SessionListener createSessionListener(final String deploymentName) {
+        return new SessionListener() {
+            @Override
+            public void sessionCreated(Session session, HttpServerExchange exchange) {
+                changed(session);
+            }
+
+            @Override
+            public void sessionDestroyed(Session session, HttpServerExchange exchange, SessionDestroyedReason reason) {
+                // Sessions are persisted, rather than removed, when the deployment is undeployed
+                if (reason != SessionDestroyedReason.UNDEPLOY) {
+                    removed(session.getId());
+                }
+            }
+
+            @Override
+            public void attributeAdded(Session session, String name, Object value) {
+                changed(session);
+            }
+
+            @Override
+            public void attributeUpdated(Session session, String name, Object newValue, Object oldValue) {
+                changed(session);
+            }
+
+            @Override
+            public void attributeRemoved(Session session, String name, Object oldValue) {
+                changed(session);
+            }
+
+            @Override
+            public void sessionIdChanged(Session session, String oldSessionId) {
+                removed(oldSessionId);
+                changed(session);
+            }
+
+            private void changed(Session session) {
+                DeploymentSessions sessions = getDeploymentSessions(deploymentName);
+                if (sessions != null) {
+                    sessions.loaded.remove(session.getId());
+                    sessions.dirty.put(session.getId(), session);
+                    scheduleFlush();
+                }
+            }
+
+            private void removed(String sessionId) {
+                DeploymentSessions sessions = getDeploymentSessions(deploymentName);
+                if (sessions != null) {
+                    sessions.loaded.remove(sessionId);
+                    sessions.dirty.remove(sessionId);
+                    try {
+                        sessions.store.remove(sessionId);
+                    } catch (IOException e) {
+                        UndertowLogger.ROOT_LOGGER.failedToPersistSession(sessionId, e);
+                    }
+                }
+            }
+        };
+    }
+
+    private DeploymentSessions getDeploymentSessions(String deploymentName) {
+        DeploymentSessions sessions = deployments.get(deploymentName);
+        if (sessions == null) {
+            try {
+                sessions = new DeploymentSessions(new SessionSegmentStore(new File(baseDir, deploymentName + SEGMENT_SUFFIX)));
+            } catch (IOException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+                return null;
+            }
+            DeploymentSessions existing = deployments.putIfAbsent(deploymentName, sessions);
+            if (existing != null) {
+                IoUtils.safeClose(sessions.store);
+                sessions = existing;
+            }
+        }
+        return sessions;
     }
 
+    // Writes the sessions changed since the previous flush
+    private void flush(DeploymentSessions sessions) {
+        if (sessions.dirty.isEmpty()) return;
+        try {
+            final Marshaller marshaller = createMarshaller();
+            try {
+                for (String id : sessions.dirty.keySet()) {
+                    Session session = sessions.dirty.remove(id);
+                    if (session == null) continue;
+                    try {
+                        Map<String, Object> attributes = new HashMap<String, Object>();
+                        for (String name : session.getAttributeNames()) {
+                            attributes.put(name, session.getAttribute(name));
+                        }
+                        long expiry = session.getLastAccessedTime() + (session.getMaxInactiveInterval() * 1000L);
+                        sessions.store.write(id, expiry, serializeAttributes(marshaller, id, attributes));
+                    } catch (IllegalStateException e) {
+                        // Session was invalidated concurrently
+                    } catch (IOException e) {
+                        UndertowLogger.ROOT_LOGGER.failedToPersistSession(id, e);
+                    }
+                }
+            } finally {
+                marshaller.close();
+            }
+        } catch (IOException e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
 
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+        synchronized (flushLock) {
+            persistSessions(deploymentName, getDeploymentSessions(deploymentName), sessionData);
+        }
+    }
+
+    private void persistSessions(String deploymentName, DeploymentSessions sessions, Map<String, PersistentSession> sessionData) {
+        if (sessions == null) return;
         try {
-            Marshaller marshaller = createMarshaller();
+            flush(sessions);
+            final SessionSegmentStore store = sessions.store;
+            final Marshaller marshaller = createMarshaller();
             try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
+                for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
+                    String id = sessionEntry.getKey();
+                    long expiry = sessionEntry.getValue().getExpiration().getTime();
+                    // Skip sessions not accessed since they were last written
+                    if (store.getExpiry(id) != expiry) {
+                        store.write(id, expiry, serializeAttributes(marshaller, id, sessionEntry.getValue().getSessionData()));
+                    }
+                }
             } finally {
                 marshaller.close();
             }
+            // Remove sessions that no longer exist, retaining unexpired sessions never accessed since they were loaded
+            long time = System.currentTimeMillis();
+            for (String id : new HashSet<>(store.getSessionIds())) {
+                if (!sessionData.containsKey(id) && (!sessions.loaded.contains(id) || store.getExpiry(id) <= time)) {
+                    store.remove(id);
+                }
+            }
+            store.compact();
+            File legacy = new File(baseDir, deploymentName);
+            if (legacy.isFile() && !legacy.delete()) {
+                UndertowLogger.ROOT_LOGGER.debugf("Could not delete %s", legacy);
+            }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
         } finally {
-            IoUtils.safeClose(out);
+            deployments.remove(deploymentName, sessions);
+            IoUtils.safeClose(sessions.store);
+        }
+    }
+
+    @Override
+    public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, ClassLoader classLoader) {
+        final DeploymentSessions sessions = getDeploymentSessions(deploymentName);
+        if (sessions == null) return null;
+        Set<String> ids = sessions.store.getSessionIds();
+        if (ids.isEmpty() && new File(baseDir, deploymentName).isFile()) {
+            return super.loadSessionAttributes(deploymentName, classLoader);
+        }
+        long time = System.currentTimeMillis();
+        Map<String, PersistentSession> result = new HashMap<String, PersistentSession>();
+        for (String id : ids) {
+            long expiry = sessions.store.getExpiry(id);
+            if (expiry > time) {
+                result.put(id, new PersistentSession(new Date(expiry), new LazySessionAttributes(sessions.store, id)));
+                sessions.loaded.add(id);
+            }
         }
+        return result;
     }
 
+    @Override
+    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
+        DeploymentSessions sessions = getDeploymentSessions(deploymentName);
+        if (sessions != null) {
+            for (Map.Entry<String, SessionEntry> entry : serializedData.entrySet()) {
+                sessions.store.write(entry.getKey(), entry.getValue().getExpiry().getTime(), entry.getValue().getData());
+            }
+        }
+    }
+
+    /**
+     * Loads sessions persisted as a single map, by previous versions.
+     */
     @Override
     protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
         File file = new File(baseDir, deploymentName);
@@ -131,4 +379,55 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
     public InjectedValue<PathManager> getPathManager() {
         return pathManager;
     }
+
+    public InjectedValue<ExecutorService> getExecutor() {
+        return executor;
+    }
+
+    private static class DeploymentSessions {
+        final SessionSegmentStore store;
+        // Sessions changed since they were last written
+        final ConcurrentMap<String, Session> dirty = new ConcurrentHashMap<>();
+        // Sessions loaded from the store, and not accessed since
+        final Set<String> loaded = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+        DeploymentSessions(SessionSegmentStore store) {
+            this.store = store;
+        }
+    }
+
+    /**
+     * Session attributes unmarshalled upon first access.
+     */
+    private class LazySessionAttributes extends AbstractMap<String, Object> {
+        private final SessionSegmentStore store;
+        private final String id;
+        private Map<String, Object> attributes;
+
+        LazySessionAttributes(SessionSegmentStore store, String id) {
+            this.store = store;
+            this.id = id;
+        }
+
+        @Override
+        public synchronized Set<Entry<String, Object>> entrySet() {
+            if (attributes == null) {
+                attributes = Collections.emptyMap();
+                Map<String, byte[]> data = store.read(id);
+                if (data != null) {
+                    try {
+                        Unmarshaller unmarshaller = createUnmarshaller();
+                        try {
+                            attributes = deserializeAttributes(unmarshaller, data);
+                        } finally {
+                            unmarshaller.close();
+                        }
+                    } catch (Exception e) {
+                        UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+                    }
+                }
+            }
+            return attributes.entrySet();
+        }
+    }
 }
@@ -32,16 +32,20 @@ import org.apache.jasper.servlet.JspServlet;
  */
 public class JSPConfig {
     private final ServletInfo servletInfo;
+    private final boolean compilationCache;
+    private final boolean precompile;
 
 
     public JSPConfig(final boolean developmentMode,
                      final boolean disabled,
-                     final boolean keepGenerated, final boolean trimSpaces, final boolean tagPooling,
+                     final boolean keepGenerated, final boolean trimSpaces, final boolean tagPooling, final int tagPoolMaxSize,
                      final boolean mappedFile, final int checkInterval, int modificationTestInterval,
                      final boolean recompileOnFail, boolean smap, boolean dumpSmap,
                      boolean genStringAsCharArray, boolean errorOnUseBeanInvalidClassAttribute,
                      String scratchDir, String sourceVm, String targetVm, String javaEncoding,
-                     boolean xPoweredBy, boolean displaySourceFragment) {
+                     boolean xPoweredBy, boolean displaySourceFragment, boolean compilationCache, boolean precompile) {
+        this.compilationCache = compilationCache;
+        this.precompile = precompile;
         if (disabled) {
             servletInfo = null;
         } else {
@@ -55,6 +59,7 @@ public class JSPConfig {
             jspServlet.addInitParam("keepgenerated", Boolean.toString(keepGenerated));
             jspServlet.addInitParam("trimSpaces", Boolean.toString(trimSpaces));
             jspServlet.addInitParam("enablePooling", Boolean.toString(tagPooling));
+            jspServlet.addInitParam("tagpoolMaxSize", Integer.toString(tagPoolMaxSize));
             jspServlet.addInitParam("mappedfile", Boolean.toString(mappedFile));
             jspServlet.addInitParam("checkInterval", Integer.toString(checkInterval));
             jspServlet.addInitParam("modificationTestInterval", Integer.toString(modificationTestInterval));
@@ -77,6 +82,21 @@ public class JSPConfig {
         }
     }
 
+    /**
+     * Whether compiled JSPs are kept in the server data directory, keyed by the content of the deployment, so that they
+     * survive redeployments and restarts.
+     */
+    public boolean isCompilationCache() {
+        return compilationCache;
+    }
+
+    /**
+     * Whether all the JSPs of a deployment are compiled in the background when it is deployed.
+     */
+    public boolean isPrecompile() {
+        return precompile;
+    }
+
     public ServletInfo createJSPServletInfo() {
         if(servletInfo == null) {
             return null;
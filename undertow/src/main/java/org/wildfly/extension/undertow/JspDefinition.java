@@ -32,6 +32,7 @@ import org.jboss.as.controller.RestartParentResourceRemoveHandler;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -78,6 +79,13 @@ class JspDefinition extends PersistentResourceDefinition {
                     .setDefaultValue(new ModelNode(true))
                     .setAllowExpression(true)
                     .build();
+    protected static final SimpleAttributeDefinition TAG_POOL_MAX_SIZE =
+            new SimpleAttributeDefinitionBuilder(Constants.TAG_POOL_MAX_SIZE, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setDefaultValue(new ModelNode(5))
+                    .setAllowExpression(true)
+                    .build();
     protected static final SimpleAttributeDefinition MAPPED_FILE =
             new SimpleAttributeDefinitionBuilder(Constants.MAPPED_FILE, ModelType.BOOLEAN, true)
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
@@ -167,6 +175,18 @@ class JspDefinition extends PersistentResourceDefinition {
                     .setDefaultValue(new ModelNode(true))
                     .setAllowExpression(true)
                     .build();
+    protected static final SimpleAttributeDefinition COMPILATION_CACHE =
+            new SimpleAttributeDefinitionBuilder(Constants.COMPILATION_CACHE, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
+    protected static final SimpleAttributeDefinition PRECOMPILE =
+            new SimpleAttributeDefinitionBuilder(Constants.PRECOMPILE, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .setAllowExpression(true)
+                    .build();
     protected static final SimpleAttributeDefinition[] ATTRIBUTES = {
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             DISABLED,
@@ -174,6 +194,7 @@ class JspDefinition extends PersistentResourceDefinition {
             KEEP_GENERATED,
             TRIM_SPACES,
             TAG_POOLING,
+            TAG_POOL_MAX_SIZE,
             MAPPED_FILE,
             CHECK_INTERVAL,
             MODIFICATION_TEST_INTERVAL,
@@ -187,7 +208,9 @@ class JspDefinition extends PersistentResourceDefinition {
             TARGET_VM,
             JAVA_ENCODING,
             X_POWERED_BY,
-            DISPLAY_SOURCE_FRAGMENT
+            DISPLAY_SOURCE_FRAGMENT,
+            COMPILATION_CACHE,
+            PRECOMPILE
     };
     static final JspDefinition INSTANCE = new JspDefinition();
     static final Map<String, AttributeDefinition> ATTRIBUTES_MAP = new HashMap<>();
@@ -219,6 +242,7 @@ class JspDefinition extends PersistentResourceDefinition {
         boolean keepGenerated = KEEP_GENERATED.resolveModelAttribute(context, model).asBoolean();
         boolean trimSpaces = TRIM_SPACES.resolveModelAttribute(context, model).asBoolean();
         boolean tagPooling = TAG_POOLING.resolveModelAttribute(context, model).asBoolean();
+        int tagPoolMaxSize = TAG_POOL_MAX_SIZE.resolveModelAttribute(context, model).asInt();
         boolean mappedFile = MAPPED_FILE.resolveModelAttribute(context, model).asBoolean();
         int checkInterval = CHECK_INTERVAL.resolveModelAttribute(context, model).asInt();
         int modificationTestInterval = MODIFICATION_TEST_INTERVAL.resolveModelAttribute(context, model).asInt();
@@ -234,10 +258,12 @@ class JspDefinition extends PersistentResourceDefinition {
         String javaEncoding = JAVA_ENCODING.resolveModelAttribute(context, model).asString();
         boolean xPoweredBy = X_POWERED_BY.resolveModelAttribute(context, model).asBoolean();
         boolean displaySourceFragment = DISPLAY_SOURCE_FRAGMENT.resolveModelAttribute(context, model).asBoolean();
+        boolean compilationCache = COMPILATION_CACHE.resolveModelAttribute(context, model).asBoolean();
+        boolean precompile = PRECOMPILE.resolveModelAttribute(context, model).asBoolean();
 
-        return new JSPConfig(development, disabled, keepGenerated, trimSpaces, tagPooling, mappedFile, checkInterval, modificationTestInterval,
+        return new JSPConfig(development, disabled, keepGenerated, trimSpaces, tagPooling, tagPoolMaxSize, mappedFile, checkInterval, modificationTestInterval,
                 recompileOnFile, snap, dumpSnap, generateStringsAsCharArrays, errorOnUseBeanInvalidClassAttribute, scratchDir,
-                sourceVm, targetVm, javaEncoding, xPoweredBy, displaySourceFragment);
+                sourceVm, targetVm, javaEncoding, xPoweredBy, displaySourceFragment, compilationCache, precompile);
     }
 
     private static class JSPAdd extends RestartParentResourceAddHandler {
@@ -28,19 +28,26 @@ import java.util.LinkedHashSet;
 import java.util.List;
 
 import io.undertow.UndertowOptions;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.wildfly.extension.io.OptionAttributeDefinition;
 import org.xnio.Options;
 
@@ -140,10 +147,42 @@ abstract class ListenerResourceDefinition extends PersistentResourceDefinition {
         super.registerRemoveOperation(resourceRegistration, new ListenerRemoveHandler(getAddHandler()), OperationEntry.Flag.RESTART_NONE);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (RequestMetric metric : RequestMetric.values()) {
+            resourceRegistration.registerMetric(metric.definition, ListenerRequestMetricHandler.INSTANCE);
+        }
+    }
+
     @Override
     public List<AccessConstraintDefinition> getAccessConstraints() {
         return CONSTRAINTS;
     }
 
     protected abstract ListenerAdd getAddHandler();
+
+    static class ListenerRequestMetricHandler extends AbstractRuntimeOnlyHandler {
+
+        static final ListenerRequestMetricHandler INSTANCE = new ListenerRequestMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR));
+            final String metricName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final RequestMetric metric = RequestMetric.getMetric(metricName);
+            if (metric == null) {
+                context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metricName));
+            } else {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.listenerName(address.getLastElement().getValue()));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final ListenerService<?> service = (ListenerService<?>) controller.getService();
+                    context.getResult().set(metric.getValue(service.getRequestMetrics()));
+                } else {
+                    context.getResult().set(0L);
+                }
+            }
+            context.stepCompleted();
+        }
+    }
 }
@@ -29,6 +29,7 @@ import java.util.List;
 
 import io.undertow.server.HandlerWrapper;
 import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
 import io.undertow.server.OpenListener;
 import org.jboss.as.network.ManagedBinding;
 import org.jboss.as.network.SocketBinding;
@@ -37,6 +38,8 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.extension.undertow.metrics.RequestMetrics;
+import org.wildfly.extension.undertow.metrics.RequestMetricsHandler;
 import org.xnio.ChannelListener;
 import org.xnio.ChannelListeners;
 import org.xnio.OptionMap;
@@ -69,6 +72,7 @@ public abstract class ListenerService<T> implements Service<T> {
     protected final OptionMap listenerOptions;
     protected final OptionMap socketOptions;
     protected volatile OpenListener openListener;
+    private final RequestMetrics requestMetrics = new RequestMetrics();
 
 
     protected ListenerService(String name, OptionMap listenerOptions, OptionMap socketOptions) {
@@ -105,6 +109,10 @@ public abstract class ListenerService<T> implements Service<T> {
         return name;
     }
 
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
     public abstract boolean isSecure();
 
     protected void registerBinding() {
@@ -130,6 +138,7 @@ public abstract class ListenerService<T> implements Service<T> {
             for(HandlerWrapper wrapper : listenerHandlerWrappers) {
                 handler = wrapper.wrap(handler);
             }
+            handler = new StatisticsHandler(handler, RequestMetricsHandler.asynchronousWrapper(requestMetrics).wrap(handler), serverService.getValue().getUndertowService());
             openListener.setRootHandler(handler);
             startListening(worker.getValue(), socketAddress, acceptListener);
             registerBinding();
@@ -155,6 +164,27 @@ public abstract class ListenerService<T> implements Service<T> {
 
     protected abstract String getProtocol();
 
+    /**
+     * Records request metrics only while statistics are enabled, which may change at runtime.
+     */
+    private static class StatisticsHandler implements HttpHandler {
+
+        private final HttpHandler next;
+        private final HttpHandler measured;
+        private final UndertowService service;
+
+        StatisticsHandler(HttpHandler next, HttpHandler measured, UndertowService service) {
+            this.next = next;
+            this.measured = measured;
+            this.service = service;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            (this.service.statisticsEnabled() ? this.measured : this.next).handleRequest(exchange);
+        }
+    }
+
     private static class ListenerBinding implements ManagedBinding {
 
         private final SocketBinding binding;
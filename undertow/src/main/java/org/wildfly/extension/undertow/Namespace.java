@@ -34,12 +34,13 @@ enum Namespace {
     UNKNOWN(null),
 
     UNDERTOW_1_0("urn:jboss:domain:undertow:1.0"),
-    UNDERTOW_1_1("urn:jboss:domain:undertow:1.1");
+    UNDERTOW_1_1("urn:jboss:domain:undertow:1.1"),
+    UNDERTOW_1_2("urn:jboss:domain:undertow:1.2");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = UNDERTOW_1_1;
+    public static final Namespace CURRENT = UNDERTOW_1_2;
 
     private final String name;
 
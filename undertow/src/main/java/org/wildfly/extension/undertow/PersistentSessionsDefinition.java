@@ -142,6 +142,7 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
                             .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue())
                             .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManager());
+                    Services.addServerExecutorDependency(builder, service.getExecutor(), false);
 
                 } else {
                     final InMemoryModularPersistentSessionManager service = new InMemoryModularPersistentSessionManager();
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelType;
+import org.wildfly.extension.undertow.metrics.RequestMetrics;
+
+/**
+ * Request metrics exposed by listeners, deployments and servlets.
+ */
+public enum RequestMetric {
+    IN_FLIGHT_REQUESTS("in-flight-requests", null) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getInFlightRequests();
+        }
+    },
+    BYTES_RECEIVED("bytes-received", MeasurementUnit.BYTES) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getBytesReceived();
+        }
+    },
+    BYTES_SENT("bytes-sent", MeasurementUnit.BYTES) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getBytesSent();
+        }
+    },
+    REQUEST_LATENCY_MEAN("request-latency-mean", MeasurementUnit.MICROSECONDS) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getLatency().getMean();
+        }
+    },
+    REQUEST_LATENCY_P50("request-latency-p50", MeasurementUnit.MICROSECONDS) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getLatency().getPercentile(0.5);
+        }
+    },
+    REQUEST_LATENCY_P90("request-latency-p90", MeasurementUnit.MICROSECONDS) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getLatency().getPercentile(0.9);
+        }
+    },
+    REQUEST_LATENCY_P99("request-latency-p99", MeasurementUnit.MICROSECONDS) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getLatency().getPercentile(0.99);
+        }
+    },
+    REQUEST_LATENCY_MAX("request-latency-max", MeasurementUnit.MICROSECONDS) {
+        @Override
+        long getValue(RequestMetrics metrics) {
+            return metrics.getLatency().getMax();
+        }
+    },
+    ;
+
+    private static final Map<String, RequestMetric> MAP = new HashMap<>();
+
+    static {
+        for (RequestMetric metric : EnumSet.allOf(RequestMetric.class)) {
+            MAP.put(metric.toString(), metric);
+        }
+    }
+
+    final AttributeDefinition definition;
+
+    private RequestMetric(String name, MeasurementUnit unit) {
+        SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true).setStorageRuntime();
+        if (unit != null) {
+            builder.setMeasurementUnit(unit);
+        }
+        this.definition = builder.build();
+    }
+
+    abstract long getValue(RequestMetrics metrics);
+
+    @Override
+    public final String toString() {
+        return definition.getName();
+    }
+
+    public static RequestMetric getMetric(final String stringForm) {
+        return MAP.get(stringForm);
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Append-only store of serialized sessions of a deployment, in a memory-mapped segment file.
+ * Each write of a session appends a self-contained record, and an in-memory index references the latest record of each session,
+ * so sessions can be written individually as they change, and read individually when first accessed.
+ * Superseded records are discarded when the store is compacted.
+ * <p>
+ * Each record consists of its length, a type, the session id, and for a stored session its expiry time and serialized attributes,
+ * followed by a CRC32 checksum, which allows a record torn by a crash to be detected when the store is opened.
+ * Mappings are released eagerly when the store is remapped, compacted or closed, rather than when the garbage collector gets to them.
+ *
+ * @author Stuart Douglas
+ */
+public class SessionSegmentStore implements Closeable {
+
+    private static final byte STORE = 1;
+    private static final byte REMOVE = 2;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final File file;
+    private final Map<String, Record> index = new ConcurrentHashMap<>();
+    private RandomAccessFile raf;
+    private MappedByteBuffer buffer;
+    // Offset at which the next record is appended
+    private int end;
+    // Number of bytes of records referenced by the index
+    private long liveBytes;
+
+    public SessionSegmentStore(File file) throws IOException {
+        this.file = file;
+        this.open();
+    }
+
+    private void open() throws IOException {
+        this.raf = new RandomAccessFile(this.file, "rw");
+        long length = this.raf.length();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException(this.file.getAbsolutePath());
+        }
+        this.map((int) Math.max(length, INITIAL_CAPACITY));
+        this.scan();
+    }
+
+    private void map(int capacity) throws IOException {
+        MappedByteBuffer previous = this.buffer;
+        this.buffer = this.raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (previous != null) {
+            // Records written via the previous mapping are visible via the new one
+            unmap(previous);
+        }
+    }
+
+    // Buffers of a released mapping must not be accessed, hence all access to the mapping is synchronized and confined to a single method
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // The mapping is released once the buffer is garbage collected
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Could not release mapping of %s", buffer);
+        }
+    }
+
+    private void scan() {
+        ByteBuffer buffer = this.buffer.duplicate();
+        CRC32 crc = new CRC32();
+        int offset = 0;
+        while (offset + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length == 0) break;
+            if ((length < 4) || (length > buffer.capacity() - offset - 4) || !verify(buffer, offset, length, crc)) {
+                UndertowLogger.ROOT_LOGGER.truncatedPersistentSessions(this.file, offset);
+                // Overwrite the corrupt tail, so it is not mistaken for records appended later
+                for (int i = offset; i < buffer.capacity() && buffer.get(i) != 0; ++i) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+            buffer.position(offset + 4);
+            byte type = buffer.get();
+            String id = readString(buffer);
+            if (type == STORE) {
+                this.index(id, new Record(offset, length + 4, buffer.getLong()));
+            } else {
+                this.unindex(id);
+            }
+            offset += length + 4;
+        }
+        this.end = offset;
+    }
+
+    private static boolean verify(ByteBuffer buffer, int offset, int length, CRC32 crc) {
+        crc.reset();
+        for (int i = offset + 4; i < offset + length; ++i) {
+            crc.update(buffer.get(i));
+        }
+        return buffer.getInt(offset + length) == (int) crc.getValue();
+    }
+
+    /**
+     * Returns the ids of the stored sessions.
+     */
+    public Set<String> getSessionIds() {
+        return Collections.unmodifiableSet(this.index.keySet());
+    }
+
+    /**
+     * Returns the expiry time of the specified session, or 0 if not stored.
+     */
+    public long getExpiry(String id) {
+        Record record = this.index.get(id);
+        return (record != null) ? record.expiry : 0;
+    }
+
+    /**
+     * Reads the serialized attributes of the specified session.
+     * @return the serialized attributes, or null if the session is not stored
+     */
+    public synchronized Map<String, byte[]> read(String id) {
+        Record record = this.index.get(id);
+        if ((record == null) || (this.buffer == null)) {
+            return null;
+        }
+        ByteBuffer buffer = this.buffer.duplicate();
+        buffer.position(record.offset + 5);
+        readString(buffer);
+        buffer.getLong();
+        int count = buffer.getInt();
+        Map<String, byte[]> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < count; ++i) {
+            String name = readString(buffer);
+            byte[] value = new byte[buffer.getInt()];
+            buffer.get(value);
+            attributes.put(name, value);
+        }
+        return attributes;
+    }
+
+    /**
+     * Stores the serialized attributes of the specified session, superseding any previously stored attributes.
+     */
+    public synchronized void write(String id, long expiry, Map<String, byte[]> attributes) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int size = 1 + 2 + idBytes.length + 8 + 4;
+        byte[][] names = new byte[attributes.size()][];
+        int i = 0;
+        for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+            names[i] = attribute.getKey().getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length + 4 + attribute.getValue().length;
+            i += 1;
+        }
+        ByteBuffer buffer = this.allocate(size);
+        int offset = buffer.position();
+        buffer.putInt(size + 4);
+        buffer.put(STORE);
+        buffer.putShort((short) idBytes.length).put(idBytes);
+        buffer.putLong(expiry);
+        buffer.putInt(attributes.size());
+        i = 0;
+        for (byte[] value : attributes.values()) {
+            buffer.putShort((short) names[i].length).put(names[i]);
+            buffer.putInt(value.length).put(value);
+            i += 1;
+        }
+        this.seal(buffer, offset, size);
+        this.index(id, new Record(offset, size + 8, expiry));
+    }
+
+    /**
+     * Removes the specified session from the store.
+     */
+    public synchronized void remove(String id) throws IOException {
+        if (!this.index.containsKey(id)) return;
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int size = 1 + 2 + idBytes.length;
+        ByteBuffer buffer = this.allocate(size);
+        int offset = buffer.position();
+        buffer.putInt(size + 4);
+        buffer.put(REMOVE);
+        buffer.putShort((short) idBytes.length).put(idBytes);
+        this.seal(buffer, offset, size);
+        this.unindex(id);
+    }
+
+    /**
+     * Rewrites the store so that it only contains the latest record of each stored session, if superseded records make up most of it.
+     */
+    public synchronized void compact() throws IOException {
+        if (this.liveBytes * 2 >= this.end) return;
+        File compacted = new File(this.file.getParentFile(), this.file.getName() + ".compact");
+        try (RandomAccessFile out = new RandomAccessFile(compacted, "rw")) {
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            for (Record record : this.index.values()) {
+                ByteBuffer source = this.buffer.duplicate();
+                source.limit(record.offset + record.length).position(record.offset);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            }
+            channel.force(true);
+        }
+        this.close();
+        if (!compacted.renameTo(this.file)) {
+            throw new IOException(compacted.getAbsolutePath());
+        }
+        this.index.clear();
+        this.liveBytes = 0;
+        this.open();
+    }
+
+    /**
+     * Forces any written records to disk.
+     */
+    public synchronized void flush() {
+        if (this.buffer != null) {
+            this.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        MappedByteBuffer buffer = this.buffer;
+        if (buffer == null) return;
+        this.buffer = null;
+        buffer.force();
+        unmap(buffer);
+        this.raf.close();
+    }
+
+    // Returns a buffer positioned at the end of the store, with room for a record of the specified size, excluding its length and checksum
+    private ByteBuffer allocate(int size) throws IOException {
+        if (this.buffer == null) {
+            throw new ClosedChannelException();
+        }
+        long required = (long) this.end + size + 12;
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException(this.file.getAbsolutePath());
+        }
+        if (required > this.buffer.capacity()) {
+            this.map((int) Math.min(Math.max(required, 2L * this.buffer.capacity()), Integer.MAX_VALUE));
+        }
+        ByteBuffer buffer = this.buffer.duplicate();
+        buffer.position(this.end);
+        return buffer;
+    }
+
+    private void seal(ByteBuffer buffer, int offset, int size) {
+        CRC32 crc = new CRC32();
+        for (int i = offset + 4; i < offset + 4 + size; ++i) {
+            crc.update(buffer.get(i));
+        }
+        buffer.putInt((int) crc.getValue());
+        this.end = buffer.position();
+    }
+
+    private void index(String id, Record record) {
+        Record previous = this.index.put(id, record);
+        this.liveBytes += record.length - ((previous != null) ? previous.length : 0);
+    }
+
+    private void unindex(String id) {
+        Record previous = this.index.remove(id);
+        if (previous != null) {
+            this.liveBytes -= previous.length;
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class Record {
+        final int offset;
+        final int length;
+        final long expiry;
+
+        Record(int offset, int length, long expiry) {
+            this.offset = offset;
+            this.length = length;
+            this.expiry = expiry;
+        }
+    }
+}
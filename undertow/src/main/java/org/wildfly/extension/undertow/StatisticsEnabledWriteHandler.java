@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Applies changes to the statistics-enabled attribute to the running {@link UndertowService}.
+ * Listeners honour the change immediately, deployments once they are redeployed.
+ */
+class StatisticsEnabledWriteHandler extends AbstractWriteAttributeHandler<Void> {
+    static final StatisticsEnabledWriteHandler INSTANCE = new StatisticsEnabledWriteHandler();
+
+    private StatisticsEnabledWriteHandler() {
+        super(UndertowRootDefinition.STATISTICS_ENABLED);
+    }
+
+    @Override
+    protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+        updateToRuntime(context, resolvedValue.asBoolean());
+        return false;
+    }
+
+    @Override
+    protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
+        updateToRuntime(context, UndertowRootDefinition.STATISTICS_ENABLED.resolveValue(context, valueToRestore).asBoolean());
+    }
+
+    private static void updateToRuntime(OperationContext context, boolean enabled) {
+        ServiceController<?> controller = context.getServiceRegistry(true).getService(UndertowService.UNDERTOW);
+        if (controller != null) {
+            ((UndertowService) controller.getValue()).setStatisticsEnabled(enabled);
+        }
+    }
+}
@@ -29,9 +29,11 @@ import java.util.List;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ValueExpression;
 import org.wildfly.extension.undertow.errorhandler.ErrorPageDefinition;
 import org.wildfly.extension.undertow.filters.FilterDefinitions;
@@ -70,9 +72,15 @@ class UndertowRootDefinition extends PersistentResourceDefinition {
                         .setAllowExpression(true)
                         .setDefaultValue(new ModelNode(false))
                         .build();
+    protected static final SimpleAttributeDefinition DISTRIBUTABLE_SESSION_NEAR_CACHE =
+            new SimpleAttributeDefinitionBuilder(Constants.DISTRIBUTABLE_SESSION_NEAR_CACHE, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
 
 
-    static final AttributeDefinition[] ATTRIBUTES = {DEFAULT_VIRTUAL_HOST, DEFAULT_SERVLET_CONTAINER, DEFAULT_SERVER, INSTANCE_ID, STATISTICS_ENABLED};
+    static final AttributeDefinition[] ATTRIBUTES = {DEFAULT_VIRTUAL_HOST, DEFAULT_SERVLET_CONTAINER, DEFAULT_SERVER, INSTANCE_ID, STATISTICS_ENABLED, DISTRIBUTABLE_SESSION_NEAR_CACHE};
     static final PersistentResourceDefinition[] CHILDREN = {
             BufferCacheDefinition.INSTANCE,
             ServerDefinition.INSTANCE,
@@ -95,6 +103,14 @@ class UndertowRootDefinition extends PersistentResourceDefinition {
         return Arrays.asList(ATTRIBUTES);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        ReloadRequiredWriteAttributeHandler handler = new ReloadRequiredWriteAttributeHandler(DEFAULT_VIRTUAL_HOST, DEFAULT_SERVLET_CONTAINER, DEFAULT_SERVER, INSTANCE_ID, DISTRIBUTABLE_SESSION_NEAR_CACHE);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, (attr == STATISTICS_ENABLED) ? StatisticsEnabledWriteHandler.INSTANCE : handler);
+        }
+    }
+
     @Override
     public List<? extends PersistentResourceDefinition> getChildren() {
         return Arrays.asList(CHILDREN);
@@ -74,7 +74,7 @@ public class UndertowService implements Service<UndertowService> {
     private final Set<Server> registeredServers = new CopyOnWriteArraySet<>();
     private final List<UndertowEventListener> listeners = Collections.synchronizedList(new LinkedList<UndertowEventListener>());
     private volatile String instanceId;//todo this should be final and no setter should be exposed, currently mod cluster "wants it", this needs to change
-    private final boolean statistics;
+    private volatile boolean statistics;
 
     protected UndertowService(String defaultContainer, String defaultServer, String defaultVirtualHost, String instanceId, boolean statistics) {
         this.defaultContainer = defaultContainer;
@@ -230,6 +230,10 @@ public class UndertowService implements Service<UndertowService> {
         return statistics;
     }
 
+    void setStatisticsEnabled(boolean statistics) {
+        this.statistics = statistics;
+    }
+
     /**
      * Registers custom Event listener to server
      *
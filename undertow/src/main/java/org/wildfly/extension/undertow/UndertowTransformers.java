@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.SubsystemRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.undertow.accesslog.AccessLogFormat;
+import org.wildfly.extension.undertow.filters.GzipFilter;
+import org.wildfly.extension.undertow.filters.RequestLimitFilter;
+import org.wildfly.extension.undertow.handlers.BalancingStrategy;
+import org.wildfly.extension.undertow.handlers.FileHandler;
+import org.wildfly.extension.undertow.handlers.ReverseProxyHandler;
+
+/**
+ * Registers the transformers from the current management model to earlier versions.
+ */
+class UndertowTransformers {
+
+    static final ModelVersion MODEL_VERSION_1_1_0 = ModelVersion.create(1, 1, 0);
+
+    static void registerTransformers(SubsystemRegistration subsystem) {
+        registerTransformers_1_1_0(subsystem);
+    }
+
+    /**
+     * Transforms the current model to 1.1.0, in which:
+     * - file handler attributes buffer-cache and precompressed did not exist
+     * - gzip filter attributes compression-level, min-size and cache-size did not exist
+     * - access log attributes format, rotate-size, compress-rotated and buffer-size did not exist
+     * - the request-limit filter did not exist
+     * - reverse proxy attributes balancing-strategy, unhealthy-threshold, health-check-path and health-check-interval did not exist
+     * - jsp-config attributes tag-pool-max-size, compilation-cache and precompile did not exist
+     * - the distributable-session-near-cache attribute did not exist
+     */
+    private static void registerTransformers_1_1_0(SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)), UndertowRootDefinition.DISTRIBUTABLE_SESSION_NEAR_CACHE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, UndertowRootDefinition.DISTRIBUTABLE_SESSION_NEAR_CACHE)
+                .end();
+
+        ResourceTransformationDescriptionBuilder handlers = builder.addChildResource(UndertowExtension.PATH_HANDLERS);
+        handlers.addChildResource(FileHandler.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, FileHandler.BUFFER_CACHE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileHandler.BUFFER_CACHE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)), FileHandler.PRECOMPRESSED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileHandler.PRECOMPRESSED)
+                .end();
+        handlers.addChildResource(ReverseProxyHandler.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(BalancingStrategy.ROUND_ROBIN.toString())), ReverseProxyHandler.BALANCING_STRATEGY)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ReverseProxyHandler.BALANCING_STRATEGY)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(3)), ReverseProxyHandler.UNHEALTHY_THRESHOLD)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ReverseProxyHandler.UNHEALTHY_THRESHOLD)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, ReverseProxyHandler.HEALTH_CHECK_PATH)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ReverseProxyHandler.HEALTH_CHECK_PATH)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(10000L)), ReverseProxyHandler.HEALTH_CHECK_INTERVAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ReverseProxyHandler.HEALTH_CHECK_INTERVAL)
+                .end();
+
+        ResourceTransformationDescriptionBuilder filters = builder.addChildResource(UndertowExtension.PATH_FILTERS);
+        filters.addChildResource(GzipFilter.INSTANCE.getPathElement())
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(-1)), GzipFilter.COMPRESSION_LEVEL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, GzipFilter.COMPRESSION_LEVEL)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0L)), GzipFilter.MIN_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, GzipFilter.MIN_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0L)), GzipFilter.CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, GzipFilter.CACHE_SIZE)
+                .end();
+        filters.rejectChildResource(RequestLimitFilter.INSTANCE.getPathElement());
+
+        builder.addChildResource(UndertowExtension.SERVER_PATH)
+                .addChildResource(UndertowExtension.HOST_PATH)
+                .addChildResource(UndertowExtension.PATH_ACCESS_LOG)
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(AccessLogFormat.TEXT.toString())), AccessLogDefinition.FORMAT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, AccessLogDefinition.FORMAT)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0L)), AccessLogDefinition.ROTATE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, AccessLogDefinition.ROTATE_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)), AccessLogDefinition.COMPRESS_ROTATED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, AccessLogDefinition.COMPRESS_ROTATED)
+                // Only used by the asynchronous formats, so any value is harmless
+                .setDiscard(DiscardAttributeChecker.ALWAYS, AccessLogDefinition.BUFFER_SIZE)
+                .end();
+
+        builder.addChildResource(UndertowExtension.PATH_SERVLET_CONTAINER)
+                .addChildResource(UndertowExtension.PATH_JSP)
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(5)), JspDefinition.TAG_POOL_MAX_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JspDefinition.TAG_POOL_MAX_SIZE)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(false)), JspDefinition.COMPILATION_CACHE, JspDefinition.PRECOMPILE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JspDefinition.COMPILATION_CACHE, JspDefinition.PRECOMPILE)
+                .end();
+
+        TransformationDescription.Tools.register(builder.build(), subsystem, MODEL_VERSION_1_1_0);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import io.undertow.attribute.ExchangeAttribute;
+import io.undertow.attribute.ExchangeAttributes;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HttpString;
+
+/**
+ * A precompiled extractor of a single access log field, which writes its value directly to a {@link RecordEncoder}.
+ * Fields are parsed from the same pattern syntax used by text access logs, ignoring any literal text.
+ */
+abstract class AccessLogField {
+
+    private static final String COMMON = "%h %l %u %t \"%r\" %s %b";
+    private static final String COMBINED = COMMON + " \"%{i,Referer}\" \"%{i,User-Agent}\"";
+    private static final String UNDEFINED = "-";
+
+    private final String name;
+
+    AccessLogField(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * Writes the value of this field for the specified exchange.
+     * @param exchange a completed exchange
+     * @param encoder the encoder of the current record
+     * @param index the index of this field within a record
+     */
+    abstract void write(HttpServerExchange exchange, RecordEncoder encoder, int index);
+
+    /**
+     * Parses the fields of the specified access log pattern.
+     * @param pattern an access log pattern, or "common" or "combined"
+     * @param loader the class loader used to locate exchange attribute builders
+     * @return a list of fields
+     */
+    static List<AccessLogField> parse(String pattern, ClassLoader loader) {
+        String expanded = pattern.equals("common") ? COMMON : pattern.equals("combined") ? COMBINED : pattern;
+        List<AccessLogField> fields = new ArrayList<>();
+        int length = expanded.length();
+        int i = 0;
+        while (i < length - 1) {
+            if (expanded.charAt(i) != '%') {
+                i += 1;
+                continue;
+            }
+            char next = expanded.charAt(i + 1);
+            if (next == '%') {
+                i += 2;
+            } else if (next == '{') {
+                int end = expanded.indexOf('}', i);
+                if (end < 0) break;
+                fields.add(createField(expanded.substring(i, end + 1), loader));
+                i = end + 1;
+            } else {
+                fields.add(createField(expanded.substring(i, i + 2), loader));
+                i += 2;
+            }
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    private static AccessLogField createField(String token, ClassLoader loader) {
+        switch (token) {
+            case "%a":
+            case "%h": {
+                return new AccessLogField("remote-ip") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        writeAddress(exchange.getSourceAddress(), encoder, index);
+                    }
+                };
+            }
+            case "%A": {
+                return new AccessLogField("local-ip") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        writeAddress(exchange.getDestinationAddress(), encoder, index);
+                    }
+                };
+            }
+            case "%p": {
+                return new AccessLogField("local-port") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        InetSocketAddress address = exchange.getDestinationAddress();
+                        if (address != null) {
+                            encoder.writeLong(index, address.getPort());
+                        } else {
+                            encoder.writeNull(index);
+                        }
+                    }
+                };
+            }
+            case "%m": {
+                return new AccessLogField("method") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        writeString(exchange.getRequestMethod(), encoder, index);
+                    }
+                };
+            }
+            case "%H": {
+                return new AccessLogField("protocol") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        writeString(exchange.getProtocol(), encoder, index);
+                    }
+                };
+            }
+            case "%U": {
+                return new AccessLogField("request-path") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        writeString(exchange.getRequestPath(), encoder, index);
+                    }
+                };
+            }
+            case "%q": {
+                return new AccessLogField("query-string") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        String query = exchange.getQueryString();
+                        writeString((query == null) || query.isEmpty() ? null : query, encoder, index);
+                    }
+                };
+            }
+            case "%s": {
+                return new AccessLogField("status") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        encoder.writeLong(index, exchange.getResponseCode());
+                    }
+                };
+            }
+            case "%t": {
+                return new AccessLogField("time") {
+                    @Override
+                    void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+                        encoder.writeLong(index, System.currentTimeMillis());
+                    }
+                };
+            }
+            case "%r": {
+                return new AttributeField("request-line", token, loader, false);
+            }
+            case "%b":
+            case "%B": {
+                return new AttributeField("bytes-sent", token, loader, true);
+            }
+            case "%D": {
+                return new AttributeField("response-time", token, loader, true);
+            }
+            case "%u": {
+                return new AttributeField("remote-user", token, loader, false);
+            }
+            default: {
+                String name = token.startsWith("%{") ? token.substring(2, token.length() - 1) : token.substring(1);
+                if (name.startsWith("i,")) {
+                    return new HeaderField(name.substring(2).trim(), true);
+                }
+                if (name.startsWith("o,")) {
+                    return new HeaderField(name.substring(2).trim(), false);
+                }
+                return new AttributeField(name, token, loader, false);
+            }
+        }
+    }
+
+    static void writeString(Object value, RecordEncoder encoder, int index) {
+        if (value != null) {
+            encoder.writeString(index, value.toString());
+        } else {
+            encoder.writeNull(index);
+        }
+    }
+
+    static void writeAddress(InetSocketAddress address, RecordEncoder encoder, int index) {
+        writeString(((address != null) && (address.getAddress() != null)) ? address.getAddress().getHostAddress() : null, encoder, index);
+    }
+
+    /**
+     * Writes the value of a request or response header.
+     */
+    private static class HeaderField extends AccessLogField {
+        private final HttpString header;
+        private final boolean request;
+
+        HeaderField(String header, boolean request) {
+            super(request ? header.toLowerCase(Locale.ENGLISH) : "response-" + header.toLowerCase(Locale.ENGLISH));
+            this.header = new HttpString(header);
+            this.request = request;
+        }
+
+        @Override
+        void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+            writeString((this.request ? exchange.getRequestHeaders() : exchange.getResponseHeaders()).getFirst(this.header), encoder, index);
+        }
+    }
+
+    /**
+     * Writes the value of a generic Undertow exchange attribute, for tokens without a dedicated extractor.
+     */
+    private static class AttributeField extends AccessLogField {
+        private final ExchangeAttribute attribute;
+        private final boolean numeric;
+
+        AttributeField(String name, String token, ClassLoader loader, boolean numeric) {
+            super(name);
+            this.attribute = ExchangeAttributes.parser(loader).parse(token);
+            this.numeric = numeric;
+        }
+
+        @Override
+        void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+            String value = this.attribute.readAttribute(exchange);
+            if ((value == null) || value.equals(UNDEFINED)) {
+                encoder.writeNull(index);
+            } else if (this.numeric) {
+                try {
+                    encoder.writeLong(index, Long.parseLong(value));
+                } catch (NumberFormatException e) {
+                    encoder.writeString(index, value);
+                }
+            } else {
+                encoder.writeString(index, value);
+            }
+        }
+    }
+}
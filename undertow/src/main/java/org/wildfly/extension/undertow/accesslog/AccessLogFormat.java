@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.util.Locale;
+
+/**
+ * Output formats of an access log.
+ */
+public enum AccessLogFormat {
+    /**
+     * Each record is formatted as a line of text according to the access log pattern, and written synchronously.
+     */
+    TEXT,
+    /**
+     * Each record is written asynchronously as a single line JSON object.
+     * @see RecordFormat#JSON
+     */
+    JSON,
+    /**
+     * Each record is written asynchronously in a compact binary format.
+     * @see RecordFormat#BINARY
+     */
+    BINARY,
+    ;
+
+    @Override
+    public String toString() {
+        return this.name().toLowerCase(Locale.ENGLISH);
+    }
+
+    public static AccessLogFormat forName(String name) {
+        return valueOf(name.toUpperCase(Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import io.undertow.server.HttpServerExchange;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.xnio.XnioWorker;
+
+/**
+ * Asynchronous access log writer.
+ * Threads completing exchanges encode records directly into a thread-confined buffer, and append them to their own lock-free
+ * {@link RecordRing}, without contention with other threads. Records that do not fit into a ring are dropped, rather than
+ * blocking the request.
+ * A drain task, executed by the worker, drains all rings, writes records to the log file in batches, and rotates the log file
+ * daily and/or when it exceeds a given size. The task resubmits itself while records remain, and is otherwise rescheduled after
+ * a short delay by an I/O thread of the worker, so that no worker thread is held while idle. Rotated files are optionally
+ * compressed by the worker.
+ * The rings of terminated threads are discarded once drained, and all rings are discarded when the writer stops.
+ */
+public class AsyncAccessLogWriter implements Runnable {
+
+    private static final long IDLE_MILLIS = 10;
+    private static final int INITIAL_RECORD_CAPACITY = 512;
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    private final List<AccessLogField> fields;
+    private final RecordFormat format;
+    private final File directory;
+    private final String prefix;
+    private final String suffix;
+    private final boolean rotateDaily;
+    private final long rotateSize;
+    private final boolean compress;
+    private final int ringCapacity;
+    private final XnioWorker worker;
+    // Submits the drain task to the worker, from an I/O thread
+    private final Runnable resubmit = new Runnable() {
+        @Override
+        public void run() {
+            AsyncAccessLogWriter.this.submit();
+        }
+    };
+
+    // Owned by the writer, rather than by thread locals, so that rings do not outlive the writer
+    private final ConcurrentMap<Thread, Producer> producers = new ConcurrentHashMap<>();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean running = false;
+    // Run once the drain task has completed after the writer stopped
+    private volatile Runnable stopTask;
+
+    // The following are confined to the drain task, whose successive executions are ordered by their submission
+    private final byte[] header;
+    private final ByteBuffer batch;
+    private int batchRecords = 0;
+    private FileChannel channel;
+    private long fileSize;
+    private String fileDate;
+    private long nextRotation;
+
+    /**
+     * Creates a new access log writer.
+     * @param pattern the access log pattern from which record fields are derived
+     * @param loader the class loader used to locate exchange attribute builders
+     * @param format the record format
+     * @param directory the log directory
+     * @param prefix the log file name prefix
+     * @param suffix the log file name suffix
+     * @param rotateDaily indicates whether to rotate the log file daily
+     * @param rotateSize the size in bytes beyond which the log file is rotated, or 0, if the log file should not be rotated by size
+     * @param compress indicates whether rotated log files should be gzip compressed
+     * @param ringCapacity the capacity in bytes of the buffer of each thread producing records
+     * @param worker the worker that executes the drain task and compresses rotated files
+     */
+    public AsyncAccessLogWriter(String pattern, ClassLoader loader, RecordFormat format, File directory, String prefix, String suffix, boolean rotateDaily, long rotateSize, boolean compress, int ringCapacity, XnioWorker worker) {
+        this.fields = AccessLogField.parse(pattern, loader);
+        this.format = format;
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.rotateDaily = rotateDaily;
+        this.rotateSize = rotateSize;
+        this.compress = compress;
+        this.ringCapacity = ringCapacity;
+        this.worker = worker;
+        this.header = format.createEncoder(this.fields, INITIAL_RECORD_CAPACITY).header(this.fields);
+        // Any record that fits into a ring also fits into a batch
+        this.batch = ByteBuffer.allocateDirect(new RecordRing(ringCapacity).capacity());
+    }
+
+    /**
+     * Returns the number of records written to the log.
+     * @return a number of records
+     */
+    public long getWrittenCount() {
+        return this.written.get();
+    }
+
+    /**
+     * Returns the number of records dropped, either because the buffer of the producing thread was full, or because of a write failure.
+     * @return a number of records
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    public void start() throws IOException {
+        long now = System.currentTimeMillis();
+        File active = this.getActiveFile();
+        if (active.length() > 0) {
+            String date = new SimpleDateFormat(DATE_FORMAT).format(new Date(active.lastModified()));
+            // Rotate a file that was due for rotation while we were stopped, or whose header names different fields
+            if ((this.rotateDaily && !date.equals(new SimpleDateFormat(DATE_FORMAT).format(new Date(now)))) || !this.hasHeader(active)) {
+                this.rotate(active, date);
+            }
+        }
+        this.open(now);
+        this.running = true;
+        this.submit();
+    }
+
+    /**
+     * Stops this writer. Records logged after this method is called are ignored.
+     * The specified task runs once all previously logged records are written and the log file is closed.
+     * @param task a task to run once this writer has stopped
+     */
+    public void stop(Runnable task) {
+        this.stopTask = task;
+        // The drain task observes this on its next execution
+        this.running = false;
+    }
+
+    /**
+     * Records the specified completed exchange.
+     * @param exchange a completed exchange
+     */
+    public void log(HttpServerExchange exchange) {
+        if (!this.running) return;
+        Thread current = Thread.currentThread();
+        Producer producer = this.producers.get(current);
+        if (producer == null) {
+            // Only the current thread creates its own producer
+            producer = new Producer(current, new RecordRing(this.ringCapacity), this.format.createEncoder(this.fields, INITIAL_RECORD_CAPACITY));
+            this.producers.put(current, producer);
+        }
+        RecordEncoder encoder = producer.encoder;
+        encoder.begin();
+        for (int i = 0; i < this.fields.size(); ++i) {
+            this.fields.get(i).write(exchange, encoder, i);
+        }
+        ByteBuffer record = encoder.end();
+        if ((record.remaining() > producer.ring.maxRecordLength()) || !producer.ring.offer(record)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (this.running) {
+                if (this.drain() > 0) {
+                    this.submit();
+                } else {
+                    this.worker.getIoThread().executeAfter(this.resubmit, IDLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        } catch (RuntimeException | Error e) {
+            this.terminate();
+            throw e;
+        }
+        this.terminate();
+    }
+
+    private void submit() {
+        try {
+            this.worker.execute(this);
+        } catch (RejectedExecutionException e) {
+            // The worker is shutting down, so complete on the current thread
+            this.running = false;
+            this.terminate();
+        }
+    }
+
+    /**
+     * Drains any remaining records, closes the log file, and runs the stop task.
+     */
+    private void terminate() {
+        try {
+            this.drain();
+        } finally {
+            this.close();
+            this.producers.clear();
+            Runnable task = this.stopTask;
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+
+    private int drain() {
+        int count = 0;
+        for (Producer producer : this.producers.values()) {
+            // Check liveness before draining, so that no record can follow the final drain
+            boolean alive = producer.thread.isAlive();
+            RecordRing ring = producer.ring;
+            while (!ring.isEmpty()) {
+                int drained = ring.drainTo(this.batch);
+                count += drained;
+                this.batchRecords += drained;
+                // Ring is not empty, so the batch must be full
+                if (!ring.isEmpty()) {
+                    this.write();
+                }
+            }
+            if (!alive) {
+                this.producers.remove(producer.thread);
+            }
+        }
+        if (this.batch.position() > 0) {
+            this.write();
+        }
+        return count;
+    }
+
+    private void write() {
+        this.batch.flip();
+        try {
+            long now = System.currentTimeMillis();
+            if ((this.rotateDaily && (now >= this.nextRotation)) || ((this.rotateSize > 0) && (this.fileSize > this.header.length) && (this.fileSize + this.batch.remaining() > this.rotateSize))) {
+                this.close();
+                this.rotate(this.getActiveFile(), this.fileDate);
+                this.open(now);
+            }
+            if (this.channel == null) {
+                this.open(now);
+            }
+            while (this.batch.hasRemaining()) {
+                this.fileSize += this.channel.write(this.batch);
+            }
+            this.written.addAndGet(this.batchRecords);
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.getActiveFile(), e);
+            this.dropped.addAndGet(this.batchRecords);
+            this.close();
+        } finally {
+            this.batch.clear();
+            this.batchRecords = 0;
+        }
+    }
+
+    private void open(long now) throws IOException {
+        this.channel = FileChannel.open(this.getActiveFile().toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.fileSize = this.channel.size();
+        if ((this.fileSize == 0) && (this.header.length > 0)) {
+            ByteBuffer header = ByteBuffer.wrap(this.header);
+            while (header.hasRemaining()) {
+                this.fileSize += this.channel.write(header);
+            }
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        this.fileDate = new SimpleDateFormat(DATE_FORMAT).format(calendar.getTime());
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DATE, 1);
+        this.nextRotation = calendar.getTimeInMillis();
+    }
+
+    private boolean hasHeader(File file) throws IOException {
+        if (this.header.length == 0) return true;
+        if (file.length() < this.header.length) return false;
+        byte[] header = new byte[this.header.length];
+        try (InputStream input = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < header.length) {
+                int read = input.read(header, offset, header.length - offset);
+                if (read < 0) return false;
+                offset += read;
+            }
+        }
+        return Arrays.equals(header, this.header);
+    }
+
+    private void close() {
+        FileChannel channel = this.channel;
+        if (channel != null) {
+            this.channel = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.getActiveFile(), e);
+            }
+        }
+    }
+
+    private void rotate(File active, String date) {
+        File target = this.getRotatedFile(date, 0);
+        for (int i = 1; target.exists() || new File(target.getPath() + ".gz").exists(); ++i) {
+            target = this.getRotatedFile(date, i);
+        }
+        if (!active.renameTo(target)) {
+            UndertowLogger.ROOT_LOGGER.failedToRotateAccessLog(active, null);
+            return;
+        }
+        if (this.compress) {
+            final File file = target;
+            this.worker.execute(new Runnable() {
+                @Override
+                public void run() {
+                    compress(file);
+                }
+            });
+        }
+    }
+
+    static void compress(File file) {
+        File compressed = new File(file.getPath() + ".gz");
+        try {
+            try (InputStream input = new FileInputStream(file)) {
+                try (OutputStream output = new GZIPOutputStream(new FileOutputStream(compressed))) {
+                    byte[] buffer = new byte[8192];
+                    int read = input.read(buffer);
+                    while (read >= 0) {
+                        output.write(buffer, 0, read);
+                        read = input.read(buffer);
+                    }
+                }
+            }
+            if (!file.delete()) {
+                UndertowLogger.ROOT_LOGGER.failedToRotateAccessLog(file, null);
+            }
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToRotateAccessLog(file, e);
+            compressed.delete();
+        }
+    }
+
+    private File getActiveFile() {
+        return new File(this.directory, this.prefix + this.suffix);
+    }
+
+    private File getRotatedFile(String date, int index) {
+        return new File(this.directory, (index > 0) ? String.format("%s%s.%d%s", this.prefix, date, index, this.suffix) : this.prefix + date + this.suffix);
+    }
+
+    private static class Producer {
+        final Thread thread;
+        final RecordRing ring;
+        final RecordEncoder encoder;
+
+        Producer(Thread thread, RecordRing ring, RecordEncoder encoder) {
+            this.thread = thread;
+            this.ring = ring;
+            this.encoder = encoder;
+        }
+    }
+}
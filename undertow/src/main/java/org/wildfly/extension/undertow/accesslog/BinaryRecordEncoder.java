@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodes records in a compact binary format.
+ * Each file starts with the magic bytes "UALB", a format version byte, and the number and names of the fields of each record.
+ * Each record consists of a 4-byte length, followed by one value per field, in header order.
+ * Each value is a type byte followed by its content:
+ * <ul>
+ * <li>0: null, with no content</li>
+ * <li>1: a long, as a zig-zag encoded variable-length integer</li>
+ * <li>2: a string, as the variable-length integer length of its UTF-8 encoding, followed by its UTF-8 encoding</li>
+ * </ul>
+ */
+class BinaryRecordEncoder extends RecordEncoder {
+
+    static final byte[] MAGIC = new byte[] { 'U', 'A', 'L', 'B' };
+    static final byte VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte LONG = 1;
+    static final byte STRING = 2;
+
+    private int start;
+
+    BinaryRecordEncoder(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    @Override
+    byte[] header(List<AccessLogField> fields) {
+        BinaryRecordEncoder encoder = new BinaryRecordEncoder(256);
+        encoder.put(MAGIC);
+        encoder.put(VERSION);
+        encoder.putVarInt(fields.size());
+        for (AccessLogField field : fields) {
+            encoder.putVarInt(utf8Length(field.getName()));
+            encoder.putUTF8(field.getName());
+        }
+        ByteBuffer buffer = encoder.buffer();
+        buffer.flip();
+        byte[] header = new byte[buffer.remaining()];
+        buffer.get(header);
+        return header;
+    }
+
+    @Override
+    void beginRecord() {
+        this.start = this.buffer().position();
+        // Reserve space for the record length
+        this.ensureCapacity(4);
+        this.buffer().putInt(0);
+    }
+
+    @Override
+    void endRecord() {
+        ByteBuffer buffer = this.buffer();
+        buffer.putInt(this.start, buffer.position() - this.start - 4);
+    }
+
+    @Override
+    void writeString(int field, CharSequence value) {
+        this.put(STRING);
+        this.putVarInt(utf8Length(value));
+        this.putUTF8(value);
+    }
+
+    @Override
+    void writeLong(int field, long value) {
+        this.put(LONG);
+        this.putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    @Override
+    void writeNull(int field) {
+        this.put(NULL);
+    }
+
+    private void putVarInt(int value) {
+        this.putVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void putVarLong(long value) {
+        this.ensureCapacity(10);
+        ByteBuffer buffer = this.buffer();
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+}
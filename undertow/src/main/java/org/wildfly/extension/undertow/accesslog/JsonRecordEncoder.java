@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes each record as a single line JSON object.
+ */
+class JsonRecordEncoder extends RecordEncoder {
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    // Precomputed ,"name": prefix of each field
+    private final byte[][] prefixes;
+
+    JsonRecordEncoder(List<AccessLogField> fields, int initialCapacity) {
+        super(initialCapacity);
+        this.prefixes = new byte[fields.size()][];
+        for (int i = 0; i < fields.size(); ++i) {
+            StringBuilder builder = new StringBuilder();
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append('"').append(fields.get(i).getName()).append("\":");
+            this.prefixes[i] = builder.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    byte[] header(List<AccessLogField> fields) {
+        return new byte[0];
+    }
+
+    @Override
+    void beginRecord() {
+        this.put((byte) '{');
+    }
+
+    @Override
+    void endRecord() {
+        this.put((byte) '}');
+        this.put((byte) '\n');
+    }
+
+    @Override
+    void writeString(int field, CharSequence value) {
+        this.put(this.prefixes[field]);
+        this.put((byte) '"');
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; ++i) {
+            char c = value.charAt(i);
+            if ((c == '"') || (c == '\\') || (c < 0x20)) {
+                this.putUTF8(value, start, i);
+                this.escape(c);
+                start = i + 1;
+            }
+        }
+        this.putUTF8(value, start, length);
+        this.put((byte) '"');
+    }
+
+    private void escape(char c) {
+        this.put((byte) '\\');
+        switch (c) {
+            case '"':
+            case '\\': {
+                this.put((byte) c);
+                break;
+            }
+            case '\n': {
+                this.put((byte) 'n');
+                break;
+            }
+            case '\r': {
+                this.put((byte) 'r');
+                break;
+            }
+            case '\t': {
+                this.put((byte) 't');
+                break;
+            }
+            default: {
+                this.put((byte) 'u');
+                this.put((byte) '0');
+                this.put((byte) '0');
+                this.put(HEX[(c >> 4) & 0xF]);
+                this.put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    @Override
+    void writeLong(int field, long value) {
+        this.put(this.prefixes[field]);
+        this.putUTF8(Long.toString(value));
+    }
+
+    @Override
+    void writeNull(int field) {
+        this.put(this.prefixes[field]);
+        this.put(NULL);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodes access log records directly into a reusable byte buffer.
+ * Instances are not thread-safe, and are meant to be confined to the thread producing records.
+ */
+abstract class RecordEncoder {
+
+    private ByteBuffer buffer;
+
+    RecordEncoder(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Returns the bytes written at the start of each log file, e.g. a description of the fields.
+     * @param fields the fields of each record
+     * @return a file header, possibly empty
+     */
+    abstract byte[] header(List<AccessLogField> fields);
+
+    /**
+     * Starts a new record, discarding any previous record.
+     */
+    void begin() {
+        this.buffer.clear();
+        this.beginRecord();
+    }
+
+    /**
+     * Completes the current record.
+     * @return a buffer containing the encoded record between its position and limit
+     */
+    ByteBuffer end() {
+        this.endRecord();
+        this.buffer.flip();
+        return this.buffer;
+    }
+
+    abstract void beginRecord();
+
+    abstract void endRecord();
+
+    abstract void writeString(int field, CharSequence value);
+
+    abstract void writeLong(int field, long value);
+
+    abstract void writeNull(int field);
+
+    ByteBuffer buffer() {
+        return this.buffer;
+    }
+
+    void ensureCapacity(int length) {
+        if (this.buffer.remaining() < length) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, this.buffer.position() + length));
+            this.buffer.flip();
+            buffer.put(this.buffer);
+            this.buffer = buffer;
+        }
+    }
+
+    void put(byte value) {
+        this.ensureCapacity(1);
+        this.buffer.put(value);
+    }
+
+    void put(byte[] value) {
+        this.ensureCapacity(value.length);
+        this.buffer.put(value);
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the specified characters.
+     */
+    void putUTF8(CharSequence value) {
+        this.putUTF8(value, 0, value.length());
+    }
+
+    /**
+     * Writes the UTF-8 encoding of the specified range of characters.
+     */
+    void putUTF8(CharSequence value, int start, int end) {
+        this.ensureCapacity((end - start) * 3);
+        ByteBuffer buffer = this.buffer;
+        for (int i = start; i < end; ++i) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && (i + 1 < end) && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static int utf8Length(CharSequence value) {
+        int length = value.length();
+        int result = 0;
+        for (int i = 0; i < length; ++i) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                result += 1;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && (i + 1 < length) && Character.isLowSurrogate(value.charAt(i + 1))) {
+                result += 4;
+                i += 1;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.util.List;
+
+/**
+ * Record formats of an asynchronous access log.
+ */
+public enum RecordFormat {
+    /**
+     * Each record is written as a single line JSON object, whose fields are derived from the access log pattern.
+     */
+    JSON {
+        @Override
+        RecordEncoder createEncoder(List<AccessLogField> fields, int capacity) {
+            return new JsonRecordEncoder(fields, capacity);
+        }
+    },
+    /**
+     * Each record is written in a compact binary format, whose fields are derived from the access log pattern.
+     */
+    BINARY {
+        @Override
+        RecordEncoder createEncoder(List<AccessLogField> fields, int capacity) {
+            return new BinaryRecordEncoder(capacity);
+        }
+    },
+    ;
+
+    abstract RecordEncoder createEncoder(List<AccessLogField> fields, int capacity);
+}
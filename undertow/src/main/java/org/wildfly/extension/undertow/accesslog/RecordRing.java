@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, single-producer, single-consumer ring of variable length records.
+ * Each record is stored as a 4-byte length followed by its content.
+ * {@link #offer(ByteBuffer)} must only be called by the owning thread, and {@link #drainTo(ByteBuffer)} only by the consuming thread.
+ */
+class RecordRing {
+
+    private static final int LENGTH_SIZE = 4;
+
+    private final byte[] buffer;
+    private final int mask;
+    // Next position to read, only modified by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next position to write, only modified by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a new ring.
+     * @param capacity the minimum capacity of this ring in bytes, which is rounded up to the nearest power of 2
+     */
+    RecordRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 64) - 1) << 1;
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return this.buffer.length;
+    }
+
+    /**
+     * Returns the maximum length of a record that can be stored by this ring
+     * @return a number of bytes
+     */
+    int maxRecordLength() {
+        return this.buffer.length - LENGTH_SIZE;
+    }
+
+    boolean isEmpty() {
+        return this.head.get() == this.tail.get();
+    }
+
+    /**
+     * Appends the remaining content of the specified buffer as a single record.
+     * @param record a record
+     * @return true, if the record was appended, false if there was insufficient space.
+     */
+    boolean offer(ByteBuffer record) {
+        int length = record.remaining();
+        long tail = this.tail.get();
+        if (LENGTH_SIZE + length > this.buffer.length - (tail - this.head.get())) {
+            return false;
+        }
+        this.putInt(tail, length);
+        int offset = (int) (tail + LENGTH_SIZE) & this.mask;
+        int first = Math.min(length, this.buffer.length - offset);
+        record.get(this.buffer, offset, first);
+        record.get(this.buffer, 0, length - first);
+        // Publish the record
+        this.tail.lazySet(tail + LENGTH_SIZE + length);
+        return true;
+    }
+
+    /**
+     * Moves as many complete records as will fit into the specified buffer, without their length prefix.
+     * @param target the target buffer
+     * @return the number of records moved
+     */
+    int drainTo(ByteBuffer target) {
+        long head = this.head.get();
+        long tail = this.tail.get();
+        int count = 0;
+        while (head < tail) {
+            int length = this.getInt(head);
+            if (length > target.remaining()) break;
+            int offset = (int) (head + LENGTH_SIZE) & this.mask;
+            int first = Math.min(length, this.buffer.length - offset);
+            target.put(this.buffer, offset, first);
+            target.put(this.buffer, 0, length - first);
+            head += LENGTH_SIZE + length;
+            count += 1;
+        }
+        // Release the space
+        this.head.lazySet(head);
+        return count;
+    }
+
+    private void putInt(long position, int value) {
+        for (int i = 0; i < LENGTH_SIZE; ++i) {
+            this.buffer[(int) (position + i) & this.mask] = (byte) (value >>> (24 - (8 * i)));
+        }
+    }
+
+    private int getInt(long position) {
+        int value = 0;
+        for (int i = 0; i < LENGTH_SIZE; ++i) {
+            value = (value << 8) | (this.buffer[(int) (position + i) & this.mask] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.as.server.deployment.DeploymentUnit;
+
+/**
+ * The time taken by each phase of a web deployment.
+ */
+public class DeploymentTimings {
+
+    public enum Phase {
+        TLD_PARSING,
+        SERVLET_CONTAINER_INITIALIZER_DISCOVERY,
+        DEPLOYMENT_INFO,
+        SERVLET_DEPLOY,
+        SERVLET_START,
+        JSP_PRECOMPILATION,
+        ;
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase(Locale.ENGLISH).replace('_', '-') + "-time";
+        }
+    }
+
+    private final AtomicLongArray times = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * Returns the timings of the specified deployment, attaching them if necessary.
+     */
+    public static DeploymentTimings getDeploymentTimings(DeploymentUnit deploymentUnit) {
+        DeploymentTimings timings = deploymentUnit.getAttachment(UndertowAttachments.DEPLOYMENT_TIMINGS);
+        if (timings == null) {
+            timings = new DeploymentTimings();
+            deploymentUnit.putAttachment(UndertowAttachments.DEPLOYMENT_TIMINGS, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Records the duration of the specified phase.
+     * @param phase a deployment phase
+     * @param start the value of {@link System#nanoTime()} when the phase started
+     */
+    public void record(Phase phase, long start) {
+        this.times.set(phase.ordinal(), System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the duration of the specified phase, in milliseconds, or 0 if the phase has not completed.
+     */
+    public long getTime(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(this.times.get(phase.ordinal()));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.jboss.as.version.Version;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * Locates the directory in which the JSPs of a deployment are compiled, when compiled JSPs are kept across redeployments and
+ * restarts.
+ * <p>
+ * The directory is named after a hash of the JSP sources of the deployment, of the size and modification time of its classes and
+ * libraries, and of the JSP servlet configuration, so that any change that could affect the compiled JSPs selects a new,
+ * empty directory. Directories of previous versions of the deployment are deleted when it is deployed again, so that stopping
+ * or undeploying a deployment never discards JSPs that a later start of the same version would reuse.
+ */
+final class JspCompilationCache {
+
+    static final String DATA_DIR = "jboss.server.data.dir";
+    private static final String CACHE_DIR = "jsp";
+    private static final String WEB_INF_CLASSES = "WEB-INF/classes/";
+    private static final String WEB_INF_LIB = "WEB-INF/lib/";
+    private static final String[] SOURCE_EXTENSIONS = { ".jsp", ".jspx", ".jspf", ".tag", ".tagx", ".tld" };
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JspCompilationCache() {
+    }
+
+    /**
+     * Returns the compilation directory of the specified deployment, creating it if necessary.
+     */
+    static File getDirectory(File dataDir, String deploymentName, Map<String, String> initParams, VirtualFile deploymentRoot, Collection<VirtualFile> overlays) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        update(digest, Version.AS_VERSION);
+        for (Map.Entry<String, String> entry : new TreeMap<String, String>(initParams).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+        }
+        update(digest, deploymentRoot);
+        if (overlays != null) {
+            for (VirtualFile overlay : overlays) {
+                update(digest, overlay);
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+
+        File parent = new File(new File(dataDir, CACHE_DIR), deploymentName);
+        File directory = new File(parent, key.toString());
+        File[] versions = parent.listFiles();
+        if (versions != null) {
+            for (File version : versions) {
+                if (!version.getName().equals(directory.getName())) {
+                    delete(version);
+                }
+            }
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException(directory.getAbsolutePath());
+        }
+        return directory;
+    }
+
+    private static void update(MessageDigest digest, VirtualFile root) throws IOException {
+        Map<String, VirtualFile> files = new TreeMap<String, VirtualFile>();
+        for (VirtualFile file : root.getChildrenRecursively()) {
+            if (file.isFile()) {
+                files.put(file.getPathNameRelativeTo(root), file);
+            }
+        }
+        byte[] buffer = new byte[8192];
+        for (Map.Entry<String, VirtualFile> entry : files.entrySet()) {
+            String path = entry.getKey();
+            VirtualFile file = entry.getValue();
+            if (isSource(path)) {
+                update(digest, path);
+                try (InputStream input = file.openStream()) {
+                    int read = input.read(buffer);
+                    while (read >= 0) {
+                        digest.update(buffer, 0, read);
+                        read = input.read(buffer);
+                    }
+                }
+            } else if (path.startsWith(WEB_INF_CLASSES) || path.startsWith(WEB_INF_LIB)) {
+                // Hashing the content of every class would cost more than most compilations
+                update(digest, path);
+                update(digest, Long.toString(file.getSize()));
+                update(digest, Long.toString(file.getLastModified()));
+            }
+        }
+    }
+
+    private static boolean isSource(String path) {
+        String name = path.toLowerCase(Locale.ENGLISH);
+        for (String extension : SOURCE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import io.undertow.servlet.api.Deployment;
+import io.undertow.servlet.api.InstanceHandle;
+import io.undertow.servlet.handlers.ServletHandler;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Compiles all the JSPs of a deployment, by passing a {@code jsp_precompile} request for each of them to the JSP servlet,
+ * which compiles and loads the JSP without executing it.
+ */
+class JspPrecompiler implements Runnable {
+
+    static final String JSP_SERVLET = "jsp";
+    private static final String PRECOMPILE = "jsp_precompile";
+
+    private final Deployment deployment;
+    private final DeploymentTimings timings;
+    private volatile boolean cancelled = false;
+
+    JspPrecompiler(Deployment deployment, DeploymentTimings timings) {
+        this.deployment = deployment;
+        this.timings = timings;
+    }
+
+    /**
+     * Stops compiling JSPs, once the JSP currently being compiled is done.
+     */
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        final String deploymentName = this.deployment.getDeploymentInfo().getDeploymentName();
+        final ServletHandler handler = this.deployment.getServlets().getManagedServlet(JSP_SERVLET);
+        if (handler == null) return;
+        final Thread thread = Thread.currentThread();
+        final ClassLoader old = thread.getContextClassLoader();
+        thread.setContextClassLoader(this.deployment.getDeploymentInfo().getClassLoader());
+        int compiled = 0;
+        try {
+            final InstanceHandle<? extends Servlet> instance = handler.getManagedServlet().getServlet();
+            try {
+                final Servlet servlet = instance.getInstance();
+                for (String jsp : findJsps(this.deployment.getServletContext(), "/")) {
+                    if (this.cancelled) return;
+                    final PrecompileResponse response = new PrecompileResponse();
+                    try {
+                        servlet.service(createRequest(jsp), createResponse(response));
+                        if (response.status < HttpServletResponse.SC_BAD_REQUEST) {
+                            compiled += 1;
+                        }
+                    } catch (Exception e) {
+                        if (this.cancelled) return;
+                        UndertowLogger.ROOT_LOGGER.failedToPrecompileJsp(jsp, deploymentName, e);
+                    }
+                }
+            } finally {
+                instance.release();
+            }
+        } catch (Exception e) {
+            if (this.cancelled) return;
+            UndertowLogger.ROOT_LOGGER.failedToPrecompileJsp(JSP_SERVLET, deploymentName, e);
+        } finally {
+            thread.setContextClassLoader(old);
+        }
+        this.timings.record(DeploymentTimings.Phase.JSP_PRECOMPILATION, start);
+        UndertowLogger.ROOT_LOGGER.precompiledJsps(compiled, deploymentName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Returns the paths of the JSPs in the specified directory of a web application, and its subdirectories.
+     */
+    static List<String> findJsps(ServletContext context, String directory) {
+        List<String> jsps = new ArrayList<String>();
+        Set<String> paths = context.getResourcePaths(directory);
+        if (paths != null) {
+            List<String> sorted = new ArrayList<String>(paths);
+            Collections.sort(sorted);
+            for (String path : sorted) {
+                if (path.endsWith("/")) {
+                    jsps.addAll(findJsps(context, path));
+                } else {
+                    String name = path.toLowerCase(Locale.ENGLISH);
+                    if (name.endsWith(".jsp") || name.endsWith(".jspx")) {
+                        jsps.add(path);
+                    }
+                }
+            }
+        }
+        return jsps;
+    }
+
+    private HttpServletRequest createRequest(final String jsp) {
+        final String contextPath = this.deployment.getDeploymentInfo().getContextPath();
+        final Map<String, Object> attributes = new HashMap<String, Object>();
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "getServletPath":
+                        return jsp;
+                    case "getRequestURI":
+                        return contextPath + jsp;
+                    case "getContextPath":
+                        return contextPath;
+                    case "getQueryString":
+                        return PRECOMPILE;
+                    case "getParameter":
+                        return PRECOMPILE.equals(args[0]) ? "" : null;
+                    case "getMethod":
+                        return "GET";
+                    case "getDispatcherType":
+                        return DispatcherType.REQUEST;
+                    case "getServletContext":
+                        return JspPrecompiler.this.deployment.getServletContext();
+                    case "getAttribute":
+                        return attributes.get(args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove(args[0]);
+                        return null;
+                    case "toString":
+                        return contextPath + jsp + "?" + PRECOMPILE;
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            }
+        });
+    }
+
+    private static HttpServletResponse createResponse(final PrecompileResponse response) {
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                switch (method.getName()) {
+                    case "sendError":
+                    case "setStatus":
+                        response.status = (Integer) args[0];
+                        return null;
+                    case "getStatus":
+                        return response.status;
+                    case "getWriter":
+                        return new PrintWriter(response.getOutputStream());
+                    case "getOutputStream":
+                        return response.getOutputStream();
+                    case "getCharacterEncoding":
+                        return "UTF-8";
+                    case "toString":
+                        return "HTTP " + response.status;
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            }
+        });
+    }
+
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return Boolean.FALSE;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        return null;
+    }
+
+    // Response of a precompile request, whose content is discarded
+    private static class PrecompileResponse {
+        volatile int status = HttpServletResponse.SC_OK;
+
+        ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+        }
+    }
+}
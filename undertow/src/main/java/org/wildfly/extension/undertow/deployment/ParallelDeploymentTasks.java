@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+
+/**
+ * Executes independent deployment tasks concurrently on the server executor.
+ * <p>
+ * For a given invocation, at most one executor worker per available processor, less one, is submitted; the calling thread
+ * executes tasks itself, so that progress does not depend on the availability of executor threads. The executor is
+ * shared with the rest of the server, so this bounds the work this invocation hands to it rather than the overall
+ * concurrency. Results are returned in task order.
+ */
+final class ParallelDeploymentTasks {
+
+    private static final int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    interface Task<T> {
+        T execute() throws DeploymentUnitProcessingException;
+    }
+
+    private ParallelDeploymentTasks() {
+    }
+
+    /**
+     * Returns the executor on which deployment tasks can run, or null if tasks should run on the calling thread.
+     * The executor is made available by the dependency registered in {@link WarStructureDeploymentProcessor}.
+     */
+    static Executor getExecutor(DeploymentPhaseContext phaseContext) {
+        return phaseContext.getDeploymentUnit().getAttachment(UndertowAttachments.SERVER_EXECUTOR);
+    }
+
+    static <T> List<T> execute(Executor executor, List<? extends Task<T>> tasks) throws DeploymentUnitProcessingException {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if (executor == null || tasks.size() < 2 || MAX_PARALLELISM < 2) {
+            for (Task<T> task : tasks) {
+                results.add(task.execute());
+            }
+            return results;
+        }
+        TaskRunner<T> runner = new TaskRunner<T>(tasks, Thread.currentThread().getContextClassLoader());
+        int workers = Math.min(tasks.size(), MAX_PARALLELISM) - 1;
+        try {
+            for (int i = 0; i < workers; ++i) {
+                executor.execute(runner);
+            }
+        } catch (RejectedExecutionException e) {
+            // Remaining tasks are executed by the workers already submitted, and the calling thread
+        }
+        runner.run();
+        runner.await();
+        Throwable failure = runner.failure.get();
+        if (failure instanceof DeploymentUnitProcessingException) {
+            throw (DeploymentUnitProcessingException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        for (int i = 0; i < tasks.size(); ++i) {
+            results.add(runner.result(i));
+        }
+        return results;
+    }
+
+    private static class TaskRunner<T> implements Runnable {
+        private final List<? extends Task<T>> tasks;
+        private final Object[] results;
+        private final ClassLoader classLoader;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CountDownLatch completed;
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        TaskRunner(List<? extends Task<T>> tasks, ClassLoader classLoader) {
+            this.tasks = tasks;
+            this.results = new Object[tasks.size()];
+            this.classLoader = classLoader;
+            this.completed = new CountDownLatch(tasks.size());
+        }
+
+        @Override
+        public void run() {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader old = thread.getContextClassLoader();
+            thread.setContextClassLoader(this.classLoader);
+            try {
+                int index = this.next.getAndIncrement();
+                while (index < this.results.length) {
+                    try {
+                        // Skip remaining tasks once one has failed
+                        if (this.failure.get() == null) {
+                            this.results[index] = this.tasks.get(index).execute();
+                        }
+                    } catch (DeploymentUnitProcessingException | RuntimeException | Error e) {
+                        this.failure.compareAndSet(null, e);
+                    } finally {
+                        this.completed.countDown();
+                    }
+                    index = this.next.getAndIncrement();
+                }
+            } finally {
+                thread.setContextClassLoader(old);
+            }
+        }
+
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    this.completed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T result(int index) {
+            return (T) this.results[index];
+        }
+    }
+}
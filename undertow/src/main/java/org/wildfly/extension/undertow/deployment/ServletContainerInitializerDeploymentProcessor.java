@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import javax.servlet.ServletContainerInitializer;
 import javax.servlet.annotation.HandlesTypes;
@@ -63,6 +64,8 @@ import org.jboss.vfs.VirtualFile;
 
 /**
  * SCI deployment processor.
+ * <p>
+ * SCIs are instantiated sequentially, in jar order; the classes matching each handled type are loaded concurrently.
  *
  * @author Emanuel Muckenhuber
  * @author Remy Maucherat
@@ -86,7 +89,9 @@ public class ServletContainerInitializerDeploymentProcessor implements Deploymen
         if (module == null) {
             throw UndertowLogger.ROOT_LOGGER.failedToResolveModule(deploymentUnit);
         }
+        final long start = System.nanoTime();
         final ClassLoader classLoader = module.getClassLoader();
+        final Executor executor = ParallelDeploymentTasks.getExecutor(phaseContext);
         ScisMetaData scisMetaData = deploymentUnit.getAttachment(ScisMetaData.ATTACHMENT_KEY);
         if (scisMetaData == null) {
             scisMetaData = new ScisMetaData();
@@ -154,15 +159,26 @@ public class ServletContainerInitializerDeploymentProcessor implements Deploymen
         }
 
         // Find classes which extend, implement, or are annotated by HandlesTypes
-        for (Class<?> type : typesArray) {
-            DotName className = DotName.createSimple(type.getName());
-            Set<ClassInfo> classInfos = processHandlesType(className, type, index);
-            Set<Class<?>> classes = loadClassInfoSet(classInfos, classLoader);
-            Set<ServletContainerInitializer> sciSet = typesMap.get(type);
+        List<ParallelDeploymentTasks.Task<Set<Class<?>>>> tasks = new ArrayList<>(typesArray.length);
+        for (final Class<?> type : typesArray) {
+            tasks.add(new ParallelDeploymentTasks.Task<Set<Class<?>>>() {
+                @Override
+                public Set<Class<?>> execute() throws DeploymentUnitProcessingException {
+                    DotName className = DotName.createSimple(type.getName());
+                    Set<ClassInfo> classInfos = processHandlesType(className, type, index);
+                    return loadClassInfoSet(classInfos, classLoader);
+                }
+            });
+        }
+        List<Set<Class<?>>> typeClasses = ParallelDeploymentTasks.execute(executor, tasks);
+        for (int i = 0; i < typesArray.length; ++i) {
+            Set<ServletContainerInitializer> sciSet = typesMap.get(typesArray[i]);
             for (ServletContainerInitializer sci : sciSet) {
-                handlesTypes.get(sci).addAll(classes);
+                handlesTypes.get(sci).addAll(typeClasses.get(i));
             }
         }
+
+        DeploymentTimings.getDeploymentTimings(deploymentUnit).record(DeploymentTimings.Phase.SERVLET_CONTAINER_INITIALIZER_DISCOVERY, start);
     }
 
     public void undeploy(final DeploymentUnit context) {
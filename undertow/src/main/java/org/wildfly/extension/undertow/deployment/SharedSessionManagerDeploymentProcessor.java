@@ -45,6 +45,13 @@ import org.wildfly.extension.undertow.session.SimpleDistributableSessionManagerC
  * @author Stuart Douglas
  */
 public class SharedSessionManagerDeploymentProcessor implements DeploymentUnitProcessor {
+
+    private final boolean nearCache;
+
+    public SharedSessionManagerDeploymentProcessor(boolean nearCache) {
+        this.nearCache = nearCache;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -58,7 +65,7 @@ public class SharedSessionManagerDeploymentProcessor implements DeploymentUnitPr
         DistributableSessionManagerFactoryBuilder builder = new DistributableSessionManagerFactoryBuilderValue().getValue();
         if (builder != null) {
             Module module = deploymentUnit.getAttachment(Attachments.MODULE);
-            builder.build(target, serviceName, new SimpleDistributableSessionManagerConfiguration(sharedConfig, deploymentUnit.getName(), module))
+            builder.build(target, serviceName, new SimpleDistributableSessionManagerConfiguration(sharedConfig, deploymentUnit.getName(), module, this.nearCache))
                     .setInitialMode(Mode.ON_DEMAND)
                     .install()
             ;
@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -54,6 +55,8 @@ import org.jboss.metadata.web.spec.TldMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
+ * Parses the TLDs of a web deployment. TLD files are located first, and then parsed concurrently.
+ *
  * @author Remy Maucherat
  */
 public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
@@ -75,7 +78,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         if (warMetaData == null || warMetaData.getMergedJBossWebMetaData() == null) {
             return;
         }
-
+        final long start = System.nanoTime();
 
         TldsMetaData tldsMetaData = deploymentUnit.getAttachment(TldsMetaData.ATTACHMENT_KEY);
         if (tldsMetaData == null) {
@@ -85,6 +88,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         Map<String, TldMetaData> tlds = new HashMap<String, TldMetaData>();
         tldsMetaData.setTlds(tlds);
         final List<TldMetaData> uniqueTlds = new ArrayList<>();
+        final List<TldTask> tasks = new ArrayList<>();
 
         final VirtualFile deploymentRoot = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT).getRoot();
         final List<VirtualFile> testRoots = new ArrayList<VirtualFile>();
@@ -110,16 +114,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                             throw new DeploymentUnitProcessingException(UndertowLogger.ROOT_LOGGER.tldFileNotContainedInRoot(child.getPathName(),
                                     deploymentRoot.getPathName()), e);
                         }
-                        final TldMetaData value = parseTLD(child);
-                        value.setUri(tld.getTaglibUri());
-                        uniqueTlds.add(value);
-                        String key = "/" + pathNameRelativeToRoot;
-                        if (!tlds.containsKey(key)) {
-                            tlds.put(key, value);
-                        }
-                        if (!tlds.containsKey(tld.getTaglibUri())) {
-                            tlds.put(tld.getTaglibUri(), value);
-                        }
+                        tasks.add(new TldTask(child, "/" + pathNameRelativeToRoot, true, tld.getTaglibUri()));
                         found = true;
                         break;
                     }
@@ -139,7 +134,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
             if (resourceRoot.getRoot().getName().toLowerCase(Locale.ENGLISH).endsWith(".jar")) {
                 VirtualFile webFragment = resourceRoot.getRoot().getChild(META_INF);
                 if (webFragment.exists() && webFragment.isDirectory()) {
-                    processTlds(deploymentRoot, webFragment.getChildren(), tlds, uniqueTlds);
+                    processTlds(deploymentRoot, webFragment.getChildren(), tasks);
                 }
             }
         }
@@ -154,19 +149,30 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                         throw new DeploymentUnitProcessingException(UndertowLogger.ROOT_LOGGER.tldFileNotContainedInRoot(file.getPathName(),
                                 deploymentRoot.getPathName()), e);
                     }
-
-                    final TldMetaData value = parseTLD(file);
-                    uniqueTlds.add(value);
-                    String key = "/" + pathNameRelativeToRoot;
-                    if (!tlds.containsKey(key)) {
-                        tlds.put(key, value);
-                    }
+                    tasks.add(new TldTask(file, "/" + pathNameRelativeToRoot, false, null));
                 } else if (file.isDirectory() && !CLASSES.equals(file.getName()) && !LIB.equals(file.getName())) {
-                    processTlds(deploymentRoot, file.getChildren(), tlds, uniqueTlds);
+                    processTlds(deploymentRoot, file.getChildren(), tasks);
                 }
             }
         }
 
+        final Executor executor = ParallelDeploymentTasks.getExecutor(phaseContext);
+        final List<TldMetaData> values = ParallelDeploymentTasks.execute(executor, tasks);
+        for (int i = 0; i < tasks.size(); ++i) {
+            final TldTask task = tasks.get(i);
+            final TldMetaData value = values.get(i);
+            if (task.declared) {
+                value.setUri(task.uri);
+            }
+            uniqueTlds.add(value);
+            if (!tlds.containsKey(task.key)) {
+                tlds.put(task.key, value);
+            }
+            if (task.declared && !tlds.containsKey(task.uri)) {
+                tlds.put(task.uri, value);
+            }
+        }
+
         JBossWebMetaData mergedMd = warMetaData.getMergedJBossWebMetaData();
         if (mergedMd.getListeners() == null) {
             mergedMd.setListeners(new ArrayList<ListenerMetaData>());
@@ -183,6 +189,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                 }
             }
         }
+        DeploymentTimings.getDeploymentTimings(deploymentUnit).record(DeploymentTimings.Phase.TLD_PARSING, start);
     }
 
 
@@ -190,7 +197,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
     public void undeploy(final DeploymentUnit context) {
     }
 
-    private void processTlds(VirtualFile root, List<VirtualFile> files, Map<String, TldMetaData> tlds, final List<TldMetaData> uniqueTlds)
+    private void processTlds(VirtualFile root, List<VirtualFile> files, final List<TldTask> tasks)
             throws DeploymentUnitProcessingException {
         for (VirtualFile file : files) {
             if (file.isFile() && file.getName().toLowerCase(Locale.ENGLISH).endsWith(TLD)) {
@@ -201,19 +208,14 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                     throw new DeploymentUnitProcessingException(UndertowLogger.ROOT_LOGGER.tldFileNotContainedInRoot(file.getPathName(),
                             root.getPathName()), e);
                 }
-                final TldMetaData value = parseTLD(file);
-                String key = "/" + pathNameRelativeToRoot;
-                uniqueTlds.add(value);
-                if (!tlds.containsKey(key)) {
-                    tlds.put(key, value);
-                }
+                tasks.add(new TldTask(file, "/" + pathNameRelativeToRoot, false, null));
             } else if (file.isDirectory()) {
-                processTlds(root, file.getChildren(), tlds, uniqueTlds);
+                processTlds(root, file.getChildren(), tasks);
             }
         }
     }
 
-    private TldMetaData parseTLD(VirtualFile tld)
+    private static TldMetaData parseTLD(VirtualFile tld)
             throws DeploymentUnitProcessingException {
         if (IMPLICIT_TLD.equals(tld.getName())) {
             // Implicit TLDs are different from regular TLDs
@@ -242,4 +244,23 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         }
     }
 
+    private static class TldTask implements ParallelDeploymentTasks.Task<TldMetaData> {
+        final VirtualFile file;
+        final String key;
+        // Whether the TLD is declared in the deployment descriptor, with the specified uri
+        final boolean declared;
+        final String uri;
+
+        TldTask(VirtualFile file, String key, boolean declared, String uri) {
+            this.file = file;
+            this.key = key;
+            this.declared = declared;
+            this.uri = uri;
+        }
+
+        @Override
+        public TldMetaData execute() throws DeploymentUnitProcessingException {
+            return parseTLD(this.file);
+        }
+    }
 }
@@ -21,6 +21,8 @@
  */
 package org.wildfly.extension.undertow.deployment;
 
+import java.util.concurrent.ExecutorService;
+
 import io.undertow.server.HandlerWrapper;
 import io.undertow.servlet.ServletExtension;
 import io.undertow.servlet.api.ThreadSetupAction;
@@ -49,6 +51,10 @@ public final class UndertowAttachments {
 
     public static final AttachmentKey<SharedSessionManagerConfig> SHARED_SESSION_MANAGER_CONFIG = AttachmentKey.create(SharedSessionManagerConfig.class);
 
+    public static final AttachmentKey<DeploymentTimings> DEPLOYMENT_TIMINGS = AttachmentKey.create(DeploymentTimings.class);
+
+    public static final AttachmentKey<ExecutorService> SERVER_EXECUTOR = AttachmentKey.create(ExecutorService.class);
+
     private UndertowAttachments() {
     }
 
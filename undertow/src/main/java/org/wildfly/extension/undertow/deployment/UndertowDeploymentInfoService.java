@@ -126,11 +126,13 @@ import org.jboss.security.config.ApplicationPolicy;
 import org.jboss.security.config.AuthorizationInfo;
 import org.jboss.security.config.SecurityConfiguration;
 import org.jboss.vfs.VirtualFile;
+import org.wildfly.extension.undertow.DiskBasedModularPersistentSessionManager;
 import org.wildfly.extension.undertow.Host;
 import org.wildfly.extension.undertow.JSPConfig;
 import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.SessionCookieConfig;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.metrics.RequestMetricsHandler;
 import org.wildfly.extension.undertow.UndertowService;
 import org.wildfly.extension.undertow.security.AuditNotificationReceiver;
 import org.wildfly.extension.undertow.security.JAASIdentityManagerImpl;
@@ -180,8 +182,10 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
     public static final ServiceName SERVICE_NAME = ServiceName.of("UndertowDeploymentInfoService");
 
     private static final String TEMP_DIR = "jboss.server.temp.dir";
+    private static final String JSP_SCRATCH_DIR = "scratchdir";
 
     private DeploymentInfo deploymentInfo;
+    private UndertowJSPInstanceManager jspInstanceManager;
 
     private final JBossWebMetaData mergedMetaData;
     private final String deploymentName;
@@ -205,6 +209,7 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
     private final List<ServletExtension> servletExtensions;
     private final SharedSessionManagerConfig sharedSessionManagerConfig;
     private final boolean explodedDeployment;
+    private final DeploymentTimings deploymentTimings;
 
     private final InjectedValue<UndertowService> undertowService = new InjectedValue<>();
     private final InjectedValue<SessionManagerFactory> sessionManagerFactory = new InjectedValue<>();
@@ -216,7 +221,7 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
     private final InjectedValue<Host> host = new InjectedValue<>();
     private final Map<String, InjectedValue<Executor>> executorsByName = new HashMap<String, InjectedValue<Executor>>();
 
-    private UndertowDeploymentInfoService(final JBossWebMetaData mergedMetaData, final String deploymentName, final TldsMetaData tldsMetaData, final List<TldMetaData> sharedTlds, final Module module, final ScisMetaData scisMetaData, final VirtualFile deploymentRoot, final String jaccContextId, final String securityDomain, final List<ServletContextAttribute> attributes, final String contextPath, final List<SetupAction> setupActions, final Set<VirtualFile> overlays, final List<ExpressionFactoryWrapper> expressionFactoryWrappers, List<PredicatedHandler> predicatedHandlers, List<HandlerWrapper> initialHandlerChainWrappers, List<HandlerWrapper> innerHandlerChainWrappers, List<HandlerWrapper> outerHandlerChainWrappers, List<ThreadSetupAction> threadSetupActions, boolean explodedDeployment, List<ServletExtension> servletExtensions, SharedSessionManagerConfig sharedSessionManagerConfig) {
+    private UndertowDeploymentInfoService(final JBossWebMetaData mergedMetaData, final String deploymentName, final TldsMetaData tldsMetaData, final List<TldMetaData> sharedTlds, final Module module, final ScisMetaData scisMetaData, final VirtualFile deploymentRoot, final String jaccContextId, final String securityDomain, final List<ServletContextAttribute> attributes, final String contextPath, final List<SetupAction> setupActions, final Set<VirtualFile> overlays, final List<ExpressionFactoryWrapper> expressionFactoryWrappers, List<PredicatedHandler> predicatedHandlers, List<HandlerWrapper> initialHandlerChainWrappers, List<HandlerWrapper> innerHandlerChainWrappers, List<HandlerWrapper> outerHandlerChainWrappers, List<ThreadSetupAction> threadSetupActions, boolean explodedDeployment, List<ServletExtension> servletExtensions, SharedSessionManagerConfig sharedSessionManagerConfig, DeploymentTimings deploymentTimings) {
         this.mergedMetaData = mergedMetaData;
         this.deploymentName = deploymentName;
         this.tldsMetaData = tldsMetaData;
@@ -239,10 +244,12 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
         this.explodedDeployment = explodedDeployment;
         this.servletExtensions = servletExtensions;
         this.sharedSessionManagerConfig = sharedSessionManagerConfig;
+        this.deploymentTimings = deploymentTimings;
     }
 
     @Override
     public synchronized void start(final StartContext startContext) throws StartException {
+        final long start = System.nanoTime();
         ClassLoader oldTccl = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(module.getClassLoader());
@@ -362,9 +369,17 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             }
             deploymentInfo.setServerName("WildFly "+ Version.AS_VERSION);
             if (undertowService.getValue().statisticsEnabled()){
-                deploymentInfo.setMetricsCollector(new UndertowMetricsCollector());
+                UndertowMetricsCollector collector = new UndertowMetricsCollector();
+                deploymentInfo.setMetricsCollector(collector);
+                deploymentInfo.addInnerHandlerChainWrapper(RequestMetricsHandler.synchronousWrapper(collector.getDeploymentRequestMetrics()));
+                for (ServletInfo servlet : deploymentInfo.getServlets().values()) {
+                    servlet.addHandlerChainWrapper(RequestMetricsHandler.synchronousWrapper(collector.createRequestMetrics(servlet.getName())));
+                }
             }
             this.deploymentInfo = deploymentInfo;
+            if (deploymentTimings != null) {
+                deploymentTimings.record(DeploymentTimings.Phase.DEPLOYMENT_INFO, start);
+            }
         } finally {
             Thread.currentThread().setContextClassLoader(oldTccl);
         }
@@ -376,6 +391,11 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
         IoUtils.safeClose(this.deploymentInfo.getResourceManager());
         this.deploymentInfo.setConfidentialPortManager(null);
         this.deploymentInfo = null;
+        if (this.jspInstanceManager != null) {
+            // The deployment, and thus its JSPs, has stopped
+            this.jspInstanceManager.destroy();
+            this.jspInstanceManager = null;
+        }
     }
 
     @Override
@@ -526,6 +546,9 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
 
             if (servletContainer.getSessionPersistenceManager() != null) {
                 d.setSessionPersistenceManager(servletContainer.getSessionPersistenceManager());
+                if (servletContainer.getSessionPersistenceManager() instanceof DiskBasedModularPersistentSessionManager) {
+                    d.addSessionListener(((DiskBasedModularPersistentSessionManager) servletContainer.getSessionPersistenceManager()).createSessionListener(deploymentName));
+                }
             }
 
             //for 2.2 apps we do not require a leading / in path mappings
@@ -545,8 +568,18 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             //default JSP servlet
             final ServletInfo jspServlet = jspConfig != null ? jspConfig.createJSPServletInfo() : null;
             if (jspServlet != null) { //this would be null if jsp support is disabled
+                if (jspConfig.isCompilationCache() && !jspServlet.getInitParams().containsKey(JSP_SCRATCH_DIR)) {
+                    try {
+                        File dataDir = new File(pathManagerInjector.getValue().getPathEntry(JspCompilationCache.DATA_DIR).resolvePath());
+                        File cacheDir = JspCompilationCache.getDirectory(dataDir, deploymentName, jspServlet.getInitParams(), deploymentRoot, overlays);
+                        jspServlet.addInitParam(JSP_SCRATCH_DIR, cacheDir.getAbsolutePath());
+                    } catch (IOException e) {
+                        UndertowLogger.ROOT_LOGGER.failedToUseJspCompilationCache(deploymentName, e);
+                    }
+                }
                 HashMap<String, JspPropertyGroup> propertyGroups = createJspConfig(mergedMetaData);
-                JspServletBuilder.setupDeployment(d, propertyGroups, tldInfo, new UndertowJSPInstanceManager(new WebInjectionContainer(module.getClassLoader(), componentRegistryInjectedValue.getValue())));
+                jspInstanceManager = new UndertowJSPInstanceManager(new WebInjectionContainer(module.getClassLoader(), componentRegistryInjectedValue.getValue()));
+                JspServletBuilder.setupDeployment(d, propertyGroups, tldInfo, jspInstanceManager);
 
                 if (mergedMetaData.getJspConfig() != null) {
                     d.setJspConfigDescriptor(new JspConfigDescriptorImpl(tldInfo.values(), propertyGroups.values()));
@@ -1283,6 +1316,7 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
         private List<ServletExtension> servletExtensions;
         private SharedSessionManagerConfig sharedSessionManagerConfig;
         private boolean explodedDeployment;
+        private DeploymentTimings deploymentTimings;
 
         Builder setMergedMetaData(final JBossWebMetaData mergedMetaData) {
             this.mergedMetaData = mergedMetaData;
@@ -1398,8 +1432,13 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
             return this;
         }
 
+        public Builder setDeploymentTimings(DeploymentTimings deploymentTimings) {
+            this.deploymentTimings = deploymentTimings;
+            return this;
+        }
+
         public UndertowDeploymentInfoService createUndertowDeploymentInfoService() {
-            return new UndertowDeploymentInfoService(mergedMetaData, deploymentName, tldsMetaData, sharedTlds, module, scisMetaData, deploymentRoot, jaccContextId, securityDomain, attributes, contextPath, setupActions, overlays, expressionFactoryWrappers, predicatedHandlers, initialHandlerChainWrappers, innerHandlerChainWrappers, outerHandlerChainWrappers, threadSetupActions, explodedDeployment, servletExtensions, sharedSessionManagerConfig);
+            return new UndertowDeploymentInfoService(mergedMetaData, deploymentName, tldsMetaData, sharedTlds, module, scisMetaData, deploymentRoot, jaccContextId, securityDomain, attributes, contextPath, setupActions, overlays, expressionFactoryWrappers, predicatedHandlers, initialHandlerChainWrappers, innerHandlerChainWrappers, outerHandlerChainWrappers, threadSetupActions, explodedDeployment, servletExtensions, sharedSessionManagerConfig, deploymentTimings);
         }
     }
 
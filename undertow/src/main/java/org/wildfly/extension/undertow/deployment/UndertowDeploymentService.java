@@ -23,6 +23,11 @@
 package org.wildfly.extension.undertow.deployment;
 
 import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.servlet.api.Deployment;
@@ -43,6 +48,7 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.Host;
+import org.wildfly.extension.undertow.JSPConfig;
 import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 
@@ -55,13 +61,22 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
     private final WebInjectionContainer webInjectionContainer;
     private final InjectedValue<Host> host = new InjectedValue<>();
     private final InjectedValue<DeploymentInfo> deploymentInfoInjectedValue = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> serverExecutor = new InjectedValue<>();
     private final boolean autostart;
+    private final DeploymentTimings deploymentTimings;
 
     private volatile DeploymentManager deploymentManager;
+    private volatile JspPrecompiler precompiler;
+    private volatile Future<?> precompilation;
 
     public UndertowDeploymentService(final WebInjectionContainer webInjectionContainer, boolean autostart) {
+        this(webInjectionContainer, autostart, new DeploymentTimings());
+    }
+
+    public UndertowDeploymentService(final WebInjectionContainer webInjectionContainer, boolean autostart, final DeploymentTimings deploymentTimings) {
         this.webInjectionContainer = webInjectionContainer;
         this.autostart = autostart;
+        this.deploymentTimings = deploymentTimings;
     }
 
     @Override
@@ -83,10 +98,24 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
             StartupContext.setInjectionContainer(webInjectionContainer);
             try {
                 deploymentManager = container.getValue().getServletContainer().addDeployment(deploymentInfo);
+                long start = System.nanoTime();
                 deploymentManager.deploy();
+                deploymentTimings.record(DeploymentTimings.Phase.SERVLET_DEPLOY, start);
+                start = System.nanoTime();
                 HttpHandler handler = deploymentManager.start();
+                deploymentTimings.record(DeploymentTimings.Phase.SERVLET_START, start);
                 Deployment deployment = deploymentManager.getDeployment();
                 host.getValue().registerDeployment(deployment, handler);
+                JSPConfig jspConfig = container.getValue().getJspConfig();
+                if (jspConfig != null && jspConfig.isPrecompile() && deployment.getServlets().getManagedServlet(JspPrecompiler.JSP_SERVLET) != null) {
+                    precompiler = new JspPrecompiler(deployment, deploymentTimings);
+                    try {
+                        precompilation = serverExecutor.getValue().submit(precompiler);
+                    } catch (RejectedExecutionException e) {
+                        // JSPs are then compiled on first request
+                        precompiler = null;
+                    }
+                }
             } finally {
                 StartupContext.setInjectionContainer(null);
             }
@@ -107,6 +136,19 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
         Thread.currentThread().setContextClassLoader(deploymentInfo.getClassLoader());
         try {
             FactoryFinderCache.clearClassLoader(deploymentInfo.getClassLoader());
+            if (precompiler != null) {
+                precompiler.cancel();
+                // Wait for the JSP being compiled, so that the deployment is not undeployed underneath it
+                try {
+                    precompilation.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | CancellationException e) {
+                    // Failures are logged by the precompiler
+                }
+                precompiler = null;
+                precompilation = null;
+            }
             if (deploymentManager != null) {
                 Deployment deployment = deploymentManager.getDeployment();
                 try {
@@ -141,6 +183,14 @@ public class UndertowDeploymentService implements Service<UndertowDeploymentServ
         return deploymentInfoInjectedValue;
     }
 
+    public InjectedValue<ExecutorService> getServerExecutor() {
+        return serverExecutor;
+    }
+
+    public DeploymentTimings getDeploymentTimings() {
+        return deploymentTimings;
+    }
+
     public Deployment getDeployment(){
         return deploymentManager.getDeployment();
     }
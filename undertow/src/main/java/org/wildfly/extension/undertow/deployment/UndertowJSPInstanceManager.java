@@ -25,6 +25,7 @@ package org.wildfly.extension.undertow.deployment;
 import java.lang.reflect.InvocationTargetException;
 
 import javax.naming.NamingException;
+import javax.servlet.jsp.tagext.JspTag;
 
 import org.apache.jasper.runtime.HttpJspBase;
 import org.apache.tomcat.InstanceManager;
@@ -38,6 +39,10 @@ import org.jboss.as.web.common.WebInjectionContainer;
  * We don't use web injection container for instances of org.apache.jasper.runtime.HttpJspBase, as it causes problems
  * with JSP hot reload. Because a new JSP class has the same name the generated ID is exactly the same.
  *
+ * Tag handlers are normally destroyed by Jasper, either by the generated code or by the tag handler pool, so they are
+ * created as controlled instances, which are tracked without weak references. Handlers that Jasper failed to destroy,
+ * e.g. because a tag threw an exception, are released by {@link #destroy()} when the deployment stops.
+ *
  *
  * @author Stuart Douglas
  */
@@ -64,6 +69,9 @@ public class UndertowJSPInstanceManager implements InstanceManager {
         if(HttpJspBase.class.isAssignableFrom(c)) {
             return c.newInstance();
         }
+        if(JspTag.class.isAssignableFrom(c)) {
+            return webInjectionContainer.newControlledInstance(c);
+        }
         return webInjectionContainer.newInstance(c);
     }
 
@@ -72,6 +80,10 @@ public class UndertowJSPInstanceManager implements InstanceManager {
         if(o instanceof HttpJspBase) {
             return;
         }
+        if(o instanceof JspTag) {
+            webInjectionContainer.newControlledInstance(o);
+            return;
+        }
         webInjectionContainer.newInstance(o);
     }
 
@@ -82,4 +94,11 @@ public class UndertowJSPInstanceManager implements InstanceManager {
         }
         webInjectionContainer.destroyInstance(o);
     }
+
+    /**
+     * Releases any tag handlers that were never destroyed.
+     */
+    public void destroy() {
+        webInjectionContainer.releaseControlledInstances();
+    }
 }
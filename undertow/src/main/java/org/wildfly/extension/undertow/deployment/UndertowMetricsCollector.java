@@ -24,17 +24,21 @@
 
 package org.wildfly.extension.undertow.deployment;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import io.undertow.server.handlers.MetricsHandler;
 import io.undertow.servlet.api.MetricsCollector;
+import org.wildfly.extension.undertow.metrics.RequestMetrics;
 
 /**
  * @author Tomaz Cerar (c) 2014 Red Hat Inc.
  */
 public class UndertowMetricsCollector implements MetricsCollector {
-    private final Map<String, MetricsHandler> metrics = new HashMap<>();
+    // Servlets register their metrics while the deployment starts, concurrently with management reads
+    private final ConcurrentMap<String, MetricsHandler> metrics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RequestMetrics> requestMetrics = new ConcurrentHashMap<>();
+    private final RequestMetrics deploymentRequestMetrics = new RequestMetrics();
 
     @Override
     public void registerMetric(String name, MetricsHandler handler) {
@@ -42,9 +46,21 @@ public class UndertowMetricsCollector implements MetricsCollector {
     }
 
     public MetricsHandler.MetricResult getMetrics(String name) {
-        if (metrics.containsKey(name)) {
-            return metrics.get(name).getMetrics();
-        }
-        return null;
+        MetricsHandler handler = metrics.get(name);
+        return (handler != null) ? handler.getMetrics() : null;
+    }
+
+    RequestMetrics createRequestMetrics(String name) {
+        RequestMetrics result = new RequestMetrics();
+        RequestMetrics existing = requestMetrics.putIfAbsent(name, result);
+        return (existing != null) ? existing : result;
+    }
+
+    public RequestMetrics getRequestMetrics(String name) {
+        return requestMetrics.get(name);
+    }
+
+    public RequestMetrics getDeploymentRequestMetrics() {
+        return deploymentRequestMetrics;
     }
 }
@@ -30,6 +30,7 @@ import java.util.Map;
 
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -83,6 +84,9 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
             return; // Skip non web deployments
         }
 
+        // Later phases run independent tasks, such as TLD parsing, on the server executor
+        phaseContext.addDeploymentDependency(Services.JBOSS_SERVER_EXECUTOR, UndertowAttachments.SERVER_EXECUTOR);
+
         final ResourceRoot deploymentResourceRoot = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT);
 
         final VirtualFile deploymentRoot = deploymentResourceRoot.getRoot();
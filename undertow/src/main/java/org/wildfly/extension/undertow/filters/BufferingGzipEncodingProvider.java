@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.conduits.GzipStreamSinkConduit;
+import io.undertow.server.ConduitWrapper;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.encoding.ContentEncodingProvider;
+import io.undertow.util.ConduitFactory;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Gzip encoding provider that skips responses smaller than a minimum size, and compresses responses of known length in one pass,
+ * at a configurable level, optionally caching compressed bodies in a {@link CompressedContentCache}.
+ * Responses of unknown or excessive length are compressed as they are streamed, at the same level.
+ * Only responses to requests admitted by a {@link CompressedContentCacheHandler} are cached.
+ */
+class BufferingGzipEncodingProvider implements ContentEncodingProvider {
+
+    static final String GZIP = "gzip";
+    // Maximum length of a response body that will be buffered for compression
+    static final int MAX_BUFFERED_SIZE = 1024 * 1024;
+
+    private final int level;
+    private final long minSize;
+    private final CompressedContentCache cache;
+
+    /**
+     * Creates a new encoding provider
+     * @param level the deflate compression level
+     * @param minSize the minimum length of a response eligible for compression
+     * @param cache a cache of compressed content, or null, if compressed content should not be cached
+     */
+    BufferingGzipEncodingProvider(int level, long minSize, CompressedContentCache cache) {
+        this.level = level;
+        this.minSize = minSize;
+        this.cache = cache;
+    }
+
+    @Override
+    public ConduitWrapper<StreamSinkConduit> getResponseWrapper() {
+        return new ConduitWrapper<StreamSinkConduit>() {
+            @Override
+            public StreamSinkConduit wrap(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange) {
+                return BufferingGzipEncodingProvider.this.wrap(factory, exchange);
+            }
+        };
+    }
+
+    StreamSinkConduit wrap(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange) {
+        long length = getContentLength(exchange);
+        if ((length < 0) || (length > MAX_BUFFERED_SIZE) || exchange.getRequestMethod().equals(Methods.HEAD)) {
+            return new LeveledGzipStreamSinkConduit(factory, exchange, this.level);
+        }
+        if ((length == 0) || (length < this.minSize)) {
+            // Not worth compressing
+            exchange.getResponseHeaders().remove(Headers.CONTENT_ENCODING);
+            return factory.create();
+        }
+        exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+        String resource = (this.cache != null) ? exchange.getAttachment(CompressedContentCacheHandler.RESOURCE) : null;
+        return new BufferingGzipStreamSinkConduit(factory, exchange, this.level, (int) length, (resource != null) ? this.cache : null, resource);
+    }
+
+    private static long getContentLength(HttpServerExchange exchange) {
+        String length = exchange.getResponseHeaders().getFirst(Headers.CONTENT_LENGTH);
+        if (length == null) return -1;
+        try {
+            return Long.parseLong(length);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class LeveledGzipStreamSinkConduit extends GzipStreamSinkConduit {
+        LeveledGzipStreamSinkConduit(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange, int level) {
+            super(factory, exchange);
+            // Nothing is deflated until the first write
+            this.deflater.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.ConduitFactory;
+import io.undertow.util.Headers;
+import org.xnio.IoUtils;
+import org.xnio.XnioIoThread;
+import org.xnio.XnioWorker;
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.conduits.ConduitWritableByteChannel;
+import org.xnio.conduits.Conduits;
+import org.xnio.conduits.StreamSinkConduit;
+import org.xnio.conduits.WriteReadyHandler;
+
+/**
+ * Conduit that buffers a response body of known length, and writes it gzip-compressed, with an accurate content length, once writes are terminated.
+ * If a cache is specified, the compressed body of a cacheable response is stored in it.
+ * The underlying conduit is only created once writes are terminated, so that the response headers still reflect the compressed content.
+ */
+class BufferingGzipStreamSinkConduit implements StreamSinkConduit {
+
+    private final ConduitFactory<StreamSinkConduit> factory;
+    private final HttpServerExchange exchange;
+    private final int level;
+    private final CompressedContentCache cache;
+    private final String resource;
+    private final ByteArrayOutputStream buffer;
+
+    private StreamSinkConduit next = null;
+    private ByteBuffer output = null;
+    private boolean nextTerminated = false;
+    private WriteReadyHandler writeReadyHandler = null;
+    private boolean writesResumed = false;
+
+    /**
+     * Creates a new conduit
+     * @param factory creates the underlying conduit
+     * @param exchange the current exchange
+     * @param level the compression level
+     * @param length the uncompressed content length
+     * @param cache a cache of compressed content, or null, if compressed content should not be cached
+     * @param resource the cache key of the requested resource, or null, if compressed content should not be cached
+     */
+    BufferingGzipStreamSinkConduit(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange, int level, int length, CompressedContentCache cache, String resource) {
+        this.factory = factory;
+        this.exchange = exchange;
+        this.level = level;
+        this.cache = (resource != null) ? cache : null;
+        this.resource = resource;
+        this.buffer = new ByteArrayOutputStream(length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (this.output != null) {
+            throw new ClosedChannelException();
+        }
+        int count = src.remaining();
+        if (src.hasArray()) {
+            this.buffer.write(src.array(), src.arrayOffset() + src.position(), count);
+            src.position(src.limit());
+        } else {
+            byte[] bytes = new byte[count];
+            src.get(bytes);
+            this.buffer.write(bytes, 0, count);
+        }
+        return count;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offs, int len) throws IOException {
+        long count = 0;
+        for (int i = offs; i < offs + len; ++i) {
+            count += this.write(srcs[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int writeFinal(ByteBuffer src) throws IOException {
+        return Conduits.writeFinalBasic(this, src);
+    }
+
+    @Override
+    public long writeFinal(ByteBuffer[] srcs, int offs, int len) throws IOException {
+        return Conduits.writeFinalBasic(this, srcs, offs, len);
+    }
+
+    @Override
+    public long transferFrom(FileChannel src, long position, long count) throws IOException {
+        return src.transferTo(position, count, new ConduitWritableByteChannel(this));
+    }
+
+    @Override
+    public long transferFrom(StreamSourceChannel source, long count, ByteBuffer throughBuffer) throws IOException {
+        return IoUtils.transfer(source, count, throughBuffer, new ConduitWritableByteChannel(this));
+    }
+
+    @Override
+    public void terminateWrites() throws IOException {
+        if (this.output != null) return;
+        byte[] content = compress(this.buffer.toByteArray(), this.level);
+        this.exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, Integer.toString(content.length));
+        if (this.cache != null) {
+            this.cache.put(this.resource, this.exchange.getRequestHeaders(), this.exchange.getResponseCode(), this.exchange.getResponseHeaders(), content, System.currentTimeMillis());
+        }
+        this.output = ByteBuffer.wrap(content);
+        this.createNext();
+    }
+
+    @Override
+    public boolean flush() throws IOException {
+        // Nothing is written until writes are terminated
+        if (this.output == null) return true;
+        while (this.output.hasRemaining()) {
+            if (this.next.write(this.output) == 0) {
+                return false;
+            }
+        }
+        if (!this.nextTerminated) {
+            this.next.terminateWrites();
+            this.nextTerminated = true;
+        }
+        return this.next.flush();
+    }
+
+    @Override
+    public void truncateWrites() throws IOException {
+        if (this.next == null) {
+            this.createNext();
+        }
+        this.next.truncateWrites();
+    }
+
+    @Override
+    public boolean isWriteShutdown() {
+        return this.output != null;
+    }
+
+    @Override
+    public void suspendWrites() {
+        if (this.next != null) {
+            this.next.suspendWrites();
+        } else {
+            this.writesResumed = false;
+        }
+    }
+
+    @Override
+    public void resumeWrites() {
+        if (this.next != null) {
+            this.next.resumeWrites();
+        } else {
+            this.wakeupWrites();
+        }
+    }
+
+    @Override
+    public void wakeupWrites() {
+        if (this.next != null) {
+            this.next.wakeupWrites();
+        } else {
+            // We are always writable until writes are terminated
+            this.writesResumed = true;
+            this.exchange.getIoThread().execute(new Runnable() {
+                @Override
+                public void run() {
+                    WriteReadyHandler handler = BufferingGzipStreamSinkConduit.this.writeReadyHandler;
+                    if (BufferingGzipStreamSinkConduit.this.writesResumed && (handler != null)) {
+                        handler.writeReady();
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean isWriteResumed() {
+        return (this.next != null) ? this.next.isWriteResumed() : this.writesResumed;
+    }
+
+    @Override
+    public void awaitWritable() throws IOException {
+        if (this.next != null) {
+            this.next.awaitWritable();
+        }
+    }
+
+    @Override
+    public void awaitWritable(long time, TimeUnit timeUnit) throws IOException {
+        if (this.next != null) {
+            this.next.awaitWritable(time, timeUnit);
+        }
+    }
+
+    @Override
+    public XnioIoThread getWriteThread() {
+        return this.exchange.getIoThread();
+    }
+
+    @Override
+    public void setWriteReadyHandler(WriteReadyHandler handler) {
+        this.writeReadyHandler = handler;
+        if (this.next != null) {
+            this.next.setWriteReadyHandler(handler);
+        }
+    }
+
+    @Override
+    public XnioWorker getWorker() {
+        return this.exchange.getIoThread().getWorker();
+    }
+
+    private void createNext() {
+        this.next = this.factory.create();
+        if (this.writeReadyHandler != null) {
+            this.next.setWriteReadyHandler(this.writeReadyHandler);
+        }
+        if (this.writesResumed) {
+            this.next.resumeWrites();
+        }
+    }
+
+    static byte[] compress(byte[] content, int level) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (OutputStream output = new LeveledGZIPOutputStream(result, level)) {
+            output.write(content);
+        }
+        return result.toByteArray();
+    }
+
+    private static class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream output, int level) throws IOException {
+            super(output);
+            this.def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2014, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+package org.wildfly.extension.undertow.filters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.util.DateUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+
+/**
+ * Memory-bounded LRU cache of compressed response bodies, with the response headers needed to replay them.
+ * An entry is keyed by the requested resource and is only returned for requests with the same values of the request headers
+ * named by the Vary header of the cached response, until the freshness lifetime of the cached response expires.
+ * Following the rules of a shared HTTP cache, responses are only cached if they are successful, have an explicit or heuristic
+ * freshness lifetime, are not private, no-store or no-cache, do not set cookies and do not vary on all request headers;
+ * requests with credentials or that demand an end-to-end reload neither use nor populate the cache.
+ *
+ * @author Tomaz Cerar (c) 2014 Red Hat Inc.
+ */
+class CompressedContentCache {
+
+    // Response headers that describe the connection or the individual response, rather than the cached representation
+    private static final Set<HttpString> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(Headers.AGE, Headers.CONNECTION, Headers.CONTENT_LENGTH, Headers.DATE, Headers.KEEP_ALIVE, Headers.SET_COOKIE, Headers.SET_COOKIE2, Headers.TRANSFER_ENCODING));
+    // Fraction of the time since the last modification used as the heuristic freshness lifetime of a response without an explicit one
+    private static final int HEURISTIC_FRESHNESS_DIVISOR = 10;
+
+    private final long maxSize;
+    // Access-ordered, thus iteration order is least recently used first
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Creates a new cache.
+     * @param maxSize the maximum number of bytes of compressed content retained by this cache
+     */
+    CompressedContentCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Indicates whether a request with the specified headers may be served from, or populate, this cache.
+     * @param requestHeaders the request headers
+     * @return true, if the request is cacheable, false otherwise
+     */
+    static boolean isCacheable(HeaderMap requestHeaders) {
+        if (requestHeaders.contains(Headers.AUTHORIZATION)) return false;
+        Set<String> directives = getDirectives(requestHeaders, Headers.CACHE_CONTROL);
+        if (directives.contains("no-cache") || directives.contains("no-store")) return false;
+        return !getDirectives(requestHeaders, Headers.PRAGMA).contains("no-cache");
+    }
+
+    /**
+     * Returns the fresh cache entry for the specified resource that matches the specified request headers.
+     * @param resource the requested resource
+     * @param requestHeaders the request headers
+     * @param now the current time, in milliseconds
+     * @return a cache entry, or null, if there is no matching fresh entry
+     */
+    Entry get(String resource, HeaderMap requestHeaders, long now) {
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(resource);
+            if ((entry != null) && (entry.expires <= now)) {
+                this.entries.remove(resource);
+                this.size -= entry.content.length;
+                return null;
+            }
+        }
+        return ((entry != null) && entry.matches(requestHeaders)) ? entry : null;
+    }
+
+    /**
+     * Caches the specified compressed response body, if the response is cacheable.
+     * Replaces any entry for the same resource.
+     * @param resource the requested resource
+     * @param requestHeaders the request headers
+     * @param status the response status code
+     * @param responseHeaders the response headers
+     * @param content the compressed response body
+     * @param now the current time, in milliseconds
+     * @return true, if the response was cached, false otherwise
+     */
+    boolean put(String resource, HeaderMap requestHeaders, int status, HeaderMap responseHeaders, byte[] content, long now) {
+        if ((status != 200) || (content.length > this.maxSize)) return false;
+        if (responseHeaders.contains(Headers.SET_COOKIE) || responseHeaders.contains(Headers.SET_COOKIE2)) return false;
+        Set<String> directives = getDirectives(responseHeaders, Headers.CACHE_CONTROL);
+        if (directives.contains("no-store") || directives.contains("private") || directives.contains("no-cache")) return false;
+        List<HttpString> vary = new ArrayList<>();
+        for (String name : getDirectives(responseHeaders, Headers.VARY)) {
+            if (name.equals("*")) return false;
+            // Only clients accepting gzip are served from the cache
+            if (!name.equals(Headers.ACCEPT_ENCODING_STRING.toLowerCase(Locale.ENGLISH))) {
+                vary.add(new HttpString(name));
+            }
+        }
+        long lifetime = getFreshnessLifetime(responseHeaders, directives, now);
+        if (lifetime <= 0) return false;
+
+        List<String> values = new ArrayList<>(vary.size());
+        for (HttpString name : vary) {
+            values.add(getValue(requestHeaders, name));
+        }
+        HeaderMap headers = new HeaderMap();
+        for (HeaderValues header : responseHeaders) {
+            if (!EXCLUDED_HEADERS.contains(header.getHeaderName())) {
+                headers.putAll(header.getHeaderName(), header);
+            }
+        }
+        Entry entry = new Entry(content, headers, vary, values, now, now + lifetime);
+
+        synchronized (this.entries) {
+            Entry old = this.entries.put(resource, entry);
+            if (old != null) {
+                this.size -= old.content.length;
+            }
+            this.size += content.length;
+            Iterator<Entry> entries = this.entries.values().iterator();
+            while ((this.size > this.maxSize) && entries.hasNext()) {
+                this.size -= entries.next().content.length;
+                entries.remove();
+            }
+        }
+        return true;
+    }
+
+    long getSize() {
+        synchronized (this.entries) {
+            return this.size;
+        }
+    }
+
+    int getCount() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Returns the freshness lifetime of a response, i.e. its s-maxage or max-age directive, its Expires header, or, failing those,
+     * a fraction of the time since its last modification.
+     */
+    private static long getFreshnessLifetime(HeaderMap responseHeaders, Set<String> directives, long now) {
+        for (String directive : Arrays.asList("s-maxage=", "max-age=")) {
+            for (String value : directives) {
+                if (value.startsWith(directive)) {
+                    try {
+                        return TimeUnit.SECONDS.toMillis(Long.parseLong(value.substring(directive.length()).replace("\"", "")));
+                    } catch (NumberFormatException e) {
+                        // An invalid lifetime means that the response is stale
+                        return 0;
+                    }
+                }
+            }
+        }
+        long date = getDate(responseHeaders, Headers.DATE, now);
+        String expires = responseHeaders.getFirst(Headers.EXPIRES);
+        if (expires != null) {
+            // An invalid date means that the response is already expired
+            return getDate(responseHeaders, Headers.EXPIRES, date) - date;
+        }
+        long lastModified = getDate(responseHeaders, Headers.LAST_MODIFIED, date);
+        return (date - lastModified) / HEURISTIC_FRESHNESS_DIVISOR;
+    }
+
+    private static long getDate(HeaderMap headers, HttpString name, long defaultValue) {
+        String value = headers.getFirst(name);
+        Date date = (value != null) ? DateUtils.parseDate(value) : null;
+        return (date != null) ? date.getTime() : defaultValue;
+    }
+
+    /**
+     * Returns the lower-cased, comma-separated elements of the specified header.
+     */
+    private static Set<String> getDirectives(HeaderMap headers, HttpString name) {
+        HeaderValues values = headers.get(name);
+        if (values == null) return Collections.emptySet();
+        Set<String> directives = new HashSet<>();
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (!trimmed.isEmpty()) {
+                    directives.add(trimmed.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static String getValue(HeaderMap headers, HttpString name) {
+        HeaderValues values = headers.get(name);
+        if (values == null) return null;
+        StringBuilder builder = new StringBuilder();
+        for (String value : values) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A cached compressed response.
+     */
+    static class Entry {
+        final byte[] content;
+        final HeaderMap headers;
+        private final List<HttpString> vary;
+        private final List<String> values;
+        final long created;
+        final long expires;
+
+        Entry(byte[] content, HeaderMap headers, List<HttpString> vary, List<String> values, long created, long expires) {
+            this.content = content;
+            this.headers = headers;
+            this.vary = vary;
+            this.values = values;
+            this.created = created;
+            this.expires = expires;
+        }
+
+        /**
+         * Indicates whether the specified request headers select this cached response, i.e. whether the values of the request
+         * headers named by its Vary header are the same as those of the request that populated this entry.
+         */
+        boolean matches(HeaderMap requestHeaders) {
+            for (int i = 0; i < this.vary.size(); ++i) {
+                if (!Objects.equals(getValue(requestHeaders, this.vary.get(i)), this.values.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2014, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+package org.wildfly.extension.undertow.filters;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.encoding.AllowedContentEncodings;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+
+/**
+ * Serves GET requests from clients that would be sent a gzip-encoded response from a {@link CompressedContentCache}, without invoking the next handler.
+ * On a cache miss, the requested resource is attached to the exchange, so that the compressed response may be cached.
+ *
+ * @author Tomaz Cerar (c) 2014 Red Hat Inc.
+ */
+class CompressedContentCacheHandler implements HttpHandler {
+
+    static final AttachmentKey<String> RESOURCE = AttachmentKey.create(String.class);
+
+    private final CompressedContentCache cache;
+    private final ContentEncodingRepository repository;
+    private final HttpHandler next;
+
+    CompressedContentCacheHandler(CompressedContentCache cache, ContentEncodingRepository repository, HttpHandler next) {
+        this.cache = cache;
+        this.repository = repository;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (exchange.getRequestMethod().equals(Methods.GET) && CompressedContentCache.isCacheable(exchange.getRequestHeaders())) {
+            // Only consider requests to which the encoding handler would apply gzip
+            AllowedContentEncodings encodings = this.repository.getContentEncodings(exchange);
+            if ((encodings != null) && BufferingGzipEncodingProvider.GZIP.equals(encodings.getCurrentContentEncoding())) {
+                String query = exchange.getQueryString();
+                String path = ((query != null) && !query.isEmpty()) ? exchange.getRequestPath() + '?' + query : exchange.getRequestPath();
+                String resource = exchange.getHostName() + path;
+                long now = System.currentTimeMillis();
+                CompressedContentCache.Entry entry = this.cache.get(resource, exchange.getRequestHeaders(), now);
+                if (entry != null) {
+                    send(exchange, entry, now);
+                    return;
+                }
+                exchange.putAttachment(RESOURCE, resource);
+            }
+        }
+        this.next.handleRequest(exchange);
+    }
+
+    private static void send(HttpServerExchange exchange, CompressedContentCache.Entry entry, long now) {
+        exchange.setResponseCode(200);
+        HeaderMap headers = exchange.getResponseHeaders();
+        for (HeaderValues header : entry.headers) {
+            headers.putAll(header.getHeaderName(), header);
+        }
+        headers.put(Headers.AGE, Long.toString(TimeUnit.MILLISECONDS.toSeconds(now - entry.created)));
+        headers.put(Headers.CONTENT_LENGTH, Integer.toString(entry.content.length));
+        exchange.getResponseSender().send(ByteBuffer.wrap(entry.content));
+    }
+}
@@ -63,6 +63,14 @@ abstract class Filter extends AbstractHandlerDefinition {
         return name;
     }
 
+    /**
+     * Creates the service of a filter resource with the specified resolved model.
+     * Filters whose handlers share state across filter references override this to install a service holding that state.
+     */
+    FilterService createService(ModelNode model) {
+        return new FilterService(this, model);
+    }
+
     public HttpHandler createHttpHandler(final Predicate predicate, final ModelNode model, HttpHandler next) {
         Class<? extends HttpHandler> handlerClass = getHandlerClass();
         List<AttributeDefinition> attributes = new ArrayList<>(getAttributes());
@@ -35,7 +35,6 @@ import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
-import org.wildfly.extension.undertow.Handler;
 import org.wildfly.extension.undertow.UndertowService;
 
 /**
@@ -43,9 +42,9 @@ import org.wildfly.extension.undertow.UndertowService;
  */
 class FilterAdd extends AbstractAddStepHandler {
 
-    private Handler handler;
+    private Filter handler;
 
-    FilterAdd(Handler handler) {
+    FilterAdd(Filter handler) {
         super(handler.getAttributes());
         this.handler = handler;
     }
@@ -55,7 +54,7 @@ class FilterAdd extends AbstractAddStepHandler {
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final String name = address.getLastElement().getValue();
 
-        final FilterService service = new FilterService(handler, getResolvedModel(context, model));
+        final FilterService service = handler.createService(getResolvedModel(context, model));
         final ServiceTarget target = context.getServiceTarget();
         ServiceController<?> sc = target.addService(UndertowService.FILTER.append(name), service)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
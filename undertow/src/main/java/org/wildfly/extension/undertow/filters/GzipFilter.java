@@ -24,13 +24,21 @@
 
 package org.wildfly.extension.undertow.filters;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.zip.Deflater;
+
 import io.undertow.predicate.Predicate;
 import io.undertow.predicate.Predicates;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.encoding.ContentEncodingRepository;
 import io.undertow.server.handlers.encoding.EncodingHandler;
-import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Tomaz Cerar (c) 2014 Red Hat Inc.
@@ -40,10 +48,39 @@ public class GzipFilter extends Filter {
 
     public static final GzipFilter INSTANCE = new GzipFilter();
 
+    /*
+    <gzip name="static-gzip" compression-level="6" min-size="256" cache-size="10485760"/>
+     */
+    public static final AttributeDefinition COMPRESSION_LEVEL = new SimpleAttributeDefinitionBuilder("compression-level", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION, true, true))
+            .setDefaultValue(new ModelNode(Deflater.DEFAULT_COMPRESSION))
+            .build();
+
+    public static final AttributeDefinition MIN_SIZE = new SimpleAttributeDefinitionBuilder("min-size", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(0L))
+            .build();
+
+    public static final AttributeDefinition CACHE_SIZE = new SimpleAttributeDefinitionBuilder("cache-size", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setDefaultValue(new ModelNode(0L))
+            .build();
+
     private GzipFilter() {
         super("gzip");
     }
 
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(COMPRESSION_LEVEL, MIN_SIZE, CACHE_SIZE);
+    }
+
     @Override
     public Class<? extends HttpHandler> getHandlerClass() {
         return null;
@@ -51,9 +88,15 @@ public class GzipFilter extends Filter {
 
     @Override
     public HttpHandler createHttpHandler(final Predicate predicate, ModelNode model, HttpHandler next) {
-        EncodingHandler encodingHandler = new EncodingHandler(new ContentEncodingRepository()
-                .addEncodingHandler("gzip", new GzipEncodingProvider(), 50, predicate!=null?predicate : Predicates.truePredicate()));
+        int level = model.get(COMPRESSION_LEVEL.getName()).asInt();
+        long minSize = model.get(MIN_SIZE.getName()).asLong();
+        long cacheSize = model.get(CACHE_SIZE.getName()).asLong();
+        // Each filter reference maintains its own cache
+        CompressedContentCache cache = (cacheSize > 0) ? new CompressedContentCache(cacheSize) : null;
+        ContentEncodingRepository repository = new ContentEncodingRepository()
+                .addEncodingHandler(BufferingGzipEncodingProvider.GZIP, new BufferingGzipEncodingProvider(level, minSize, cache), 50, predicate!=null?predicate : Predicates.truePredicate());
+        EncodingHandler encodingHandler = new EncodingHandler(repository);
         encodingHandler.setNext(next);
-        return encodingHandler;
+        return (cache != null) ? new CompressedContentCacheHandler(cache, repository, encodingHandler) : encodingHandler;
     }
 }
\ No newline at end of file
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.SameThreadExecutor;
+import io.undertow.util.StatusCodes;
+import org.wildfly.extension.undertow.metrics.LatencyHistogram;
+import org.xnio.XnioExecutor;
+
+/**
+ * Limits the number of requests processed concurrently.
+ * Requests exceeding the limit wait in a bounded queue, optionally for a limited time, and are rejected with a 503 response
+ * if the queue is full or the wait times out. Queued priority requests are resumed before other queued requests.
+ * Admission of a request below the limit, and completion of a request while no request is queued, do not lock.
+ */
+public class RequestLimit {
+
+    private static final HttpHandler REJECT_HANDLER = new ResponseCodeHandler(StatusCodes.SERVICE_UNAVAILABLE);
+
+    private final int maxConcurrentRequests;
+    private final int queueSize;
+    private final long queueTimeout;
+
+    private final AtomicInteger active = new AtomicInteger();
+    // Number of queued requests, only modified while holding the monitor of this object
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Deque<SuspendedRequest> priorityQueue = new ArrayDeque<>();
+    private final Deque<SuspendedRequest> queue = new ArrayDeque<>();
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final LatencyHistogram queueTime = new LatencyHistogram();
+
+    private final ExchangeCompletionListener completionListener = new ExchangeCompletionListener() {
+        @Override
+        public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+            try {
+                release();
+            } finally {
+                nextListener.proceed();
+            }
+        }
+    };
+
+    /**
+     * @param maxConcurrentRequests the maximum number of requests processed concurrently
+     * @param queueSize the maximum number of requests waiting for processing
+     * @param queueTimeout the maximum time in milliseconds a request waits for processing, or 0 to wait indefinitely
+     */
+    public RequestLimit(int maxConcurrentRequests, int queueSize, long queueTimeout) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.queueSize = queueSize;
+        this.queueTimeout = queueTimeout;
+    }
+
+    public void handleRequest(final HttpServerExchange exchange, final HttpHandler next, final boolean priority) throws Exception {
+        if ((this.queued.get() == 0) && this.tryAcquire()) {
+            exchange.addExchangeCompleteListener(this.completionListener);
+            next.handleRequest(exchange);
+        } else {
+            exchange.dispatch(SameThreadExecutor.INSTANCE, new Runnable() {
+                @Override
+                public void run() {
+                    RequestLimit.this.suspend(new SuspendedRequest(exchange, next, priority));
+                }
+            });
+        }
+    }
+
+    private void suspend(SuspendedRequest request) {
+        boolean accepted = false;
+        synchronized (this) {
+            if (this.queued.get() < this.queueSize) {
+                (request.priority ? this.priorityQueue : this.queue).add(request);
+                this.queued.incrementAndGet();
+                accepted = true;
+            }
+        }
+        if (!accepted) {
+            this.rejected.incrementAndGet();
+            request.exchange.setResponseCode(StatusCodes.SERVICE_UNAVAILABLE);
+            request.exchange.endExchange();
+            return;
+        }
+        if (this.queueTimeout > 0) {
+            request.timeoutKey = request.exchange.getIoThread().executeAfter(request, this.queueTimeout, TimeUnit.MILLISECONDS);
+        }
+        // A request may have completed between our admission attempt and queuing
+        this.drain();
+    }
+
+    private void release() {
+        this.active.decrementAndGet();
+        if (this.queued.get() > 0) {
+            this.drain();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SuspendedRequest request;
+            synchronized (this) {
+                if ((this.queued.get() == 0) || !this.tryAcquire()) return;
+                request = this.priorityQueue.poll();
+                if (request == null) {
+                    request = this.queue.poll();
+                }
+                this.queued.decrementAndGet();
+            }
+            request.resume();
+        }
+    }
+
+    private boolean tryAcquire() {
+        int current = this.active.get();
+        while (current < this.maxConcurrentRequests) {
+            if (this.active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = this.active.get();
+        }
+        return false;
+    }
+
+    public int getActiveRequests() {
+        return this.active.get();
+    }
+
+    public int getQueuedRequests() {
+        return this.queued.get();
+    }
+
+    /**
+     * Returns the number of requests rejected because the queue was full.
+     */
+    public long getRejectedRequests() {
+        return this.rejected.get();
+    }
+
+    /**
+     * Returns the number of requests rejected because they waited longer than the queue timeout.
+     */
+    public long getTimedOutRequests() {
+        return this.timedOut.get();
+    }
+
+    /**
+     * Returns the histogram of the time, in microseconds, queued requests waited before processing.
+     */
+    public LatencyHistogram getQueueTime() {
+        return this.queueTime;
+    }
+
+    private class SuspendedRequest implements Runnable {
+        final HttpServerExchange exchange;
+        final HttpHandler next;
+        final boolean priority;
+        final long queueStart = System.nanoTime();
+        volatile XnioExecutor.Key timeoutKey;
+
+        SuspendedRequest(HttpServerExchange exchange, HttpHandler next, boolean priority) {
+            this.exchange = exchange;
+            this.next = next;
+            this.priority = priority;
+        }
+
+        void resume() {
+            XnioExecutor.Key key = this.timeoutKey;
+            if (key != null) {
+                key.remove();
+            }
+            RequestLimit.this.queueTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.queueStart));
+            this.exchange.addExchangeCompleteListener(RequestLimit.this.completionListener);
+            this.exchange.dispatch(this.next);
+        }
+
+        // Queue timeout
+        @Override
+        public void run() {
+            boolean removed;
+            synchronized (RequestLimit.this) {
+                removed = (this.priority ? RequestLimit.this.priorityQueue : RequestLimit.this.queue).remove(this);
+                if (removed) {
+                    RequestLimit.this.queued.decrementAndGet();
+                }
+            }
+            if (removed) {
+                RequestLimit.this.timedOut.incrementAndGet();
+                this.exchange.dispatch(SameThreadExecutor.INSTANCE, REJECT_HANDLER);
+            }
+        }
+    }
+}
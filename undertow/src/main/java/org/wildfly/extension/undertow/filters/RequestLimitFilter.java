@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.predicate.PredicateParser;
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.UndertowService;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+public class RequestLimitFilter extends Filter {
+
+    public static final RequestLimitFilter INSTANCE = new RequestLimitFilter();
+
+    /*
+    <request-limit name="limit" max-concurrent-requests="200" queue-size="1000" queue-timeout="5000"
+                   priority-predicate="path-prefix['/api']" bypass-predicate="path['/health']"/>
+     */
+    public static final AttributeDefinition MAX_CONCURRENT_REQUESTS = new SimpleAttributeDefinitionBuilder("max-concurrent-requests", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(false)
+            .setValidator(new IntRangeValidator(1, false, true))
+            .build();
+
+    public static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setDefaultValue(new ModelNode(100))
+            .build();
+
+    public static final AttributeDefinition QUEUE_TIMEOUT = new SimpleAttributeDefinitionBuilder("queue-timeout", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(0L))
+            .build();
+
+    public static final AttributeDefinition PRIORITY_PREDICATE = new SimpleAttributeDefinitionBuilder("priority-predicate", ModelType.STRING)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .build();
+
+    public static final AttributeDefinition BYPASS_PREDICATE = new SimpleAttributeDefinitionBuilder("bypass-predicate", ModelType.STRING)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .build();
+
+    static final AttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT, true).setStorageRuntime().build();
+    static final AttributeDefinition QUEUED_REQUESTS = new SimpleAttributeDefinitionBuilder("queued-requests", ModelType.INT, true).setStorageRuntime().build();
+    static final AttributeDefinition REJECTED_REQUESTS = new SimpleAttributeDefinitionBuilder("rejected-requests", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition TIMED_OUT_REQUESTS = new SimpleAttributeDefinitionBuilder("timed-out-requests", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition QUEUE_TIME_MEAN = new SimpleAttributeDefinitionBuilder("queue-time-mean", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+    static final AttributeDefinition QUEUE_TIME_P99 = new SimpleAttributeDefinitionBuilder("queue-time-p99", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+    static final AttributeDefinition QUEUE_TIME_MAX = new SimpleAttributeDefinitionBuilder("queue-time-max", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+
+    private RequestLimitFilter() {
+        super("request-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(MAX_CONCURRENT_REQUESTS, QUEUE_SIZE, QUEUE_TIMEOUT, PRIORITY_PREDICATE, BYPASS_PREDICATE);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : Arrays.asList(ACTIVE_REQUESTS, QUEUED_REQUESTS, REJECTED_REQUESTS, TIMED_OUT_REQUESTS, QUEUE_TIME_MEAN, QUEUE_TIME_P99, QUEUE_TIME_MAX)) {
+            resourceRegistration.registerMetric(metric, RequestLimitMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public Class<? extends HttpHandler> getHandlerClass() {
+        return RequestLimitHandler.class;
+    }
+
+    @Override
+    FilterService createService(ModelNode model) {
+        return new RequestLimitFilterService(this, model);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(final Predicate predicate, ModelNode model, HttpHandler next) {
+        HttpHandler handler = createHttpHandler(createRequestLimit(model), model, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    RequestLimit createRequestLimit(ModelNode model) {
+        return new RequestLimit(model.get(MAX_CONCURRENT_REQUESTS.getName()).asInt(), model.get(QUEUE_SIZE.getName()).asInt(), model.get(QUEUE_TIMEOUT.getName()).asLong());
+    }
+
+    HttpHandler createHttpHandler(RequestLimit limit, ModelNode model, HttpHandler next) {
+        return new RequestLimitHandler(limit, parsePredicate(model.get(PRIORITY_PREDICATE.getName())), parsePredicate(model.get(BYPASS_PREDICATE.getName())), next);
+    }
+
+    private static Predicate parsePredicate(ModelNode predicate) {
+        return predicate.isDefined() ? PredicateParser.parse(predicate.asString(), RequestLimitFilter.class.getClassLoader()) : null;
+    }
+
+    static class RequestLimitMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final RequestLimitMetricsHandler INSTANCE = new RequestLimitMetricsHandler();
+
+        private RequestLimitMetricsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+            final String metric = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            long value = 0;
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(name));
+            final RequestLimit limit = ((controller != null) && (controller.getState() == ServiceController.State.UP)) ? ((RequestLimitFilterService) controller.getValue()).getRequestLimit() : null;
+            if (limit != null) {
+                if (metric.equals(ACTIVE_REQUESTS.getName())) {
+                    value = limit.getActiveRequests();
+                } else if (metric.equals(QUEUED_REQUESTS.getName())) {
+                    value = limit.getQueuedRequests();
+                } else if (metric.equals(REJECTED_REQUESTS.getName())) {
+                    value = limit.getRejectedRequests();
+                } else if (metric.equals(TIMED_OUT_REQUESTS.getName())) {
+                    value = limit.getTimedOutRequests();
+                } else if (metric.equals(QUEUE_TIME_MEAN.getName())) {
+                    value = limit.getQueueTime().getMean();
+                } else if (metric.equals(QUEUE_TIME_P99.getName())) {
+                    value = limit.getQueueTime().getPercentile(0.99);
+                } else if (metric.equals(QUEUE_TIME_MAX.getName())) {
+                    value = limit.getQueueTime().getMax();
+                } else {
+                    context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metric));
+                    context.stepCompleted();
+                    return;
+                }
+            }
+            context.getResult().set(value);
+            context.stepCompleted();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service of a request limiting filter, whose limit is shared by all references to the filter.
+ */
+public class RequestLimitFilterService extends FilterService {
+    private final RequestLimitFilter filter;
+    private final ModelNode model;
+    private volatile RequestLimit limit;
+
+    RequestLimitFilterService(RequestLimitFilter filter, ModelNode model) {
+        super(filter, model);
+        this.filter = filter;
+        this.model = model;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        this.limit = this.filter.createRequestLimit(this.model);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.limit = null;
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+        HttpHandler handler = this.filter.createHttpHandler(this.limit, this.model, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    public RequestLimit getRequestLimit() {
+        return this.limit;
+    }
+}
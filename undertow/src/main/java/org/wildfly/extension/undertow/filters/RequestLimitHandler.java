@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * Subjects requests to a {@link RequestLimit}, possibly shared with other handlers.
+ * Requests matching the bypass predicate are never limited; requests matching the priority predicate are queued ahead of others.
+ */
+public class RequestLimitHandler implements HttpHandler {
+
+    private final RequestLimit limit;
+    private final Predicate priority;
+    private final Predicate bypass;
+    private final HttpHandler next;
+
+    public RequestLimitHandler(RequestLimit limit, Predicate priority, Predicate bypass, HttpHandler next) {
+        this.limit = limit;
+        this.priority = priority;
+        this.bypass = bypass;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if ((this.bypass != null) && this.bypass.resolve(exchange)) {
+            this.next.handleRequest(exchange);
+        } else {
+            this.limit.handleRequest(exchange, this.next, (this.priority != null) && this.priority.resolve(exchange));
+        }
+    }
+}
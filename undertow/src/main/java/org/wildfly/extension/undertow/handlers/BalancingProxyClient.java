@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.Cookie;
+import io.undertow.server.handlers.proxy.ExclusivityChecker;
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.server.handlers.proxy.ProxyCallback;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import io.undertow.server.handlers.proxy.ProxyConnection;
+import org.jboss.msc.inject.InjectionException;
+import org.jboss.msc.inject.Injector;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Proxy client that balances requests across backends using a {@link BalancingStrategy}, honouring sticky sessions,
+ * and optionally checking the health of its backends periodically.
+ * Health checks run on the injected server executor, from injection until uninjection, i.e. while the handler service is up.
+ */
+public class BalancingProxyClient implements ProxyClient, Injector<ExecutorService> {
+
+    private final ExclusivityChecker exclusivityChecker;
+    private final BalancingStrategy strategy;
+    private final int connectionsPerThread;
+    private final int problemServerRetry;
+    private final int unhealthyThreshold;
+    private final String healthCheckPath;
+    private final long healthCheckInterval;
+    private final List<String> sessionCookieNames = new CopyOnWriteArrayList<>();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    // Copy on write, modified while holding the monitor of this object
+    private volatile List<ProxyBackend> backends = Collections.emptyList();
+    // Counted down to stop the current health checker
+    private volatile CountDownLatch healthCheckStop = null;
+
+    /**
+     * @param problemServerRetry the time in seconds before a backend failing to connect, or an ejected backend if health checks are disabled, is retried
+     * @param unhealthyThreshold the number of consecutive connection or health check failures after which a backend is ejected
+     * @param healthCheckPath the path of the health check resource of backends, or null to disable health checks
+     * @param healthCheckInterval the interval between health checks, in milliseconds
+     */
+    public BalancingProxyClient(ExclusivityChecker exclusivityChecker, BalancingStrategy strategy, int connectionsPerThread, int problemServerRetry, int unhealthyThreshold, String healthCheckPath, long healthCheckInterval) {
+        this.exclusivityChecker = exclusivityChecker;
+        this.strategy = strategy;
+        this.connectionsPerThread = connectionsPerThread;
+        this.problemServerRetry = problemServerRetry;
+        this.unhealthyThreshold = unhealthyThreshold;
+        this.healthCheckPath = healthCheckPath;
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public BalancingProxyClient addSessionCookieName(String name) {
+        this.sessionCookieNames.add(name);
+        return this;
+    }
+
+    public synchronized void addHost(URI uri, String instanceId) {
+        LoadBalancingProxyClient client = new LoadBalancingProxyClient(this.exclusivityChecker)
+                .setConnectionsPerThread(this.connectionsPerThread)
+                .setProblemServerRetry(this.problemServerRetry);
+        client.addHost(uri, instanceId);
+        ProxyBackend backend = new ProxyBackend(uri, instanceId, client, this.unhealthyThreshold, TimeUnit.SECONDS.toNanos(this.problemServerRetry));
+        List<ProxyBackend> backends = new ArrayList<>(this.backends);
+        backends.add(backend);
+        this.backends = Collections.unmodifiableList(backends);
+    }
+
+    public synchronized void removeHost(URI uri) {
+        List<ProxyBackend> backends = new ArrayList<>(this.backends);
+        for (ProxyBackend backend : this.backends) {
+            if (backend.getUri().equals(uri)) {
+                backends.remove(backend);
+            }
+        }
+        this.backends = Collections.unmodifiableList(backends);
+    }
+
+    /**
+     * Indicates whether the backends of this client are checked periodically, in which case it requires an executor.
+     */
+    public boolean isHealthCheckEnabled() {
+        return this.healthCheckPath != null;
+    }
+
+    @Override
+    public synchronized void inject(ExecutorService executor) throws InjectionException {
+        if (!this.isHealthCheckEnabled()) return;
+        final CountDownLatch stop = new CountDownLatch(1);
+        this.healthCheckStop = stop;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (!stop.await(BalancingProxyClient.this.healthCheckInterval, TimeUnit.MILLISECONDS)) {
+                        for (ProxyBackend backend : BalancingProxyClient.this.backends) {
+                            if (stop.getCount() == 0) return;
+                            check(backend);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void uninject() {
+        CountDownLatch stop = this.healthCheckStop;
+        if (stop != null) {
+            this.healthCheckStop = null;
+            stop.countDown();
+        }
+    }
+
+    public ProxyBackend getBackend(URI uri) {
+        for (ProxyBackend backend : this.backends) {
+            if (backend.getUri().equals(uri)) {
+                return backend;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ProxyTarget findTarget(HttpServerExchange exchange) {
+        List<ProxyBackend> backends = this.backends;
+        if (backends.isEmpty()) {
+            return null;
+        }
+        // Ejected backends are retried passively, unless health checks recover them
+        boolean passiveRecovery = (this.healthCheckPath == null);
+        ProxyBackend sticky = this.findStickyBackend(exchange, backends, passiveRecovery);
+        if (sticky != null) {
+            return sticky;
+        }
+        int available = 0;
+        for (ProxyBackend backend : backends) {
+            if (backend.isAvailable(passiveRecovery)) {
+                available += 1;
+            }
+        }
+        if (available == backends.size() || available == 0) {
+            // If all backends were ejected, balance across all of them rather than rejecting every request
+            return this.strategy.select(backends, this.counter);
+        }
+        List<ProxyBackend> candidates = new ArrayList<>(available);
+        for (ProxyBackend backend : backends) {
+            if (backend.isAvailable(passiveRecovery)) {
+                candidates.add(backend);
+            }
+        }
+        return this.strategy.select(candidates, this.counter);
+    }
+
+    private ProxyBackend findStickyBackend(HttpServerExchange exchange, List<ProxyBackend> backends, boolean passiveRecovery) {
+        for (String name : this.sessionCookieNames) {
+            Cookie cookie = exchange.getRequestCookies().get(name);
+            if (cookie != null) {
+                String sessionId = cookie.getValue();
+                int index = sessionId.indexOf('.');
+                if (index >= 0) {
+                    String route = sessionId.substring(index + 1);
+                    for (ProxyBackend backend : backends) {
+                        if (route.equals(backend.getInstanceId()) && backend.isAvailable(passiveRecovery)) {
+                            return backend;
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void getConnection(ProxyTarget target, HttpServerExchange exchange, ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
+        ((ProxyBackend) target).getConnection(exchange, callback, timeout, timeUnit);
+    }
+
+    void check(ProxyBackend backend) {
+        URI uri = backend.getUri();
+        int timeout = (int) Math.min(this.healthCheckInterval, Integer.MAX_VALUE);
+        try {
+            String scheme = uri.getScheme();
+            if ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) {
+                HttpURLConnection connection = (HttpURLConnection) uri.resolve(this.healthCheckPath).toURL().openConnection();
+                connection.setConnectTimeout(timeout);
+                connection.setReadTimeout(timeout);
+                connection.setUseCaches(false);
+                connection.setInstanceFollowRedirects(false);
+                try {
+                    int status = connection.getResponseCode();
+                    if (status >= 200 && status < 400) {
+                        backend.succeeded();
+                    } else {
+                        UndertowLogger.ROOT_LOGGER.debugf("Health check of %s returned status %d", uri, status);
+                        backend.checkFailed();
+                    }
+                } finally {
+                    connection.disconnect();
+                }
+            } else {
+                // Protocols other than HTTP, e.g. AJP, are checked by connecting to the backend
+                try (Socket socket = new Socket()) {
+                    int port = (uri.getPort() >= 0) ? uri.getPort() : ("ajp".equalsIgnoreCase(scheme) ? 8009 : 80);
+                    socket.connect(new InetSocketAddress(uri.getHost(), port), timeout);
+                }
+                backend.succeeded();
+            }
+        } catch (IOException | RuntimeException e) {
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Health check of %s failed", uri);
+            backend.checkFailed();
+        }
+    }
+}
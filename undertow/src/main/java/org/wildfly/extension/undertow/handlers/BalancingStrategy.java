@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strategies for selecting the backend of a proxied request.
+ */
+public enum BalancingStrategy {
+    /**
+     * Backends are selected in turn.
+     */
+    ROUND_ROBIN {
+        @Override
+        ProxyBackend select(List<ProxyBackend> backends, AtomicInteger counter) {
+            return backends.get((counter.getAndIncrement() & Integer.MAX_VALUE) % backends.size());
+        }
+    },
+    /**
+     * Of two randomly chosen backends, the one with fewer active requests is selected.
+     */
+    LEAST_OUTSTANDING_REQUESTS {
+        @Override
+        ProxyBackend select(List<ProxyBackend> backends, AtomicInteger counter) {
+            return selectTwoRandomChoices(backends, false);
+        }
+    },
+    /**
+     * Of two randomly chosen backends, the one with the lowest exponentially weighted moving average of latency,
+     * weighted by its active requests, is selected.
+     */
+    EWMA {
+        @Override
+        ProxyBackend select(List<ProxyBackend> backends, AtomicInteger counter) {
+            return selectTwoRandomChoices(backends, true);
+        }
+    },
+    ;
+
+    /**
+     * Selects a backend.
+     * @param backends a non-empty list of backends
+     * @param counter a counter shared by all selections of a proxy
+     * @return a backend
+     */
+    abstract ProxyBackend select(List<ProxyBackend> backends, AtomicInteger counter);
+
+    // Choosing the better of 2 random backends avoids all proxy threads herding onto the same least loaded backend
+    static ProxyBackend selectTwoRandomChoices(List<ProxyBackend> backends, boolean latency) {
+        int size = backends.size();
+        if (size == 1) {
+            return backends.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second += 1;
+        }
+        ProxyBackend a = backends.get(first);
+        ProxyBackend b = backends.get(second);
+        return (load(a, latency) <= load(b, latency)) ? a : b;
+    }
+
+    private static double load(ProxyBackend backend, boolean latency) {
+        int active = backend.getActiveRequests();
+        return latency ? backend.getLatencyEwma() * (active + 1) : active;
+    }
+
+    @Override
+    public String toString() {
+        return this.name().toLowerCase(Locale.ENGLISH).replace('_', '-');
+    }
+
+    public static BalancingStrategy forName(String name) {
+        return valueOf(name.toUpperCase(Locale.ENGLISH).replace('-', '_'));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.handlers.cache.LRUCache;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+
+/**
+ * {@link ResourceManager} decorator, placed beneath a caching resource manager, that counts the hits and misses of that cache.
+ * Lookups made through the {@link #countLookups(ResourceManager)} view of the caching resource manager are classified
+ * by whether or not they reached this resource manager: those that did are misses, the others are hits.
+ * A miss on a path that was recently loaded means that its cache entry was evicted or invalidated in the meantime.
+ * Lookups of missing resources are not counted.
+ */
+class CountingResourceManager implements ResourceManager {
+
+    private final ResourceManager manager;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    // Recently loaded paths, bounded so that reloads are only detected within this window
+    private final LRUCache<String, Boolean> loaded;
+    // Set if the current thread's lookup reached this resource manager
+    private final ThreadLocal<Boolean> loading = new ThreadLocal<>();
+
+    CountingResourceManager(ResourceManager manager, int history) {
+        this.manager = manager;
+        this.loaded = new LRUCache<>(history, -1);
+    }
+
+    /**
+     * Returns a view of the specified caching resource manager, whose lookups are counted as hits or misses.
+     * @param cache a caching resource manager that delegates to this resource manager
+     * @return a counting view of the caching resource manager
+     */
+    ResourceManager countLookups(final ResourceManager cache) {
+        return new ResourceManager() {
+            @Override
+            public Resource getResource(String path) throws IOException {
+                CountingResourceManager.this.loading.remove();
+                try {
+                    Resource resource = cache.getResource(path);
+                    if (resource != null) {
+                        if (CountingResourceManager.this.loading.get() != null) {
+                            CountingResourceManager.this.misses.incrementAndGet();
+                        } else {
+                            CountingResourceManager.this.hits.incrementAndGet();
+                        }
+                    }
+                    return resource;
+                } finally {
+                    CountingResourceManager.this.loading.remove();
+                }
+            }
+
+            @Override
+            public boolean isResourceChangeListenerSupported() {
+                return cache.isResourceChangeListenerSupported();
+            }
+
+            @Override
+            public void registerResourceChangeListener(ResourceChangeListener listener) {
+                cache.registerResourceChangeListener(listener);
+            }
+
+            @Override
+            public void removeResourceChangeListener(ResourceChangeListener listener) {
+                cache.removeResourceChangeListener(listener);
+            }
+
+            @Override
+            public void close() throws IOException {
+                cache.close();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of counted lookups that found a resource without loading it.
+     * @return a number of cache hits
+     */
+    long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the number of counted lookups that found a resource by loading it.
+     * @return a number of cache misses
+     */
+    long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * Returns the number of loads of a path that was recently loaded by this resource manager.
+     * @return a number of repeated loads
+     */
+    long getReloadCount() {
+        return this.reloads.get();
+    }
+
+    @Override
+    public Resource getResource(String path) throws IOException {
+        this.loading.set(Boolean.TRUE);
+        Resource resource = this.manager.getResource(path);
+        if (resource != null) {
+            if (this.loaded.get(path) != null) {
+                this.reloads.incrementAndGet();
+            } else {
+                this.loaded.add(path, Boolean.TRUE);
+            }
+        }
+        return resource;
+    }
+
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return this.manager.isResourceChangeListenerSupported();
+    }
+
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        this.manager.registerResourceChangeListener(listener);
+    }
+
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        this.manager.removeResourceChangeListener(listener);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.manager.close();
+    }
+}
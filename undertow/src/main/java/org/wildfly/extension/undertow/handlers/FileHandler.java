@@ -27,15 +27,22 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import io.undertow.server.HttpHandler;
-import io.undertow.server.handlers.resource.FileResourceManager;
-import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.BufferCacheService;
 import org.wildfly.extension.undertow.Constants;
+import org.wildfly.extension.undertow.UndertowService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 /**
@@ -45,7 +52,7 @@ public class FileHandler extends Handler {
 
     public static final FileHandler INSTANCE = new FileHandler();
 
-    /*<file path="/opt/data" cache-buffer-size="1024" cache-buffers="1024"/>*/
+    /*<file path="/opt/data" cache-buffer-size="1024" cache-buffers="1024" buffer-cache="default" precompressed="true"/>*/
     public static final AttributeDefinition PATH = new SimpleAttributeDefinitionBuilder(Constants.PATH, ModelType.STRING)
             .setAllowNull(true)
             .setAllowExpression(true)
@@ -66,24 +73,95 @@ public class FileHandler extends Handler {
             .setDefaultValue(new ModelNode(false))
             .build();
 
+    public static final AttributeDefinition BUFFER_CACHE = new SimpleAttributeDefinitionBuilder(Constants.BUFFER_CACHE, ModelType.STRING)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .build();
+    public static final AttributeDefinition PRECOMPRESSED = new SimpleAttributeDefinitionBuilder(Constants.PRECOMPRESSED, ModelType.BOOLEAN)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
+    static final AttributeDefinition CACHE_HITS = new SimpleAttributeDefinitionBuilder("cache-hits", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition CACHE_MISSES = new SimpleAttributeDefinitionBuilder("cache-misses", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition CACHE_RELOADS = new SimpleAttributeDefinitionBuilder("cache-reloads", ModelType.LONG, true).setStorageRuntime().build();
+
+    // Matches the default buffers-per-region of a buffer-cache
+    private static final int BUFFERS_PER_REGION = 1024;
+
     private FileHandler() {
         super(Constants.FILE);
     }
 
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING);
+        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, BUFFER_CACHE, PRECOMPRESSED);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : Arrays.asList(CACHE_HITS, CACHE_MISSES, CACHE_RELOADS)) {
+            resourceRegistration.registerMetric(metric, FileHandlerMetricsHandler.INSTANCE);
+        }
     }
 
     @Override
     public HttpHandler createHandler(final OperationContext context, ModelNode model) throws OperationFailedException {
         String path = PATH.resolveModelAttribute(context, model).asString();
         boolean directoryListing = DIRECTORY_LISTING.resolveModelAttribute(context, model).asBoolean();
+        boolean precompressed = PRECOMPRESSED.resolveModelAttribute(context, model).asBoolean();
         UndertowLogger.ROOT_LOGGER.creatingFileHandler(path);
-        FileResourceManager resourceManager = new FileResourceManager(new File(path), 1024 * 1024);
-        ResourceHandler handler = new ResourceHandler();
-        handler.setResourceManager(resourceManager);
-        handler.setDirectoryListingEnabled(directoryListing);
+        StaticContentHandler handler = new StaticContentHandler(new File(path), directoryListing, precompressed);
+        if (!BUFFER_CACHE.resolveModelAttribute(context, model).isDefined()) {
+            // No shared buffer cache, so create one sized via our cache-buffer-size and cache-buffers attributes
+            long bufferSize = CACHE_BUFFER_SIZE.resolveModelAttribute(context, model).asLong();
+            long buffers = CACHE_BUFFERS.resolveModelAttribute(context, model).asLong();
+            int maxMemory = (int) Math.min(bufferSize * buffers, Integer.MAX_VALUE);
+            handler.inject(new DirectBufferCache((int) bufferSize, (int) Math.min(buffers, BUFFERS_PER_REGION), maxMemory));
+        }
         return handler;
     }
+
+    @Override
+    void addDependencies(final OperationContext context, ModelNode model, HttpHandler handler, ServiceBuilder<HttpHandler> builder) throws OperationFailedException {
+        ModelNode bufferCache = BUFFER_CACHE.resolveModelAttribute(context, model);
+        if (bufferCache.isDefined()) {
+            builder.addDependency(BufferCacheService.SERVICE_NAME.append(bufferCache.asString()), DirectBufferCache.class, (StaticContentHandler) handler);
+        }
+    }
+
+    static class FileHandlerMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final FileHandlerMetricsHandler INSTANCE = new FileHandlerMetricsHandler();
+
+        private FileHandlerMetricsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+            final String metric = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            long value = 0;
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.HANDLER.append(name));
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                final StaticContentHandler handler = (StaticContentHandler) controller.getValue();
+                if (metric.equals(CACHE_HITS.getName())) {
+                    value = handler.getCacheHits();
+                } else if (metric.equals(CACHE_MISSES.getName())) {
+                    value = handler.getCacheMisses();
+                } else if (metric.equals(CACHE_RELOADS.getName())) {
+                    value = handler.getCacheReloads();
+                } else {
+                    context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metric));
+                    context.stepCompleted();
+                    return;
+                }
+            }
+            context.getResult().set(value);
+            context.stepCompleted();
+        }
+    }
 }
@@ -36,6 +36,7 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.UndertowExtension;
 import org.wildfly.extension.undertow.UndertowService;
@@ -69,4 +70,11 @@ abstract class Handler extends PersistentResourceDefinition {
     }
 
     abstract HttpHandler createHandler(final OperationContext context, ModelNode model) throws OperationFailedException;
+
+    /**
+     * Adds any dependencies required by a handler created via {@link #createHandler(OperationContext, ModelNode)} to the builder of its service.
+     */
+    void addDependencies(final OperationContext context, ModelNode model, HttpHandler handler, ServiceBuilder<HttpHandler> builder) throws OperationFailedException {
+        // No dependencies by default
+    }
 }
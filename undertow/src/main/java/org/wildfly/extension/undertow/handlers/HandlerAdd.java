@@ -26,12 +26,14 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 
 import java.util.List;
 
+import io.undertow.server.HttpHandler;
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.undertow.UndertowService;
@@ -52,10 +54,12 @@ class HandlerAdd extends AbstractAddStepHandler {
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final String name = address.getLastElement().getValue();
 
-        final HandlerService service = new HandlerService(handler.createHandler(context, model));
+        final HttpHandler httpHandler = handler.createHandler(context, model);
+        final HandlerService service = new HandlerService(httpHandler);
         final ServiceTarget target = context.getServiceTarget();
-        newControllers.add(target.addService(UndertowService.HANDLER.append(name), service)
-                .setInitialMode(ServiceController.Mode.ON_DEMAND)
-                .install());
+        final ServiceBuilder<HttpHandler> builder = target.addService(UndertowService.HANDLER.append(name), service)
+                .setInitialMode(ServiceController.Mode.ON_DEMAND);
+        handler.addDependencies(context, model, httpHandler, builder);
+        newControllers.add(builder.install());
     }
 }
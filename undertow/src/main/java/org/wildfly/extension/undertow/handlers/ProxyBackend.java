@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.server.handlers.proxy.ProxyCallback;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import io.undertow.server.handlers.proxy.ProxyConnection;
+
+/**
+ * A backend server of a {@link BalancingProxyClient}, tracking its load, latency and health.
+ * Connections to the backend are pooled by a dedicated single host {@link LoadBalancingProxyClient}.
+ * A backend is ejected after a number of consecutive connection failures, and recovers either upon a successful health check,
+ * or, if the proxy does not perform health checks, once the problem server retry interval elapsed.
+ */
+public class ProxyBackend implements ProxyClient.ProxyTarget {
+
+    // Weight of a new latency sample in the moving average
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final URI uri;
+    private final String instanceId;
+    private final LoadBalancingProxyClient client;
+    private final int unhealthyThreshold;
+    private final long retryNanos;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // Double bits of the moving average of latency, in microseconds
+    private final AtomicLong latencyEwma = new AtomicLong(Double.doubleToLongBits(0));
+    private volatile boolean healthy = true;
+    private volatile long ejectedAt;
+
+    ProxyBackend(URI uri, String instanceId, LoadBalancingProxyClient client, int unhealthyThreshold, long retryNanos) {
+        this.uri = uri;
+        this.instanceId = instanceId;
+        this.client = client;
+        this.unhealthyThreshold = unhealthyThreshold;
+        this.retryNanos = retryNanos;
+    }
+
+    public URI getUri() {
+        return this.uri;
+    }
+
+    public String getInstanceId() {
+        return this.instanceId;
+    }
+
+    /**
+     * Indicates whether this backend may receive requests.
+     * @param passiveRecovery whether an ejected backend becomes available again once the retry interval elapsed
+     */
+    boolean isAvailable(boolean passiveRecovery) {
+        return this.healthy || (passiveRecovery && (System.nanoTime() - this.ejectedAt >= this.retryNanos));
+    }
+
+    void getConnection(HttpServerExchange exchange, ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
+        ProxyClient.ProxyTarget target = this.client.findTarget(exchange);
+        if (target == null) {
+            this.failed();
+            callback.couldNotResolveBackend(exchange);
+            return;
+        }
+        this.active.incrementAndGet();
+        this.requests.incrementAndGet();
+        this.client.getConnection(target, exchange, new ProxiedRequest(callback), timeout, timeUnit);
+    }
+
+    void succeeded() {
+        if (this.consecutiveFailures.get() != 0) {
+            this.consecutiveFailures.set(0);
+        }
+        if (!this.healthy) {
+            this.healthy = true;
+        }
+    }
+
+    /**
+     * Records a failure to connect to this backend, ejecting it once the number of consecutive failures reaches the unhealthy threshold.
+     */
+    void failed() {
+        this.errors.incrementAndGet();
+        if (this.consecutiveFailures.incrementAndGet() >= this.unhealthyThreshold) {
+            this.eject();
+        }
+    }
+
+    /**
+     * Records a failed health check of this backend.
+     */
+    void checkFailed() {
+        if (this.consecutiveFailures.incrementAndGet() >= this.unhealthyThreshold) {
+            this.eject();
+        }
+    }
+
+    private void eject() {
+        // Reset the retry interval even if already ejected, e.g. following a failed passive recovery attempt
+        this.ejectedAt = System.nanoTime();
+        if (this.healthy) {
+            this.healthy = false;
+            this.ejections.incrementAndGet();
+        }
+    }
+
+    private void recordLatency(long micros) {
+        long current = this.latencyEwma.get();
+        while (true) {
+            double average = Double.longBitsToDouble(current);
+            double updated = (average == 0) ? micros : average + EWMA_ALPHA * (micros - average);
+            if (this.latencyEwma.compareAndSet(current, Double.doubleToLongBits(updated))) return;
+            current = this.latencyEwma.get();
+        }
+    }
+
+    public int getActiveRequests() {
+        return this.active.get();
+    }
+
+    public long getRequestCount() {
+        return this.requests.get();
+    }
+
+    /**
+     * Returns the number of requests that could not be forwarded to this backend, or for which it returned a server error.
+     */
+    public long getErrorCount() {
+        return this.errors.get();
+    }
+
+    public long getEjectionCount() {
+        return this.ejections.get();
+    }
+
+    /**
+     * Returns the exponentially weighted moving average of the latency of this backend, in microseconds.
+     */
+    public double getLatencyEwma() {
+        return Double.longBitsToDouble(this.latencyEwma.get());
+    }
+
+    public boolean isHealthy() {
+        return this.healthy;
+    }
+
+    private class ProxiedRequest implements ProxyCallback<ProxyConnection>, ExchangeCompletionListener {
+        private final ProxyCallback<ProxyConnection> callback;
+        private final long start = System.nanoTime();
+
+        ProxiedRequest(ProxyCallback<ProxyConnection> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void completed(HttpServerExchange exchange, ProxyConnection result) {
+            exchange.addExchangeCompleteListener(this);
+            this.callback.completed(exchange, result);
+        }
+
+        @Override
+        public void failed(HttpServerExchange exchange) {
+            ProxyBackend.this.active.decrementAndGet();
+            ProxyBackend.this.failed();
+            this.callback.failed(exchange);
+        }
+
+        @Override
+        public void couldNotResolveBackend(HttpServerExchange exchange) {
+            ProxyBackend.this.active.decrementAndGet();
+            ProxyBackend.this.failed();
+            this.callback.couldNotResolveBackend(exchange);
+        }
+
+        @Override
+        public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+            try {
+                ProxyBackend.this.active.decrementAndGet();
+                ProxyBackend.this.recordLatency(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - this.start));
+                // Server errors do not eject the backend, as they are typically application errors
+                if (exchange.getResponseCode() >= 500) {
+                    ProxyBackend.this.errors.incrementAndGet();
+                }
+                ProxyBackend.this.succeeded();
+            } finally {
+                nextListener.proceed();
+            }
+        }
+    }
+}
@@ -26,7 +26,6 @@ import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.ResponseCodeHandler;
 import io.undertow.server.handlers.proxy.ExclusivityChecker;
-import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
 import io.undertow.server.handlers.proxy.ProxyHandler;
 import io.undertow.util.Headers;
 import org.jboss.as.controller.AttributeDefinition;
@@ -34,8 +33,14 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceBuilder;
 import org.wildfly.extension.undertow.Constants;
 
 import java.util.Arrays;
@@ -74,6 +79,33 @@ public class ReverseProxyHandler extends Handler {
             .setDefaultValue(new ModelNode(-1))
             .build();
 
+    public static final AttributeDefinition BALANCING_STRATEGY = new SimpleAttributeDefinitionBuilder(Constants.BALANCING_STRATEGY, ModelType.STRING)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setValidator(new EnumValidator<>(BalancingStrategy.class, true, true))
+            .setDefaultValue(new ModelNode(BalancingStrategy.ROUND_ROBIN.toString()))
+            .build();
+
+    public static final AttributeDefinition UNHEALTHY_THRESHOLD = new SimpleAttributeDefinitionBuilder(Constants.UNHEALTHY_THRESHOLD, ModelType.INT)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(3))
+            .build();
+
+    public static final AttributeDefinition HEALTH_CHECK_PATH = new SimpleAttributeDefinitionBuilder(Constants.HEALTH_CHECK_PATH, ModelType.STRING)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .build();
+
+    public static final AttributeDefinition HEALTH_CHECK_INTERVAL = new SimpleAttributeDefinitionBuilder(Constants.HEALTH_CHECK_INTERVAL, ModelType.LONG)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(10000L))
+            .build();
+
     public static final ReverseProxyHandler INSTANCE = new ReverseProxyHandler();
 
     private ReverseProxyHandler() {
@@ -82,7 +114,7 @@ public class ReverseProxyHandler extends Handler {
 
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return Arrays.asList(CONNECTIONS_PER_THREAD, SESSION_COOKIE_NAMES, PROBLEM_SERVER_RETRY);
+        return Arrays.asList(CONNECTIONS_PER_THREAD, SESSION_COOKIE_NAMES, PROBLEM_SERVER_RETRY, BALANCING_STRATEGY, UNHEALTHY_THRESHOLD, HEALTH_CHECK_PATH, HEALTH_CHECK_INTERVAL);
     }
 
     @Override
@@ -97,16 +129,18 @@ public class ReverseProxyHandler extends Handler {
         int connectionsPerThread = CONNECTIONS_PER_THREAD.resolveModelAttribute(context, model).asInt();
         int problemServerRetry = PROBLEM_SERVER_RETRY.resolveModelAttribute(context, model).asInt();
         int maxTime = MAX_REQUEST_TIME.resolveModelAttribute(context, model).asInt();
+        BalancingStrategy strategy = BalancingStrategy.forName(BALANCING_STRATEGY.resolveModelAttribute(context, model).asString());
+        int unhealthyThreshold = UNHEALTHY_THRESHOLD.resolveModelAttribute(context, model).asInt();
+        ModelNode healthCheckPath = HEALTH_CHECK_PATH.resolveModelAttribute(context, model);
+        long healthCheckInterval = HEALTH_CHECK_INTERVAL.resolveModelAttribute(context, model).asLong();
 
-        final LoadBalancingProxyClient lb = new LoadBalancingProxyClient(new ExclusivityChecker() {
+        final BalancingProxyClient lb = new BalancingProxyClient(new ExclusivityChecker() {
             @Override
             public boolean isExclusivityRequired(HttpServerExchange exchange) {
                 //we always create a new connection for upgrade requests
                 return exchange.getRequestHeaders().contains(Headers.UPGRADE);
             }
-        })
-                .setConnectionsPerThread(connectionsPerThread)
-                .setProblemServerRetry(problemServerRetry);
+        }, strategy, connectionsPerThread, problemServerRetry, unhealthyThreshold, healthCheckPath.isDefined() ? healthCheckPath.asString() : null, healthCheckInterval);
         String[] sessionIds = sessionCookieNames.split(",");
         for (String id : sessionIds) {
             lb.addSessionCookieName(id);
@@ -115,4 +149,13 @@ public class ReverseProxyHandler extends Handler {
         ProxyHandler handler = new ProxyHandler(lb, maxTime, ResponseCodeHandler.HANDLE_404);
         return handler;
     }
+
+    @Override
+    void addDependencies(final OperationContext context, ModelNode model, HttpHandler handler, ServiceBuilder<HttpHandler> builder) throws OperationFailedException {
+        BalancingProxyClient client = (BalancingProxyClient) ((ProxyHandler) handler).getProxyClient();
+        if (client.isHealthCheckEnabled()) {
+            // Health checks block, so they run on the server executor, and stop along with the handler service
+            Services.addServerExecutorDependency(builder, client, false);
+        }
+    }
 }
@@ -22,9 +22,9 @@
 
 package org.wildfly.extension.undertow.handlers;
 
-import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
 import io.undertow.server.handlers.proxy.ProxyHandler;
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -34,6 +34,7 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -50,9 +51,11 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.UndertowExtension;
 import org.wildfly.extension.undertow.UndertowService;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -73,6 +76,13 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
             .build();
 
 
+    static final AttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT, true).setStorageRuntime().build();
+    static final AttributeDefinition REQUEST_COUNT = new SimpleAttributeDefinitionBuilder("request-count", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition ERROR_COUNT = new SimpleAttributeDefinitionBuilder("error-count", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition EJECTION_COUNT = new SimpleAttributeDefinitionBuilder("ejection-count", ModelType.LONG, true).setStorageRuntime().build();
+    static final AttributeDefinition LATENCY = new SimpleAttributeDefinitionBuilder("latency", ModelType.LONG, true).setMeasurementUnit(MeasurementUnit.MICROSECONDS).setStorageRuntime().build();
+    static final AttributeDefinition HEALTHY = new SimpleAttributeDefinitionBuilder("healthy", ModelType.BOOLEAN, true).setStorageRuntime().build();
+
     private ReverseProxyHandlerHost() {
         super(PathElement.pathElement(Constants.HOST), UndertowExtension.getResolver(Constants.HANDLER, Constants.REVERSE_PROXY, Constants.HOST));
     }
@@ -83,6 +93,14 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
     }
 
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : Arrays.asList(ACTIVE_REQUESTS, REQUEST_COUNT, ERROR_COUNT, EJECTION_COUNT, LATENCY, HEALTHY)) {
+            resourceRegistration.registerMetric(metric, ReverseProxyHostMetricsHandler.INSTANCE);
+        }
+    }
+
     @Override
     public void registerOperations(ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
@@ -133,6 +151,53 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
         }
     }
 
+    static class ReverseProxyHostMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        static final ReverseProxyHostMetricsHandler INSTANCE = new ReverseProxyHostMetricsHandler();
+
+        private ReverseProxyHostMetricsHandler() {
+        }
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR));
+            final String name = address.getLastElement().getValue();
+            final String proxyName = address.getElement(address.size() - 2).getValue();
+            final String metric = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            ProxyBackend backend = null;
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.HANDLER.append(proxyName));
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                final BalancingProxyClient client = (BalancingProxyClient) ((ProxyHandler) controller.getValue()).getProxyClient();
+                try {
+                    backend = client.getBackend(new URI(name));
+                } catch (URISyntaxException e) {
+                    throw new OperationFailedException(e.getMessage(), e);
+                }
+            }
+            final ModelNode result = new ModelNode();
+            if (metric.equals(ACTIVE_REQUESTS.getName())) {
+                result.set((backend != null) ? backend.getActiveRequests() : 0);
+            } else if (metric.equals(REQUEST_COUNT.getName())) {
+                result.set((backend != null) ? backend.getRequestCount() : 0L);
+            } else if (metric.equals(ERROR_COUNT.getName())) {
+                result.set((backend != null) ? backend.getErrorCount() : 0L);
+            } else if (metric.equals(EJECTION_COUNT.getName())) {
+                result.set((backend != null) ? backend.getEjectionCount() : 0L);
+            } else if (metric.equals(LATENCY.getName())) {
+                result.set((backend != null) ? (long) backend.getLatencyEwma() : 0L);
+            } else if (metric.equals(HEALTHY.getName())) {
+                result.set((backend != null) && backend.isHealthy());
+            } else {
+                context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(metric));
+                context.stepCompleted();
+                return;
+            }
+            context.getResult().set(result);
+            context.stepCompleted();
+        }
+    }
+
     private static final class ReverseProxyHostService implements Service<ReverseProxyHostService> {
 
         private final InjectedValue<ProxyHandler> proxyHandler = new InjectedValue<>();
@@ -147,7 +212,7 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
 
         @Override
         public void start(StartContext startContext) throws StartException {
-            final LoadBalancingProxyClient client = (LoadBalancingProxyClient) proxyHandler.getValue().getProxyClient();
+            final BalancingProxyClient client = (BalancingProxyClient) proxyHandler.getValue().getProxyClient();
             try {
                 client.addHost(new URI(name), instanceId);
             } catch (URISyntaxException e) {
@@ -157,7 +222,7 @@ public class ReverseProxyHandlerHost extends PersistentResourceDefinition {
 
         @Override
         public void stop(StopContext stopContext) {
-            final LoadBalancingProxyClient client = (LoadBalancingProxyClient) proxyHandler.getValue().getProxyClient();
+            final BalancingProxyClient client = (BalancingProxyClient) proxyHandler.getValue().getProxyClient();
             try {
                 client.removeHost(new URI(name));
             } catch (URISyntaxException e) {
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.cache.LRUCache;
+import io.undertow.server.handlers.resource.CachingResourceManager;
+import io.undertow.server.handlers.resource.FileResourceManager;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.inject.InjectionException;
+
+/**
+ * Serves static content from a directory through a {@link CachingResourceManager} backed by a {@link DirectBufferCache}.
+ * If precompression is enabled, requests from clients that accept gzip encoding are served from a ".gz" sibling of the
+ * requested file, if one exists.
+ * Paths known to have no such sibling are remembered for the same period as cached resources, so that requests for them
+ * are neither dispatched to a worker thread nor looked up again.
+ */
+public class StaticContentHandler implements HttpHandler, Injector<DirectBufferCache> {
+
+    static final String GZIP = "gzip";
+    static final String GZIP_SUFFIX = ".gz";
+
+    private static final int METADATA_CACHE_SIZE = 1024;
+    private static final long MAX_CACHED_FILE_SIZE = 10 * 1024 * 1024;
+    // Time in ms before a cached resource is checked for modification
+    private static final int MAX_AGE = 2000;
+    // Number of recently loaded paths remembered in order to detect reloads
+    private static final int LOAD_HISTORY_SIZE = 4 * METADATA_CACHE_SIZE;
+
+    private final File base;
+    private final boolean directoryListing;
+    private final boolean precompressed;
+
+    // Paths without a ".gz" sibling; the caching resource manager only caches resources that exist
+    private final LRUCache<String, Boolean> uncompressed = new LRUCache<>(METADATA_CACHE_SIZE, MAX_AGE);
+
+    private volatile ResourceManager manager;
+    private volatile CountingResourceManager loads;
+    private volatile ResourceHandler handler;
+
+    public StaticContentHandler(File base, boolean directoryListing, boolean precompressed) {
+        this.base = base;
+        this.directoryListing = directoryListing;
+        this.precompressed = precompressed;
+    }
+
+    @Override
+    public void inject(DirectBufferCache cache) throws InjectionException {
+        // Files too large to be cached are transferred directly from the file system
+        CountingResourceManager loads = new CountingResourceManager(new FileResourceManager(this.base, MAX_CACHED_FILE_SIZE), LOAD_HISTORY_SIZE);
+        this.manager = new CachingResourceManager(METADATA_CACHE_SIZE, MAX_CACHED_FILE_SIZE, cache, loads, MAX_AGE);
+        this.loads = loads;
+        ResourceHandler handler = new ResourceHandler();
+        // Only lookups made on behalf of the resource handler are counted
+        handler.setResourceManager(loads.countLookups(this.manager));
+        handler.setDirectoryListingEnabled(this.directoryListing);
+        this.handler = handler;
+    }
+
+    @Override
+    public void uninject() {
+        this.handler = null;
+        this.loads = null;
+        this.manager = null;
+        this.uncompressed.clear();
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        ResourceHandler handler = this.handler;
+        if (handler == null) {
+            exchange.setResponseCode(503);
+            exchange.endExchange();
+            return;
+        }
+        // Only clients accepting gzip are offered the encoded variant, so no other request needs a lookup
+        if (this.precompressed && acceptsGzip(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING))) {
+            String path = exchange.getRelativePath();
+            if (!path.endsWith(GZIP_SUFFIX) && !path.endsWith("/") && (this.uncompressed.get(path) == null)) {
+                if (exchange.isInIoThread()) {
+                    // Resource lookups may block
+                    exchange.dispatch(this);
+                    return;
+                }
+                this.negotiateEncoding(exchange, path);
+            }
+        }
+        handler.handleRequest(exchange);
+    }
+
+    private void negotiateEncoding(HttpServerExchange exchange, String path) throws IOException {
+        ResourceManager manager = this.manager;
+        if (manager == null) return;
+        String encodedPath = path + GZIP_SUFFIX;
+        Resource encoded = manager.getResource(encodedPath);
+        if ((encoded == null) || encoded.isDirectory()) {
+            this.uncompressed.add(path, Boolean.TRUE);
+            return;
+        }
+        Resource resource = manager.getResource(path);
+        if ((resource == null) || resource.isDirectory()) {
+            this.uncompressed.add(path, Boolean.TRUE);
+            return;
+        }
+
+        // The response depends on the request encoding
+        exchange.getResponseHeaders().add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        String contentType = resource.getContentType(MimeMappings.DEFAULT);
+        if (contentType != null) {
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType);
+        }
+        exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+        exchange.setRelativePath(encodedPath);
+    }
+
+    static boolean acceptsGzip(HeaderValues values) {
+        if (values == null) return false;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                String[] parameters = coding.split(";");
+                String name = parameters[0].trim();
+                if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                    return !isZeroQuality(parameters);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; ++i) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2).trim()) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of resource lookups served from the cache.
+     * @return a number of cache hits
+     */
+    public long getCacheHits() {
+        CountingResourceManager loads = this.loads;
+        return (loads != null) ? loads.getHitCount() : 0;
+    }
+
+    /**
+     * Returns the number of resource lookups that had to load the resource from the file system.
+     * @return a number of cache misses
+     */
+    public long getCacheMisses() {
+        CountingResourceManager loads = this.loads;
+        return (loads != null) ? loads.getMissCount() : 0;
+    }
+
+    /**
+     * Returns the number of recently loaded resources that were reloaded from the file system after being evicted from, or invalidated in, the cache.
+     * @return a number of cache reloads
+     */
+    public long getCacheReloads() {
+        CountingResourceManager loads = this.loads;
+        return (loads != null) ? loads.getReloadCount() : 0;
+    }
+}
@@ -301,4 +301,35 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 69, value = "Ignoring shared-session-config in jboss-all.xml in deployment %s. This entry is only valid in top level deployments.")
     void sharedSessionConfigNotInRootDeployment(String deployment);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 70, value = "Failed to write access log %s")
+    void failedToWriteAccessLog(File file, @Cause Throwable cause);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 71, value = "Failed to rotate access log %s")
+    void failedToRotateAccessLog(File file, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 72, value = "Persistent session file %s is corrupt after %d bytes, sessions persisted after that point are lost")
+    void truncatedPersistentSessions(File file, int offset);
+
+    @LogMessage(level = WARN)
+    @Message(id = 73, value = "Failed to persist session %s")
+    void failedToPersistSession(String sessionId, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 74, value = "Failed to precompile %s of deployment %s")
+    void failedToPrecompileJsp(String jsp, String deploymentName, @Cause Throwable cause);
+
+    @LogMessage(level = INFO)
+    @Message(id = 75, value = "Precompiled %d JSPs of deployment %s in %d ms")
+    void precompiledJsps(int count, String deploymentName, long time);
+
+    @LogMessage(level = WARN)
+    @Message(id = 76, value = "Could not use the JSP compilation cache of deployment %s, JSPs will be compiled in its temporary directory")
+    void failedToUseJspCompilationCache(String deploymentName, @Cause Throwable cause);
+
+    @Message(id = 77, value = "Access log attributes %s and %s are only supported by the json and binary formats")
+    String accessLogRotationNotSupported(String rotateSize, String compressRotated);
 }
@@ -0,0 +1,82 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2014, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+package org.wildfly.extension.undertow.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.conduits.AbstractStreamSinkConduit;
+import org.xnio.conduits.StreamSinkConduit;
+
+/**
+ * Response conduit that adds the number of bytes written through it to a counter, as they are written.
+ */
+class ByteCountingStreamSinkConduit extends AbstractStreamSinkConduit<StreamSinkConduit> {
+
+    private final AtomicLong counter;
+
+    ByteCountingStreamSinkConduit(StreamSinkConduit next, AtomicLong counter) {
+        super(next);
+        this.counter = counter;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        return (int) this.count(this.next.write(src));
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offs, int len) throws IOException {
+        return this.count(this.next.write(srcs, offs, len));
+    }
+
+    @Override
+    public int writeFinal(ByteBuffer src) throws IOException {
+        return (int) this.count(this.next.writeFinal(src));
+    }
+
+    @Override
+    public long writeFinal(ByteBuffer[] srcs, int offs, int len) throws IOException {
+        return this.count(this.next.writeFinal(srcs, offs, len));
+    }
+
+    @Override
+    public long transferFrom(FileChannel src, long position, long count) throws IOException {
+        return this.count(this.next.transferFrom(src, position, count));
+    }
+
+    @Override
+    public long transferFrom(StreamSourceChannel source, long count, ByteBuffer throughBuffer) throws IOException {
+        return this.count(this.next.transferFrom(source, count, throughBuffer));
+    }
+
+    private long count(long written) {
+        if (written > 0) {
+            this.counter.addAndGet(written);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2014, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+package org.wildfly.extension.undertow.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.xnio.channels.StreamSinkChannel;
+import org.xnio.conduits.AbstractStreamSourceConduit;
+import org.xnio.conduits.StreamSourceConduit;
+
+/**
+ * Request conduit that adds the number of bytes read through it to a counter, as they are read.
+ */
+class ByteCountingStreamSourceConduit extends AbstractStreamSourceConduit<StreamSourceConduit> {
+
+    private final AtomicLong counter;
+
+    ByteCountingStreamSourceConduit(StreamSourceConduit next, AtomicLong counter) {
+        super(next);
+        this.counter = counter;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        return (int) this.count(this.next.read(dst));
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offs, int len) throws IOException {
+        return this.count(this.next.read(dsts, offs, len));
+    }
+
+    @Override
+    public long transferTo(long position, long count, FileChannel target) throws IOException {
+        return this.count(this.next.transferTo(position, count, target));
+    }
+
+    @Override
+    public long transferTo(long count, ByteBuffer throughBuffer, StreamSinkChannel target) throws IOException {
+        return this.count(this.next.transferTo(count, throughBuffer, target));
+    }
+
+    private long count(long read) {
+        if (read > 0) {
+            this.counter.addAndGet(read);
+        }
+        return read;
+    }
+}
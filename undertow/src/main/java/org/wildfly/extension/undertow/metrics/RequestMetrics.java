@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.undertow.server.ConduitWrapper;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.ConduitFactory;
+import org.xnio.conduits.StreamSinkConduit;
+import org.xnio.conduits.StreamSourceConduit;
+
+/**
+ * Request statistics of a listener, deployment or servlet: a latency histogram, in-flight requests, and bytes received and sent.
+ * All updates are lock-free. Bytes are counted by conduits wrapping the request and response channels, as they are read and written,
+ * so chunked and otherwise undeclared lengths are accounted for.
+ */
+public class RequestMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    final ConduitWrapper<StreamSourceConduit> requestWrapper = new ConduitWrapper<StreamSourceConduit>() {
+        @Override
+        public StreamSourceConduit wrap(ConduitFactory<StreamSourceConduit> factory, HttpServerExchange exchange) {
+            return new ByteCountingStreamSourceConduit(factory.create(), RequestMetrics.this.bytesReceived);
+        }
+    };
+    final ConduitWrapper<StreamSinkConduit> responseWrapper = new ConduitWrapper<StreamSinkConduit>() {
+        @Override
+        public StreamSinkConduit wrap(ConduitFactory<StreamSinkConduit> factory, HttpServerExchange exchange) {
+            return new ByteCountingStreamSinkConduit(factory.create(), RequestMetrics.this.bytesSent);
+        }
+    };
+
+    void requestStarted() {
+        this.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the completion of a request.
+     * @param nanos the latency of the request in nanoseconds, or a negative value if unknown
+     */
+    void requestCompleted(long nanos) {
+        this.inFlight.decrementAndGet();
+        if (nanos >= 0) {
+            this.latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+    }
+
+    /**
+     * Returns the histogram of request latencies, in microseconds.
+     * @return a histogram
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    public long getInFlightRequests() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * Returns the number of request body bytes read.
+     * @return a number of bytes
+     */
+    public long getBytesReceived() {
+        return this.bytesReceived.get();
+    }
+
+    /**
+     * Returns the number of response body bytes written, excluding any transfer coding.
+     * @return a number of bytes
+     */
+    public long getBytesSent() {
+        return this.bytesSent.get();
+    }
+}
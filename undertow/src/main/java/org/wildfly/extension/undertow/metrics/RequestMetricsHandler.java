@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.metrics;
+
+import io.undertow.server.Connectors;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HandlerWrapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+
+/**
+ * Records {@link RequestMetrics} for each request, without allocating per request.
+ * A synchronous handler times the invocation of the next handler, and is meant for handler chains that run to completion
+ * on a single thread, e.g. the servlet handler chain of a deployment.
+ * An asynchronous handler records latency upon exchange completion, based on the request start time, which it records itself
+ * unless the listener already did.
+ * Both count request and response body bytes through wrappers of the request and response channels.
+ */
+public class RequestMetricsHandler implements HttpHandler {
+
+    private final HttpHandler next;
+    private final RequestMetrics metrics;
+    private final ExchangeCompletionListener listener;
+
+    /**
+     * Creates a handler that records metrics upon invocation of the next handler.
+     */
+    public static HandlerWrapper synchronousWrapper(final RequestMetrics metrics) {
+        return new HandlerWrapper() {
+            @Override
+            public HttpHandler wrap(HttpHandler handler) {
+                return new RequestMetricsHandler(handler, metrics, false);
+            }
+        };
+    }
+
+    /**
+     * Creates a handler that records metrics upon completion of the exchange.
+     */
+    public static HandlerWrapper asynchronousWrapper(final RequestMetrics metrics) {
+        return new HandlerWrapper() {
+            @Override
+            public HttpHandler wrap(HttpHandler handler) {
+                return new RequestMetricsHandler(handler, metrics, true);
+            }
+        };
+    }
+
+    private RequestMetricsHandler(HttpHandler next, final RequestMetrics metrics, boolean asynchronous) {
+        this.next = next;
+        this.metrics = metrics;
+        this.listener = asynchronous ? new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                try {
+                    long start = exchange.getRequestStartTime();
+                    metrics.requestCompleted((start > 0) ? System.nanoTime() - start : -1);
+                } finally {
+                    nextListener.proceed();
+                }
+            }
+        } : null;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        this.metrics.requestStarted();
+        exchange.addRequestWrapper(this.metrics.requestWrapper);
+        exchange.addResponseWrapper(this.metrics.responseWrapper);
+        if (this.listener != null) {
+            if (exchange.getRequestStartTime() <= 0) {
+                Connectors.setRequestStartTime(exchange);
+            }
+            exchange.addExchangeCompleteListener(this.listener);
+            this.next.handleRequest(exchange);
+        } else {
+            long start = System.nanoTime();
+            try {
+                this.next.handleRequest(exchange);
+            } finally {
+                this.metrics.requestCompleted(System.nanoTime() - start);
+            }
+        }
+    }
+}
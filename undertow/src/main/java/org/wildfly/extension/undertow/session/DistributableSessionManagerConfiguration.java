@@ -34,4 +34,6 @@ public interface DistributableSessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    boolean isNearCacheEnabled();
 }
@@ -36,20 +36,22 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     private final ReplicationConfig replicationConfig;
     private final String deploymentName;
     private final Module module;
+    private final boolean nearCache;
 
-    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module);
+    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module, boolean nearCache) {
+        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module, nearCache);
     }
 
-    public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String deploymentName, Module module) {
-        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module);
+    public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String deploymentName, Module module, boolean nearCache) {
+        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module, nearCache);
     }
 
-    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module) {
+    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module, boolean nearCache) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
         this.deploymentName = deploymentName;
         this.module = module;
+        this.nearCache = nearCache;
     }
 
     @Override
@@ -76,4 +78,9 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    @Override
+    public boolean isNearCacheEnabled() {
+        return this.nearCache;
+    }
 }
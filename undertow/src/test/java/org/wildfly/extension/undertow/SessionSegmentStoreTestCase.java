@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Stuart Douglas
+ */
+public class SessionSegmentStoreTestCase {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("sessions", ".sessions");
+        this.file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Test
+    public void reopen() throws IOException {
+        Map<String, byte[]> attributes = new HashMap<>();
+        attributes.put("a", new byte[] { 1, 2, 3 });
+        attributes.put("b", new byte[0]);
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            store.write("session1", 1000, attributes);
+            store.write("session2", 2000, Collections.singletonMap("a", new byte[] { 4 }));
+            store.write("session2", 3000, Collections.singletonMap("a", new byte[] { 5 }));
+            store.write("session3", 4000, attributes);
+            store.remove("session3");
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            assertEquals(2, store.getSessionIds().size());
+            assertEquals(1000, store.getExpiry("session1"));
+            assertEquals(3000, store.getExpiry("session2"));
+            assertEquals(0, store.getExpiry("session3"));
+            Map<String, byte[]> read = store.read("session1");
+            assertEquals(2, read.size());
+            assertArrayEquals(new byte[] { 1, 2, 3 }, read.get("a"));
+            assertArrayEquals(new byte[0], read.get("b"));
+            assertArrayEquals(new byte[] { 5 }, store.read("session2").get("a"));
+            assertNull(store.read("session3"));
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        Map<String, byte[]> attributes = Collections.singletonMap("a", new byte[100]);
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            for (int i = 0; i < 100; ++i) {
+                store.write("session" + (i % 2), i, attributes);
+            }
+            store.compact();
+            assertEquals(2, store.getSessionIds().size());
+            assertEquals(98, store.getExpiry("session0"));
+            assertEquals(99, store.getExpiry("session1"));
+            store.write("session2", 100, attributes);
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            assertEquals(3, store.getSessionIds().size());
+            assertEquals(99, store.getExpiry("session1"));
+            assertEquals(100, store.getExpiry("session2"));
+            assertEquals(100, store.read("session2").get("a").length);
+        }
+    }
+
+    @Test
+    public void remapAndClose() throws IOException {
+        Map<String, byte[]> attributes = Collections.singletonMap("a", new byte[64 * 1024]);
+        SessionSegmentStore store = new SessionSegmentStore(this.file);
+        // Exceed the initial mapping several times
+        for (int i = 0; i < 64; ++i) {
+            store.write("session" + i, i, attributes);
+        }
+        assertEquals(64 * 1024, store.read("session0").get("a").length);
+        store.close();
+        // A closed store neither reads nor writes, and may be closed again
+        assertNull(store.read("session0"));
+        try {
+            store.write("session64", 64, attributes);
+            fail("Write to a closed store");
+        } catch (IOException e) {
+            // Expected
+        }
+        store.close();
+
+        try (SessionSegmentStore reopened = new SessionSegmentStore(this.file)) {
+            assertEquals(64, reopened.getSessionIds().size());
+            assertEquals(63, reopened.getExpiry("session63"));
+        }
+    }
+
+    @Test
+    public void corruptTail() throws IOException {
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            store.write("session1", 1000, Collections.singletonMap("a", new byte[] { 1 }));
+            store.write("session2", 2000, Collections.singletonMap("a", new byte[] { 2 }));
+        }
+        // Corrupt the last byte of the second record's checksum
+        try (RandomAccessFile raf = new RandomAccessFile(this.file, "rw")) {
+            int length = raf.readInt();
+            raf.seek(length + 4);
+            int offset = length + 4 + raf.readInt() + 3;
+            raf.seek(offset);
+            int value = raf.read();
+            raf.seek(offset);
+            raf.write(value ^ 0xFF);
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            assertEquals(Collections.singleton("session1"), store.getSessionIds());
+            store.write("session3", 3000, Collections.singletonMap("a", new byte[] { 3 }));
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(this.file)) {
+            assertEquals(2, store.getSessionIds().size());
+            assertTrue(store.getSessionIds().contains("session3"));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import io.undertow.server.HttpServerExchange;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link JsonRecordEncoder} and {@link BinaryRecordEncoder}.
+ */
+public class RecordEncoderTestCase {
+
+    private final List<AccessLogField> fields = Arrays.asList(new TestField("path"), new TestField("status"), new TestField("user"));
+
+    @Test
+    public void json() {
+        RecordEncoder encoder = new JsonRecordEncoder(this.fields, 8);
+        assertEquals(0, encoder.header(this.fields).length);
+
+        encoder.begin();
+        encoder.writeString(0, "/a\"b\\c\n\u00e9\u20ac");
+        encoder.writeLong(1, 200);
+        encoder.writeNull(2);
+        assertEquals("{\"path\":\"/a\\\"b\\\\c\\n\u00e9\u20ac\",\"status\":200,\"user\":null}\n", string(encoder.end()));
+
+        // Encoder is reusable
+        encoder.begin();
+        encoder.writeString(0, "\u0001");
+        encoder.writeLong(1, -1);
+        encoder.writeString(2, "");
+        assertEquals("{\"path\":\"\\u0001\",\"status\":-1,\"user\":\"\"}\n", string(encoder.end()));
+    }
+
+    @Test
+    public void binary() {
+        RecordEncoder encoder = new BinaryRecordEncoder(8);
+
+        ByteBuffer header = ByteBuffer.wrap(encoder.header(this.fields));
+        for (byte b : BinaryRecordEncoder.MAGIC) {
+            assertEquals(b, header.get());
+        }
+        assertEquals(BinaryRecordEncoder.VERSION, header.get());
+        assertEquals(3, header.get());
+        assertEquals(4, header.get());
+        assertEquals("path", string(header, 4));
+
+        encoder.begin();
+        encoder.writeString(0, "/\u00e9");
+        encoder.writeLong(1, 200);
+        encoder.writeNull(2);
+        ByteBuffer record = encoder.end();
+
+        assertEquals(record.remaining() - 4, record.getInt());
+        assertEquals(BinaryRecordEncoder.STRING, record.get());
+        assertEquals(3, record.get());
+        assertEquals("/\u00e9", string(record, 3));
+        assertEquals(BinaryRecordEncoder.LONG, record.get());
+        // Zig-zag encoding of 200 is 400, i.e. 0x190
+        assertEquals((byte) 0x90, record.get());
+        assertEquals(0x03, record.get());
+        assertEquals(BinaryRecordEncoder.NULL, record.get());
+        assertFalse(record.hasRemaining());
+    }
+
+    private static String string(ByteBuffer buffer) {
+        return string(buffer, buffer.remaining());
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static class TestField extends AccessLogField {
+        TestField(String name) {
+            super(name);
+        }
+
+        @Override
+        void write(HttpServerExchange exchange, RecordEncoder encoder, int index) {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.accesslog;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link RecordRing}.
+ */
+public class RecordRingTestCase {
+
+    @Test
+    public void offerAndDrain() {
+        RecordRing ring = new RecordRing(100);
+        assertEquals(128, ring.capacity());
+        assertTrue(ring.isEmpty());
+
+        assertTrue(ring.offer(buffer("first\n")));
+        assertTrue(ring.offer(buffer("second\n")));
+        assertFalse(ring.isEmpty());
+
+        ByteBuffer target = ByteBuffer.allocate(ring.capacity());
+        assertEquals(2, ring.drainTo(target));
+        assertTrue(ring.isEmpty());
+        assertEquals("first\nsecond\n", string(target));
+    }
+
+    @Test
+    public void rejectsWhenFull() {
+        RecordRing ring = new RecordRing(64);
+        // Each record occupies 4 + 26 bytes
+        String record = "abcdefghijklmnopqrstuvwxyz";
+        assertTrue(ring.offer(buffer(record)));
+        assertTrue(ring.offer(buffer(record)));
+        assertFalse(ring.offer(buffer(record)));
+
+        ByteBuffer target = ByteBuffer.allocate(ring.capacity());
+        assertEquals(2, ring.drainTo(target));
+        assertTrue(ring.offer(buffer(record)));
+    }
+
+    @Test
+    public void wrapsAround() {
+        RecordRing ring = new RecordRing(64);
+        ByteBuffer target = ByteBuffer.allocate(ring.capacity());
+        for (int i = 0; i < 100; ++i) {
+            String record = String.format("record-%d;", i);
+            assertTrue(ring.offer(buffer(record)));
+            target.clear();
+            assertEquals(1, ring.drainTo(target));
+            assertEquals(record, string(target));
+        }
+    }
+
+    @Test
+    public void drainStopsAtFullTarget() {
+        RecordRing ring = new RecordRing(64);
+        assertTrue(ring.offer(buffer("0123456789")));
+        assertTrue(ring.offer(buffer("0123456789")));
+
+        ByteBuffer target = ByteBuffer.allocate(15);
+        assertEquals(1, ring.drainTo(target));
+        assertFalse(ring.isEmpty());
+        target.clear();
+        assertEquals(1, ring.drainTo(target));
+        assertTrue(ring.isEmpty());
+    }
+
+    private static ByteBuffer buffer(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(ByteBuffer buffer) {
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import javax.servlet.ServletContext;
+
+import org.junit.Test;
+
+public class JspPrecompilerTestCase {
+
+    @Test
+    public void findJsps() {
+        ServletContext context = mock(ServletContext.class);
+        when(context.getResourcePaths("/")).thenReturn(new HashSet<>(Arrays.asList("/index.jsp", "/WEB-INF/", "/style.css", "/admin/")));
+        when(context.getResourcePaths("/admin/")).thenReturn(new HashSet<>(Arrays.asList("/admin/users.JSP", "/admin/header.jspf", "/admin/view.jspx")));
+        when(context.getResourcePaths("/WEB-INF/")).thenReturn(Collections.singleton("/WEB-INF/views/"));
+        when(context.getResourcePaths("/WEB-INF/views/")).thenReturn(Collections.singleton("/WEB-INF/views/home.jsp"));
+
+        assertEquals(Arrays.asList("/WEB-INF/views/home.jsp", "/admin/users.JSP", "/admin/view.jspx", "/index.jsp"), JspPrecompiler.findJsps(context, "/"));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelDeploymentTasksTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void results() throws Exception {
+        final ClassLoader loader = new ClassLoader() { };
+        ClassLoader old = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader);
+        try {
+            List<ParallelDeploymentTasks.Task<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 100; ++i) {
+                final int value = i;
+                tasks.add(new ParallelDeploymentTasks.Task<Integer>() {
+                    @Override
+                    public Integer execute() {
+                        assertSame(loader, Thread.currentThread().getContextClassLoader());
+                        return value;
+                    }
+                });
+            }
+            List<Integer> results = ParallelDeploymentTasks.execute(this.executor, tasks);
+            assertEquals(100, results.size());
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(i, results.get(i).intValue());
+            }
+            assertEquals(results, ParallelDeploymentTasks.execute(null, tasks));
+        } finally {
+            Thread.currentThread().setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void failure() {
+        List<ParallelDeploymentTasks.Task<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            final int value = i;
+            tasks.add(new ParallelDeploymentTasks.Task<Object>() {
+                @Override
+                public Object execute() throws DeploymentUnitProcessingException {
+                    if (value == 5) {
+                        throw new DeploymentUnitProcessingException("failed");
+                    }
+                    return value;
+                }
+            });
+        }
+        try {
+            ParallelDeploymentTasks.execute(this.executor, tasks);
+            fail();
+        } catch (DeploymentUnitProcessingException e) {
+            assertEquals("failed", e.getMessage());
+        }
+    }
+}
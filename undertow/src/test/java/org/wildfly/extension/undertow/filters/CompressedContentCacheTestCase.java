@@ -0,0 +1,198 @@
+/*
+ *
+ *  JBoss, Home of Professional Open Source.
+ *  Copyright 2014, Red Hat, Inc., and individual contributors
+ *  as indicated by the @author tags. See the copyright.txt file in the
+ *  distribution for a full listing of individual contributors.
+ *
+ *  This is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU Lesser General Public License as
+ *  published by the Free Software Foundation; either version 2.1 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This software is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public
+ *  License along with this software; if not, write to the Free
+ *  Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ *  02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ * /
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import io.undertow.util.DateUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CompressedContentCache}.
+ * @author Tomaz Cerar (c) 2014 Red Hat Inc.
+ */
+public class CompressedContentCacheTestCase {
+
+    private static final long NOW = 1000000000000L;
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        CompressedContentCache cache = new CompressedContentCache(10);
+        HeaderMap request = new HeaderMap();
+        HeaderMap response = response("max-age=60");
+
+        assertTrue(cache.put("/a", request, 200, response, new byte[4], NOW));
+        assertTrue(cache.put("/b", request, 200, response, new byte[4], NOW));
+        assertEquals(8, cache.getSize());
+
+        // Touch a, so that b becomes the least recently used
+        assertNotNull(cache.get("/a", request, NOW));
+
+        assertTrue(cache.put("/c", request, 200, response, new byte[4], NOW));
+        assertEquals(8, cache.getSize());
+        assertEquals(2, cache.getCount());
+        assertNotNull(cache.get("/a", request, NOW));
+        assertNull(cache.get("/b", request, NOW));
+        assertNotNull(cache.get("/c", request, NOW));
+
+        // Entries larger than the cache are never cached
+        assertFalse(cache.put("/d", request, 200, response, new byte[11], NOW));
+        assertEquals(8, cache.getSize());
+    }
+
+    @Test
+    public void expires() {
+        CompressedContentCache cache = new CompressedContentCache(100);
+        HeaderMap request = new HeaderMap();
+
+        assertTrue(cache.put("/a", request, 200, response("max-age=60"), new byte[4], NOW));
+        assertNotNull(cache.get("/a", request, NOW + 59999));
+        assertNull(cache.get("/a", request, NOW + 60000));
+        assertEquals(0, cache.getSize());
+
+        // s-maxage takes precedence over max-age
+        assertTrue(cache.put("/a", request, 200, response("max-age=60, s-maxage=1"), new byte[4], NOW));
+        assertNull(cache.get("/a", request, NOW + 1000));
+
+        // Heuristic freshness from Last-Modified
+        HeaderMap response = response(null);
+        response.put(Headers.DATE, DateUtils.toDateString(new Date(NOW)));
+        response.put(Headers.LAST_MODIFIED, DateUtils.toDateString(new Date(NOW - 100000)));
+        assertTrue(cache.put("/b", request, 200, response, new byte[4], NOW));
+        assertNotNull(cache.get("/b", request, NOW + 9000));
+        assertNull(cache.get("/b", request, NOW + 10000));
+
+        // Without any freshness information, a response is not cached
+        assertFalse(cache.put("/c", request, 200, response(null), new byte[4], NOW));
+    }
+
+    @Test
+    public void varies() {
+        CompressedContentCache cache = new CompressedContentCache(100);
+        HeaderMap request = new HeaderMap();
+        request.put(Headers.ACCEPT_ENCODING, "gzip");
+        request.put(Headers.ACCEPT_LANGUAGE, "en");
+        HeaderMap response = response("max-age=60");
+        response.add(Headers.VARY, "Accept-Encoding, Accept-Language");
+
+        assertTrue(cache.put("/a", request, 200, response, new byte[4], NOW));
+
+        // Accept-Encoding is not compared, since only clients accepting gzip use the cache
+        HeaderMap other = new HeaderMap();
+        other.put(Headers.ACCEPT_ENCODING, "gzip, deflate");
+        other.put(Headers.ACCEPT_LANGUAGE, "en");
+        assertNotNull(cache.get("/a", other, NOW));
+
+        other.put(Headers.ACCEPT_LANGUAGE, "fr");
+        assertNull(cache.get("/a", other, NOW));
+        other.remove(Headers.ACCEPT_LANGUAGE);
+        assertNull(cache.get("/a", other, NOW));
+
+        response.put(Headers.VARY, "*");
+        assertFalse(cache.put("/b", request, 200, response, new byte[4], NOW));
+    }
+
+    @Test
+    public void bypasses() {
+        CompressedContentCache cache = new CompressedContentCache(100);
+        HeaderMap request = new HeaderMap();
+
+        assertFalse(cache.put("/a", request, 404, response("max-age=60"), new byte[4], NOW));
+        assertFalse(cache.put("/a", request, 200, response("private, max-age=60"), new byte[4], NOW));
+        assertFalse(cache.put("/a", request, 200, response("no-store"), new byte[4], NOW));
+        assertFalse(cache.put("/a", request, 200, response("no-cache, max-age=60"), new byte[4], NOW));
+        HeaderMap response = response("max-age=60");
+        response.put(Headers.SET_COOKIE, "JSESSIONID=abc");
+        assertFalse(cache.put("/a", request, 200, response, new byte[4], NOW));
+        assertEquals(0, cache.getCount());
+
+        assertTrue(CompressedContentCache.isCacheable(request));
+        request.put(Headers.CACHE_CONTROL, "no-cache");
+        assertFalse(CompressedContentCache.isCacheable(request));
+        request.remove(Headers.CACHE_CONTROL);
+        request.put(Headers.AUTHORIZATION, "Basic dXNlcjpwYXNz");
+        assertFalse(CompressedContentCache.isCacheable(request));
+    }
+
+    @Test
+    public void retainsRepresentationHeaders() {
+        CompressedContentCache cache = new CompressedContentCache(100);
+        HeaderMap response = response("max-age=60");
+        response.put(Headers.CONTENT_TYPE, "text/css");
+        response.put(Headers.CONTENT_ENCODING, "gzip");
+        response.put(Headers.ETAG, "\"1\"");
+        response.put(Headers.CONTENT_LENGTH, "4");
+        response.put(Headers.DATE, DateUtils.toDateString(new Date(NOW)));
+
+        assertTrue(cache.put("/a", new HeaderMap(), 200, response, new byte[4], NOW));
+        HeaderMap headers = cache.get("/a", new HeaderMap(), NOW).headers;
+        assertEquals("text/css", headers.getFirst(Headers.CONTENT_TYPE));
+        assertEquals("gzip", headers.getFirst(Headers.CONTENT_ENCODING));
+        assertEquals("\"1\"", headers.getFirst(Headers.ETAG));
+        assertNull(headers.getFirst(Headers.CONTENT_LENGTH));
+        assertNull(headers.getFirst(Headers.DATE));
+    }
+
+    @Test
+    public void compress() throws IOException {
+        byte[] content = new byte[4096];
+        Arrays.fill(content, (byte) 'x');
+        for (int level : new int[] { Deflater.DEFAULT_COMPRESSION, Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION }) {
+            byte[] compressed = BufferingGzipStreamSinkConduit.compress(content, level);
+            assertTrue(compressed.length < content.length);
+            assertArrayEquals(content, decompress(compressed));
+        }
+    }
+
+    private static HeaderMap response(String cacheControl) {
+        HeaderMap headers = new HeaderMap();
+        if (cacheControl != null) {
+            headers.put(Headers.CACHE_CONTROL, cacheControl);
+        }
+        return headers;
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[1024];
+            int read = input.read(buffer);
+            while (read >= 0) {
+                result.write(buffer, 0, read);
+                read = input.read(buffer);
+            }
+        }
+        return result.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ProxyBackendTestCase {
+
+    @Test
+    public void ejection() {
+        ProxyBackend backend = new ProxyBackend(URI.create("http://localhost:8080"), null, null, 3, TimeUnit.HOURS.toNanos(1));
+        assertTrue(backend.isHealthy());
+
+        backend.failed();
+        backend.failed();
+        assertTrue(backend.isAvailable(true));
+        // A success resets the consecutive failure count
+        backend.succeeded();
+        backend.checkFailed();
+        backend.failed();
+        assertTrue(backend.isHealthy());
+
+        backend.failed();
+        assertFalse(backend.isHealthy());
+        assertFalse(backend.isAvailable(true));
+        assertFalse(backend.isAvailable(false));
+        assertEquals(1, backend.getEjectionCount());
+        assertEquals(4, backend.getErrorCount());
+
+        backend.succeeded();
+        assertTrue(backend.isHealthy());
+        assertTrue(backend.isAvailable(false));
+    }
+
+    @Test
+    public void passiveRecovery() {
+        ProxyBackend backend = new ProxyBackend(URI.create("ajp://localhost:8009"), null, null, 1, 0);
+        backend.failed();
+        assertFalse(backend.isHealthy());
+        assertTrue(backend.isAvailable(true));
+        assertFalse(backend.isAvailable(false));
+    }
+
+    @Test
+    public void roundRobin() {
+        ProxyBackend a = new ProxyBackend(URI.create("http://a:8080"), "a", null, 1, 0);
+        ProxyBackend b = new ProxyBackend(URI.create("http://b:8080"), "b", null, 1, 0);
+        List<ProxyBackend> backends = Arrays.asList(a, b);
+        AtomicInteger counter = new AtomicInteger(Integer.MAX_VALUE);
+        assertSame(b, BalancingStrategy.ROUND_ROBIN.select(backends, counter));
+        assertSame(a, BalancingStrategy.ROUND_ROBIN.select(backends, counter));
+        assertSame(b, BalancingStrategy.ROUND_ROBIN.select(backends, counter));
+    }
+
+    @Test
+    public void strategyNames() {
+        for (BalancingStrategy strategy : BalancingStrategy.values()) {
+            assertSame(strategy, BalancingStrategy.forName(strategy.toString()));
+        }
+        assertSame(BalancingStrategy.LEAST_OUTSTANDING_REQUESTS, BalancingStrategy.forName("least-outstanding-requests"));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void buckets() {
+        for (int i = 0; i < LatencyHistogram.BUCKETS; ++i) {
+            long lower = LatencyHistogram.lowerBound(i);
+            long upper = LatencyHistogram.upperBound(i);
+            assertEquals(i, LatencyHistogram.index(lower));
+            assertEquals(i, LatencyHistogram.index(upper));
+            if (i > 0) {
+                assertEquals(LatencyHistogram.upperBound(i - 1) + 1, lower);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMean());
+
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500, histogram.getMean());
+        assertWithin(500, histogram.getPercentile(0.5));
+        assertWithin(900, histogram.getPercentile(0.9));
+        assertWithin(990, histogram.getPercentile(0.99));
+        assertEquals(1000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void negative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(String.valueOf(actual), (actual >= expected) && (actual <= expected + expected / 8));
+    }
+}
@@ -23,6 +23,7 @@ package org.jboss.as.web.common;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.Map;
 
 import javax.naming.NamingException;
@@ -33,6 +34,11 @@ import org.jboss.as.naming.ManagedReferenceFactory;
 
 /**
  * The web injection container.
+ * <p>
+ * Instances are tracked so that they can be released by {@link #destroyInstance(Object)}. Instances whose destruction is
+ * expected, such as JSP tag handlers, can be created via {@link #newControlledInstance(Class)} and
+ * {@link #newControlledInstance(Object)}, which track them without creating a weak reference per instance.
+ * Controlled instances that were never destroyed are released by {@link #releaseControlledInstances()}.
  *
  * @author Emanuel Muckenhuber
  */
@@ -41,6 +47,7 @@ public class WebInjectionContainer {
     private final ClassLoader classloader;
     private final ComponentRegistry componentRegistry;
     private final Map<Object, ManagedReference> instanceMap;
+    private final Map<Object, ManagedReference> controlledInstanceMap;
 
     public WebInjectionContainer(ClassLoader classloader, final ComponentRegistry componentRegistry) {
         this.classloader = classloader;
@@ -49,34 +56,76 @@ public class WebInjectionContainer {
                 (256, ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR,
                         Runtime.getRuntime().availableProcessors(), ConcurrentReferenceHashMap.ReferenceType.STRONG,
                         ConcurrentReferenceHashMap.ReferenceType.WEAK, EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
+        this.controlledInstanceMap = new ConcurrentReferenceHashMap<Object, ManagedReference>
+                (256, ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR,
+                        Runtime.getRuntime().availableProcessors(), ConcurrentReferenceHashMap.ReferenceType.STRONG,
+                        ConcurrentReferenceHashMap.ReferenceType.STRONG, EnumSet.of(ConcurrentReferenceHashMap.Option.IDENTITY_COMPARISONS));
     }
 
 
     public void destroyInstance(Object instance) {
-        final ManagedReference reference = instanceMap.remove(instance);
+        ManagedReference reference = controlledInstanceMap.remove(instance);
+        if (reference == null) {
+            reference = instanceMap.remove(instance);
+        }
         if (reference != null) {
             reference.release();
         }
     }
 
+    /**
+     * Releases all controlled instances that were never passed to {@link #destroyInstance(Object)}, e.g. because an exception
+     * prevented their release. Meant to be called once the instances are no longer in use, i.e. when the web application stops.
+     */
+    public void releaseControlledInstances() {
+        Iterator<ManagedReference> references = controlledInstanceMap.values().iterator();
+        while (references.hasNext()) {
+            ManagedReference reference = references.next();
+            references.remove();
+            reference.release();
+        }
+    }
+
     public Object newInstance(String className) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException, ClassNotFoundException {
         return newInstance(classloader.loadClass(className));
     }
 
     public Object newInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
+        return newInstance(clazz, instanceMap);
+    }
+
+    public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
+        newInstance(arg0, instanceMap);
+    }
+
+    /**
+     * Creates an instance that the caller expects to pass to {@link #destroyInstance(Object)}.
+     */
+    public Object newControlledInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
+        return newInstance(clazz, controlledInstanceMap);
+    }
+
+    /**
+     * Injects an instance that the caller expects to pass to {@link #destroyInstance(Object)}.
+     */
+    public void newControlledInstance(Object instance) throws IllegalAccessException, InvocationTargetException, NamingException {
+        newInstance(instance, controlledInstanceMap);
+    }
+
+    private Object newInstance(Class<?> clazz, Map<Object, ManagedReference> instances) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
         final ManagedReferenceFactory factory = componentRegistry.createInstanceFactory(clazz);
         ManagedReference reference = factory.getReference();
         if (reference != null) {
-            instanceMap.put(reference.getInstance(), reference);
+            instances.put(reference.getInstance(), reference);
             return reference.getInstance();
         }
         return clazz.newInstance();
     }
 
-    public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
-        final ManagedReference reference = componentRegistry.createInstance(arg0);
+    private void newInstance(Object instance, Map<Object, ManagedReference> instances) throws IllegalAccessException, InvocationTargetException, NamingException {
+        final ManagedReference reference = componentRegistry.createInstance(instance);
         if (reference != null) {
-            instanceMap.put(arg0, reference);
+            instances.put(instance, reference);
         }
     }
 
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.web.common;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.as.ee.component.ComponentRegistry;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link WebInjectionContainer}.
+ * @author Emanuel Muckenhuber
+ */
+public class WebInjectionContainerTestCase {
+
+    private final ComponentRegistry registry = mock(ComponentRegistry.class);
+    private final WebInjectionContainer container = new WebInjectionContainer(this.getClass().getClassLoader(), this.registry);
+
+    @Test
+    public void newInstance() throws Exception {
+        Object instance = new Object();
+        ManagedReference reference = mock(ManagedReference.class);
+        ManagedReferenceFactory factory = mock(ManagedReferenceFactory.class);
+        when(this.registry.createInstanceFactory(Object.class)).thenReturn(factory);
+        when(factory.getReference()).thenReturn(reference);
+        when(reference.getInstance()).thenReturn(instance);
+
+        assertSame(instance, this.container.newInstance(Object.class));
+        assertSame(instance, this.container.newControlledInstance(Object.class));
+
+        this.container.destroyInstance(instance);
+        this.container.destroyInstance(instance);
+        this.container.destroyInstance(instance);
+        verify(reference, times(2)).release();
+    }
+
+    @Test
+    public void newControlledInstance() throws Exception {
+        Object instance = new Object();
+        ManagedReference reference = mock(ManagedReference.class);
+        when(this.registry.createInstance(instance)).thenReturn(reference);
+
+        this.container.newControlledInstance(instance);
+        this.container.destroyInstance(instance);
+        this.container.destroyInstance(instance);
+        verify(reference).release();
+    }
+
+    @Test
+    public void releaseControlledInstances() throws Exception {
+        Object destroyed = new Object();
+        Object leaked = new Object();
+        ManagedReference destroyedReference = mock(ManagedReference.class);
+        ManagedReference leakedReference = mock(ManagedReference.class);
+        when(this.registry.createInstance(destroyed)).thenReturn(destroyedReference);
+        when(this.registry.createInstance(leaked)).thenReturn(leakedReference);
+
+        this.container.newControlledInstance(destroyed);
+        this.container.newControlledInstance(leaked);
+        this.container.destroyInstance(destroyed);
+
+        this.container.releaseControlledInstances();
+        verify(destroyedReference).release();
+        verify(leakedReference).release();
+
+        // Released instances are no longer tracked
+        this.container.releaseControlledInstances();
+        this.container.destroyInstance(leaked);
+        verify(leakedReference).release();
+    }
+}